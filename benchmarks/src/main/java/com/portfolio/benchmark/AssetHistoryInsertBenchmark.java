@@ -0,0 +1,172 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.entity.ActionType;
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetGroup;
+import com.portfolio.entity.AssetHistory;
+import com.portfolio.entity.AssetType;
+import com.portfolio.entity.CreditCard;
+import com.portfolio.entity.Portfolio;
+import com.portfolio.entity.PortfolioAggregate;
+import com.portfolio.entity.StockCategory;
+import com.portfolio.id.IdBlockAllocator;
+import com.portfolio.repository.AssetHistoryRepositoryCustomImpl;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting {@value #ROWS} PRICE_UPDATE history rows for one asset, in one transaction,
+ * on an in-memory H2 database (MySQL mode):
+ *   identity  — Hibernate persist with IDENTITY ids (the old mapping): one INSERT round trip per row
+ *   pooledLo  — Hibernate persist with the table-backed pooled-lo ids: JDBC batches of batchSize
+ *   jdbcBatch — AssetHistoryRepositoryCustomImpl.batchInsert (the bulk repricing path)
+ *
+ * Rows/s = {@value #ROWS} / score. In-memory H2 has no network round trip, so the gap
+ * against a remote MySQL is larger than shown here.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class AssetHistoryInsertBenchmark {
+
+    static final int ROWS = 100_000;
+
+    private static final String URL = "jdbc:h2:mem:history;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Param({"50"})
+    public int batchSize;
+
+    private SessionFactory sessionFactory;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private AssetHistoryRepositoryCustomImpl historyRepository;
+    private Asset asset;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Portfolio.class)
+                .addAnnotatedClass(PortfolioAggregate.class)
+                .addAnnotatedClass(StockCategory.class)
+                .addAnnotatedClass(Asset.class)
+                .addAnnotatedClass(AssetGroup.class)
+                .addAnnotatedClass(AssetHistory.class)
+                .addAnnotatedClass(CreditCard.class)
+                .addAnnotatedClass(IdentityAssetHistory.class)
+                .setProperty("hibernate.connection.url", URL)
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.hbm2ddl.auto", "create")
+                .setProperty("hibernate.jdbc.batch_size", String.valueOf(batchSize))
+                .setProperty("hibernate.order_inserts", "true")
+                .setProperty("hibernate.id.optimizer.pooled.preferred", "pooled-lo")
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            Portfolio portfolio = new Portfolio();
+            portfolio.setPortfolioName("bench");
+            session.persist(portfolio);
+            asset = new Asset();
+            asset.setPortfolio(portfolio);
+            asset.setAssetName("HIST");
+            asset.setAssetType(AssetType.ETF);
+            asset.setQuantity(BigDecimal.ONE);
+            asset.setBuyPrice(BigDecimal.TEN);
+            asset.setCurrentPrice(BigDecimal.TEN);
+            session.persist(asset);
+        });
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        historyRepository = new AssetHistoryRepositoryCustomImpl(jdbcTemplate,
+                new IdBlockAllocator(jdbcTemplate, transactionManager));
+    }
+
+    @TearDown(Level.Invocation)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE asset_history");
+        jdbcTemplate.execute("TRUNCATE TABLE asset_history_identity");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public void identity() {
+        sessionFactory.inTransaction(session -> {
+            Asset ref = session.getReference(Asset.class, asset.getAssetId());
+            LocalDate today = LocalDate.now();
+            for (int i = 0; i < ROWS; i++) {
+                IdentityAssetHistory h = new IdentityAssetHistory();
+                h.setAsset(ref);
+                h.setActionType(ActionType.PRICE_UPDATE);
+                h.setPriceAtThatTime(price(i));
+                h.setActionDate(today);
+                h.setRemarks("Price changed");
+                session.persist(h);
+                flushEveryBatch(session, i);
+            }
+        });
+    }
+
+    @Benchmark
+    public void pooledLo() {
+        sessionFactory.inTransaction(session -> {
+            Asset ref = session.getReference(Asset.class, asset.getAssetId());
+            LocalDate today = LocalDate.now();
+            for (int i = 0; i < ROWS; i++) {
+                session.persist(history(ref, i, today));
+                flushEveryBatch(session, i);
+            }
+        });
+    }
+
+    @Benchmark
+    public void jdbcBatch() {
+        LocalDate today = LocalDate.now();
+        List<AssetHistory> entries = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            entries.add(history(asset, i, today));
+        }
+        transactionTemplate.executeWithoutResult(status -> historyRepository.batchInsert(entries));
+    }
+
+    private void flushEveryBatch(Session session, int i) {
+        if ((i + 1) % batchSize == 0) {
+            session.flush();
+            session.clear();
+        }
+    }
+
+    private static AssetHistory history(Asset asset, int i, LocalDate today) {
+        AssetHistory h = new AssetHistory();
+        h.setAsset(asset);
+        h.setActionType(ActionType.PRICE_UPDATE);
+        h.setPriceAtThatTime(price(i));
+        h.setActionDate(today);
+        h.setRemarks("Price changed");
+        return h;
+    }
+
+    private static BigDecimal price(int i) {
+        return BigDecimal.valueOf(10_000 + i % 1000, 2);
+    }
+}
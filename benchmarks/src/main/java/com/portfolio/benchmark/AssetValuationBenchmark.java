@@ -0,0 +1,76 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.entity.Asset;
+import com.portfolio.money.AssetValuation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asset derived values (invested, current, absolute and percentage return) for every
+ * asset of a portfolio:
+ *   bigDecimalFormulas — the original BigDecimal expressions, recomputed per value
+ *   fixedPoint         — AssetValuation.of + its four accessors
+ *   entityGetters      — the Asset getters (valuation cached on the entity)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class AssetValuationBenchmark {
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    private List<Asset> assets;
+
+    @Setup
+    public void setUp() {
+        assets = Fixtures.portfolio(size).getAssets();
+    }
+
+    @Benchmark
+    public void bigDecimalFormulas(Blackhole bh) {
+        for (Asset a : assets) {
+            BigDecimal invested = a.getBuyPrice() == null ? BigDecimal.ZERO
+                    : a.getQuantity().multiply(a.getBuyPrice());
+            BigDecimal current = a.getQuantity().multiply(a.getCurrentPrice());
+            BigDecimal absolute = current.subtract(invested);
+            BigDecimal percentage = invested.compareTo(BigDecimal.ZERO) == 0 ? BigDecimal.ZERO
+                    : absolute.divide(invested, 4, RoundingMode.HALF_UP).multiply(HUNDRED);
+            bh.consume(invested);
+            bh.consume(current);
+            bh.consume(absolute);
+            bh.consume(percentage);
+        }
+    }
+
+    @Benchmark
+    public void fixedPoint(Blackhole bh) {
+        for (Asset a : assets) {
+            AssetValuation v = AssetValuation.of(a.getQuantity(), a.getBuyPrice(), a.getCurrentPrice());
+            bh.consume(v.investedValue());
+            bh.consume(v.currentValue());
+            bh.consume(v.absoluteReturn());
+            bh.consume(v.percentageReturn());
+        }
+    }
+
+    @Benchmark
+    public void entityGetters(Blackhole bh) {
+        for (Asset a : assets) {
+            bh.consume(a.getInvestedValue());
+            bh.consume(a.getCurrentValue());
+            bh.consume(a.getAbsoluteReturn());
+            bh.consume(a.getPercentageReturn());
+        }
+    }
+}
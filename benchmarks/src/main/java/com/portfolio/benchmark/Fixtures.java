@@ -0,0 +1,184 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.cube.HoldingsCube;
+import com.portfolio.dto.projection.GroupSummary;
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetGroup;
+import com.portfolio.entity.AssetType;
+import com.portfolio.entity.Portfolio;
+import com.portfolio.entity.StockCategory;
+
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic in-memory portfolios for the benchmarks.
+ *
+ * All assets belong to one portfolio. STOCK assets get one of {@link #CATEGORY_COUNT}
+ * categories; every asset is a member of one or two groups out of
+ * {@code max(1, size / ASSETS_PER_GROUP)}. Values are generated at the column scales
+ * (quantity 4, prices 2) so they look exactly like rows loaded from the database.
+ */
+public final class Fixtures {
+
+    public static final int CATEGORY_COUNT = 16;
+    public static final int ASSETS_PER_GROUP = 100;
+
+    private static final AssetType[] TYPES = AssetType.values();
+
+    private Fixtures() {
+    }
+
+    /** A portfolio of {@code size} assets; roughly 1 in 20 is a wishlist item. */
+    public static Portfolio portfolio(int size) {
+        Random random = new Random(42);
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setPortfolioId(1L);
+        portfolio.setPortfolioName("Benchmark");
+        portfolio.setCreatedDate(LocalDate.of(2024, 1, 1));
+
+        List<StockCategory> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORY_COUNT; i++) {
+            StockCategory c = new StockCategory();
+            c.setCategoryId((long) i + 1);
+            c.setCategoryName("Category " + (i + 1));
+            categories.add(c);
+        }
+
+        List<AssetGroup> groups = new ArrayList<>();
+        for (int i = 0, n = Math.max(1, size / ASSETS_PER_GROUP); i < n; i++) {
+            AssetGroup g = new AssetGroup();
+            g.setGroupId((long) i + 1);
+            g.setGroupName("Group " + (i + 1));
+            g.setCreatedDate(LocalDate.of(2024, 1, 1));
+            g.setAssets(identitySet());
+            groups.add(g);
+        }
+
+        for (int i = 0; i < size; i++) {
+            Asset a = new Asset();
+            a.setAssetId((long) i + 1);
+            a.setPortfolio(portfolio);
+            a.setAssetName("Asset " + (i + 1));
+            a.setAssetType(TYPES[i % TYPES.length]);
+            a.setQuantity(BigDecimal.valueOf(1 + random.nextInt(5_000_000), 4));
+            a.setCurrentPrice(BigDecimal.valueOf(100 + random.nextInt(1_000_000), 2));
+            a.setWishlist(random.nextInt(20) == 0);
+            if (!a.isWishlist()) {
+                a.setBuyPrice(BigDecimal.valueOf(100 + random.nextInt(1_000_000), 2));
+            }
+            if (a.getAssetType() == AssetType.STOCK) {
+                a.setStockCategory(categories.get(random.nextInt(CATEGORY_COUNT)));
+            }
+
+            // identity sets: entity equals/hashCode are not needed (and not cheap) here
+            a.setGroups(identitySet());
+            int memberships = 1 + random.nextInt(2);
+            for (int m = 0; m < memberships; m++) {
+                AssetGroup g = groups.get(random.nextInt(groups.size()));
+                g.getAssets().add(a);
+                a.getGroups().add(g);
+            }
+            portfolio.getAssets().add(a);
+        }
+        return portfolio;
+    }
+
+    /** Every distinct group referenced by the portfolio's assets. */
+    public static List<AssetGroup> groups(Portfolio portfolio) {
+        Set<AssetGroup> seen = identitySet();
+        List<AssetGroup> groups = new ArrayList<>();
+        for (Asset a : portfolio.getAssets()) {
+            for (AssetGroup g : a.getGroups()) {
+                if (seen.add(g)) groups.add(g);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * What the group summary query returns for each of the portfolio's groups: member
+     * count, holding count and holding totals, summed here the way the query sums them.
+     */
+    public static List<GroupSummary> groupSummaries(Portfolio portfolio) {
+        List<GroupSummary> summaries = new ArrayList<>();
+        for (AssetGroup g : groups(portfolio)) {
+            long holdings = 0;
+            BigDecimal invested = BigDecimal.ZERO;
+            BigDecimal current = BigDecimal.ZERO;
+            for (Asset a : g.getAssets()) {
+                if (a.isWishlist()) continue;
+                holdings++;
+                invested = invested.add(a.getQuantity().multiply(a.getBuyPrice()));
+                current = current.add(a.getQuantity().multiply(a.getCurrentPrice()));
+            }
+            summaries.add(new Summary(g.getGroupId(), g.getGroupName(), g.getDescription(), g.getCreatedDate(),
+                    (long) g.getAssets().size(), holdings, invested, current));
+        }
+        return summaries;
+    }
+
+    /**
+     * A {@link HoldingsCube} holding the given assets and their group memberships, loaded
+     * through its change hooks (no database, no transaction: changes apply immediately).
+     */
+    public static HoldingsCube cube(List<Asset> assets) {
+        HoldingsCube cube = newService(HoldingsCube.class);
+        for (Asset a : assets) {
+            cube.assetSaved(a);
+            for (AssetGroup g : a.getGroups()) {
+                cube.memberAdded(g.getGroupId(), a.getAssetId());
+            }
+        }
+        return cube;
+    }
+
+    /**
+     * Instantiates a Spring service through its (single, Lombok-generated) constructor.
+     * Each parameter receives the first collaborator assignable to it, or null.
+     */
+    public static <T> T newService(Class<T> type, Object... collaborators) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructors()[0];
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
+            Object[] args = new Object[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                for (Object c : collaborators) {
+                    if (parameterTypes[i].isInstance(c)) {
+                        args[i] = c;
+                        break;
+                    }
+                }
+            }
+            constructor.setAccessible(true);
+            return type.cast(constructor.newInstance(args));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot construct " + type.getName(), e);
+        }
+    }
+
+    private record Summary(Long groupId, String groupName, String description, LocalDate createdDate,
+                           Long assetCount, Long holdingCount, BigDecimal totalInvested,
+                           BigDecimal currentValue) implements GroupSummary {
+        @Override public Long getGroupId() { return groupId; }
+        @Override public String getGroupName() { return groupName; }
+        @Override public String getDescription() { return description; }
+        @Override public LocalDate getCreatedDate() { return createdDate; }
+        @Override public Long getAssetCount() { return assetCount; }
+        @Override public Long getHoldingCount() { return holdingCount; }
+        @Override public BigDecimal getTotalInvested() { return totalInvested; }
+        @Override public BigDecimal getCurrentValue() { return currentValue; }
+    }
+
+    private static <E> Set<E> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
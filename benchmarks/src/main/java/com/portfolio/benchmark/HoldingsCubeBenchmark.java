@@ -0,0 +1,97 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.cube.CubeCell;
+import com.portfolio.cube.CubeDimension;
+import com.portfolio.cube.CubeQuery;
+import com.portfolio.cube.HoldingsCube;
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetType;
+import com.portfolio.entity.Portfolio;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HoldingsCube} rollups over {@code size} assets spread round-robin over
+ * {@value #PORTFOLIOS} portfolios:
+ *   byPortfolioAndType       — answered from each segment's maintained per-type totals
+ *   byCategory               — full column scan, holding stocks only
+ *   byGroup                  — full column scan, each holding counted once per group
+ *   byPortfolioTypeCategory  — full column scan into a three-dimensional cell grid
+ *   drillDownGroupByCategory — one group of one portfolio, broken down by type and category
+ *   repriceOne               — the incremental refresh after one price change
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class HoldingsCubeBenchmark {
+
+    static final int PORTFOLIOS = 10;
+
+    private static final CubeQuery BY_PORTFOLIO_AND_TYPE = CubeQuery.builder()
+            .by(Set.of(CubeDimension.PORTFOLIO, CubeDimension.ASSET_TYPE)).build();
+    private static final CubeQuery BY_CATEGORY = CubeQuery.builder()
+            .by(Set.of(CubeDimension.CATEGORY)).assetTypes(Set.of(AssetType.STOCK)).build();
+    private static final CubeQuery BY_GROUP = CubeQuery.builder()
+            .by(Set.of(CubeDimension.GROUP)).build();
+    private static final CubeQuery BY_PORTFOLIO_TYPE_CATEGORY = CubeQuery.builder()
+            .by(Set.of(CubeDimension.PORTFOLIO, CubeDimension.ASSET_TYPE, CubeDimension.CATEGORY)).build();
+    private static final CubeQuery DRILL_DOWN = CubeQuery.builder()
+            .by(Set.of(CubeDimension.ASSET_TYPE, CubeDimension.CATEGORY))
+            .portfolioIds(Set.of(1L)).groupIds(Set.of(1L)).build();
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private HoldingsCube cube;
+    private long repriced;
+
+    @Setup
+    public void setUp() {
+        List<Asset> assets = Fixtures.portfolio(size).getAssets();
+        for (int i = 0; i < assets.size(); i++) {
+            Portfolio p = new Portfolio();
+            p.setPortfolioId((long) (i % PORTFOLIOS) + 1);
+            assets.get(i).setPortfolio(p);
+        }
+        cube = Fixtures.cube(assets);
+    }
+
+    @Benchmark
+    public List<CubeCell> byPortfolioAndType() {
+        return cube.rollup(BY_PORTFOLIO_AND_TYPE);
+    }
+
+    @Benchmark
+    public List<CubeCell> byCategory() {
+        return cube.rollup(BY_CATEGORY);
+    }
+
+    @Benchmark
+    public List<CubeCell> byGroup() {
+        return cube.rollup(BY_GROUP);
+    }
+
+    @Benchmark
+    public List<CubeCell> byPortfolioTypeCategory() {
+        return cube.rollup(BY_PORTFOLIO_TYPE_CATEGORY);
+    }
+
+    @Benchmark
+    public List<CubeCell> drillDownGroupByCategory() {
+        return cube.rollup(DRILL_DOWN);
+    }
+
+    @Benchmark
+    public void repriceOne() {
+        long assetId = repriced++ % size + 1;
+        cube.pricesChanged(Map.of(assetId, BigDecimal.valueOf(100 + assetId % 1000, 2)));
+    }
+}
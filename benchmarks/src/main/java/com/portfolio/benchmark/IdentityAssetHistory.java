@@ -0,0 +1,46 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.entity.ActionType;
+import com.portfolio.entity.Asset;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * {@link com.portfolio.entity.AssetHistory} as it was mapped before pooled-lo IDs —
+ * IDENTITY generation, same columns — so the "before" insert path can still be measured.
+ */
+@Entity
+@Table(name = "asset_history_identity")
+@Data
+@NoArgsConstructor
+public class IdentityAssetHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "history_id")
+    private Long historyId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "asset_id", nullable = false)
+    private Asset asset;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action_type", nullable = false, length = 20)
+    private ActionType actionType;
+
+    @Column(name = "quantity_changed", precision = 15, scale = 4)
+    private BigDecimal quantityChanged;
+
+    @Column(name = "price_at_that_time", precision = 15, scale = 2)
+    private BigDecimal priceAtThatTime;
+
+    @Column(name = "action_date", nullable = false)
+    private LocalDate actionDate;
+
+    @Column(name = "remarks", length = 500)
+    private String remarks;
+}
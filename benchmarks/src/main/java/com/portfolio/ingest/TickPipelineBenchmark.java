@@ -0,0 +1,62 @@
+package com.portfolio.ingest;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tick cost of the ingestion hot path on one thread, over a 64 KB read buffer of
+ * {@code "<assetId>,<price>\n"} lines spread over {@code assets} asset IDs:
+ *   parse          — {@link TickParser} only
+ *   parseRingDrain — parse, offer to the {@link TickRing}, drain into the {@link TickCoalescer}
+ * Reported per tick (1 / score = ticks per second per core).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class TickPipelineBenchmark {
+
+    private static final int LINES = 5000;
+
+    @Param({"1000", "100000"})
+    public int assets;
+
+    private byte[] buffer;
+    private TickParser parser;
+    private TickRing ring;
+    private TickCoalescer coalescer;
+    private long sum;
+
+    @Setup
+    public void setUp() {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            long assetId = 1 + (i * 7919L) % assets;
+            lines.append(assetId).append(',').append(100 + i % 900).append('.').append(10 + i % 90).append('\n');
+        }
+        buffer = lines.toString().getBytes(StandardCharsets.US_ASCII);
+        parser = new TickParser();
+        ring = new TickRing(1 << 16);
+        coalescer = new TickCoalescer(assets);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public long parse() {
+        sum = 0;
+        parser.parse(buffer, 0, buffer.length, (assetId, priceCents) -> sum += priceCents);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public int parseRingDrain() {
+        parser.parse(buffer, 0, buffer.length, (assetId, priceCents) -> ring.offer(assetId, priceCents, 0));
+        ring.drain(coalescer::put, LINES);
+        return coalescer.size();
+    }
+}
@@ -0,0 +1,87 @@
+package com.portfolio.service;
+
+import com.portfolio.benchmark.Fixtures;
+import com.portfolio.dto.projection.GroupSummary;
+import com.portfolio.dto.response.ApiResponse;
+import com.portfolio.dto.response.AssetGroupResponse;
+import com.portfolio.dto.response.AssetResponse;
+import com.portfolio.entity.Asset;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DTO mapping and JSON serialization of list endpoints:
+ *   assetMapToResponse — {@link AssetService#mapToResponse} for every asset
+ *   groupMapToResponse — {@link AssetGroupService#mapToResponse} for every group summary,
+ *                        as GET /asset-groups does with the rows of the summary query
+ *   serializeAssetList — Jackson writing ApiResponse&lt;List&lt;AssetResponse&gt;&gt; for the
+ *                        whole portfolio to a discarding stream
+ *   serializeGroupList — the same for ApiResponse&lt;List&lt;AssetGroupResponse&gt;&gt;
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    private AssetService assetService;
+    private AssetGroupService assetGroupService;
+    private List<Asset> assets;
+    private List<GroupSummary> groupSummaries;
+    private ApiResponse<List<AssetResponse>> assetListResponse;
+    private ApiResponse<List<AssetGroupResponse>> groupListResponse;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        var portfolio = Fixtures.portfolio(size);
+        assets = portfolio.getAssets();
+        groupSummaries = Fixtures.groupSummaries(portfolio);
+
+        assetService = Fixtures.newService(AssetService.class);
+        assetGroupService = Fixtures.newService(AssetGroupService.class, assetService);
+
+        assetListResponse = ApiResponse.success("Assets retrieved successfully",
+                assets.stream().map(assetService::mapToResponse).toList());
+        groupListResponse = ApiResponse.success("Asset groups retrieved successfully",
+                groupSummaries.stream().map(assetGroupService::mapToResponse).toList());
+        // same configuration Spring Boot applies to its ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public void assetMapToResponse(Blackhole bh) {
+        for (Asset a : assets) {
+            bh.consume(assetService.mapToResponse(a));
+        }
+    }
+
+    @Benchmark
+    public void groupMapToResponse(Blackhole bh) {
+        for (GroupSummary g : groupSummaries) {
+            bh.consume(assetGroupService.mapToResponse(g));
+        }
+    }
+
+    @Benchmark
+    public void serializeAssetList() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), assetListResponse);
+    }
+
+    @Benchmark
+    public void serializeGroupList() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), groupListResponse);
+    }
+}
@@ -0,0 +1,121 @@
+package com.portfolio.service;
+
+import com.portfolio.benchmark.Fixtures;
+import com.portfolio.cube.CubeCell;
+import com.portfolio.cube.CubeDimension;
+import com.portfolio.cube.CubeQuery;
+import com.portfolio.cube.HoldingsCube;
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetGroup;
+import com.portfolio.entity.AssetType;
+import com.portfolio.entity.Portfolio;
+import com.portfolio.entity.StockCategory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group and category performance:
+ *   groupFromCube        — {@link HoldingsCube} rollup by group + {@link AssetGroupService#buildPerformance}
+ *   groupSumInMemory     — summing every member of every group entity in the JVM first
+ *   categoryFromCube     — rollup of holding stocks by category + {@link StockCategoryService#calcPerformance}
+ *   categorySumInMemory  — summing every holding stock entity in the JVM first
+ *
+ * The number of groups grows with the portfolio (one per {@value Fixtures#ASSETS_PER_GROUP}
+ * assets); the number of categories is fixed at {@value Fixtures#CATEGORY_COUNT}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class PerformanceBenchmark {
+
+    private static final CubeQuery BY_GROUP = CubeQuery.builder()
+            .by(Set.of(CubeDimension.GROUP)).build();
+    private static final CubeQuery STOCKS_BY_CATEGORY = CubeQuery.builder()
+            .by(Set.of(CubeDimension.CATEGORY)).assetTypes(Set.of(AssetType.STOCK)).build();
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    private AssetGroupService assetGroupService;
+    private StockCategoryService stockCategoryService;
+    private HoldingsCube cube;
+    private Portfolio portfolio;
+    private List<AssetGroup> groups;
+    private Map<Long, String> groupNames;
+    private Map<Long, StockCategory> categories;
+
+    @Setup
+    public void setUp() {
+        portfolio = Fixtures.portfolio(size);
+        groups = Fixtures.groups(portfolio);
+        cube = Fixtures.cube(portfolio.getAssets());
+
+        groupNames = new HashMap<>();
+        groups.forEach(g -> groupNames.put(g.getGroupId(), g.getGroupName()));
+        categories = new HashMap<>();
+        portfolio.getAssets().stream()
+                .filter(a -> a.getStockCategory() != null)
+                .forEach(a -> categories.put(a.getStockCategory().getCategoryId(), a.getStockCategory()));
+
+        assetGroupService = Fixtures.newService(AssetGroupService.class);
+        stockCategoryService = Fixtures.newService(StockCategoryService.class);
+    }
+
+    @Benchmark
+    public void groupFromCube(Blackhole bh) {
+        for (CubeCell cell : cube.rollup(BY_GROUP)) {
+            bh.consume(assetGroupService.buildPerformance(cell.groupId(), groupNames.get(cell.groupId()), cell));
+        }
+    }
+
+    @Benchmark
+    public void groupSumInMemory(Blackhole bh) {
+        for (AssetGroup g : groups) {
+            long count = 0;
+            BigDecimal invested = BigDecimal.ZERO;
+            BigDecimal current = BigDecimal.ZERO;
+            for (Asset a : g.getAssets()) {
+                if (a.isWishlist()) continue;
+                count++;
+                invested = invested.add(a.getInvestedValue());
+                current = current.add(a.getCurrentValue());
+            }
+            if (count == 0) continue;
+            CubeCell cell = new CubeCell(null, null, null, g.getGroupId(), count, invested, current);
+            bh.consume(assetGroupService.buildPerformance(g.getGroupId(), g.getGroupName(), cell));
+        }
+    }
+
+    @Benchmark
+    public void categoryFromCube(Blackhole bh) {
+        for (CubeCell cell : cube.rollup(STOCKS_BY_CATEGORY)) {
+            if (cell.categoryId() == null) continue;
+            bh.consume(stockCategoryService.calcPerformance(categories.get(cell.categoryId()), cell));
+        }
+    }
+
+    @Benchmark
+    public void categorySumInMemory(Blackhole bh) {
+        Map<Long, CubeCell> byCategory = new HashMap<>();
+        for (Asset a : portfolio.getAssets()) {
+            if (a.isWishlist() || a.getStockCategory() == null) continue;
+            Long id = a.getStockCategory().getCategoryId();
+            CubeCell one = new CubeCell(null, null, id, null, 1, a.getInvestedValue(), a.getCurrentValue());
+            byCategory.merge(id, one, (x, y) -> new CubeCell(null, null, id, null, x.holdingCount() + 1,
+                    x.totalInvested().add(y.totalInvested()), x.currentValue().add(y.currentValue())));
+        }
+        for (CubeCell cell : byCategory.values()) {
+            bh.consume(stockCategoryService.calcPerformance(categories.get(cell.categoryId()), cell));
+        }
+    }
+}
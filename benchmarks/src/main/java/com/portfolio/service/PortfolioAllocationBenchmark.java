@@ -0,0 +1,63 @@
+package com.portfolio.service;
+
+import com.portfolio.benchmark.Fixtures;
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetType;
+import com.portfolio.entity.PortfolioAggregate;
+import com.portfolio.money.AssetValuation;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PortfolioService#calculateAssetAllocation}:
+ *   fromAggregate — what GET /portfolios/{id}/summary does (reads the maintained totals)
+ *   fromHoldings  — folds every holding into a fresh aggregate first (rebuild cost)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class PortfolioAllocationBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    private PortfolioService portfolioService;
+    private List<Asset> assets;
+    private PortfolioAggregate aggregate;
+
+    @Setup
+    public void setUp() {
+        portfolioService = Fixtures.newService(PortfolioService.class);
+        assets = Fixtures.portfolio(size).getAssets();
+        aggregate = aggregate(assets);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> fromAggregate() {
+        return portfolioService.calculateAssetAllocation(aggregate.getTypeValues(), aggregate.getCurrentValue());
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> fromHoldings() {
+        PortfolioAggregate rebuilt = aggregate(assets);
+        return portfolioService.calculateAssetAllocation(rebuilt.getTypeValues(), rebuilt.getCurrentValue());
+    }
+
+    private static PortfolioAggregate aggregate(List<Asset> assets) {
+        PortfolioAggregate aggregate = new PortfolioAggregate(1L);
+        for (Asset a : assets) {
+            if (a.isWishlist()) continue;
+            AssetValuation v = a.valuation();
+            AssetType type = a.getAssetType();
+            aggregate.apply(type, v.investedValue(), v.currentValue());
+        }
+        return aggregate;
+    }
+}
@@ -1,8 +1,9 @@
 import React from 'react'
 import { LineChart, Line, XAxis, YAxis, CartesianGrid, Tooltip, Legend, ResponsiveContainer } from 'recharts'
 
-const AssetHistoryChart = ({ historyData }) => {
-  if (!historyData || historyData.length === 0) {
+// priceData: OHLC buckets from GET /assets/{id}/prices
+const AssetHistoryChart = ({ priceData }) => {
+  if (!priceData || priceData.length === 0) {
     return (
       <div style={{ textAlign: 'center', padding: '40px', color: '#6b7280' }}>
         No history data available
@@ -11,19 +12,21 @@ const AssetHistoryChart = ({ historyData }) => {
   }
 
   // Transform data for chart
-  const chartData = historyData.map((item) => ({
-    date: new Date(item.actionDate).toLocaleDateString('en-US', {
+  const chartData = priceData.map((item) => ({
+    date: new Date(item.bucketStart).toLocaleDateString('en-US', {
       month: 'short',
       day: 'numeric',
     }),
-    fullDate: new Date(item.actionDate).toLocaleDateString('en-US', {
+    fullDate: new Date(item.bucketStart).toLocaleDateString('en-US', {
       year: 'numeric',
       month: 'long',
       day: 'numeric',
     }),
-    price: parseFloat(item.priceAtThatTime || 0),
-    quantity: parseFloat(item.quantityChanged || 0),
-    action: item.actionType,
+    price: parseFloat(item.close || 0),
+    high: parseFloat(item.high || 0),
+    low: parseFloat(item.low || 0),
+    quantity: parseFloat(item.quantityChange || 0),
+    updates: item.updates,
   }))
 
   const CustomTooltip = ({ active, payload, label }) => {
@@ -42,10 +45,13 @@ const AssetHistoryChart = ({ historyData }) => {
             {payload[0].payload.fullDate}
           </p>
           <p style={{ margin: '4px 0', color: '#3b82f6' }}>
-            Action: <strong>{payload[0].payload.action}</strong>
+            Updates: <strong>{payload[0].payload.updates}</strong>
           </p>
           <p style={{ margin: '4px 0', color: '#10b981' }}>
-            Price: <strong>${payload[0].value.toFixed(2)}</strong>
+            Close: <strong>${payload[0].value.toFixed(2)}</strong>
+          </p>
+          <p style={{ margin: '4px 0', color: '#6b7280' }}>
+            High / Low: <strong>${payload[0].payload.high.toFixed(2)} / ${payload[0].payload.low.toFixed(2)}</strong>
           </p>
           {payload[0].payload.quantity !== 0 && (
             <p style={{ margin: '4px 0', color: '#f59e0b' }}>
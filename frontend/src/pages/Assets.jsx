@@ -21,6 +21,7 @@ const Assets = () => {
   const [isGroupModalOpen, setIsGroupModalOpen] = useState(false)
   const [selectedAsset, setSelectedAsset] = useState(null)
   const [assetHistory, setAssetHistory] = useState([])
+  const [priceSeries, setPriceSeries] = useState([])
   const [assetGroups, setAssetGroups] = useState([])
   const [selectedGroupIds, setSelectedGroupIds] = useState([])
 
@@ -50,14 +51,13 @@ const Assets = () => {
   const loadAssets = async () => {
     try {
       setLoading(true)
-      const [assetsRes, wishlistRes] = await Promise.all([
+      const [allAssets, wishlistAssets] = await Promise.all([
         assetAPI.getAll(portfolioId),
         assetAPI.getWishlist(portfolioId),
       ])
 
-      const allAssets = assetsRes.data.data || []
-      setAssets(allAssets.filter(a => !a.isWishlist))
-      setWishlist(allAssets.filter(a => a.isWishlist))
+      setAssets(allAssets.filter(a => !a.wishlist))
+      setWishlist(wishlistAssets)
     } catch (error) {
       toast.error('Failed to load assets')
     } finally {
@@ -76,8 +76,12 @@ const Assets = () => {
 
   const loadAssetHistory = async (assetId) => {
     try {
-      const response = await assetAPI.getHistory(assetId)
-      setAssetHistory(response.data.data || [])
+      const [historyResponse, pricesResponse] = await Promise.all([
+        assetAPI.getHistory(assetId, { limit: 50 }),
+        assetAPI.getPrices(assetId, { interval: 'day' }),
+      ])
+      setAssetHistory(historyResponse.data.data?.items || [])
+      setPriceSeries(pricesResponse.data.data || [])
     } catch (error) {
       toast.error('Failed to load asset history')
       console.error(error)
@@ -522,7 +526,7 @@ const Assets = () => {
         title={`Price History - ${selectedAsset?.assetName}`}
       >
         <div style={{ marginBottom: '20px' }}>
-          <AssetHistoryChart historyData={assetHistory} />
+          <AssetHistoryChart priceData={priceSeries} />
         </div>
 
         {assetHistory.length > 0 && (
@@ -27,7 +27,7 @@ const Dashboard = () => {
     try {
       setLoading(true)
 
-      const [summaryRes, assetsRes, groupsRes, alertsRes] = await Promise.all([
+      const [summaryRes, allAssets, groupsRes, alertsRes] = await Promise.all([
         portfolioAPI.getSummary(selectedPortfolio.portfolioId),
         assetAPI.getAll(selectedPortfolio.portfolioId),
         assetGroupAPI.getAllPerformance(selectedPortfolio.portfolioId),
@@ -35,7 +35,7 @@ const Dashboard = () => {
       ])
 
       setSummary(summaryRes.data.data)
-      setAssets(assetsRes.data.data || [])
+      setAssets(allAssets)
       setGroupPerformance(groupsRes.data.data || [])
       setAlerts(alertsRes.data.data || [])
     } catch (error) {
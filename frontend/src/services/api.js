@@ -27,13 +27,29 @@ export const portfolioAPI = {
   delete: (id) => api.delete(`/portfolios/${id}`),
 }
 
+// Paginated listings return { items, nextCursor, hasMore }; follows nextCursor to the last page
+const PAGE_LIMIT = 500
+
+const getAllPages = async (url, params = {}) => {
+  const items = []
+  let cursor
+  do {
+    const response = await api.get(url, { params: { ...params, limit: PAGE_LIMIT, cursor } })
+    const page = response.data.data
+    items.push(...(page?.items || []))
+    cursor = page?.hasMore ? page.nextCursor : undefined
+  } while (cursor)
+  return items
+}
+
 // Asset APIs
 export const assetAPI = {
-  getAll: (portfolioId) => api.get(`/portfolios/${portfolioId}/assets`),
-  getWishlist: (portfolioId) => api.get(`/portfolios/${portfolioId}/wishlist`),
+  getAll: (portfolioId, params) => getAllPages(`/portfolios/${portfolioId}/assets`, params),
+  getWishlist: (portfolioId, params) => getAllPages(`/portfolios/${portfolioId}/wishlist`, params),
   getById: (id) => api.get(`/assets/${id}`),
   getPerformance: (id) => api.get(`/assets/${id}/performance`),
-  getHistory: (id) => api.get(`/assets/${id}/history`),
+  getHistory: (id, params) => api.get(`/assets/${id}/history`, { params }),
+  getPrices: (id, params) => api.get(`/assets/${id}/prices`, { params }),
   create: (portfolioId, data) => api.post(`/portfolios/${portfolioId}/assets`, data),
   update: (id, data) => api.put(`/assets/${id}`, data),
   buy: (id, data) => api.post(`/assets/${id}/buy`, data),
@@ -2,6 +2,7 @@ package com.portfolio;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main Spring Boot Application class for Portfolio Management System.
@@ -18,6 +19,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * - Asset allocation analysis
  */
 @SpringBootApplication
+@EnableScheduling
 public class PortfolioManagementApplication {
 
     public static void main(String[] args) {
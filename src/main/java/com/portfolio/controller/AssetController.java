@@ -1,42 +1,67 @@
 package com.portfolio.controller;
 
 import com.portfolio.dto.request.AssetBuyRequest;
+import com.portfolio.dto.request.AssetPageRequest;
+import com.portfolio.dto.request.AssetGroupBulkReplaceRequest;
 import com.portfolio.dto.request.AssetGroupMemberRequest;
 import com.portfolio.dto.request.AssetRequest;
 import com.portfolio.dto.request.AssetUpdateRequest;
+import com.portfolio.dto.request.HistoryPageRequest;
+import com.portfolio.dto.request.PriceSeriesRequest;
 import com.portfolio.dto.response.ApiResponse;
+import com.portfolio.dto.response.AssetGroupBulkMembershipResponse;
+import com.portfolio.dto.response.AssetGroupMembershipResponse;
 import com.portfolio.dto.response.AssetGroupResponse;
+import com.portfolio.dto.response.AssetImportResponse;
 import com.portfolio.dto.response.AssetHistoryResponse;
 import com.portfolio.dto.response.AssetPerformanceResponse;
 import com.portfolio.dto.response.AssetResponse;
+import com.portfolio.dto.response.CursorPageResponse;
+import com.portfolio.dto.response.PriceBarResponse;
 import com.portfolio.service.AssetGroupService;
 import com.portfolio.service.AssetHistoryService;
+import com.portfolio.service.AssetImportService;
 import com.portfolio.service.AssetService;
+import com.portfolio.service.PriceBarService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
  * Spec routes implemented here:
  *
  *   POST   /portfolios/{portfolioId}/assets          — create asset
- *   GET    /portfolios/{portfolioId}/assets          — all assets
- *   GET    /portfolios/{portfolioId}/wishlist        — wishlist only
+ *   POST   /portfolios/{portfolioId}/assets/import   — bulk create (CSV or NDJSON body)
+ *   GET    /portfolios/{portfolioId}/assets          — all assets (keyset-paginated)
+ *   GET    /portfolios/{portfolioId}/wishlist        — wishlist only (keyset-paginated)
  *   GET    /assets/{assetId}                         — single asset
  *   PUT    /assets/{assetId}                         — update asset
  *   DELETE /assets/{assetId}                         — delete asset
  *   POST   /assets/{assetId}/buy                    — wishlist → holding
- *   GET    /assets/{assetId}/history                 — audit trail
+ *   GET    /assets/{assetId}/history                 — audit trail (one page, newest first)
+ *   GET    /assets/{assetId}/prices                  — OHLC price series (day|week|month buckets)
  *   GET    /assets/{assetId}/performance             — individual performance
- *   POST   /assets/{assetId}/groups                  — add groups
- *   PUT    /assets/{assetId}/groups                  — replace groups
- *   DELETE /assets/{assetId}/groups/{groupId}        — remove one group
- *   GET    /assets/{assetId}/groups                  — list groups
+ *   POST   /assets/{assetId}/groups                  — add groups       (returns changed group IDs)
+ *   PUT    /assets/{assetId}/groups                  — replace groups   (returns changed group IDs)
+ *   DELETE /assets/{assetId}/groups/{groupId}        — remove one group (returns changed group IDs)
+ *   GET    /assets/{assetId}/groups                  — list groups (summaries)
+ *   PUT    /assets/groups                            — replace groups of many assets (returns counts)
+ *
+ * Listings take ?assetType=&categoryId=&groupId=&sort=ID|NAME|CURRENT_VALUE|PERCENTAGE_RETURN
+ * &direction=ASC|DESC&limit=(1-500, default 50)&cursor=(nextCursor of the previous page).
+ * History takes ?from=&to=(yyyy-MM-dd, inclusive)&actionType=BUY,SELL,...&limit=(1-1000, default 100)
+ * &cursor=(nextCursor of the previous page).
+ * Prices take ?interval=day|week|month&from=&to=(yyyy-MM-dd); day buckets are only kept for
+ * a limited retention (portfolio.price-bars.day-retention-days).
  */
 @RestController
 @RequiredArgsConstructor
@@ -46,6 +71,8 @@ public class AssetController {
     private final AssetService assetService;
     private final AssetHistoryService assetHistoryService;
     private final AssetGroupService assetGroupService;
+    private final AssetImportService assetImportService;
+    private final PriceBarService priceBarService;
 
 
     // CREATE  (nested under portfolio)
@@ -58,19 +85,34 @@ public class AssetController {
                         assetService.createAsset(portfolioId, request)));
     }
 
+    // BULK IMPORT  (body is streamed, not buffered)
+    @PostMapping(value = "/portfolios/{portfolioId}/assets/import",
+                 consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<AssetImportResponse>> importAssets(
+            @PathVariable Long portfolioId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        AssetImportService.Format format = contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? AssetImportService.Format.NDJSON : AssetImportService.Format.CSV;
+        return ResponseEntity.ok(ApiResponse.success("Asset import processed",
+                assetImportService.importAssets(portfolioId, format, body)));
+    }
+
     // LIST  (nested under portfolio)
     @GetMapping("/portfolios/{portfolioId}/assets")
-    public ResponseEntity<ApiResponse<List<AssetResponse>>> getPortfolioAssets(
-            @PathVariable Long portfolioId) {
+    public ResponseEntity<ApiResponse<CursorPageResponse<AssetResponse>>> getPortfolioAssets(
+            @PathVariable Long portfolioId,
+            @Valid AssetPageRequest page) {
         return ResponseEntity.ok(ApiResponse.success("Assets retrieved successfully",
-                assetService.getPortfolioAssets(portfolioId)));
+                assetService.getPortfolioAssets(portfolioId, page)));
     }
 
     @GetMapping("/portfolios/{portfolioId}/wishlist")
-    public ResponseEntity<ApiResponse<List<AssetResponse>>> getWishlist(
-            @PathVariable Long portfolioId) {
+    public ResponseEntity<ApiResponse<CursorPageResponse<AssetResponse>>> getWishlist(
+            @PathVariable Long portfolioId,
+            @Valid AssetPageRequest page) {
         return ResponseEntity.ok(ApiResponse.success("Wishlist retrieved successfully",
-                assetService.getWishlistAssets(portfolioId)));
+                assetService.getWishlistAssets(portfolioId, page)));
     }
 
     // SINGLE ASSET
@@ -106,14 +148,24 @@ public class AssetController {
 
     // HISTORY
     @GetMapping("/assets/{assetId}/history")
-    public ResponseEntity<ApiResponse<List<AssetHistoryResponse>>> getAssetHistory(
-            @PathVariable Long assetId) {
+    public ResponseEntity<ApiResponse<CursorPageResponse<AssetHistoryResponse>>> getAssetHistory(
+            @PathVariable Long assetId,
+            @Valid HistoryPageRequest page) {
         // validate asset exists
         assetService.findAssetById(assetId);
         return ResponseEntity.ok(ApiResponse.success("Asset history retrieved successfully",
-                assetHistoryService.getHistory(assetId)));
+                assetHistoryService.getHistory(assetId, page)));
     }
 
+    @GetMapping("/assets/{assetId}/prices")
+    public ResponseEntity<ApiResponse<List<PriceBarResponse>>> getAssetPrices(
+            @PathVariable Long assetId,
+            @Valid PriceSeriesRequest request) {
+        // validate asset exists
+        assetService.findAssetById(assetId);
+        return ResponseEntity.ok(ApiResponse.success("Asset prices retrieved successfully",
+                priceBarService.getPriceSeries(assetId, request)));
+    }
 
     // PERFORMANCE
     @GetMapping("/assets/{assetId}/performance")
@@ -125,7 +177,7 @@ public class AssetController {
 
     // ASSET - GROUP MAPPING
     @PostMapping("/assets/{assetId}/groups")
-    public ResponseEntity<ApiResponse<List<AssetGroupResponse>>> addGroups(
+    public ResponseEntity<ApiResponse<AssetGroupMembershipResponse>> addGroups(
             @PathVariable Long assetId,
             @Valid @RequestBody AssetGroupMemberRequest request) {
         return ResponseEntity.ok(ApiResponse.success("Groups added successfully",
@@ -133,7 +185,7 @@ public class AssetController {
     }
 
     @PutMapping("/assets/{assetId}/groups")
-    public ResponseEntity<ApiResponse<List<AssetGroupResponse>>> replaceGroups(
+    public ResponseEntity<ApiResponse<AssetGroupMembershipResponse>> replaceGroups(
             @PathVariable Long assetId,
             @Valid @RequestBody AssetGroupMemberRequest request) {
         return ResponseEntity.ok(ApiResponse.success("Groups updated successfully",
@@ -141,11 +193,11 @@ public class AssetController {
     }
 
     @DeleteMapping("/assets/{assetId}/groups/{groupId}")
-    public ResponseEntity<ApiResponse<Void>> removeGroup(
+    public ResponseEntity<ApiResponse<AssetGroupMembershipResponse>> removeGroup(
             @PathVariable Long assetId,
             @PathVariable Long groupId) {
-        assetGroupService.removeAssetFromGroup(assetId, groupId);
-        return ResponseEntity.ok(ApiResponse.success("Asset removed from group successfully", null));
+        return ResponseEntity.ok(ApiResponse.success("Asset removed from group successfully",
+                assetGroupService.removeAssetFromGroup(assetId, groupId)));
     }
 
     @GetMapping("/assets/{assetId}/groups")
@@ -154,4 +206,11 @@ public class AssetController {
         return ResponseEntity.ok(ApiResponse.success("Groups retrieved successfully",
                 assetGroupService.getGroupsForAsset(assetId)));
     }
+
+    @PutMapping("/assets/groups")
+    public ResponseEntity<ApiResponse<AssetGroupBulkMembershipResponse>> replaceGroupsInBulk(
+            @Valid @RequestBody AssetGroupBulkReplaceRequest request) {
+        return ResponseEntity.ok(ApiResponse.success("Groups updated successfully",
+                assetGroupService.replaceGroupsForAssets(request)));
+    }
 }
@@ -1,9 +1,15 @@
 package com.portfolio.controller;
 
+import com.portfolio.dto.request.AssetGroupBulkMembersRequest;
 import com.portfolio.dto.request.AssetGroupRequest;
+import com.portfolio.dto.request.AssetPageRequest;
 import com.portfolio.dto.response.ApiResponse;
+import com.portfolio.dto.response.AssetGroupBulkMembershipResponse;
 import com.portfolio.dto.response.AssetGroupPerformanceResponse;
 import com.portfolio.dto.response.AssetGroupResponse;
+import com.portfolio.dto.response.AssetResponse;
+import com.portfolio.dto.response.CursorPageResponse;
+import com.portfolio.dto.response.GroupPortfolioPerformanceResponse;
 import com.portfolio.service.AssetGroupService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -17,11 +23,15 @@ import java.util.List;
 /**
  * Spec routes:
  *   POST   /asset-groups                                     — create
- *   GET    /asset-groups                                     — list all
- *   GET    /asset-groups/{groupId}                           — single
+ *   GET    /asset-groups                                     — list all (summaries: counts and totals)
+ *   GET    /asset-groups/{groupId}                           — single (summary)
+ *   GET    /asset-groups/{groupId}/assets?portfolioId=       — members, keyset-paginated like the asset listings
+ *   POST   /asset-groups/{groupId}/assets                    — add many assets   (returns counts)
+ *   POST   /asset-groups/{groupId}/assets/remove             — remove many assets (returns counts)
  *   PUT    /asset-groups/{groupId}                           — update
  *   DELETE /asset-groups/{groupId}                           — delete
  *   GET    /asset-groups/{groupId}/performance?portfolioId=  — group performance scoped to portfolio
+ *   GET    /asset-groups/performance                         — every (group, portfolio) cell with holdings
  */
 @RestController
 @RequestMapping("/asset-groups")
@@ -51,6 +61,31 @@ public class AssetGroupController {
                 assetGroupService.getGroup(groupId)));
     }
 
+    @GetMapping("/{groupId}/assets")
+    public ResponseEntity<ApiResponse<CursorPageResponse<AssetResponse>>> getGroupMembers(
+            @PathVariable Long groupId,
+            @RequestParam(required = false) Long portfolioId,
+            @Valid AssetPageRequest page) {
+        return ResponseEntity.ok(ApiResponse.success("Group members retrieved successfully",
+                assetGroupService.getGroupMembers(groupId, portfolioId, page)));
+    }
+
+    @PostMapping("/{groupId}/assets")
+    public ResponseEntity<ApiResponse<AssetGroupBulkMembershipResponse>> addAssets(
+            @PathVariable Long groupId,
+            @Valid @RequestBody AssetGroupBulkMembersRequest request) {
+        return ResponseEntity.ok(ApiResponse.success("Assets added to group successfully",
+                assetGroupService.addAssetsToGroup(groupId, request)));
+    }
+
+    @PostMapping("/{groupId}/assets/remove")
+    public ResponseEntity<ApiResponse<AssetGroupBulkMembershipResponse>> removeAssets(
+            @PathVariable Long groupId,
+            @Valid @RequestBody AssetGroupBulkMembersRequest request) {
+        return ResponseEntity.ok(ApiResponse.success("Assets removed from group successfully",
+                assetGroupService.removeAssetsFromGroup(groupId, request)));
+    }
+
     @PutMapping("/{groupId}")
     public ResponseEntity<ApiResponse<AssetGroupResponse>> updateGroup(
             @PathVariable Long groupId,
@@ -76,4 +111,14 @@ public class AssetGroupController {
         return ResponseEntity.ok(ApiResponse.success("Group performance retrieved successfully",
                 assetGroupService.getGroupPerformance(groupId, portfolioId)));
     }
+
+    /**
+     * GET /asset-groups/performance
+     * Sparse group × portfolio matrix: one entry per pair that has holdings.
+     */
+    @GetMapping("/performance")
+    public ResponseEntity<ApiResponse<List<GroupPortfolioPerformanceResponse>>> getGroupPortfolioMatrix() {
+        return ResponseEntity.ok(ApiResponse.success("Group performance matrix retrieved successfully",
+                assetGroupService.getGroupPortfolioMatrix()));
+    }
 }
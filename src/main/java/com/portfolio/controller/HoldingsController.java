@@ -0,0 +1,33 @@
+package com.portfolio.controller;
+
+import com.portfolio.dto.request.HoldingsRollupRequest;
+import com.portfolio.dto.response.ApiResponse;
+import com.portfolio.dto.response.HoldingsCellResponse;
+import com.portfolio.service.HoldingsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * GET /holdings/rollup?by=&portfolioId=&assetType=&categoryId=&groupId=
+ */
+@CrossOrigin(origins = "http://localhost:5173")
+@RestController
+@RequestMapping("/holdings")
+@RequiredArgsConstructor
+@Slf4j
+public class HoldingsController {
+
+    private final HoldingsService holdingsService;
+
+    /** e.g. GET /holdings/rollup?by=PORTFOLIO,ASSET_TYPE&groupId=3 */
+    @GetMapping("/rollup")
+    public ResponseEntity<ApiResponse<List<HoldingsCellResponse>>> rollup(
+            HoldingsRollupRequest request) {
+        return ResponseEntity.ok(ApiResponse.success("Holdings rollup retrieved successfully",
+                holdingsService.rollup(request)));
+    }
+}
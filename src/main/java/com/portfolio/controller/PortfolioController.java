@@ -1,19 +1,28 @@
 package com.portfolio.controller;
 
 import com.portfolio.dto.request.PortfolioRequest;
+import com.portfolio.dto.request.SnapshotRangeRequest;
+import com.portfolio.dto.request.ValuationSeriesRequest;
 import com.portfolio.dto.response.ApiResponse;
 import com.portfolio.dto.response.AssetGroupPerformanceResponse;
+import com.portfolio.dto.response.GroupSetPerformanceResponse;
 import com.portfolio.dto.response.PortfolioResponse;
+import com.portfolio.dto.response.PortfolioSnapshotResponse;
 import com.portfolio.dto.response.PortfolioSummaryResponse;
+import com.portfolio.dto.response.PortfolioValuationResponse;
 import com.portfolio.service.AssetGroupService;
 import com.portfolio.service.PortfolioService;
+import com.portfolio.service.PortfolioSnapshotService;
+import com.portfolio.service.PortfolioValuationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -21,8 +30,12 @@ import java.util.List;
  * GET    /portfolios
  * GET    /portfolios/{portfolioId}
  * GET    /portfolios/{portfolioId}/summary
+ * GET    /portfolios/{portfolioId}/valuation?date=
+ * GET    /portfolios/{portfolioId}/valuation/series?from=&to=&interval=day|week|month
+ * GET    /portfolios/{portfolioId}/snapshots?from=&to=
  * DELETE /portfolios/{portfolioId}
  * GET    /portfolios/{portfolioId}/asset-groups/performance
+ * GET    /portfolios/{portfolioId}/asset-groups/select?allOf=&anyOf=&noneOf=&limit=
  */
 @CrossOrigin(origins = "http://localhost:5173")
 @RestController
@@ -33,6 +46,8 @@ public class PortfolioController {
 
     private final PortfolioService portfolioService;
     private final AssetGroupService assetGroupService;
+    private final PortfolioValuationService portfolioValuationService;
+    private final PortfolioSnapshotService portfolioSnapshotService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<PortfolioResponse>> createPortfolio(
@@ -62,6 +77,32 @@ public class PortfolioController {
                 portfolioService.getPortfolioSummary(portfolioId)));
     }
 
+    /** GET /portfolios/{portfolioId}/valuation?date=2024-06-30 — worth at the end of that day (default: today) */
+    @GetMapping("/{portfolioId}/valuation")
+    public ResponseEntity<ApiResponse<PortfolioValuationResponse>> getPortfolioValuation(
+            @PathVariable Long portfolioId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(ApiResponse.success("Portfolio valuation retrieved successfully",
+                portfolioValuationService.getValuation(portfolioId, date)));
+    }
+
+    @GetMapping("/{portfolioId}/valuation/series")
+    public ResponseEntity<ApiResponse<List<PortfolioValuationResponse>>> getPortfolioValuationSeries(
+            @PathVariable Long portfolioId,
+            @Valid ValuationSeriesRequest request) {
+        return ResponseEntity.ok(ApiResponse.success("Portfolio valuation series retrieved successfully",
+                portfolioValuationService.getValuationSeries(portfolioId, request)));
+    }
+
+    /** GET /portfolios/{portfolioId}/snapshots?from=&to= — recorded end-of-day totals */
+    @GetMapping("/{portfolioId}/snapshots")
+    public ResponseEntity<ApiResponse<List<PortfolioSnapshotResponse>>> getPortfolioSnapshots(
+            @PathVariable Long portfolioId,
+            @Valid SnapshotRangeRequest request) {
+        return ResponseEntity.ok(ApiResponse.success("Portfolio snapshots retrieved successfully",
+                portfolioSnapshotService.getSnapshots(portfolioId, request)));
+    }
+
     @DeleteMapping("/{portfolioId}")
     public ResponseEntity<ApiResponse<Void>> deletePortfolio(@PathVariable Long portfolioId) {
         portfolioService.deletePortfolio(portfolioId);
@@ -75,4 +116,23 @@ public class PortfolioController {
         return ResponseEntity.ok(ApiResponse.success("Asset group performance retrieved successfully",
                 assetGroupService.getAllGroupPerformanceForPortfolio(portfolioId)));
     }
+
+    /**
+     * GET /portfolios/{portfolioId}/asset-groups/select?allOf=1,2&noneOf=3
+     * Assets in all of allOf, any of anyOf and none of noneOf, with their combined performance.
+     */
+    @GetMapping("/{portfolioId}/asset-groups/select")
+    public ResponseEntity<ApiResponse<GroupSetPerformanceResponse>> selectByGroups(
+            @PathVariable Long portfolioId,
+            @RequestParam(required = false) List<Long> allOf,
+            @RequestParam(required = false) List<Long> anyOf,
+            @RequestParam(required = false) List<Long> noneOf,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(ApiResponse.success("Group selection retrieved successfully",
+                assetGroupService.getGroupSetPerformance(portfolioId,
+                        allOf != null ? allOf : List.of(),
+                        anyOf != null ? anyOf : List.of(),
+                        noneOf != null ? noneOf : List.of(),
+                        limit)));
+    }
 }
@@ -0,0 +1,51 @@
+package com.portfolio.controller;
+
+import com.portfolio.dto.request.PriceBatchRequest;
+import com.portfolio.dto.response.ApiResponse;
+import com.portfolio.dto.response.PriceBatchResponse;
+import com.portfolio.dto.response.PriceUpdateStatsResponse;
+import com.portfolio.dto.response.TickIngestStatsResponse;
+import com.portfolio.service.AssetHistoryService;
+import com.portfolio.service.PriceService;
+import com.portfolio.service.PriceTickService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * POST   /prices/batch           — reprice many assets at once (by assetId or assetName)
+ * GET    /prices/history-stats   — PRICE_UPDATE rows written vs. coalesced, per asset type; history writer health
+ * GET    /prices/ticks/stats     — live tick ingestion counters and flush lag
+ */
+@RestController
+@RequestMapping("/prices")
+@RequiredArgsConstructor
+@Slf4j
+public class PriceController {
+
+    private final PriceService priceService;
+    private final AssetHistoryService assetHistoryService;
+    private final PriceTickService priceTickService;
+
+    /** Per-entry outcomes are in the body; the call itself succeeds even if some entries fail. */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<PriceBatchResponse>> applyBatch(
+            @Valid @RequestBody PriceBatchRequest request) {
+        return ResponseEntity.ok(ApiResponse.success("Price batch processed",
+                priceService.applyBatch(request)));
+    }
+
+    @GetMapping("/history-stats")
+    public ResponseEntity<ApiResponse<PriceUpdateStatsResponse>> getHistoryStats() {
+        return ResponseEntity.ok(ApiResponse.success("Price history stats retrieved successfully",
+                assetHistoryService.getPriceUpdateStats()));
+    }
+
+    @GetMapping("/ticks/stats")
+    public ResponseEntity<ApiResponse<TickIngestStatsResponse>> getTickStats() {
+        return ResponseEntity.ok(ApiResponse.success("Tick ingestion stats retrieved successfully",
+                priceTickService.getStats()));
+    }
+}
@@ -3,6 +3,7 @@ package com.portfolio.controller;
 import com.portfolio.dto.request.StockCategoryRequest;
 import com.portfolio.dto.response.ApiResponse;
 import com.portfolio.dto.response.StockCategoryPerformanceResponse;
+import com.portfolio.dto.response.StockCategoryPortfolioPerformanceResponse;
 import com.portfolio.dto.response.StockCategoryResponse;
 import com.portfolio.service.StockCategoryService;
 import jakarta.validation.Valid;
@@ -18,6 +19,7 @@ import java.util.List;
  * POST   /stock-categories
  * GET    /stock-categories
  * GET    /stock-categories/{categoryId}
+ * GET    /stock-categories/performance                             — all categories, all portfolios
  * GET    /stock-categories/performance/portfolio/{portfolioId}     — all categories
  * GET    /stock-categories/{categoryId}/performance?portfolioId=X  — single category
  */
@@ -50,6 +52,14 @@ public class StockCategoryController {
                 stockCategoryService.getCategory(categoryId)));
     }
 
+    /** All-categories performance across portfolios, broken down per portfolio. */
+    @GetMapping("/performance")
+    public ResponseEntity<ApiResponse<List<StockCategoryPortfolioPerformanceResponse>>>
+            getCategoryPerformanceAcrossPortfolios() {
+        return ResponseEntity.ok(ApiResponse.success("Category performance retrieved successfully",
+                stockCategoryService.getCategoryPerformanceAcrossPortfolios()));
+    }
+
     /** All-categories performance for one portfolio. */
     @GetMapping("/performance/portfolio/{portfolioId}")
     public ResponseEntity<ApiResponse<List<StockCategoryPerformanceResponse>>> getCategoryPerformance(
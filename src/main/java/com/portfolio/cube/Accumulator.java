@@ -0,0 +1,162 @@
+package com.portfolio.cube;
+
+import com.portfolio.money.FixedPoint;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Holding count and value sums per cell, a cell being identified by a long key (packed
+ * coordinates); cells get slots in first-seen order. Used both for the result of one rollup
+ * and for the totals a {@link Segment} maintains, which also subtract (negative counts and
+ * values) when a row leaves a cell.
+ *
+ * When the key space is small the key → slot lookup is a flat array, otherwise a hash map.
+ * Sums are scaled longs; an addition that would overflow moves the running sum into a
+ * BigDecimal carry for that cell and continues from zero, so totals stay exact.
+ */
+final class Accumulator {
+
+    /** Largest key space looked up through a flat array. */
+    static final int DENSE_LIMIT = 1 << 16;
+
+    private final int[] denseSlots;     // key → slot + 1, 0 = none
+    private final LongIntHashMap sparseSlots;
+
+    int size;
+    long[] keys;
+    long[] counts;
+    long[] invested;
+    long[] current;
+    private BigDecimal[] investedCarry;
+    private BigDecimal[] currentCarry;
+
+    Accumulator(long keySpace) {
+        this(keySpace, 1024);
+    }
+
+    /** {@code expectedCells} sizes the slot arrays and, for a large key space, the hash map. */
+    Accumulator(long keySpace, int expectedCells) {
+        if (keySpace <= DENSE_LIMIT) {
+            denseSlots = new int[(int) keySpace];
+            sparseSlots = null;
+        } else {
+            denseSlots = null;
+            sparseSlots = new LongIntHashMap(expectedCells);
+        }
+        int capacity = Math.max(4, Math.min(expectedCells, 16));
+        keys = new long[capacity];
+        counts = new long[capacity];
+        invested = new long[capacity];
+        current = new long[capacity];
+    }
+
+    /** {@code count} holdings (negative to take them out) with values at scale 6. */
+    void add(long key, long count, long inv, long cur) {
+        int s = slot(key);
+        counts[s] += count;
+        addValues(s, inv, cur);
+    }
+
+    /** {@code count} holdings with exact totals (oversize rows). */
+    void addExact(long key, long count, BigDecimal inv, BigDecimal cur) {
+        int s = slot(key);
+        counts[s] += count;
+        investedCarry = carry(investedCarry, s, inv);
+        currentCarry = carry(currentCarry, s, cur);
+    }
+
+    /** Adds the whole of {@code source}'s cell {@code sourceSlot} to this cell {@code key}. */
+    void addCell(long key, Accumulator source, int sourceSlot) {
+        int s = slot(key);
+        counts[s] += source.counts[sourceSlot];
+        addValues(s, source.invested[sourceSlot], source.current[sourceSlot]);
+        if (source.investedCarry != null && source.investedCarry[sourceSlot] != null) {
+            investedCarry = carry(investedCarry, s, source.investedCarry[sourceSlot]);
+        }
+        if (source.currentCarry != null && source.currentCarry[sourceSlot] != null) {
+            currentCarry = carry(currentCarry, s, source.currentCarry[sourceSlot]);
+        }
+    }
+
+    private void addValues(int s, long inv, long cur) {
+        long sum = invested[s] + inv;
+        if (((invested[s] ^ sum) & (inv ^ sum)) < 0) {
+            investedCarry = carry(investedCarry, s, invested[s]);
+            sum = inv;
+        }
+        invested[s] = sum;
+        sum = current[s] + cur;
+        if (((current[s] ^ sum) & (cur ^ sum)) < 0) {
+            currentCarry = carry(currentCarry, s, current[s]);
+            sum = cur;
+        }
+        current[s] = sum;
+    }
+
+    /** Empties every cell for the next rollup, keeping the allocated arrays. */
+    void clear() {
+        for (int s = 0; s < size; s++) {
+            if (denseSlots != null) denseSlots[(int) keys[s]] = 0;
+            counts[s] = 0;
+            invested[s] = 0;
+            current[s] = 0;
+        }
+        if (sparseSlots != null) sparseSlots.clear();
+        investedCarry = null;
+        currentCarry = null;
+        size = 0;
+    }
+
+    BigDecimal totalInvested(int slot) {
+        return total(invested[slot], investedCarry, slot);
+    }
+
+    BigDecimal totalCurrent(int slot) {
+        return total(current[slot], currentCarry, slot);
+    }
+
+    private int slot(long key) {
+        if (denseSlots != null) {
+            int s = denseSlots[(int) key] - 1;
+            if (s >= 0) return s;
+            s = newSlot(key);
+            denseSlots[(int) key] = s + 1;
+            return s;
+        }
+        int s = sparseSlots.get(key);
+        if (s >= 0) return s;
+        s = newSlot(key);
+        sparseSlots.put(key, s);
+        return s;
+    }
+
+    private int newSlot(long key) {
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            invested = Arrays.copyOf(invested, capacity);
+            current = Arrays.copyOf(current, capacity);
+            if (investedCarry != null) investedCarry = Arrays.copyOf(investedCarry, capacity);
+            if (currentCarry != null) currentCarry = Arrays.copyOf(currentCarry, capacity);
+        }
+        keys[size] = key;
+        return size++;
+    }
+
+    private BigDecimal[] carry(BigDecimal[] carry, int slot, long unscaled) {
+        return carry(carry, slot, FixedPoint.toBigDecimal(unscaled, FixedPoint.VALUE_SCALE));
+    }
+
+    private BigDecimal[] carry(BigDecimal[] carry, int slot, BigDecimal value) {
+        if (carry == null) carry = new BigDecimal[keys.length];
+        carry[slot] = carry[slot] == null ? value : carry[slot].add(value);
+        return carry;
+    }
+
+    private static BigDecimal total(long sum, BigDecimal[] carry, int slot) {
+        BigDecimal total = FixedPoint.toBigDecimal(sum, FixedPoint.VALUE_SCALE);
+        return carry == null || carry[slot] == null ? total : total.add(carry[slot]);
+    }
+}
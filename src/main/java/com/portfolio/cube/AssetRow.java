@@ -0,0 +1,20 @@
+package com.portfolio.cube;
+
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetType;
+
+import java.math.BigDecimal;
+
+/**
+ * The columns of an asset the cube stores, captured when a writer reports the change
+ * (the entity itself may change again before the transaction commits).
+ */
+record AssetRow(long assetId, long portfolioId, AssetType assetType, Long categoryId, boolean wishlist,
+                BigDecimal quantity, BigDecimal buyPrice, BigDecimal currentPrice) {
+
+    static AssetRow of(Asset asset) {
+        return new AssetRow(asset.getAssetId(), asset.getPortfolio().getPortfolioId(), asset.getAssetType(),
+                asset.getStockCategory() != null ? asset.getStockCategory().getCategoryId() : null,
+                asset.isWishlist(), asset.getQuantity(), asset.getBuyPrice(), asset.getCurrentPrice());
+    }
+}
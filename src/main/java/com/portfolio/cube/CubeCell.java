@@ -0,0 +1,14 @@
+package com.portfolio.cube;
+
+import com.portfolio.entity.AssetType;
+
+import java.math.BigDecimal;
+
+/**
+ * Holding totals of one cell. Coordinates of dimensions that were not requested are null;
+ * in a CATEGORY rollup a null categoryId is the cell of holdings without a category.
+ * Values are at scale 6, like the database sums.
+ */
+public record CubeCell(Long portfolioId, AssetType assetType, Long categoryId, Long groupId,
+                       long holdingCount, BigDecimal totalInvested, BigDecimal currentValue) {
+}
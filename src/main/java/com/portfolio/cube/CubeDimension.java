@@ -0,0 +1,12 @@
+package com.portfolio.cube;
+
+/**
+ * Axes of the holdings cube. GROUP is multi-valued: an asset in two groups counts in both
+ * group cells, and an asset in no group is in no group cell.
+ */
+public enum CubeDimension {
+    PORTFOLIO,
+    ASSET_TYPE,
+    CATEGORY,
+    GROUP
+}
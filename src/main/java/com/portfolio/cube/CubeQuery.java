@@ -0,0 +1,24 @@
+package com.portfolio.cube;
+
+import com.portfolio.entity.AssetType;
+import lombok.Builder;
+
+import java.util.Set;
+
+/**
+ * One rollup: the dimensions to break the holdings down by, and optional filters.
+ * A null filter means "any"; a non-null one keeps only holdings matching one of its values
+ * (for groups: holdings in at least one of the groups). Drilling down is adding a
+ * dimension and filtering on the coordinates of the parent cell.
+ */
+@Builder
+public record CubeQuery(Set<CubeDimension> by,
+                        Set<Long> portfolioIds,
+                        Set<AssetType> assetTypes,
+                        Set<Long> categoryIds,
+                        Set<Long> groupIds) {
+
+    public CubeQuery {
+        by = by == null ? Set.of() : Set.copyOf(by);
+    }
+}
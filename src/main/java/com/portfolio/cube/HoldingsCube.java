@@ -0,0 +1,547 @@
+package com.portfolio.cube;
+
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetType;
+import com.portfolio.membership.AssetIdBitmap;
+import com.portfolio.price.LatestPriceTable;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory, column-oriented copy of every asset's type, category, group memberships and
+ * values, one {@link Segment} per portfolio, answering holding rollups over any combination
+ * of portfolio × asset type × category × group without touching the database.
+ * Wishlist assets are stored but never counted.
+ *
+ * Built from the database at startup and rebuilt nightly, with prices from the
+ * {@link LatestPriceTable} (current_price only for assets it lacks). In between, every
+ * writer of assets, prices or memberships reports its change here; changes are applied
+ * after the writer's transaction commits and replayed onto a rebuild that was reading the
+ * tables meanwhile, as in {@link com.portfolio.membership.MembershipIndex}. The cube is per process: it
+ * assumes this instance is the only writer.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class HoldingsCube {
+
+    private static final AssetType[] TYPES = AssetType.values();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LatestPriceTable latestPriceTable;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+    /** Non-null while a rebuild is reading the tables. */
+    private List<Consumer<State>> duringRebuild;
+
+    // ---------------------------------------------------------------
+    // BUILD
+    // ---------------------------------------------------------------
+
+    @PostConstruct
+    public void initialize() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${portfolio.holdings-cube.rebuild-cron:0 50 2 * * *}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            duringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State built = new State();
+        long[] memberships = {0};
+        try {
+            jdbcTemplate.query("SELECT asset_id, portfolio_id, asset_type, category_id, is_wishlist, "
+                    + "quantity, buy_price, current_price FROM assets", rs -> {
+                long assetId = rs.getLong(1);
+                long category = rs.getLong(4);
+                Long categoryId = rs.wasNull() ? null : category;
+                built.put(new AssetRow(assetId, rs.getLong(2), AssetType.valueOf(rs.getString(3)),
+                        categoryId, rs.getBoolean(5),
+                        rs.getBigDecimal(6), rs.getBigDecimal(7),
+                        latestPriceTable.price(assetId, rs.getBigDecimal(8))));
+            });
+            jdbcTemplate.query("SELECT group_id, asset_id FROM asset_group_members", rs -> {
+                built.addMember(rs.getLong(1), rs.getLong(2));
+                memberships[0]++;
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                duringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Consumer<State> change : duringRebuild) {
+                change.accept(built);
+            }
+            state = built;
+            duringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Holdings cube built: {} assets, {} portfolios, {} memberships in {} ms",
+                built.assetCount(), built.segmentIndexByPortfolio.size(), memberships[0],
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // ---------------------------------------------------------------
+    // CHANGES  (applied after the caller's transaction commits)
+    // ---------------------------------------------------------------
+
+    /** A created or updated asset; call after the entity holds its final values. */
+    public void assetSaved(Asset asset) {
+        AssetRow row = AssetRow.of(asset);
+        record(s -> s.put(row));
+    }
+
+    /** Also drops the asset from every group. */
+    public void assetRemoved(Long assetId) {
+        record(s -> s.remove(assetId));
+    }
+
+    /** New current prices by asset ID; assets the cube does not hold are ignored. */
+    public void pricesChanged(Map<Long, BigDecimal> newPriceByAssetId) {
+        Map<Long, BigDecimal> prices = Map.copyOf(newPriceByAssetId);
+        record(s -> prices.forEach(s::reprice));
+    }
+
+    public void portfolioDeleted(Long portfolioId) {
+        record(s -> s.removePortfolio(portfolioId));
+    }
+
+    public void memberAdded(Long groupId, Long assetId) {
+        record(s -> s.addMember(groupId, assetId));
+    }
+
+    public void memberRemoved(Long groupId, Long assetId) {
+        record(s -> s.removeMember(groupId, assetId));
+    }
+
+    public void groupDeleted(Long groupId) {
+        record(s -> s.removeGroup(groupId));
+    }
+
+    private void record(Consumer<State> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyAll(List.of(change));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Consumer<State>> pending = (List<Consumer<State>>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Consumer<State>> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyAll(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(HoldingsCube.this);
+                }
+            });
+            pending = changes;
+        }
+        pending.add(change);
+    }
+
+    private void applyAll(List<Consumer<State>> changes) {
+        lock.writeLock().lock();
+        try {
+            for (Consumer<State> change : changes) {
+                change.accept(state);
+            }
+            if (duringRebuild != null) duringRebuild.addAll(changes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // QUERY
+    // ---------------------------------------------------------------
+
+    /**
+     * Holding totals for every non-empty cell of the requested dimensions, ordered by
+     * portfolio, asset type, category and group.
+     */
+    public List<CubeCell> rollup(CubeQuery query) {
+        lock.readLock().lock();
+        try {
+            return state.rollup(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Holding totals over the given assets of one portfolio, read from their rows; IDs the
+     * cube does not hold in that portfolio and wishlist assets are skipped.
+     */
+    public CubeCell sum(Long portfolioId, AssetIdBitmap assetIds) {
+        lock.readLock().lock();
+        try {
+            return state.sum(portfolioId, assetIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // STATE
+    // ---------------------------------------------------------------
+
+    /**
+     * What one rollup needs, precomputed: which dimensions are cell coordinates, their
+     * cardinalities (1 for an unused dimension), and the allowed codes of each filter
+     * (null = no filter). Category code c is stored as c + 1 so that 0 is "no category".
+     */
+    private record Plan(boolean byType, boolean byCategory, boolean byGroup,
+                        long categoryCard, long groupCard,
+                        boolean[] types, boolean[] categories, int[] groups) {
+
+        long keySpace() {
+            return (byType ? TYPES.length : 1) * categoryCard * groupCard;
+        }
+
+        /**
+         * "In any of several groups" without a group coordinate: a holding in two of them
+         * must count once, which the per-group totals cannot tell, so the rows are scanned.
+         */
+        boolean scansRows() {
+            return groups != null && !byGroup && groups.length > 1;
+        }
+
+        /** Nothing but the group matters: the per-group totals are the answer. */
+        boolean groupsOnly() {
+            return !byType && !byCategory && types == null && categories == null;
+        }
+
+        long outputKey(int type, int category, int group) {
+            return ((byType ? type : 0) * categoryCard + (byCategory ? category : 0)) * groupCard
+                    + (byGroup ? group : 0);
+        }
+    }
+
+    private static final class State {
+
+        /** Null once the portfolio is deleted. */
+        final List<Segment> segments = new ArrayList<>();
+        final Map<Long, Integer> segmentIndexByPortfolio = new HashMap<>();
+        final LongIntHashMap segmentOfAsset = new LongIntHashMap(1024);
+
+        final LongIntHashMap categoryCodes = new LongIntHashMap(64);
+        long[] categoryIds = new long[16];
+        int categoryCount;
+
+        final LongIntHashMap groupCodes = new LongIntHashMap(64);
+        long[] groupIds = new long[16];
+        int groupCount;
+
+        int assetCount() {
+            return segmentOfAsset.size();
+        }
+
+        void put(AssetRow asset) {
+            Integer targetIndex = segmentIndexByPortfolio.get(asset.portfolioId());
+            if (targetIndex == null) {
+                targetIndex = segments.size();
+                segments.add(new Segment(asset.portfolioId(), 16));
+                segmentIndexByPortfolio.put(asset.portfolioId(), targetIndex);
+            }
+            Segment target = segments.get(targetIndex);
+            int[] memberOf = Segment.NO_GROUPS;
+            int index = segmentOfAsset.get(asset.assetId());
+            if (index >= 0 && index != targetIndex) {
+                // moved to another portfolio: keep its memberships
+                Segment previous = segments.get(index);
+                int row = previous.rowOf(asset.assetId());
+                memberOf = previous.groups[row];
+                previous.remove(row);
+            }
+            target.put(asset, asset.categoryId() == null ? -1 : categoryCode(asset.categoryId()));
+            int row = target.rowOf(asset.assetId());
+            for (int groupCode : memberOf) {
+                target.addGroup(row, groupCode);
+            }
+            segmentOfAsset.put(asset.assetId(), targetIndex);
+        }
+
+        void remove(long assetId) {
+            Segment segment = segmentOf(assetId);
+            if (segment == null) return;
+            segment.remove(segment.rowOf(assetId));
+            segmentOfAsset.remove(assetId);
+        }
+
+        void reprice(long assetId, BigDecimal currentPrice) {
+            Segment segment = segmentOf(assetId);
+            if (segment != null) segment.reprice(segment.rowOf(assetId), currentPrice);
+        }
+
+        void removePortfolio(long portfolioId) {
+            Integer index = segmentIndexByPortfolio.remove(portfolioId);
+            if (index == null) return;
+            Segment segment = segments.set(index, null);
+            for (int row = 0; row < segment.size; row++) {
+                segmentOfAsset.remove(segment.assetIds[row]);
+            }
+        }
+
+        void addMember(long groupId, long assetId) {
+            Segment segment = segmentOf(assetId);
+            if (segment != null) segment.addGroup(segment.rowOf(assetId), groupCode(groupId));
+        }
+
+        void removeMember(long groupId, long assetId) {
+            Segment segment = segmentOf(assetId);
+            int code = groupCodes.get(groupId);
+            if (segment != null && code >= 0) segment.removeGroup(segment.rowOf(assetId), code);
+        }
+
+        void removeGroup(long groupId) {
+            int code = groupCodes.get(groupId);
+            if (code < 0) return;
+            for (Segment segment : segments) {
+                if (segment != null) segment.removeGroupEverywhere(code);
+            }
+            // the code stays allocated (and empty) until the next rebuild
+            groupCodes.remove(groupId);
+        }
+
+        private Segment segmentOf(long assetId) {
+            int index = segmentOfAsset.get(assetId);
+            return index < 0 ? null : segments.get(index);
+        }
+
+        private int categoryCode(long categoryId) {
+            int code = categoryCodes.get(categoryId);
+            if (code < 0) {
+                if (categoryCount == categoryIds.length) categoryIds = Arrays.copyOf(categoryIds, categoryCount * 2);
+                code = categoryCount++;
+                categoryIds[code] = categoryId;
+                categoryCodes.put(categoryId, code);
+            }
+            return code;
+        }
+
+        private int groupCode(long groupId) {
+            int code = groupCodes.get(groupId);
+            if (code < 0) {
+                if (groupCount == groupIds.length) groupIds = Arrays.copyOf(groupIds, groupCount * 2);
+                code = groupCount++;
+                groupIds[code] = groupId;
+                groupCodes.put(groupId, code);
+            }
+            return code;
+        }
+
+        // ---------------------------------------------------------------
+
+        List<CubeCell> rollup(CubeQuery query) {
+            Plan plan = plan(query);
+            List<CubeCell> cells = new ArrayList<>();
+            Collection<Integer> scanned = query.portfolioIds() == null ? segmentIndexByPortfolio.values()
+                    : query.portfolioIds().stream().map(segmentIndexByPortfolio::get)
+                            .filter(Objects::nonNull).toList();
+            boolean byPortfolio = query.by().contains(CubeDimension.PORTFOLIO);
+            Accumulator acc = new Accumulator(plan.keySpace());
+
+            for (int index : scanned) {
+                Segment segment = segments.get(index);
+                if (plan.scansRows()) {
+                    scan(segment, acc, plan);
+                } else if (plan.groups() != null) {
+                    for (int g : plan.groups()) addCells(segment, g, acc, plan);
+                } else if (plan.byGroup() && plan.groupsOnly()) {
+                    addGroupTotals(segment.groupTotals, acc, plan);
+                } else if (plan.byGroup()) {
+                    for (int g = 0; g < segment.groupCells.length; g++) addCells(segment, g, acc, plan);
+                } else {
+                    addCells(segment.cells, 0, acc, plan);
+                }
+                if (byPortfolio) {
+                    emit(acc, plan, segment.portfolioId, cells);
+                    acc.clear();
+                }
+            }
+            if (!byPortfolio) emit(acc, plan, null, cells);
+            cells.sort(State::compareCells);
+            return cells;
+        }
+
+        CubeCell sum(Long portfolioId, AssetIdBitmap assetIds) {
+            Accumulator acc = new Accumulator(1, 1);
+            Integer index = segmentIndexByPortfolio.get(portfolioId);
+            if (index != null) {
+                Segment segment = segments.get(index);
+                assetIds.forEach(assetId -> {
+                    int row = segment.rowOf(assetId);
+                    if (row < 0 || segment.wishlist[row]) return;
+                    if (segment.invested[row] == Segment.OVERSIZE) {
+                        acc.addExact(0, 1, segment.investedValue(row), segment.currentValue(row));
+                    } else {
+                        acc.add(0, 1, segment.invested[row], segment.current[row]);
+                    }
+                });
+            }
+            if (acc.size == 0) {
+                return new CubeCell(portfolioId, null, null, null, 0, BigDecimal.ZERO, BigDecimal.ZERO);
+            }
+            return new CubeCell(portfolioId, null, null, null, acc.counts[0], acc.totalInvested(0), acc.totalCurrent(0));
+        }
+
+        private Plan plan(CubeQuery query) {
+            Set<CubeDimension> by = query.by();
+            boolean[] types = null;
+            if (query.assetTypes() != null) {
+                types = new boolean[TYPES.length];
+                for (AssetType type : query.assetTypes()) types[type.ordinal()] = true;
+            }
+            boolean[] categories = null;
+            if (query.categoryIds() != null) {
+                categories = new boolean[categoryCount + 1];
+                for (Long id : query.categoryIds()) {
+                    int code = categoryCodes.get(id);
+                    if (code >= 0) categories[code + 1] = true;
+                }
+            }
+            int[] groups = null;
+            if (query.groupIds() != null) {
+                groups = query.groupIds().stream()
+                        .mapToInt(id -> groupCodes.get(id))
+                        .filter(code -> code >= 0)
+                        .toArray();
+            }
+            boolean byCategory = by.contains(CubeDimension.CATEGORY);
+            boolean byGroup = by.contains(CubeDimension.GROUP);
+            return new Plan(by.contains(CubeDimension.ASSET_TYPE), byCategory, byGroup,
+                    byCategory ? categoryCount + 1 : 1, byGroup ? groupCount : 1,
+                    types, categories, groups);
+        }
+
+        private static void addCells(Segment segment, int groupCode, Accumulator acc, Plan plan) {
+            if (groupCode < segment.groupCells.length && segment.groupCells[groupCode] != null) {
+                addCells(segment.groupCells[groupCode], groupCode, acc, plan);
+            }
+        }
+
+        private static void addGroupTotals(Accumulator groupTotals, Accumulator acc, Plan plan) {
+            for (int slot = 0; slot < groupTotals.size; slot++) {
+                if (groupTotals.counts[slot] == 0) continue;
+                acc.addCell(plan.outputKey(0, 0, (int) groupTotals.keys[slot]), groupTotals, slot);
+            }
+        }
+
+        /** Adds the maintained cells that pass the type and category filters. */
+        private static void addCells(Accumulator source, int groupCode, Accumulator acc, Plan plan) {
+            boolean[] types = plan.types();
+            boolean[] categories = plan.categories();
+            for (int slot = 0; slot < source.size; slot++) {
+                if (source.counts[slot] == 0) continue;
+                long key = source.keys[slot];
+                int t = Segment.typeOf(key);
+                int c = Segment.categoryOf(key);
+                if (types != null && !types[t]) continue;
+                if (categories != null && !categories[c]) continue;
+                acc.addCell(plan.outputKey(t, c, groupCode), source, slot);
+            }
+        }
+
+        /** Holdings in any of the plan's groups, each counted once; see {@link Plan#scansRows}. */
+        private void scan(Segment segment, Accumulator acc, Plan plan) {
+            boolean[] types = plan.types();
+            boolean[] categories = plan.categories();
+            boolean[] groups = new boolean[groupCount];
+            for (int g : plan.groups()) groups[g] = true;
+            for (int row = 0; row < segment.size; row++) {
+                if (segment.wishlist[row]) continue;
+                int t = segment.types[row];
+                if (types != null && !types[t]) continue;
+                int c = segment.categories[row] + 1;
+                if (categories != null && !categories[c]) continue;
+                if (!anyOf(segment.groups[row], groups)) continue;
+
+                long key = plan.outputKey(t, c, 0);
+                if (segment.invested[row] == Segment.OVERSIZE) {
+                    acc.addExact(key, 1, segment.investedValue(row), segment.currentValue(row));
+                } else {
+                    acc.add(key, 1, segment.invested[row], segment.current[row]);
+                }
+            }
+        }
+
+        private static boolean anyOf(int[] codes, boolean[] allowed) {
+            for (int code : codes) {
+                if (allowed[code]) return true;
+            }
+            return false;
+        }
+
+        /** Portfolio, type, category, group; nulls first. Spelled out: it sorts every result. */
+        private static int compareCells(CubeCell a, CubeCell b) {
+            int c = compareIds(a.portfolioId(), b.portfolioId());
+            if (c != 0) return c;
+            c = Integer.compare(a.assetType() == null ? -1 : a.assetType().ordinal(),
+                    b.assetType() == null ? -1 : b.assetType().ordinal());
+            if (c != 0) return c;
+            c = compareIds(a.categoryId(), b.categoryId());
+            return c != 0 ? c : compareIds(a.groupId(), b.groupId());
+        }
+
+        private static int compareIds(Long a, Long b) {
+            if (a == null || b == null) return a == null ? (b == null ? 0 : -1) : 1;
+            return Long.compare(a, b);
+        }
+
+        private void emit(Accumulator acc, Plan plan, Long portfolioId, List<CubeCell> cells) {
+            for (int s = 0; s < acc.size; s++) {
+                long key = acc.keys[s];
+                int g = (int) (key % plan.groupCard());
+                long rest = key / plan.groupCard();
+                int c = (int) (rest % plan.categoryCard());
+                int t = (int) (rest / plan.categoryCard());
+                cells.add(new CubeCell(portfolioId,
+                        plan.byType() ? TYPES[t] : null,
+                        plan.byCategory() && c > 0 ? categoryIds[c - 1] : null,
+                        plan.byGroup() ? groupIds[g] : null,
+                        acc.counts[s], acc.totalInvested(s), acc.totalCurrent(s)));
+            }
+        }
+    }
+}
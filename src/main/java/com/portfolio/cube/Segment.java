@@ -0,0 +1,279 @@
+package com.portfolio.cube;
+
+import com.portfolio.money.FixedPoint;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The assets of one portfolio, stored column by column in parallel primitive arrays
+ * (row r of every array is the same asset). Deleting a row moves the last row into its
+ * place, so the live rows are always 0 … size-1.
+ *
+ * Values are scaled longs ({@link FixedPoint}): quantity at scale 4, invested and current
+ * value at scale 6. An asset whose numbers do not fit keeps {@link #OVERSIZE} in the value
+ * columns and its exact figures in {@link #oversize}.
+ *
+ * Holding totals are kept up to date on every change, per (type, category) cell in
+ * {@link #cells}, per group and cell in {@link #groupCells} and per group alone in
+ * {@link #groupTotals}, so most rollups add up
+ * a few cells instead of scanning the rows. Cell keys are {@link #cellKey}.
+ * Not thread-safe: {@link HoldingsCube} guards it.
+ */
+final class Segment {
+
+    static final long OVERSIZE = Long.MIN_VALUE;
+    static final int[] NO_GROUPS = new int[0];
+
+    final long portfolioId;
+
+    int size;
+    long[] assetIds;
+    byte[] types;
+    /** Category code, or -1 for none. */
+    int[] categories;
+    boolean[] wishlist;
+    long[] quantities;
+    long[] invested;
+    long[] current;
+    /** Group codes of each row; {@link #NO_GROUPS} when it is in none. */
+    int[][] groups;
+
+    /** Exact {quantity, invested, current} of the rows marked {@link #OVERSIZE}, by asset ID. */
+    final Map<Long, BigDecimal[]> oversize = new HashMap<>();
+
+    /** Holdings (wishlist excluded) per (type, category) cell. */
+    final Accumulator cells = newCells();
+    /** The same per group, indexed by group code; null for a group without holdings here. */
+    Accumulator[] groupCells = new Accumulator[0];
+    /** Holdings per group over all types and categories, keyed by group code. */
+    final Accumulator groupTotals = newCells();
+
+    private final LongIntHashMap rowByAsset;
+
+    Segment(long portfolioId, int capacity) {
+        this.portfolioId = portfolioId;
+        capacity = Math.max(capacity, 16);
+        assetIds = new long[capacity];
+        types = new byte[capacity];
+        categories = new int[capacity];
+        wishlist = new boolean[capacity];
+        quantities = new long[capacity];
+        invested = new long[capacity];
+        current = new long[capacity];
+        groups = new int[capacity][];
+        rowByAsset = new LongIntHashMap(capacity);
+    }
+
+    /** Type ordinal in the low byte, category code + 1 (0 = none) above it. */
+    static long cellKey(int type, int categoryCode) {
+        return ((long) (categoryCode + 1) << 8) | type;
+    }
+
+    static int typeOf(long cellKey) {
+        return (int) (cellKey & 0xFF);
+    }
+
+    /** Category code + 1, 0 for none. */
+    static int categoryOf(long cellKey) {
+        return (int) (cellKey >>> 8);
+    }
+
+    int rowOf(long assetId) {
+        return rowByAsset.get(assetId);
+    }
+
+    // ---------------------------------------------------------------
+    // ROWS
+    // ---------------------------------------------------------------
+
+    /** Inserts or overwrites the asset's row; its group memberships are kept. */
+    void put(AssetRow asset, int categoryCode) {
+        int row = rowByAsset.get(asset.assetId());
+        if (row < 0) {
+            if (size == assetIds.length) grow();
+            row = size++;
+            rowByAsset.put(asset.assetId(), row);
+            assetIds[row] = asset.assetId();
+            groups[row] = NO_GROUPS;
+        } else {
+            addToTotals(row, -1);
+            oversize.remove(asset.assetId());
+        }
+        types[row] = (byte) asset.assetType().ordinal();
+        categories[row] = categoryCode;
+        wishlist[row] = asset.wishlist();
+        setValues(row, asset.quantity(), asset.buyPrice(), asset.currentPrice());
+        addToTotals(row, 1);
+    }
+
+    /** New current price for an existing row; the invested value is unchanged. */
+    void reprice(int row, BigDecimal currentPrice) {
+        addToTotals(row, -1);
+        if (invested[row] == OVERSIZE) {
+            BigDecimal[] exact = oversize.remove(assetIds[row]);
+            setExact(row, exact[0], exact[1], exact[0].multiply(currentPrice));
+        } else {
+            try {
+                current[row] = FixedPoint.multiply(quantities[row],
+                        FixedPoint.toUnscaled(currentPrice, FixedPoint.PRICE_SCALE));
+            } catch (ArithmeticException notRepresentable) {
+                BigDecimal quantity = FixedPoint.toBigDecimal(quantities[row], FixedPoint.QUANTITY_SCALE);
+                setExact(row, quantity, FixedPoint.toBigDecimal(invested[row], FixedPoint.VALUE_SCALE),
+                        quantity.multiply(currentPrice));
+            }
+        }
+        addToTotals(row, 1);
+    }
+
+    void remove(int row) {
+        addToTotals(row, -1);
+        long assetId = assetIds[row];
+        oversize.remove(assetId);
+        rowByAsset.remove(assetId);
+        int last = --size;
+        if (row != last) {
+            assetIds[row] = assetIds[last];
+            types[row] = types[last];
+            categories[row] = categories[last];
+            wishlist[row] = wishlist[last];
+            quantities[row] = quantities[last];
+            invested[row] = invested[last];
+            current[row] = current[last];
+            groups[row] = groups[last];
+            rowByAsset.put(assetIds[row], row);
+        }
+        groups[last] = null;
+    }
+
+    // ---------------------------------------------------------------
+    // GROUPS
+    // ---------------------------------------------------------------
+
+    void addGroup(int row, int groupCode) {
+        int[] codes = groups[row];
+        for (int g : codes) {
+            if (g == groupCode) return;
+        }
+        int[] next = Arrays.copyOf(codes, codes.length + 1);
+        next[codes.length] = groupCode;
+        groups[row] = next;
+        addToCells(row, groupCellsOf(groupCode), 1);
+        addToCell(row, groupTotals, groupCode, 1);
+    }
+
+    void removeGroup(int row, int groupCode) {
+        int[] codes = groups[row];
+        for (int i = 0; i < codes.length; i++) {
+            if (codes[i] == groupCode) {
+                addToCells(row, groupCellsOf(groupCode), -1);
+                addToCell(row, groupTotals, groupCode, -1);
+                if (codes.length == 1) {
+                    groups[row] = NO_GROUPS;
+                } else {
+                    int[] next = new int[codes.length - 1];
+                    System.arraycopy(codes, 0, next, 0, i);
+                    System.arraycopy(codes, i + 1, next, i, next.length - i);
+                    groups[row] = next;
+                }
+                return;
+            }
+        }
+    }
+
+    void removeGroupEverywhere(int groupCode) {
+        if (groupCode >= groupCells.length || groupCells[groupCode] == null) return;
+        for (int row = 0; row < size; row++) {
+            removeGroup(row, groupCode);
+        }
+        groupCells[groupCode] = null;
+    }
+
+    private Accumulator groupCellsOf(int groupCode) {
+        if (groupCode >= groupCells.length) {
+            groupCells = Arrays.copyOf(groupCells, Math.max(groupCode + 1, groupCells.length * 2));
+        }
+        Accumulator g = groupCells[groupCode];
+        if (g == null) groupCells[groupCode] = g = newCells();
+        return g;
+    }
+
+    // ---------------------------------------------------------------
+    // VALUES
+    // ---------------------------------------------------------------
+
+    BigDecimal investedValue(int row) {
+        return invested[row] == OVERSIZE ? oversize.get(assetIds[row])[1]
+                : FixedPoint.toBigDecimal(invested[row], FixedPoint.VALUE_SCALE);
+    }
+
+    BigDecimal currentValue(int row) {
+        return current[row] == OVERSIZE ? oversize.get(assetIds[row])[2]
+                : FixedPoint.toBigDecimal(current[row], FixedPoint.VALUE_SCALE);
+    }
+
+    private void setValues(int row, BigDecimal quantity, BigDecimal buyPrice, BigDecimal currentPrice) {
+        try {
+            long qty = FixedPoint.toUnscaled(quantity, FixedPoint.QUANTITY_SCALE);
+            long inv = buyPrice == null ? 0
+                    : FixedPoint.multiply(qty, FixedPoint.toUnscaled(buyPrice, FixedPoint.PRICE_SCALE));
+            long cur = FixedPoint.multiply(qty, FixedPoint.toUnscaled(currentPrice, FixedPoint.PRICE_SCALE));
+            if (inv == OVERSIZE || cur == OVERSIZE) throw new ArithmeticException("reserved value");
+            quantities[row] = qty;
+            invested[row] = inv;
+            current[row] = cur;
+        } catch (ArithmeticException notRepresentable) {
+            setExact(row, quantity, buyPrice == null ? BigDecimal.ZERO : quantity.multiply(buyPrice),
+                    quantity.multiply(currentPrice));
+        }
+    }
+
+    private void setExact(int row, BigDecimal quantity, BigDecimal investedValue, BigDecimal currentValue) {
+        quantities[row] = OVERSIZE;
+        invested[row] = OVERSIZE;
+        current[row] = OVERSIZE;
+        oversize.put(assetIds[row], new BigDecimal[]{quantity, investedValue, currentValue});
+    }
+
+    /** Adds (sign 1) or removes (sign -1) the row's share of the maintained holding totals. */
+    private void addToTotals(int row, int sign) {
+        addToCells(row, cells, sign);
+        for (int g : groups[row]) {
+            addToCells(row, groupCells[g], sign);
+            addToCell(row, groupTotals, g, sign);
+        }
+    }
+
+    private void addToCells(int row, Accumulator target, int sign) {
+        addToCell(row, target, cellKey(types[row], categories[row]), sign);
+    }
+
+    private void addToCell(int row, Accumulator target, long key, int sign) {
+        if (wishlist[row]) return;
+        if (invested[row] == OVERSIZE) {
+            BigDecimal[] exact = oversize.get(assetIds[row]);
+            target.addExact(key, sign, sign > 0 ? exact[1] : exact[1].negate(),
+                    sign > 0 ? exact[2] : exact[2].negate());
+        } else {
+            target.add(key, sign, sign * invested[row], sign * current[row]);
+        }
+    }
+
+    private static Accumulator newCells() {
+        return new Accumulator(Long.MAX_VALUE, 4);
+    }
+
+    private void grow() {
+        int capacity = assetIds.length * 2;
+        assetIds = Arrays.copyOf(assetIds, capacity);
+        types = Arrays.copyOf(types, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        wishlist = Arrays.copyOf(wishlist, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        invested = Arrays.copyOf(invested, capacity);
+        current = Arrays.copyOf(current, capacity);
+        groups = Arrays.copyOf(groups, capacity);
+    }
+}
@@ -0,0 +1,13 @@
+package com.portfolio.dto.projection;
+
+import com.portfolio.entity.AssetType;
+
+import java.math.BigDecimal;
+
+/**
+ * The columns of an asset that a price change needs: the old price for history and the
+ * quantity / type / wishlist flag for the portfolio aggregate delta.
+ */
+public record AssetPriceRow(Long assetId, String assetName, Long portfolioId, AssetType assetType,
+                            BigDecimal quantity, BigDecimal currentPrice, boolean wishlist) {
+}
@@ -0,0 +1,9 @@
+package com.portfolio.dto.projection;
+
+import com.portfolio.entity.AssetType;
+
+/** {@link HoldingTotals} grouped by asset type. */
+public interface AssetTypeTotals extends HoldingTotals {
+
+    AssetType getAssetType();
+}
@@ -0,0 +1,7 @@
+package com.portfolio.dto.projection;
+
+/**
+ * One row of the asset_group_members join table.
+ */
+public record GroupMembership(Long groupId, Long assetId) {
+}
@@ -0,0 +1,18 @@
+package com.portfolio.dto.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Holding totals of one (group, portfolio) cell — whole, or one partition's share of it.
+ */
+public record GroupPortfolioTotals(Long groupId, String groupName, Long portfolioId, String portfolioName,
+                                   long holdingCount, BigDecimal totalInvested, BigDecimal currentValue) {
+
+    /** The cell's totals with another partial of the same cell added. */
+    public GroupPortfolioTotals plus(GroupPortfolioTotals other) {
+        return new GroupPortfolioTotals(groupId, groupName, portfolioId, portfolioName,
+                holdingCount + other.holdingCount,
+                totalInvested.add(other.totalInvested),
+                currentValue.add(other.currentValue));
+    }
+}
@@ -0,0 +1,15 @@
+package com.portfolio.dto.projection;
+
+import java.time.LocalDate;
+
+/**
+ * A group's own columns plus its member count and {@link GroupTotals} over all portfolios.
+ */
+public interface GroupSummary extends GroupTotals {
+
+    String getDescription();
+
+    LocalDate getCreatedDate();
+
+    Long getAssetCount();
+}
@@ -0,0 +1,9 @@
+package com.portfolio.dto.projection;
+
+/** {@link HoldingTotals} over the members of an asset group, grouped by group. */
+public interface GroupTotals extends HoldingTotals {
+
+    Long getGroupId();
+
+    String getGroupName();
+}
@@ -0,0 +1,13 @@
+package com.portfolio.dto.projection;
+
+import com.portfolio.entity.ActionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The columns of a history row that a valuation replay needs.
+ */
+public record HistoryPoint(Long assetId, Long historyId, ActionType actionType,
+                           BigDecimal quantityChanged, BigDecimal price, LocalDate actionDate) {
+}
@@ -0,0 +1,17 @@
+package com.portfolio.dto.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregate row computed in the database over HOLDING assets:
+ * COUNT, SUM(quantity × buyPrice) and SUM(quantity × currentPrice).
+ * Sub-interfaces add the grouping key.
+ */
+public interface HoldingTotals {
+
+    Long getHoldingCount();
+
+    BigDecimal getTotalInvested();
+
+    BigDecimal getCurrentValue();
+}
@@ -0,0 +1,24 @@
+package com.portfolio.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for adding many assets to one group, or removing them from it.
+ * POST /asset-groups/{groupId}/assets         → adds these assets to the group
+ * POST /asset-groups/{groupId}/assets/remove  → removes these assets from the group
+ * Duplicate IDs are ignored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetGroupBulkMembersRequest {
+
+    @NotEmpty(message = "At least one asset ID is required")
+    private List<@NotNull Long> assetIds;
+}
@@ -0,0 +1,36 @@
+package com.portfolio.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for replacing the group membership of many assets (PUT /assets/groups).
+ * Each entry sets one asset's groups to exactly its groupIds; an empty list removes the
+ * asset from every group. An asset may appear only once.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetGroupBulkReplaceRequest {
+
+    @NotEmpty(message = "At least one asset is required")
+    private List<@Valid Entry> assets;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+
+        @NotNull(message = "assetId is required")
+        private Long assetId;
+
+        @NotNull(message = "groupIds is required")
+        private List<@NotNull Long> groupIds;
+    }
+}
@@ -0,0 +1,40 @@
+package com.portfolio.dto.request;
+
+import com.portfolio.entity.AssetType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Query parameters of the paginated asset listings
+ * (GET /portfolios/{id}/assets, GET /portfolios/{id}/wishlist).
+ *
+ * The first page is requested without a cursor; each following page passes the
+ * {@code nextCursor} of the previous response, with the same sort and direction.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetPageRequest {
+
+    private AssetType assetType;
+
+    /** Only stocks of this category. */
+    private Long categoryId;
+
+    /** Only members of this group. */
+    private Long groupId;
+
+    private AssetSort sort = AssetSort.ID;
+
+    private Sort.Direction direction = Sort.Direction.ASC;
+
+    @Min(value = 1, message = "limit must be at least 1")
+    @Max(value = 500, message = "limit must be at most 500")
+    private int limit = 50;
+
+    private String cursor;
+}
@@ -0,0 +1,12 @@
+package com.portfolio.dto.request;
+
+/**
+ * Sort keys for paginated asset listings. Every key is followed by assetId, so the
+ * order is total and a page boundary can be resumed exactly.
+ */
+public enum AssetSort {
+    ID,
+    NAME,
+    CURRENT_VALUE,
+    PERCENTAGE_RETURN
+}
@@ -0,0 +1,41 @@
+package com.portfolio.dto.request;
+
+import com.portfolio.entity.ActionType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Query parameters of the paginated asset history (GET /assets/{assetId}/history).
+ *
+ * Rows come newest first. The first page is requested without a cursor; each following
+ * page passes the {@code nextCursor} of the previous response with the same filters.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryPageRequest {
+
+    /** Only rows on or after this date (inclusive). */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    /** Only rows on or before this date (inclusive). */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    /** Only these action types; all types when empty. */
+    private List<ActionType> actionType;
+
+    @Min(value = 1, message = "limit must be at least 1")
+    @Max(value = 1000, message = "limit must be at most 1000")
+    private int limit = 100;
+
+    private String cursor;
+}
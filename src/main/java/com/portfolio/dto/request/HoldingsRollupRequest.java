@@ -0,0 +1,32 @@
+package com.portfolio.dto.request;
+
+import com.portfolio.cube.CubeDimension;
+import com.portfolio.entity.AssetType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Query parameters of GET /holdings/rollup. {@code by} lists the dimensions to break the
+ * holdings down by (none = one grand total); every other parameter is an optional filter
+ * that accepts several values ({@code portfolioId=1,2}). Drilling into a cell is the same
+ * request with one more dimension and the cell's coordinates as filters.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldingsRollupRequest {
+
+    private List<CubeDimension> by;
+
+    private List<Long> portfolioId;
+
+    private List<AssetType> assetType;
+
+    private List<Long> categoryId;
+
+    /** Holdings in at least one of these groups. */
+    private List<Long> groupId;
+}
@@ -0,0 +1,37 @@
+package com.portfolio.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO for bulk repricing (POST /prices/batch).
+ * Each entry names its target by assetId OR assetName (exactly one) plus the new current price.
+ * Entries are validated one by one — a bad entry is reported in the response, it does not
+ * reject the whole batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceBatchRequest {
+
+    @NotEmpty(message = "At least one price is required")
+    private List<Entry> prices;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+
+        private Long assetId;
+
+        /** Prices every asset with this name, across all portfolios. */
+        private String assetName;
+
+        private BigDecimal price;
+    }
+}
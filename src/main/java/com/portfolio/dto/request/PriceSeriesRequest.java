@@ -0,0 +1,30 @@
+package com.portfolio.dto.request;
+
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Query parameters of GET /assets/{assetId}/prices.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceSeriesRequest {
+
+    /** Bucket width: day, week or month (case-insensitive). */
+    @Pattern(regexp = "(?i)day|week|month", message = "interval must be day, week or month")
+    private String interval = "day";
+
+    /** Only buckets starting on or after this date. */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    /** Only buckets starting on or before this date (default: today). */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+}
@@ -0,0 +1,25 @@
+package com.portfolio.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Query parameters of GET /portfolios/{portfolioId}/snapshots (both bounds inclusive).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotRangeRequest {
+
+    /** Default: the first snapshot. */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    /** Default: today. */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+}
@@ -0,0 +1,32 @@
+package com.portfolio.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Query parameters of GET /portfolios/{portfolioId}/valuation/series.
+ * One point at {@code from}, then one every interval up to {@code to}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ValuationSeriesRequest {
+
+    @NotNull(message = "from is required")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    /** Last date of the range (default: today). */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    /** Step between points: day, week or month (case-insensitive). */
+    @Pattern(regexp = "(?i)day|week|month", message = "interval must be day, week or month")
+    private String interval = "day";
+}
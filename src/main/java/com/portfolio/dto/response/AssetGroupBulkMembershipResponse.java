@@ -0,0 +1,23 @@
+package com.portfolio.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a bulk membership change: how many join rows were actually inserted and
+ * deleted. Memberships that already matched the request are not counted.
+ * groupId is set for the per-group endpoints only.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AssetGroupBulkMembershipResponse {
+
+    private Long groupId;
+    private int assetCount;
+    private int addedCount;
+    private int removedCount;
+}
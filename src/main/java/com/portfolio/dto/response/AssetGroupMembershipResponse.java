@@ -0,0 +1,23 @@
+package com.portfolio.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a membership change on one asset: only the groups whose membership actually
+ * changed. Groups the asset already belonged to (or never belonged to) are not listed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AssetGroupMembershipResponse {
+
+    private Long assetId;
+    private List<Long> addedGroupIds;
+    private List<Long> removedGroupIds;
+}
@@ -5,9 +5,13 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
 
+/**
+ * Group summary: member counts and holding totals across all portfolios.
+ * Members themselves are listed page by page via GET /asset-groups/{groupId}/assets.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,6 +22,10 @@ public class AssetGroupResponse {
     private String groupName;
     private String description;
     private LocalDate createdDate;
+
+    /** All members, holdings and wishlist items. */
     private Integer assetCount;
-    private List<AssetResponse> assets;
+    private Integer holdingCount;
+    private BigDecimal totalInvested;
+    private BigDecimal currentValue;
 }
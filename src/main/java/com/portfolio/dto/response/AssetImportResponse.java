@@ -0,0 +1,35 @@
+package com.portfolio.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a bulk asset import. Counts cover every row; {@code errors} lists at most the
+ * first 1000 failed rows ({@code errorsTruncated} tells whether more failed).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AssetImportResponse {
+
+    private Long rowsRead;
+    private Long imported;
+    private Long failed;
+    private List<RowError> errors;
+    private Boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+
+        /** 1-based line number in the uploaded body (the CSV header is line 1). */
+        private Long line;
+        private String message;
+    }
+}
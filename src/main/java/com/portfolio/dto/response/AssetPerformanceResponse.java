@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 /**
  * Individual asset performance view.
@@ -25,6 +26,11 @@ public class AssetPerformanceResponse {
     private BigDecimal quantity;
     private BigDecimal buyPrice;
     private BigDecimal currentPrice;
+    /**
+     * When currentPrice was written to the latest-price table, or the day of the asset's last
+     * PRICE_UPDATE when the startup reconcile wrote it; null when unknown or read from the asset row.
+     */
+    private Instant priceUpdatedAt;
     private BigDecimal investedValue;
     private BigDecimal currentValue;
     private BigDecimal absoluteReturn;
@@ -0,0 +1,25 @@
+package com.portfolio.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+
+    private List<T> items;
+
+    /** Opaque token for the next page (pass back as {@code cursor}); null on the last page. */
+    private String nextCursor;
+
+    private Boolean hasMore;
+}
@@ -0,0 +1,29 @@
+package com.portfolio.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One cell of the group × portfolio performance matrix: the HOLDING assets of one
+ * portfolio that are in one group. Wishlist assets are excluded.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroupPortfolioPerformanceResponse {
+
+    private Long groupId;
+    private String groupName;
+    private Long portfolioId;
+    private String portfolioName;
+    private Integer holdingCount;
+    private BigDecimal totalInvested;
+    private BigDecimal currentValue;
+    private BigDecimal absoluteReturn;
+    private BigDecimal percentageReturn;
+}
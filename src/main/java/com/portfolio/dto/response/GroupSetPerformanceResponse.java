@@ -0,0 +1,36 @@
+package com.portfolio.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Performance of the assets selected by a group combination
+ * (in all of allOf, in any of anyOf, in none of noneOf) within one portfolio.
+ * Counts and values cover HOLDING assets only; assetCount includes wishlist items.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroupSetPerformanceResponse {
+
+    private Long portfolioId;
+    private List<Long> allOf;
+    private List<Long> anyOf;
+    private List<Long> noneOf;
+    private Long assetCount;
+    private Integer holdingCount;
+    private BigDecimal totalInvested;
+    private BigDecimal currentValue;
+    private BigDecimal absoluteReturn;
+    private BigDecimal percentageReturn;
+
+    /** Smallest selected asset IDs, at most {@code limit} of them. */
+    private List<Long> assetIds;
+    private Boolean assetIdsTruncated;
+}
@@ -0,0 +1,34 @@
+package com.portfolio.dto.response;
+
+import com.portfolio.entity.AssetType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One cell of a holdings rollup (HOLDING assets only). Coordinates of dimensions that were
+ * not requested are null; in a CATEGORY rollup a null categoryId is the cell of holdings
+ * without a category.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HoldingsCellResponse {
+
+    private Long portfolioId;
+    private String portfolioName;
+    private AssetType assetType;
+    private Long categoryId;
+    private String categoryName;
+    private Long groupId;
+    private String groupName;
+    private Long holdingCount;
+    private BigDecimal totalInvested;
+    private BigDecimal currentValue;
+    private BigDecimal absoluteReturn;
+    private BigDecimal percentageReturn;
+}
@@ -0,0 +1,29 @@
+package com.portfolio.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * A portfolio's summary totals as recorded at the end of {@code date}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PortfolioSnapshotResponse {
+
+    private LocalDate date;
+    private BigDecimal totalInvestedAmount;
+    private BigDecimal currentPortfolioValue;
+    private BigDecimal absoluteReturn;
+    private BigDecimal percentageReturn;
+
+    /** Current value per asset type (e.g. "STOCK"); types not held are omitted. */
+    private Map<String, BigDecimal> assetTypeValues;
+}
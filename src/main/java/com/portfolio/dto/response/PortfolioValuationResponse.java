@@ -0,0 +1,27 @@
+package com.portfolio.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A portfolio's holdings valued as of the end of {@code date}, replayed from asset history.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PortfolioValuationResponse {
+
+    private Long portfolioId;
+    private LocalDate date;
+    private BigDecimal totalInvestedAmount;
+    private BigDecimal currentPortfolioValue;
+    private BigDecimal absoluteReturn;
+    private BigDecimal percentageReturn;
+    private Integer holdingCount;
+}
@@ -0,0 +1,33 @@
+package com.portfolio.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One bucket of an asset's price series (GET /assets/{assetId}/prices).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceBarResponse {
+
+    /** First day of the bucket (a Monday for weeks, the 1st for months). */
+    private LocalDate bucketStart;
+
+    private BigDecimal open;
+    private BigDecimal high;
+    private BigDecimal low;
+    private BigDecimal close;
+
+    /** Net quantity bought (+) or sold (−) in the bucket. */
+    private BigDecimal quantityChange;
+
+    /** History rows summarized by this bucket. */
+    private Integer updates;
+}
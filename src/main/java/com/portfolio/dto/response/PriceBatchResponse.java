@@ -0,0 +1,49 @@
+package com.portfolio.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of POST /prices/batch: counts plus one outcome per request entry, in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceBatchResponse {
+
+    private Integer requested;
+    private Integer updated;
+    private Integer unchanged;
+    private Integer failed;
+    private List<Result> results;
+
+    public enum Status {
+        /** At least one asset got the new price (and a PRICE_UPDATE history row). */
+        UPDATED,
+        /** Target found, price was already equal. */
+        UNCHANGED,
+        NOT_FOUND,
+        INVALID
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+
+        /** Position of the entry in the request list. */
+        private Integer index;
+        private Long assetId;
+        private String assetName;
+        private Status status;
+        /** Number of assets repriced by this entry (several when priced by name). */
+        private Integer assetsUpdated;
+        private String message;
+    }
+}
@@ -0,0 +1,59 @@
+package com.portfolio.dto.response;
+
+import com.portfolio.entity.AssetType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Result of GET /prices/history-stats: PRICE_UPDATE history rows written vs. price changes
+ * folded into an existing row, since startup, with the coalescing policy of each asset type,
+ * and the health of the history writer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceUpdateStatsResponse {
+
+    private Long rowsWritten;
+    private Long updatesCoalesced;
+    private Map<AssetType, TypeStats> byAssetType;
+    private WriterStats writer;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TypeStats {
+
+        /** ISO-8601 duration; PT0S when changes are not coalesced by time. */
+        private String window;
+        /** Relative change below which a change is coalesced; 0 when off. */
+        private BigDecimal minChange;
+        private Long rowsWritten;
+        private Long updatesCoalesced;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class WriterStats {
+
+        /** SYNC or ASYNC (portfolio.history.mode). */
+        private String mode;
+        /** False when an ASYNC writer thread has died: its queue no longer drains. */
+        private boolean alive;
+        private Integer queued;
+        /** Failed write attempts since startup. */
+        private Long failures;
+        /** Rows moved to the dead-letter file since startup (ASYNC only). */
+        private Long deadLettered;
+        private String lastError;
+    }
+}
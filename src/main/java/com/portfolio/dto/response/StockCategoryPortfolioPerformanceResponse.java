@@ -0,0 +1,46 @@
+package com.portfolio.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Aggregated performance of all HOLDING stocks in one category across every portfolio,
+ * with the per-portfolio breakdown. Wishlist stocks are excluded.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockCategoryPortfolioPerformanceResponse {
+
+    private Long categoryId;
+    private String categoryName;
+    private String description;
+    private BigDecimal totalInvested;
+    private BigDecimal currentValue;
+    private BigDecimal absoluteReturn;
+    private BigDecimal percentageReturn;
+    private Integer stockCount;
+    /** Portfolios holding stocks of this category, sorted by name. */
+    private List<PortfolioEntry> portfolios;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PortfolioEntry {
+
+        private Long portfolioId;
+        private String portfolioName;
+        private BigDecimal totalInvested;
+        private BigDecimal currentValue;
+        private BigDecimal absoluteReturn;
+        private BigDecimal percentageReturn;
+        private Integer stockCount;
+    }
+}
@@ -0,0 +1,41 @@
+package com.portfolio.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of GET /prices/ticks/stats: tick ingestion counters since startup. Only
+ * {@code enabled} is set when ingestion is off.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TickIngestStatsResponse {
+
+    private Boolean enabled;
+    private Long ticksReceived;
+    /** Malformed lines skipped. */
+    private Long parseErrors;
+    /** Ticks superseded by a later tick of the same asset within a flush interval. */
+    private Long ticksCoalesced;
+    /** Ticks dropped because max-assets distinct assets were already pending. */
+    private Long ticksRejected;
+    /** Times the reader had to wait for ring space (the feed was slowed down). */
+    private Long ringFullWaits;
+    private Integer ringDepth;
+    private Integer ringCapacity;
+    private Integer connections;
+    private Long flushes;
+    /** Latest prices handed to the database, one per asset per flush. */
+    private Long pricesFlushed;
+    /** Of those, assets whose price actually changed. */
+    private Long assetsRepriced;
+    private Long flushFailures;
+    /** Receipt of the oldest tick applied by the last flush → end of that flush. */
+    private Long lastFlushLagMs;
+    private Long maxFlushLagMs;
+    private Long lastFlushMs;
+}
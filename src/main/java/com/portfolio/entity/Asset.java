@@ -1,12 +1,19 @@
 package com.portfolio.entity;
 
+import com.portfolio.id.IdSequences;
+import com.portfolio.money.AssetValuation;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -18,16 +25,30 @@ import java.util.Set;
  *   Wishlist — isWishlist = true,  buyPrice is null, excluded from all financial calculations.
  *
  * For STOCK type assets, stockCategory is mandatory.
+ *
+ * Equality is by ID only: the generated equals/hashCode must not walk the
+ * Asset ↔ AssetGroup sets (or any mutable field), otherwise the hash-based
+ * collections break as soon as either side is loaded or modified.
  */
 @Entity
-@Table(name = "assets")
+@Table(name = "assets",
+       indexes = {
+           @Index(name = "idx_asset_name", columnList = "asset_name"),
+           @Index(name = "idx_asset_portfolio_name", columnList = "portfolio_id, asset_name")
+       }
+)
 @Data
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Asset {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "asset_id_gen")
+    @TableGenerator(name = "asset_id_gen", table = IdSequences.TABLE,
+            pkColumnName = IdSequences.NAME_COLUMN, valueColumnName = IdSequences.VALUE_COLUMN,
+            pkColumnValue = IdSequences.ASSETS, allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "asset_id")
     private Long assetId;
 
@@ -70,33 +91,53 @@ public class Asset {
 
     /**
      * All groups this asset belongs to (Many-to-Many, inverse side).
+     * When not fetched up front, loaded for up to 50 assets per query.
      */
     @ManyToMany(mappedBy = "assets")
+    @BatchSize(size = 50)
+    @ToString.Exclude
     private Set<AssetGroup> groups = new HashSet<>();
 
+    /**
+     * Cached derived values; rebuilt whenever quantity, buyPrice or currentPrice has been
+     * replaced since it was computed. Not persisted.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient AssetValuation valuation;
+
     // ---------------------------------------------------------------
     // Derived calculations — only meaningful for holding assets.
     // Callers must check isWishlist before using these.
     // ---------------------------------------------------------------
 
+    /**
+     * All four derived values, computed once in fixed-point (see {@link AssetValuation}).
+     * Prefer this over the individual getters when more than one value is needed.
+     */
+    public AssetValuation valuation() {
+        AssetValuation v = valuation;
+        if (v == null || !v.isFor(quantity, buyPrice, currentPrice)) {
+            v = AssetValuation.of(quantity, buyPrice, currentPrice);
+            valuation = v;
+        }
+        return v;
+    }
+
     public BigDecimal getInvestedValue() {
-        if (buyPrice == null) return BigDecimal.ZERO;
-        return quantity.multiply(buyPrice);
+        return valuation().investedValue();
     }
 
     public BigDecimal getCurrentValue() {
-        return quantity.multiply(currentPrice);
+        return valuation().currentValue();
     }
 
     public BigDecimal getAbsoluteReturn() {
-        return getCurrentValue().subtract(getInvestedValue());
+        return valuation().absoluteReturn();
     }
 
     public BigDecimal getPercentageReturn() {
-        BigDecimal invested = getInvestedValue();
-        if (invested.compareTo(BigDecimal.ZERO) == 0) return BigDecimal.ZERO;
-        return getAbsoluteReturn()
-                .divide(invested, 4, RoundingMode.HALF_UP)
-                .multiply(new BigDecimal("100"));
+        return valuation().percentageReturn();
     }
 }
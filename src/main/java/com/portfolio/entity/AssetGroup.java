@@ -1,9 +1,13 @@
 package com.portfolio.entity;
 
+import com.portfolio.id.IdSequences;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.util.HashSet;
@@ -17,16 +21,23 @@ import java.util.Set;
  * Group name is unique across the entire system.
  *
  * Performance calculations for a group are always scoped by portfolioId at query time.
+ *
+ * Equality is by ID only (see {@link Asset}).
  */
 @Entity
 @Table(name = "asset_groups")
 @Data
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class AssetGroup {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "asset_group_id_gen")
+    @TableGenerator(name = "asset_group_id_gen", table = IdSequences.TABLE,
+            pkColumnName = IdSequences.NAME_COLUMN, valueColumnName = IdSequences.VALUE_COLUMN,
+            pkColumnValue = IdSequences.ASSET_GROUPS, allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "group_id")
     private Long groupId;
 
@@ -41,8 +52,11 @@ public class AssetGroup {
 
     /**
      * Owning side of the Many-to-Many. The join table lives here.
+     * When not fetched up front, loaded for up to 50 groups per query.
      */
     @ManyToMany
+    @BatchSize(size = 50)
+    @ToString.Exclude
     @JoinTable(
             name = "asset_group_members",
             joinColumns = @JoinColumn(name = "group_id"),
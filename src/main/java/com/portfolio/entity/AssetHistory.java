@@ -1,5 +1,6 @@
 package com.portfolio.entity;
 
+import com.portfolio.id.IdSequences;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -10,12 +11,13 @@ import java.time.LocalDate;
 
 /**
  * Append-only audit log for every meaningful change to an asset.
- * Never deleted automatically — used for audit and future analytics.
+ * Never deleted automatically — used for audit and future analytics. When the history
+ * archive is enabled, rows past its retention move to {@link com.portfolio.history.HistoryArchive}.
  */
 @Entity
 @Table(name = "asset_history",
        indexes = {
-           @Index(name = "idx_history_asset_date", columnList = "asset_id, action_date DESC")
+           @Index(name = "idx_history_asset_date", columnList = "asset_id, action_date DESC, history_id DESC")
        }
 )
 @Data
@@ -24,7 +26,10 @@ import java.time.LocalDate;
 public class AssetHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "asset_history_id_gen")
+    @TableGenerator(name = "asset_history_id_gen", table = IdSequences.TABLE,
+            pkColumnName = IdSequences.NAME_COLUMN, valueColumnName = IdSequences.VALUE_COLUMN,
+            pkColumnValue = IdSequences.ASSET_HISTORY, allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "history_id")
     private Long historyId;
 
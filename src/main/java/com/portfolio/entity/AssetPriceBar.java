@@ -0,0 +1,80 @@
+package com.portfolio.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Open/high/low/close of one asset's history prices over one day, week or month, plus the
+ * net quantity change. Derived from {@link AssetHistory}: every appended history row is
+ * folded into its DAY, WEEK and MONTH bar in the same transaction, so a chart reads one row
+ * per bucket instead of every PRICE_UPDATE.
+ *
+ * open/close are the prices of the lowest/highest history ID in the bucket, so bars merge
+ * correctly whatever order the rows arrive in.
+ */
+@Entity
+@Table(name = "asset_price_bars",
+       indexes = {
+           @Index(name = "idx_price_bar_interval_start", columnList = "bar_interval, bucket_start")
+       }
+)
+@IdClass(AssetPriceBar.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetPriceBar {
+
+    @Id
+    @Column(name = "asset_id")
+    private Long assetId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "bar_interval", length = 10)
+    private BarInterval barInterval;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDate bucketStart;
+
+    @Column(name = "open_price", precision = 15, scale = 2, nullable = false)
+    private BigDecimal openPrice;
+
+    @Column(name = "high_price", precision = 15, scale = 2, nullable = false)
+    private BigDecimal highPrice;
+
+    @Column(name = "low_price", precision = 15, scale = 2, nullable = false)
+    private BigDecimal lowPrice;
+
+    @Column(name = "close_price", precision = 15, scale = 2, nullable = false)
+    private BigDecimal closePrice;
+
+    /** Sum of quantityChanged over the bucket (rows without one count as zero). */
+    @Column(name = "quantity_change", precision = 19, scale = 4, nullable = false)
+    private BigDecimal quantityChange;
+
+    @Column(name = "first_history_id", nullable = false)
+    private Long firstHistoryId;
+
+    @Column(name = "last_history_id", nullable = false)
+    private Long lastHistoryId;
+
+    /** Number of history rows folded into this bar. */
+    @Column(name = "row_count", nullable = false)
+    private int rowCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long assetId;
+        private BarInterval barInterval;
+        private LocalDate bucketStart;
+    }
+}
@@ -0,0 +1,58 @@
+package com.portfolio.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * State of one asset replayed from {@link AssetHistory} up to (excluding) checkpointDate:
+ * the quantity held, the buy price of its last BUY and the price of its last history row.
+ *
+ * Written for every asset with history, for each date in {@link ValuationCheckpoint}, so a
+ * point-in-time valuation starts from the nearest checkpoint and replays only the rows after
+ * it. Keyed portfolio-first: one portfolio's state at one date is a primary key range.
+ */
+@Entity
+@Table(name = "asset_state_checkpoints")
+@IdClass(AssetStateCheckpoint.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetStateCheckpoint {
+
+    @Id
+    @Column(name = "portfolio_id")
+    private Long portfolioId;
+
+    @Id
+    @Column(name = "checkpoint_date")
+    private LocalDate checkpointDate;
+
+    @Id
+    @Column(name = "asset_id")
+    private Long assetId;
+
+    @Column(name = "quantity", precision = 19, scale = 4, nullable = false)
+    private BigDecimal quantity;
+
+    /** Null while the asset has no BUY yet (wishlist). */
+    @Column(name = "buy_price", precision = 15, scale = 2)
+    private BigDecimal buyPrice;
+
+    @Column(name = "last_price", precision = 15, scale = 2, nullable = false)
+    private BigDecimal lastPrice;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long portfolioId;
+        private LocalDate checkpointDate;
+        private Long assetId;
+    }
+}
@@ -0,0 +1,23 @@
+package com.portfolio.entity;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Bucket width of an {@link AssetPriceBar}. Weeks start on Monday.
+ */
+public enum BarInterval {
+    DAY,
+    WEEK,
+    MONTH;
+
+    /** First day of the bucket containing {@code date}. */
+    public LocalDate bucketStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+}
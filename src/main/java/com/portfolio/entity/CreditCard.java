@@ -1,5 +1,6 @@
 package com.portfolio.entity;
 
+import com.portfolio.id.IdSequences;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -21,7 +22,10 @@ import java.time.temporal.ChronoUnit;
 public class CreditCard {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "credit_card_id_gen")
+    @TableGenerator(name = "credit_card_id_gen", table = IdSequences.TABLE,
+            pkColumnName = IdSequences.NAME_COLUMN, valueColumnName = IdSequences.VALUE_COLUMN,
+            pkColumnValue = IdSequences.CREDIT_CARDS, allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "card_id")
     private Long cardId;
 
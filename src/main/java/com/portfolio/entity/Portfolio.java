@@ -1,5 +1,6 @@
 package com.portfolio.entity;
 
+import com.portfolio.id.IdSequences;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -22,7 +23,10 @@ import java.util.List;
 public class Portfolio {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "portfolio_id_gen")
+    @TableGenerator(name = "portfolio_id_gen", table = IdSequences.TABLE,
+            pkColumnName = IdSequences.NAME_COLUMN, valueColumnName = IdSequences.VALUE_COLUMN,
+            pkColumnValue = IdSequences.PORTFOLIOS, allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "portfolio_id")
     private Long portfolioId;
 
@@ -0,0 +1,84 @@
+package com.portfolio.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running totals over the HOLDING assets of one portfolio.
+ *
+ * Maintained in the same transaction as every asset write, so the portfolio summary
+ * is read from here instead of re-scanning all holdings. Wishlist assets never contribute.
+ *
+ * Values are kept at scale 6 (quantity scale 4 × price scale 2) so the totals are
+ * exactly the sum of the per-asset products — no rounding drift between rebuilds.
+ */
+@Entity
+@Table(name = "portfolio_aggregates")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioAggregate {
+
+    /** Same value as the owning portfolio's ID (one row per portfolio). */
+    @Id
+    @Column(name = "portfolio_id")
+    private Long portfolioId;
+
+    @Column(name = "total_invested", precision = 25, scale = 6, nullable = false)
+    private BigDecimal totalInvested = BigDecimal.ZERO;
+
+    @Column(name = "current_value", precision = 25, scale = 6, nullable = false)
+    private BigDecimal currentValue = BigDecimal.ZERO;
+
+    /**
+     * Current value per asset type. Types with no holdings have no entry.
+     */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "portfolio_aggregate_type_values",
+                     joinColumns = @JoinColumn(name = "portfolio_id"))
+    @MapKeyEnumerated(EnumType.STRING)
+    @MapKeyColumn(name = "asset_type", length = 20)
+    @Column(name = "current_value", precision = 25, scale = 6, nullable = false)
+    private Map<AssetType, BigDecimal> typeValues = new HashMap<>();
+
+    public PortfolioAggregate(Long portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    /**
+     * Adds a (possibly negative) contribution. Type entries that drop to zero are removed
+     * so the allocation map only lists types that are actually held.
+     */
+    public void apply(AssetType assetType, BigDecimal investedDelta, BigDecimal currentDelta) {
+        totalInvested = totalInvested.add(investedDelta);
+        currentValue = currentValue.add(currentDelta);
+        BigDecimal typeValue = typeValues.getOrDefault(assetType, BigDecimal.ZERO).add(currentDelta);
+        if (typeValue.signum() == 0) {
+            typeValues.remove(assetType);
+        } else {
+            typeValues.put(assetType, typeValue);
+        }
+    }
+
+    /** Field-by-field comparison used by the verify job (ignores scale differences). */
+    public boolean matches(PortfolioAggregate other) {
+        if (totalInvested.compareTo(other.totalInvested) != 0) return false;
+        if (currentValue.compareTo(other.currentValue) != 0) return false;
+        Map<AssetType, BigDecimal> mine = new EnumMap<>(AssetType.class);
+        mine.putAll(typeValues);
+        Map<AssetType, BigDecimal> theirs = new EnumMap<>(AssetType.class);
+        theirs.putAll(other.typeValues);
+        if (!mine.keySet().equals(theirs.keySet())) return false;
+        for (var entry : mine.entrySet()) {
+            if (entry.getValue().compareTo(theirs.get(entry.getKey())) != 0) return false;
+        }
+        return true;
+    }
+}
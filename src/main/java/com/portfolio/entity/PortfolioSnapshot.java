@@ -0,0 +1,103 @@
+package com.portfolio.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * End-of-day totals of one portfolio's holdings, as the portfolio summary showed them on
+ * snapshotDate. One compact row per portfolio and day: the per-type values are columns, so
+ * a date range of one portfolio is a single range read of the primary key.
+ *
+ * A new {@link AssetType} needs a column here.
+ */
+@Entity
+@Table(name = "portfolio_snapshots")
+@IdClass(PortfolioSnapshot.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioSnapshot {
+
+    @Id
+    @Column(name = "portfolio_id")
+    private Long portfolioId;
+
+    @Id
+    @Column(name = "snapshot_date")
+    private LocalDate snapshotDate;
+
+    @Column(name = "total_invested", precision = 25, scale = 6, nullable = false)
+    private BigDecimal totalInvested = BigDecimal.ZERO;
+
+    @Column(name = "current_value", precision = 25, scale = 6, nullable = false)
+    private BigDecimal currentValue = BigDecimal.ZERO;
+
+    @Column(name = "stock_value", precision = 25, scale = 6, nullable = false)
+    private BigDecimal stockValue = BigDecimal.ZERO;
+
+    @Column(name = "mutual_fund_value", precision = 25, scale = 6, nullable = false)
+    private BigDecimal mutualFundValue = BigDecimal.ZERO;
+
+    @Column(name = "bond_value", precision = 25, scale = 6, nullable = false)
+    private BigDecimal bondValue = BigDecimal.ZERO;
+
+    @Column(name = "etf_value", precision = 25, scale = 6, nullable = false)
+    private BigDecimal etfValue = BigDecimal.ZERO;
+
+    @Column(name = "cash_value", precision = 25, scale = 6, nullable = false)
+    private BigDecimal cashValue = BigDecimal.ZERO;
+
+    @Column(name = "other_value", precision = 25, scale = 6, nullable = false)
+    private BigDecimal otherValue = BigDecimal.ZERO;
+
+    public PortfolioSnapshot(Long portfolioId, LocalDate snapshotDate) {
+        this.portfolioId = portfolioId;
+        this.snapshotDate = snapshotDate;
+    }
+
+    /** Adds one asset type's totals (invested and current value) to the snapshot. */
+    public void add(AssetType assetType, BigDecimal invested, BigDecimal current) {
+        totalInvested = totalInvested.add(invested);
+        currentValue = currentValue.add(current);
+        switch (assetType) {
+            case STOCK -> stockValue = stockValue.add(current);
+            case MUTUAL_FUND -> mutualFundValue = mutualFundValue.add(current);
+            case BOND -> bondValue = bondValue.add(current);
+            case ETF -> etfValue = etfValue.add(current);
+            case CASH -> cashValue = cashValue.add(current);
+            case OTHER -> otherValue = otherValue.add(current);
+        }
+    }
+
+    /** Current value per asset type; types without value have no entry. */
+    public Map<AssetType, BigDecimal> typeValues() {
+        Map<AssetType, BigDecimal> values = new EnumMap<>(AssetType.class);
+        putIfHeld(values, AssetType.STOCK, stockValue);
+        putIfHeld(values, AssetType.MUTUAL_FUND, mutualFundValue);
+        putIfHeld(values, AssetType.BOND, bondValue);
+        putIfHeld(values, AssetType.ETF, etfValue);
+        putIfHeld(values, AssetType.CASH, cashValue);
+        putIfHeld(values, AssetType.OTHER, otherValue);
+        return values;
+    }
+
+    private static void putIfHeld(Map<AssetType, BigDecimal> values, AssetType type, BigDecimal value) {
+        if (value.signum() != 0) values.put(type, value);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long portfolioId;
+        private LocalDate snapshotDate;
+    }
+}
@@ -1,9 +1,13 @@
 package com.portfolio.entity;
 
+import com.portfolio.id.IdSequences;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,16 +16,22 @@ import java.util.List;
  * StockCategory entity for grouping similar stocks together.
  * Examples: Technology, Banking, Pharma, FMCG, etc.
  * Performance metrics are calculated at category level, not individual stocks.
+ *
+ * Uninitialized category proxies are loaded up to 50 at a time.
  */
 @Entity
 @Table(name = "stock_categories")
+@BatchSize(size = 50)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class StockCategory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "stock_category_id_gen")
+    @TableGenerator(name = "stock_category_id_gen", table = IdSequences.TABLE,
+            pkColumnName = IdSequences.NAME_COLUMN, valueColumnName = IdSequences.VALUE_COLUMN,
+            pkColumnValue = IdSequences.STOCK_CATEGORIES, allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "category_id")
     private Long categoryId;
 
@@ -32,5 +42,7 @@ public class StockCategory {
     private String description;
 
     @OneToMany(mappedBy = "stockCategory", cascade = CascadeType.ALL)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private List<Asset> assets = new ArrayList<>();
 }
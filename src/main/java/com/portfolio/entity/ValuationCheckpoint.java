@@ -0,0 +1,32 @@
+package com.portfolio.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A completed checkpoint date: the {@link AssetStateCheckpoint} rows of every portfolio at
+ * this date are written. Only dates listed here are used by valuations.
+ */
+@Entity
+@Table(name = "valuation_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ValuationCheckpoint {
+
+    /** History rows with an earlier action date are covered. */
+    @Id
+    @Column(name = "checkpoint_date")
+    private LocalDate checkpointDate;
+
+    @Column(name = "asset_count", nullable = false)
+    private int assetCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,374 @@
+package com.portfolio.history;
+
+import com.portfolio.entity.ActionType;
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetHistory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * One read-only, memory-mapped file of archived history for the assets in [rangeStart, rangeEnd).
+ *
+ * Layout (big-endian):
+ *   header        magic, version, asset range, generation, base generation, row and asset
+ *                 counts, min/max action date (epoch day), offsets of the sections below
+ *   types         action type dictionary: count, then one UTF name per entry
+ *   remarks       remarks dictionary: count, an int file offset per entry, then the entries
+ *                 (varint length + UTF-8 bytes)
+ *   directory     per asset, sorted by assetId: assetId, row count, and the offset of the
+ *                 asset's run in each of the six column sections
+ *   columns       historyId, actionDate, actionType, quantity, price, remarks
+ *
+ * Within an asset's run rows are in (actionDate, historyId) order. IDs and dates are zig-zag
+ * varint deltas from the previous row of the asset; prices are the delta of the scale-2
+ * unscaled value from the previous non-null price, quantities the scale-4 unscaled value.
+ * In nullable columns 0 encodes null and every other value is shifted up by one. An action
+ * type is one dictionary byte, a remark a varint dictionary index (0: null).
+ *
+ * A segment with generation G and base generation B holds every row of the segments of the
+ * same range with generations B..G-1, so those are superseded by it.
+ */
+final class ArchiveSegment {
+
+    private static final int MAGIC = 0x48534547;   // "HSEG"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 104;
+    private static final int COLUMNS = 6;
+    private static final int DIRECTORY_ENTRY_BYTES = 8 + 4 + 4 * COLUMNS;
+
+    private static final int ID = 0, DATE = 1, TYPE = 2, QUANTITY = 3, PRICE = 4, REMARKS = 5;
+
+    private static final int QUANTITY_SCALE = 4;
+    private static final int PRICE_SCALE = 2;
+
+    private static final Comparator<AssetHistory> STORAGE_ORDER =
+            Comparator.comparing((AssetHistory h) -> h.getAsset().getAssetId())
+                    .thenComparing(AssetHistory::getActionDate)
+                    .thenComparing(AssetHistory::getHistoryId);
+
+    private final ByteBuffer data;
+    private final long rangeStart;
+    private final long rangeEnd;
+    private final long generation;
+    private final long baseGeneration;
+    private final int rowCount;
+    private final int assetCount;
+    private final LocalDate minDate;
+    private final LocalDate maxDate;
+    private final int remarksOffset;
+    private final int directoryOffset;
+    private final ActionType[] types;
+
+    private volatile Path file;
+
+    private ArchiveSegment(Path file, ByteBuffer data) {
+        this.file = file;
+        this.data = data;
+        if (data.capacity() < HEADER_BYTES || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a history archive segment: " + file);
+        }
+        rangeStart = data.getLong(8);
+        rangeEnd = data.getLong(16);
+        generation = data.getLong(24);
+        baseGeneration = data.getLong(32);
+        rowCount = data.getInt(40);
+        assetCount = data.getInt(44);
+        minDate = LocalDate.ofEpochDay(data.getLong(48));
+        maxDate = LocalDate.ofEpochDay(data.getLong(56));
+        remarksOffset = data.getInt(64);
+        directoryOffset = data.getInt(68);
+
+        int typeCount = data.getInt(HEADER_BYTES);
+        types = new ActionType[typeCount];
+        int pos = HEADER_BYTES + 4;
+        for (int i = 0; i < typeCount; i++) {
+            int length = data.getShort(pos) & 0xFFFF;
+            types[i] = ActionType.valueOf(string(pos + 2, length));
+            pos += 2 + length;
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // WRITE
+    // ---------------------------------------------------------------
+
+    /**
+     * Writes the rows (each with its historyId and an asset carrying the ID) to a new file and
+     * forces it to disk. Rows with a historyId already written are dropped.
+     */
+    static void write(Path file, long rangeStart, long rangeEnd, long generation, long baseGeneration,
+                      List<AssetHistory> rows) throws IOException {
+        List<AssetHistory> sorted = new ArrayList<>(rows);
+        sorted.sort(STORAGE_ORDER);
+
+        Map<ActionType, Integer> typeIndex = new EnumMap<>(ActionType.class);
+        List<ActionType> typeList = new ArrayList<>();
+        Map<String, Integer> remarkIndex = new HashMap<>();
+        ByteArrayOutputStream remarkEntries = new ByteArrayOutputStream();
+        List<Integer> remarkOffsets = new ArrayList<>();
+
+        Column[] columns = new Column[COLUMNS];
+        for (int c = 0; c < COLUMNS; c++) columns[c] = new Column();
+        List<long[]> directory = new ArrayList<>();   // assetId, rowCount, column offsets
+        long minDay = Long.MAX_VALUE, maxDay = Long.MIN_VALUE;
+        int written = 0;
+
+        long[] entry = null;
+        long prevId = 0, prevDay = 0, prevPrice = 0;
+        for (AssetHistory h : sorted) {
+            long assetId = h.getAsset().getAssetId();
+            if (entry == null || entry[0] != assetId) {
+                entry = new long[2 + COLUMNS];
+                entry[0] = assetId;
+                for (int c = 0; c < COLUMNS; c++) entry[2 + c] = columns[c].size();
+                directory.add(entry);
+                prevId = 0;
+                prevDay = 0;
+                prevPrice = 0;
+            } else if (h.getHistoryId() == prevId) {
+                continue;
+            }
+            long day = h.getActionDate().toEpochDay();
+            columns[ID].varint(zigzag(h.getHistoryId() - prevId));
+            columns[DATE].varint(zigzag(day - prevDay));
+            columns[TYPE].write(typeIndex.computeIfAbsent(h.getActionType(), t -> {
+                typeList.add(t);
+                return typeList.size() - 1;
+            }));
+            if (h.getQuantityChanged() == null) {
+                columns[QUANTITY].varint(0);
+            } else {
+                columns[QUANTITY].varint(zigzag(unscaled(h.getQuantityChanged(), QUANTITY_SCALE)) + 1);
+            }
+            if (h.getPriceAtThatTime() == null) {
+                columns[PRICE].varint(0);
+            } else {
+                long price = unscaled(h.getPriceAtThatTime(), PRICE_SCALE);
+                columns[PRICE].varint(zigzag(price - prevPrice) + 1);
+                prevPrice = price;
+            }
+            if (h.getRemarks() == null) {
+                columns[REMARKS].varint(0);
+            } else {
+                int index = remarkIndex.computeIfAbsent(h.getRemarks(), r -> {
+                    remarkOffsets.add(remarkEntries.size());
+                    byte[] bytes = r.getBytes(StandardCharsets.UTF_8);
+                    writeVarint(remarkEntries, bytes.length);
+                    remarkEntries.writeBytes(bytes);
+                    return remarkOffsets.size() - 1;
+                });
+                columns[REMARKS].varint(index + 1L);
+            }
+            entry[1]++;
+            prevId = h.getHistoryId();
+            prevDay = day;
+            minDay = Math.min(minDay, day);
+            maxDay = Math.max(maxDay, day);
+            written++;
+        }
+
+        ByteArrayOutputStream typeSection = new ByteArrayOutputStream();
+        DataOutputStream typeOut = new DataOutputStream(typeSection);
+        typeOut.writeInt(typeList.size());
+        for (ActionType t : typeList) typeOut.writeUTF(t.name());
+
+        long remarksAt = HEADER_BYTES + typeSection.size();
+        long directoryAt = remarksAt + 4 + 4L * remarkOffsets.size() + remarkEntries.size();
+        long[] columnAt = new long[COLUMNS];
+        long end = directoryAt + (long) DIRECTORY_ENTRY_BYTES * directory.size();
+        for (int c = 0; c < COLUMNS; c++) {
+            columnAt[c] = end;
+            end += columns[c].size();
+        }
+        if (end > Integer.MAX_VALUE) {
+            throw new IllegalStateException("History archive segment over 2 GB; lower assets-per-segment");
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(rangeStart);
+            out.writeLong(rangeEnd);
+            out.writeLong(generation);
+            out.writeLong(baseGeneration);
+            out.writeInt(written);
+            out.writeInt(directory.size());
+            out.writeLong(written > 0 ? minDay : 0);
+            out.writeLong(written > 0 ? maxDay : 0);
+            out.writeInt((int) remarksAt);
+            out.writeInt((int) directoryAt);
+            for (int c = 0; c < COLUMNS; c++) out.writeInt((int) columnAt[c]);
+            out.write(new byte[HEADER_BYTES - 96]);
+
+            typeSection.writeTo(out);
+            out.writeInt(remarkOffsets.size());
+            long entriesAt = remarksAt + 4 + 4L * remarkOffsets.size();
+            for (int offset : remarkOffsets) out.writeInt((int) (entriesAt + offset));
+            remarkEntries.writeTo(out);
+
+            for (long[] e : directory) {
+                out.writeLong(e[0]);
+                out.writeInt((int) e[1]);
+                for (int c = 0; c < COLUMNS; c++) out.writeInt((int) (columnAt[c] + e[2 + c]));
+            }
+            for (Column column : columns) column.writeTo(out);
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // READ
+    // ---------------------------------------------------------------
+
+    static ArchiveSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ArchiveSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    Path file() { return file; }
+    long rangeStart() { return rangeStart; }
+    long rangeEnd() { return rangeEnd; }
+    long generation() { return generation; }
+    long baseGeneration() { return baseGeneration; }
+    int rowCount() { return rowCount; }
+    LocalDate minDate() { return minDate; }
+    LocalDate maxDate() { return maxDate; }
+
+    /** The file was renamed; the mapping stays valid. */
+    void movedTo(Path file) { this.file = file; }
+
+    boolean covers(long assetId) {
+        return assetId >= rangeStart && assetId < rangeEnd;
+    }
+
+    /** The asset's rows in (actionDate, historyId) order; empty when it has none here. */
+    List<AssetHistory> read(long assetId) {
+        int lo = 0, hi = assetCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long id = data.getLong(directoryOffset + mid * DIRECTORY_ENTRY_BYTES);
+            if (id < assetId) lo = mid + 1;
+            else if (id > assetId) hi = mid - 1;
+            else {
+                List<AssetHistory> rows = new ArrayList<>();
+                decode(mid, rows::add);
+                return rows;
+            }
+        }
+        return List.of();
+    }
+
+    /** Every row, asset by asset. */
+    void forEachRow(Consumer<AssetHistory> action) {
+        for (int i = 0; i < assetCount; i++) decode(i, action);
+    }
+
+    // ---------------------------------------------------------------
+    // INTERNAL
+    // ---------------------------------------------------------------
+
+    private void decode(int directoryIndex, Consumer<AssetHistory> action) {
+        int at = directoryOffset + directoryIndex * DIRECTORY_ENTRY_BYTES;
+        long assetId = data.getLong(at);
+        int count = data.getInt(at + 8);
+        int[] pos = new int[COLUMNS];
+        for (int c = 0; c < COLUMNS; c++) pos[c] = data.getInt(at + 12 + 4 * c);
+
+        Asset asset = new Asset();
+        asset.setAssetId(assetId);
+        long id = 0, day = 0, price = 0;
+        for (int i = 0; i < count; i++) {
+            id += unzigzag(varint(pos, ID));
+            day += unzigzag(varint(pos, DATE));
+            AssetHistory h = new AssetHistory();
+            h.setHistoryId(id);
+            h.setAsset(asset);
+            h.setActionDate(LocalDate.ofEpochDay(day));
+            h.setActionType(types[data.get(pos[TYPE]++) & 0xFF]);
+            long quantity = varint(pos, QUANTITY);
+            if (quantity != 0) h.setQuantityChanged(BigDecimal.valueOf(unzigzag(quantity - 1), QUANTITY_SCALE));
+            long priceDelta = varint(pos, PRICE);
+            if (priceDelta != 0) {
+                price += unzigzag(priceDelta - 1);
+                h.setPriceAtThatTime(BigDecimal.valueOf(price, PRICE_SCALE));
+            }
+            long remark = varint(pos, REMARKS);
+            if (remark != 0) h.setRemarks(remark(remark - 1));
+            action.accept(h);
+        }
+    }
+
+    private String remark(long index) {
+        int[] pos = { data.getInt(remarksOffset + 4 + 4 * (int) index) };
+        int length = (int) varint(pos, 0);
+        return string(pos[0], length);
+    }
+
+    private String string(int at, int length) {
+        byte[] bytes = new byte[length];
+        data.get(at, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long varint(int[] pos, int column) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = data.get(pos[column]++);
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    private static long unscaled(BigDecimal value, int scale) {
+        return value.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /** One column section while it is being built. */
+    private static final class Column extends ByteArrayOutputStream {
+        Column() {
+            super(4096);
+        }
+
+        void varint(long value) {
+            writeVarint(this, value);
+        }
+    }
+}
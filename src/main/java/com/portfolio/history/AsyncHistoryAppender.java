@@ -0,0 +1,443 @@
+package com.portfolio.history;
+
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetHistory;
+import com.portfolio.id.IdBlockAllocator;
+import com.portfolio.id.IdSequences;
+import com.portfolio.repository.AssetHistoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind history: rows are queued when the asset transaction commits and background
+ * writer threads insert them in JDBC batches. The asset write no longer waits for the
+ * history INSERT.
+ *
+ * Ordering ({@code portfolio.history.ordering}, with {@code writer-threads} writers):
+ *   PER_ASSET — one FIFO queue per writer, rows assigned by asset ID, so the rows of an asset
+ *               are stored in commit order (default; with one writer, all rows are).
+ *   NONE      — the writers share one queue; rows of an asset may be inserted out of order.
+ * In journal mode IDs follow commit order either way; otherwise they are assigned at insert.
+ *
+ * Durability:
+ *   journal off — the queues are memory only. Shutdown drains them, a crash loses what was queued.
+ *   journal on  — IDs are assigned at append time, and the rows are written to the local
+ *                 {@link HistoryJournal} (fsync'd) before the transaction commits. At startup
+ *                 unwritten rows are replayed; replay skips IDs that already exist. A crash
+ *                 between the journal write and the database commit can therefore replay
+ *                 rows of a transaction that did not commit (at-least-once).
+ *
+ * A batch is tried at most {@code max-attempts} times, whatever the failure, with backoff in
+ * between; rows the database rejects and batches that still fail go to the
+ * {@link HistoryDeadLetters} file and are logged, so one bad batch cannot stop a writer.
+ * A committing thread waits at most {@code enqueue-timeout} for room in a full queue, then
+ * inserts its rows itself (once, dead-lettering them on failure), ahead of rows still queued.
+ * Liveness, queue depth, failures and dead-lettered rows are reported by {@link #status()}.
+ * Price bars are updated in the transaction that inserts the rows.
+ */
+@Component
+@ConditionalOnProperty(prefix = "portfolio.history", name = "mode", havingValue = "ASYNC")
+@Slf4j
+public class AsyncHistoryAppender implements HistoryAppender {
+
+    public enum Ordering { PER_ASSET, NONE }
+
+    private static final long INITIAL_RETRY_DELAY_MS = 500;
+    private static final long MAX_RETRY_DELAY_MS = 30_000;
+
+    private final AssetHistoryRepository assetHistoryRepository;
+    private final PriceBarRecorder priceBarRecorder;
+    private final IdBlockAllocator idBlockAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final Ordering ordering;
+    private final List<BlockingQueue<Queued>> queues = new ArrayList<>();
+    private final List<Thread> writers = new ArrayList<>();
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long enqueueTimeoutMs;
+    private final HistoryJournal journal;   // null when journaling is off
+    private final HistoryDeadLetters deadLetters;
+
+    private volatile boolean running = true;
+
+    // writer health, read by status()
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private volatile String lastError;
+
+    /** Local block of pre-assigned IDs (journal mode only). */
+    private long nextId = 1;
+    private long lastId = 0;
+
+    /** A queued row, and the journal segment it was written to (-1 when not journaled). */
+    private record Queued(AssetHistory history, long segment) {}
+
+    public AsyncHistoryAppender(AssetHistoryRepository assetHistoryRepository,
+                                PriceBarRecorder priceBarRecorder,
+                                IdBlockAllocator idBlockAllocator,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${portfolio.history.ordering:PER_ASSET}") Ordering ordering,
+                                @Value("${portfolio.history.writer-threads:1}") int writerThreads,
+                                @Value("${portfolio.history.queue-capacity:10000}") int queueCapacity,
+                                @Value("${portfolio.history.batch-size:500}") int batchSize,
+                                @Value("${portfolio.history.max-attempts:5}") int maxAttempts,
+                                @Value("${portfolio.history.enqueue-timeout:1s}") Duration enqueueTimeout,
+                                @Value("${portfolio.history.dead-letter-file:./data/history-dead-letter.tsv}") Path deadLetterFile,
+                                @Value("${portfolio.history.journal.enabled:false}") boolean journalEnabled,
+                                @Value("${portfolio.history.journal.dir:./data/history-journal}") Path journalDir,
+                                @Value("${portfolio.history.journal.segment-bytes:67108864}") long segmentBytes,
+                                @Value("${portfolio.history.journal.fsync:true}") boolean fsync) throws IOException {
+        this.assetHistoryRepository = assetHistoryRepository;
+        this.priceBarRecorder = priceBarRecorder;
+        this.idBlockAllocator = idBlockAllocator;
+        // also called from afterCompletion, where the finished transaction is still bound
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ordering = ordering;
+        int queueCount = ordering == Ordering.PER_ASSET ? writerThreads : 1;
+        for (int i = 0; i < queueCount; i++) {
+            queues.add(new ArrayBlockingQueue<>(Math.max(1, queueCapacity / queueCount)));
+        }
+        for (int i = 0; i < writerThreads; i++) {
+            BlockingQueue<Queued> queue = queues.get(i % queueCount);
+            writers.add(new Thread(() -> runWriter(queue), writerThreads == 1 ? "history-writer" : "history-writer-" + i));
+        }
+        this.batchSize = batchSize;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.enqueueTimeoutMs = enqueueTimeout.toMillis();
+        this.journal = journalEnabled ? new HistoryJournal(journalDir, segmentBytes, fsync) : null;
+        this.deadLetters = new HistoryDeadLetters(deadLetterFile);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (journal != null) {
+            replayJournal();
+        }
+        writers.forEach(Thread::start);
+        log.info("Asynchronous history writer started ({} threads, ordering {}, journal {})", writers.size(),
+                ordering, journal != null ? "on" : "off");
+    }
+
+    /** Drains the queues before the database goes away. */
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        for (Thread writer : writers) {
+            writer.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        }
+        for (Thread writer : writers) {
+            if (writer.isAlive()) {
+                log.error("History writer {} did not finish within 30s; {} rows still queued", writer.getName(),
+                        queued());
+                writer.interrupt();
+            }
+        }
+        List<Queued> rest = new ArrayList<>();
+        queues.forEach(q -> q.drainTo(rest));
+        if (!rest.isEmpty()) {
+            write(rest, 1);
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Override
+    public Status status() {
+        return new Status("ASYNC", writers.stream().allMatch(Thread::isAlive), queued(), failures.get(),
+                deadLettered.get(), lastError);
+    }
+
+    private int queued() {
+        return queues.stream().mapToInt(BlockingQueue::size).sum();
+    }
+
+    // ---------------------------------------------------------------
+    // APPEND
+    // ---------------------------------------------------------------
+
+    @Override
+    public void append(List<AssetHistory> entries) {
+        if (entries.isEmpty()) return;
+        for (AssetHistory h : entries) {
+            detach(h);
+        }
+        if (journal != null) {
+            assignIds(entries);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingHistory pending = (PendingHistory) TransactionSynchronizationManager.getResource(this);
+            if (pending == null) {
+                pending = new PendingHistory();
+                TransactionSynchronizationManager.bindResource(this, pending);
+                TransactionSynchronizationManager.registerSynchronization(pending);
+            }
+            pending.entries.addAll(entries);
+        } else {
+            enqueue(entries, journal != null ? journal.append(entries) : -1);
+        }
+    }
+
+    /** Collects one transaction's rows; journals them before commit, queues them after. */
+    private final class PendingHistory implements TransactionSynchronization {
+
+        private final List<AssetHistory> entries = new ArrayList<>();
+        private long segment = -1;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (journal != null) {
+                segment = journal.append(entries);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AsyncHistoryAppender.this);
+            if (status == STATUS_COMMITTED) {
+                enqueue(entries, segment);
+            } else if (segment >= 0) {
+                journal.cancel(segment, entries);
+            }
+        }
+    }
+
+    /**
+     * Queues the rows, waiting at most the enqueue timeout per row; rows that do not fit (or
+     * arrive during shutdown, when the writers may be gone) are written here, in one attempt.
+     */
+    private void enqueue(List<AssetHistory> entries, long segment) {
+        List<Queued> overflow = new ArrayList<>();
+        for (AssetHistory h : entries) {
+            Queued queued = new Queued(h, segment);
+            try {
+                if (!running || !queueOf(h).offer(queued, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    overflow.add(queued);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                overflow.add(queued);
+            }
+        }
+        if (!overflow.isEmpty()) {
+            if (running) {
+                log.warn("History queue full; writing {} rows in the committing thread", overflow.size());
+            }
+            write(overflow, 1);
+        }
+    }
+
+    private BlockingQueue<Queued> queueOf(AssetHistory h) {
+        return queues.size() == 1 ? queues.get(0)
+                : queues.get((int) Math.floorMod(h.getAsset().getAssetId(), (long) queues.size()));
+    }
+
+    /** Keeps only the asset ID, so queued rows do not pin the caller's entities in memory. */
+    private static void detach(AssetHistory h) {
+        Asset ref = new Asset();
+        ref.setAssetId(h.getAsset().getAssetId());
+        h.setAsset(ref);
+    }
+
+    private synchronized void assignIds(List<AssetHistory> entries) {
+        for (int i = 0; i < entries.size(); i++) {
+            if (nextId > lastId) {
+                int count = Math.max(IdSequences.ALLOCATION_SIZE, entries.size() - i);
+                nextId = idBlockAllocator.reserve(IdSequences.ASSET_HISTORY, count);
+                lastId = nextId + count - 1;
+            }
+            entries.get(i).setHistoryId(nextId++);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // WRITER
+    // ---------------------------------------------------------------
+
+    /** {@link #write} handles every failure of a batch; this only guards against the dead-letter file failing too. */
+    private void runWriter(BlockingQueue<Queued> queue) {
+        List<Queued> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Queued first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch, maxAttempts);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException | Error e) {
+                failures.incrementAndGet();
+                lastError = e.toString();
+                log.error("History writer lost {} rows{}", batch.size(),
+                        journal != null ? " (kept in journal)" : "", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Inserts the batch in at most {@code attempts} tries. Rows the database rejects, and the
+     * whole batch when the last try fails, are dead-lettered. The rows' journal entries are
+     * then released, except when it gives up during shutdown: the journal keeps them for
+     * the replay.
+     */
+    private void write(List<Queued> batch, int attempts) {
+        List<AssetHistory> rows = batch.stream().map(Queued::history).toList();
+        long delay = INITIAL_RETRY_DELAY_MS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                insert(rows);
+                break;
+            } catch (DataIntegrityViolationException e) {
+                if (!insertOneByOne(rows, attempts)) return;
+                break;
+            } catch (RuntimeException | Error e) {
+                failed(e);
+                if (stopping() && journal != null) {
+                    log.error("History write failed during shutdown; {} rows kept in journal", rows.size(), e);
+                    return;
+                }
+                if (attempt >= attempts || stopping()) {
+                    deadLetter(rows, e);
+                    break;
+                }
+                log.warn("History write of {} rows failed (attempt {} of {}), retrying in {} ms: {}",
+                        rows.size(), attempt, attempts, delay, e.toString());
+                pause(delay);
+                delay = Math.min(delay * 2, MAX_RETRY_DELAY_MS);
+            }
+        }
+        if (journal != null) {
+            for (Queued q : batch) {
+                journal.release(q.segment(), 1);
+            }
+        }
+        log.debug("History recorded: {} rows", rows.size());
+    }
+
+    private void insert(List<AssetHistory> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            assetHistoryRepository.batchInsert(rows);
+            priceBarRecorder.record(rows);
+        });
+    }
+
+    /**
+     * Row by row after the database rejected the batch: rejected rows are dead-lettered,
+     * other failures retried like a batch. False when it gave up during shutdown with the
+     * rows kept in the journal.
+     */
+    private boolean insertOneByOne(List<AssetHistory> rows, int attempts) {
+        for (AssetHistory h : rows) {
+            long delay = INITIAL_RETRY_DELAY_MS;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    insert(List.of(h));
+                    break;
+                } catch (DataIntegrityViolationException e) {
+                    failed(e);
+                    deadLetter(List.of(h), e);
+                    break;
+                } catch (RuntimeException | Error e) {
+                    failed(e);
+                    if (stopping() && journal != null) {
+                        log.error("History row write failed during shutdown; rows kept in journal", e);
+                        return false;
+                    }
+                    if (attempt >= attempts || stopping()) {
+                        deadLetter(List.of(h), e);
+                        break;
+                    }
+                    pause(delay);
+                    delay = Math.min(delay * 2, MAX_RETRY_DELAY_MS);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void deadLetter(List<AssetHistory> rows, Throwable cause) {
+        try {
+            deadLetters.append(rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException("History dead-letter write failed", e);
+        }
+        deadLettered.addAndGet(rows.size());
+        log.error("Moved {} history rows to {}: {}", rows.size(), deadLetters.file(), cause.toString());
+    }
+
+    private void failed(Throwable e) {
+        failures.incrementAndGet();
+        lastError = e.toString();
+    }
+
+    private boolean stopping() {
+        return !running || Thread.currentThread().isInterrupted();
+    }
+
+    /** Keeps the interrupt flag, so {@link #stopping} sees it. */
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // RECOVERY
+    // ---------------------------------------------------------------
+
+    private void replayJournal() throws IOException {
+        List<AssetHistory> pending = journal.readPending();
+        if (!pending.isEmpty()) {
+            List<Long> ids = pending.stream().map(AssetHistory::getHistoryId).toList();
+            Set<Long> existing = new HashSet<>();
+            for (int from = 0; from < ids.size(); from += 1000) {
+                existing.addAll(assetHistoryRepository.findExistingHistoryIds(
+                        ids.subList(from, Math.min(from + 1000, ids.size()))));
+            }
+            List<AssetHistory> missing = pending.stream()
+                    .filter(h -> !existing.contains(h.getHistoryId()))
+                    .toList();
+            for (int from = 0; from < missing.size(); from += batchSize) {
+                List<AssetHistory> rows = missing.subList(from, Math.min(from + batchSize, missing.size()));
+                try {
+                    insert(rows);
+                } catch (DataIntegrityViolationException e) {
+                    insertOneByOne(rows, maxAttempts);
+                }
+            }
+            log.warn("History journal replayed: {} rows pending, {} written", pending.size(), missing.size());
+        }
+        journal.deleteRecovered();
+    }
+}
@@ -0,0 +1,37 @@
+package com.portfolio.history;
+
+import com.portfolio.entity.AssetHistory;
+
+import java.util.List;
+
+/**
+ * Where {@link com.portfolio.service.AssetHistoryService} sends new history rows.
+ *
+ * Selected by {@code portfolio.history.mode}:
+ *   SYNC  — {@link SyncHistoryAppender}: written inside the calling transaction (default)
+ *   ASYNC — {@link AsyncHistoryAppender}: queued after commit, written in batches by a
+ *           background writer, optionally journaled to disk first
+ *
+ * Either way the rows of one asset are stored in the order they were appended, unless
+ * ASYNC runs with {@code portfolio.history.ordering=NONE}.
+ */
+public interface HistoryAppender {
+
+    /**
+     * Health of the appender. {@code writerAlive} is false only when an ASYNC writer thread
+     * has died; its queue then no longer drains. {@code deadLettered} counts the rows given up.
+     */
+    record Status(String mode, boolean writerAlive, int queued, long failures, long deadLettered,
+                  String lastError) {}
+
+    /**
+     * Records the entries. Only {@code asset.assetId} of each entry's asset is used.
+     * When called inside a transaction, nothing is recorded if that transaction rolls back.
+     */
+    void append(List<AssetHistory> entries);
+
+    /** Writes happen in the caller's thread unless overridden. */
+    default Status status() {
+        return new Status("SYNC", true, 0, 0, 0, null);
+    }
+}
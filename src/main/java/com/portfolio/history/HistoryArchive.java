@@ -0,0 +1,311 @@
+package com.portfolio.history;
+
+import com.portfolio.dto.projection.HistoryPoint;
+import com.portfolio.entity.AssetHistory;
+import com.portfolio.repository.AssetHistoryRepository;
+import com.portfolio.repository.HistoryPageQuery;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier of asset history. A scheduled job moves rows older than the retention out of
+ * asset_history into {@link ArchiveSegment} files, one asset-ID range per file; reads merge
+ * them back in, so callers see one history.
+ *
+ * Each run writes, per range that has rows to archive, a new segment. Once a range would
+ * have more than {@code max-segments-per-range} files, the new segment also takes in the
+ * rows of the existing ones, which it then supersedes.
+ *
+ * Crash safety: a segment is written as {@code .tmp}, forced to disk and renamed to
+ * {@code .pending}; it is then published to readers, its rows are deleted from the database,
+ * and it is renamed to {@code .seg}. At startup a {@code .tmp} file is discarded and a
+ * {@code .pending} one finishes its delete (deleting missing IDs is a no-op) and rename.
+ * While a segment is pending its rows may be both in the file and in the table; readers
+ * drop the duplicate IDs.
+ *
+ * Existing segments are read even when archiving is disabled.
+ */
+@Component
+@Slf4j
+public class HistoryArchive {
+
+    private static final String PREFIX = "history-";
+    private static final String SUFFIX = ".seg";
+    private static final String PENDING = ".pending";
+    private static final String TEMP = ".tmp";
+    private static final int DELETE_CHUNK = 1000;
+
+    private static final Comparator<AssetHistory> NEWEST_FIRST =
+            Comparator.comparing(AssetHistory::getActionDate).thenComparing(AssetHistory::getHistoryId).reversed();
+
+    private final AssetHistoryRepository assetHistoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Path directory;
+    private final int retentionDays;
+    private final int assetsPerSegment;
+    private final int maxSegmentsPerRange;
+
+    /** Published segments; replaced (never modified) under the lock of this component. */
+    private volatile List<ArchiveSegment> segments = List.of();
+
+    public HistoryArchive(AssetHistoryRepository assetHistoryRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${portfolio.history.archive.enabled:false}") boolean enabled,
+                          @Value("${portfolio.history.archive.dir:./data/history-archive}") String directory,
+                          @Value("${portfolio.history.archive.retention-days:365}") int retentionDays,
+                          @Value("${portfolio.history.archive.assets-per-segment:1024}") int assetsPerSegment,
+                          @Value("${portfolio.history.archive.max-segments-per-range:12}") int maxSegmentsPerRange) {
+        this.assetHistoryRepository = assetHistoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.retentionDays = retentionDays;
+        this.assetsPerSegment = assetsPerSegment;
+        this.maxSegmentsPerRange = maxSegmentsPerRange;
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (enabled) Files.createDirectories(directory);
+        if (!Files.isDirectory(directory)) return;
+
+        for (Path tmp : files(TEMP)) {
+            Files.delete(tmp);
+        }
+        for (Path pending : files(PENDING)) {
+            ArchiveSegment segment = ArchiveSegment.open(pending);
+            deleteFromDatabase(segment);
+            Path file = finalPath(pending);
+            Files.move(pending, file, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Finished archiving history segment {}", file.getFileName());
+        }
+
+        List<ArchiveSegment> loaded = new ArrayList<>();
+        for (Path file : files(SUFFIX)) {
+            loaded.add(ArchiveSegment.open(file));
+        }
+        List<ArchiveSegment> live = new ArrayList<>();
+        for (ArchiveSegment s : loaded) {
+            if (supersedes(loaded, s)) {
+                Files.delete(s.file());
+            } else {
+                live.add(s);
+            }
+        }
+        segments = List.copyOf(live);
+        if (!live.isEmpty()) {
+            log.info("History archive: {} segments, {} rows", live.size(),
+                    live.stream().mapToLong(ArchiveSegment::rowCount).sum());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // READ
+    // ---------------------------------------------------------------
+
+    public boolean isEmpty() {
+        return segments.isEmpty();
+    }
+
+    /** The archived part of a history page: same filters, keyset and limit as the table query. */
+    public List<AssetHistory> findPage(HistoryPageQuery query) {
+        List<AssetHistory> rows = new ArrayList<>();
+        for (ArchiveSegment s : segments) {
+            if (!s.covers(query.assetId())) continue;
+            if (query.from() != null && s.maxDate().isBefore(query.from())) continue;
+            if (query.to() != null && s.minDate().isAfter(query.to())) continue;
+            if (query.afterDate() != null && s.minDate().isAfter(query.afterDate())) continue;
+            for (AssetHistory h : s.read(query.assetId())) {
+                if (query.from() != null && h.getActionDate().isBefore(query.from())) continue;
+                if (query.to() != null && h.getActionDate().isAfter(query.to())) continue;
+                if (query.actionTypes() != null && !query.actionTypes().contains(h.getActionType())) continue;
+                if (query.afterId() != null && !isAfter(h, query.afterDate(), query.afterId())) continue;
+                rows.add(h);
+            }
+        }
+        return mergeNewestFirst(rows, List.of(), query.limit());
+    }
+
+    /**
+     * The archived rows of these assets with {@code from <= actionDate <= to} ({@code from}
+     * null: from the start), in (actionDate, historyId) order.
+     */
+    public List<HistoryPoint> findPoints(Collection<Long> assetIds, LocalDate from, LocalDate to) {
+        List<AssetHistory> rows = new ArrayList<>();
+        for (ArchiveSegment s : segments) {
+            if (s.minDate().isAfter(to) || (from != null && s.maxDate().isBefore(from))) continue;
+            for (Long assetId : assetIds) {
+                if (!s.covers(assetId)) continue;
+                for (AssetHistory h : s.read(assetId)) {
+                    if (h.getActionDate().isAfter(to) || (from != null && h.getActionDate().isBefore(from))) continue;
+                    rows.add(h);
+                }
+            }
+        }
+        List<AssetHistory> ordered = mergeNewestFirst(rows, List.of(), Integer.MAX_VALUE);
+        List<HistoryPoint> points = new ArrayList<>(ordered.size());
+        for (int i = ordered.size() - 1; i >= 0; i--) {
+            AssetHistory h = ordered.get(i);
+            points.add(new HistoryPoint(h.getAsset().getAssetId(), h.getHistoryId(), h.getActionType(),
+                    h.getQuantityChanged(), h.getPriceAtThatTime(), h.getActionDate()));
+        }
+        return points;
+    }
+
+    /** Action date of the oldest archived row, or null when nothing is archived. */
+    public LocalDate findEarliestActionDate() {
+        return segments.stream().filter(s -> s.rowCount() > 0).map(ArchiveSegment::minDate)
+                .min(Comparator.naturalOrder()).orElse(null);
+    }
+
+    /**
+     * Both lists newest first merged into at most {@code limit} rows, newest first; a
+     * historyId present twice (a pending segment) is kept once.
+     */
+    public static List<AssetHistory> mergeNewestFirst(List<AssetHistory> a, List<AssetHistory> b, int limit) {
+        List<AssetHistory> all = new ArrayList<>(a.size() + b.size());
+        all.addAll(a);
+        all.addAll(b);
+        all.sort(NEWEST_FIRST);
+        List<AssetHistory> merged = new ArrayList<>(Math.min(all.size(), limit));
+        for (AssetHistory h : all) {
+            if (merged.size() == limit) break;
+            if (!merged.isEmpty() && merged.get(merged.size() - 1).getHistoryId().equals(h.getHistoryId())) continue;
+            merged.add(h);
+        }
+        return merged;
+    }
+
+    // ---------------------------------------------------------------
+    // ARCHIVE
+    // ---------------------------------------------------------------
+
+    /** Moves every row older than the retention into segments, one asset-ID range at a time. */
+    @Scheduled(cron = "${portfolio.history.archive.cron:0 20 3 * * SUN}")
+    public synchronized void archive() {
+        if (!enabled) return;
+        LocalDate before = LocalDate.now().minusDays(retentionDays);
+        long start = System.currentTimeMillis();
+        int files = 0;
+        long rows = 0;
+        Long next = assetHistoryRepository.findNextArchivableAssetId(0, before);
+        while (next != null) {
+            long rangeStart = next - Math.floorMod(next, assetsPerSegment);
+            long rangeEnd = rangeStart + assetsPerSegment;
+            List<AssetHistory> batch = assetHistoryRepository.findArchivable(rangeStart, rangeEnd, before);
+            if (!batch.isEmpty()) {
+                archiveRange(rangeStart, rangeEnd, batch);
+                files++;
+                rows += batch.size();
+            }
+            next = assetHistoryRepository.findNextArchivableAssetId(rangeEnd, before);
+        }
+        if (files > 0) {
+            log.info("Archived {} history rows dated before {} into {} segments in {} ms", rows, before, files,
+                    System.currentTimeMillis() - start);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // INTERNAL
+    // ---------------------------------------------------------------
+
+    private void archiveRange(long rangeStart, long rangeEnd, List<AssetHistory> rows) {
+        List<ArchiveSegment> current = segments;
+        List<ArchiveSegment> sameRange = current.stream()
+                .filter(s -> s.rangeStart() == rangeStart && s.rangeEnd() == rangeEnd).toList();
+        long generation = current.stream().filter(s -> s.rangeStart() == rangeStart)
+                .mapToLong(ArchiveSegment::generation).max().orElse(0) + 1;
+
+        long baseGeneration = generation;
+        List<ArchiveSegment> merged = List.of();
+        List<AssetHistory> content = rows;
+        if (sameRange.size() + 1 > maxSegmentsPerRange) {
+            merged = sameRange;
+            content = new ArrayList<>(rows);
+            for (ArchiveSegment s : merged) s.forEachRow(content::add);
+            baseGeneration = merged.stream().mapToLong(ArchiveSegment::baseGeneration).min().orElse(generation);
+        }
+
+        String name = PREFIX + rangeStart + "-" + generation + SUFFIX;
+        Path tmp = directory.resolve(name + TEMP);
+        Path pending = directory.resolve(name + PENDING);
+        Path file = directory.resolve(name);
+        try {
+            ArchiveSegment.write(tmp, rangeStart, rangeEnd, generation, baseGeneration, content);
+            Files.move(tmp, pending, StandardCopyOption.ATOMIC_MOVE);
+            ArchiveSegment segment = ArchiveSegment.open(pending);
+
+            List<ArchiveSegment> next = new ArrayList<>(current);
+            next.removeAll(merged);
+            next.add(segment);
+            segments = List.copyOf(next);
+
+            deleteFromDatabase(rows);
+            Files.move(pending, file, StandardCopyOption.ATOMIC_MOVE);
+            segment.movedTo(file);
+            for (ArchiveSegment s : merged) {
+                Files.delete(s.file());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("History archive write failed for assets from " + rangeStart, e);
+        }
+    }
+
+    private void deleteFromDatabase(ArchiveSegment segment) {
+        List<AssetHistory> rows = new ArrayList<>(segment.rowCount());
+        segment.forEachRow(rows::add);
+        deleteFromDatabase(rows);
+    }
+
+    /** One transaction per chunk: row locks stay short, and a partial delete is finished at restart. */
+    private void deleteFromDatabase(List<AssetHistory> rows) {
+        for (int i = 0; i < rows.size(); i += DELETE_CHUNK) {
+            List<Long> ids = rows.subList(i, Math.min(i + DELETE_CHUNK, rows.size())).stream()
+                    .map(AssetHistory::getHistoryId).toList();
+            transactionTemplate.executeWithoutResult(status -> assetHistoryRepository.deleteByIds(ids));
+        }
+    }
+
+    private static boolean supersedes(List<ArchiveSegment> all, ArchiveSegment s) {
+        return all.stream().anyMatch(o -> o.rangeStart() == s.rangeStart() && o.rangeEnd() == s.rangeEnd()
+                && o.generation() > s.generation() && o.baseGeneration() <= s.generation());
+    }
+
+    private static boolean isAfter(AssetHistory h, LocalDate afterDate, long afterId) {
+        int byDate = h.getActionDate().compareTo(afterDate);
+        return byDate < 0 || (byDate == 0 && h.getHistoryId() < afterId);
+    }
+
+    private Path finalPath(Path pending) {
+        String name = pending.getFileName().toString();
+        return pending.resolveSibling(name.substring(0, name.length() - PENDING.length()));
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(PREFIX)
+                            && p.getFileName().toString().endsWith(suffix))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.portfolio.history;
+
+import com.portfolio.entity.AssetHistory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Append-only file of the history rows {@link AsyncHistoryAppender} gave up on: rows the
+ * database rejected and batches that still failed after the last attempt. The error is
+ * logged with the file name; the file holds only the rows.
+ *
+ * One line per row in the default MySQL {@code LOAD DATA} text format, so the rows can be
+ * loaded back once the cause is fixed: tab-separated {@code history_id, asset_id,
+ * action_type, quantity_changed, price_at_that_time, action_date, remarks}, {@code \N} for
+ * NULL, tab, newline and backslash escaped with a backslash. Forced to disk after every
+ * append.
+ */
+class HistoryDeadLetters {
+
+    private final Path file;
+
+    HistoryDeadLetters(Path file) {
+        this.file = file;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    synchronized void append(List<AssetHistory> rows) throws IOException {
+        StringBuilder text = new StringBuilder(rows.size() * 64);
+        for (AssetHistory h : rows) {
+            text.append(h.getHistoryId() != null ? h.getHistoryId().toString() : "\\N").append('\t')
+                    .append(h.getAsset().getAssetId()).append('\t')
+                    .append(h.getActionType().name()).append('\t')
+                    .append(decimal(h.getQuantityChanged())).append('\t')
+                    .append(decimal(h.getPriceAtThatTime())).append('\t')
+                    .append(h.getActionDate()).append('\t')
+                    .append(h.getRemarks() != null ? escape(h.getRemarks()) : "\\N").append('\n');
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer bytes = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+    }
+
+    private static String decimal(BigDecimal value) {
+        return value != null ? value.toPlainString() : "\\N";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+}
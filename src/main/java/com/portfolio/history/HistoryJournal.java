@@ -0,0 +1,297 @@
+package com.portfolio.history;
+
+import com.portfolio.entity.ActionType;
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetHistory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Local append-only journal for {@link AsyncHistoryAppender}.
+ *
+ * Committed history rows (with their pre-assigned IDs) are appended here — and forced to
+ * disk when {@code fsync} is on — before the asset transaction commits. After a crash,
+ * {@link #readPending()} returns everything not known to be written and not cancelled;
+ * replay is idempotent because the IDs are fixed.
+ *
+ * The journal is a sequence of segment files {@code history-<n>.journal}. A segment is
+ * deleted once it is no longer the active one and every entry in it has been written
+ * to the database or cancelled.
+ *
+ * Record layout: [int payload length][int CRC32 of payload][payload]. A torn or corrupt
+ * record ends the read of that segment.
+ */
+@Slf4j
+class HistoryJournal implements AutoCloseable {
+
+    private static final byte ENTRY = 1;
+    private static final byte CANCEL = 2;
+    private static final String PREFIX = "history-";
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+
+    /** Per segment: entries appended but not yet written or cancelled. */
+    private final Map<Long, AtomicInteger> outstanding = new ConcurrentHashMap<>();
+
+    private long activeSegment;
+    private FileChannel channel;
+
+    HistoryJournal(Path directory, long segmentBytes, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+        activeSegment = segments().stream().mapToLong(HistoryJournal::segmentNumber).max().orElse(0) + 1;
+        channel = open(activeSegment);
+    }
+
+    // ---------------------------------------------------------------
+    // WRITE
+    // ---------------------------------------------------------------
+
+    /** Appends the entries (IDs already assigned) and returns the segment they went to. */
+    synchronized long append(List<AssetHistory> entries) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(entries.size() * 96);
+        for (AssetHistory h : entries) {
+            writeRecord(buffer, out -> {
+                out.writeByte(ENTRY);
+                out.writeLong(h.getHistoryId());
+                out.writeLong(h.getAsset().getAssetId());
+                out.writeUTF(h.getActionType().name());
+                writeNullable(out, h.getQuantityChanged() != null ? h.getQuantityChanged().toPlainString() : null);
+                writeNullable(out, h.getPriceAtThatTime() != null ? h.getPriceAtThatTime().toPlainString() : null);
+                out.writeLong(h.getActionDate().toEpochDay());
+                writeNullable(out, h.getRemarks());
+            });
+        }
+        long segment = activeSegment;
+        outstanding.computeIfAbsent(segment, s -> new AtomicInteger()).addAndGet(entries.size());
+        write(buffer);
+        return segment;
+    }
+
+    /** Marks entries of a rolled-back transaction so they are never replayed. */
+    synchronized void cancel(long segment, List<AssetHistory> entries) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(16 + entries.size() * 8);
+        writeRecord(buffer, out -> {
+            out.writeByte(CANCEL);
+            out.writeInt(entries.size());
+            for (AssetHistory h : entries) {
+                out.writeLong(h.getHistoryId());
+            }
+        });
+        write(buffer);
+        release(segment, entries.size());
+    }
+
+    /** {@code count} entries of {@code segment} are now in the database. */
+    void release(long segment, int count) {
+        AtomicInteger remaining = outstanding.get(segment);
+        if (remaining != null && remaining.addAndGet(-count) <= 0) {
+            deleteIfDone(segment);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // RECOVERY
+    // ---------------------------------------------------------------
+
+    /** All entries of earlier runs that were neither cancelled nor known to be written. */
+    synchronized List<AssetHistory> readPending() throws IOException {
+        Map<Long, AssetHistory> entries = new LinkedHashMap<>();
+        for (Path segment : segments()) {
+            if (segmentNumber(segment) == activeSegment) continue;
+            readSegment(segment, entries);
+        }
+        return new ArrayList<>(entries.values());
+    }
+
+    /** After a successful replay: the earlier segments are no longer needed. */
+    synchronized void deleteRecovered() throws IOException {
+        for (Path segment : segments()) {
+            if (segmentNumber(segment) != activeSegment) {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    /** Closes the active segment; it is kept only if some of its entries were never written. */
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+        AtomicInteger remaining = outstanding.get(activeSegment);
+        if (remaining == null || remaining.get() <= 0) {
+            Files.deleteIfExists(segmentPath(activeSegment));
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // INTERNAL
+    // ---------------------------------------------------------------
+
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static void writeRecord(ByteArrayOutputStream buffer, RecordWriter writer) {
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(96);
+            writer.write(new DataOutputStream(payload));
+            byte[] bytes = payload.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeInt(bytes.length);
+            out.writeInt((int) crc.getValue());
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(ByteArrayOutputStream buffer) {
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+            if (channel.size() >= segmentBytes) {
+                roll();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("History journal write failed", e);
+        }
+    }
+
+    private void roll() throws IOException {
+        long previous = activeSegment;
+        channel.close();
+        activeSegment++;
+        channel = open(activeSegment);
+        AtomicInteger remaining = outstanding.get(previous);
+        if (remaining == null || remaining.get() <= 0) {
+            deleteIfDone(previous);
+        }
+    }
+
+    private synchronized void deleteIfDone(long segment) {
+        AtomicInteger remaining = outstanding.get(segment);
+        if (segment == activeSegment || (remaining != null && remaining.get() > 0)) return;
+        outstanding.remove(segment);
+        try {
+            Files.deleteIfExists(segmentPath(segment));
+        } catch (IOException e) {
+            log.warn("Could not delete history journal segment {}: {}", segment, e.getMessage());
+        }
+    }
+
+    private void readSegment(Path segment, Map<Long, AssetHistory> entries) throws IOException {
+        try (InputStream raw = Files.newInputStream(segment);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw))) {
+            while (true) {
+                byte[] payload;
+                try {
+                    int length = in.readInt();
+                    int crc = in.readInt();
+                    if (length <= 0 || length > segmentBytes) throw new EOFException();
+                    payload = in.readNBytes(length);
+                    CRC32 check = new CRC32();
+                    check.update(payload);
+                    if (payload.length != length || (int) check.getValue() != crc) throw new EOFException();
+                } catch (EOFException e) {
+                    return;   // end of segment, or a record torn by the crash
+                }
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                byte type = record.readByte();
+                if (type == ENTRY) {
+                    AssetHistory h = readEntry(record);
+                    entries.put(h.getHistoryId(), h);
+                } else if (type == CANCEL) {
+                    int count = record.readInt();
+                    for (int i = 0; i < count; i++) {
+                        entries.remove(record.readLong());
+                    }
+                }
+            }
+        }
+    }
+
+    private static AssetHistory readEntry(DataInputStream in) throws IOException {
+        AssetHistory h = new AssetHistory();
+        h.setHistoryId(in.readLong());
+        Asset asset = new Asset();
+        asset.setAssetId(in.readLong());
+        h.setAsset(asset);
+        h.setActionType(ActionType.valueOf(in.readUTF()));
+        String quantity = readNullable(in);
+        h.setQuantityChanged(quantity != null ? new BigDecimal(quantity) : null);
+        String price = readNullable(in);
+        h.setPriceAtThatTime(price != null ? new BigDecimal(price) : null);
+        h.setActionDate(LocalDate.ofEpochDay(in.readLong()));
+        h.setRemarks(readNullable(in));
+        return h;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private FileChannel open(long segment) throws IOException {
+        return FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(PREFIX + segment + SUFFIX);
+    }
+
+    private Collection<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(PREFIX)
+                            && p.getFileName().toString().endsWith(SUFFIX))
+                    .sorted((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)))
+                    .toList();
+        }
+    }
+
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.portfolio.history;
+
+import com.portfolio.entity.AssetHistory;
+import com.portfolio.repository.AssetPriceBarRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keeps {@link com.portfolio.entity.AssetPriceBar} in step with the history table. Both
+ * {@link HistoryAppender}s call {@link #record} in the transaction that inserts the rows,
+ * so a bar never counts a row that was rolled back.
+ *
+ * The appenders depend on this component, so the one-time backfill below finishes before
+ * any history is appended (including the ASYNC journal replay).
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class PriceBarRecorder {
+
+    private final AssetPriceBarRepository assetPriceBarRepository;
+    private final HistoryArchive historyArchive;
+
+    /**
+     * Builds the bars from existing history, archived rows included, the first time the
+     * application starts with an empty bar table. The archive is opened first, so pending
+     * segments have been finished.
+     */
+    @PostConstruct
+    public void backfill() {
+        if (!assetPriceBarRepository.isEmpty()) return;
+        long start = System.currentTimeMillis();
+        int assets = assetPriceBarRepository.rebuildFromHistory(
+                assetIds -> historyArchive.findPoints(assetIds, null, LocalDate.MAX));
+        if (assets > 0) {
+            log.info("Price bars built from history for {} assets in {} ms", assets,
+                    System.currentTimeMillis() - start);
+        }
+    }
+
+    /** The entries must already carry their historyId. */
+    public void record(List<AssetHistory> entries) {
+        if (entries.isEmpty()) return;
+        assetPriceBarRepository.record(entries);
+    }
+}
@@ -0,0 +1,279 @@
+package com.portfolio.history;
+
+import com.portfolio.entity.ActionType;
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetHistory;
+import com.portfolio.entity.AssetType;
+import com.portfolio.repository.AssetHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-asset-type policy that folds PRICE_UPDATEs into the asset's latest PRICE_UPDATE row
+ * (its rolling row) instead of appending a new one.
+ *
+ * A price change is folded when the asset's rolling row is dated today, is still its latest
+ * history row, and either it was opened less than {@code window} ago or the new price is
+ * within {@code min-change} (relative) of the price the row was opened with. The row then
+ * takes the new price and a remark spanning all folded changes; its price bars still see
+ * every change. Any other history row of the asset (BUY, SELL, QUANTITY_UPDATE) closes the
+ * rolling row, so those are always kept exactly.
+ *
+ * Rolling rows are tracked in memory only: after a restart the next change opens a new row.
+ * A rolling row not yet in the table (ASYNC mode, or its transaction rolled back) is not
+ * folded into; the change is written as a new row.
+ *
+ * The recording transaction sees its own rolling-row changes at once; they reach the shared
+ * state (and the counters) only after it commits, as in the holdings cube, so a rollback
+ * leaves nothing behind. Rows opened on an earlier day can no longer be folded into and are
+ * evicted by the first change of a new day.
+ */
+@Component
+@Slf4j
+public class PriceUpdateCoalescer {
+
+    private static final String PREFIX = "portfolio.history.price-coalescing.";
+
+    /** A price change of one asset, as recorded by AssetHistoryService. */
+    public record PriceChange(Long assetId, AssetType assetType, BigDecimal oldPrice, BigDecimal newPrice) {}
+
+    /** Coalescing settings of one asset type; both zero: every change is written. */
+    public record Policy(Duration window, BigDecimal minChange) {
+        boolean isOff() {
+            return window.isZero() && minChange.signum() == 0;
+        }
+    }
+
+    /** The open rolling row of an asset. */
+    private record Rolling(AssetHistory entry,   // as appended; its historyId may be assigned later
+                           LocalDate date, BigDecimal fromPrice, BigDecimal openPrice, long openedAt,
+                           int changes) {
+
+        static Rolling opened(AssetHistory entry, BigDecimal fromPrice, long openedAt) {
+            return new Rolling(entry, entry.getActionDate(), fromPrice, entry.getPriceAtThatTime(), openedAt, 1);
+        }
+
+        Rolling folded() {
+            return new Rolling(entry, date, fromPrice, openPrice, openedAt, changes + 1);
+        }
+    }
+
+    /** What one transaction changed; a null rolling row means closed. */
+    private static final class Pending {
+        final Map<Long, Rolling> rolling = new HashMap<>();
+        final long[] written = new long[AssetType.values().length];
+        final long[] coalesced = new long[AssetType.values().length];
+    }
+
+    private final AssetHistoryRepository assetHistoryRepository;
+    private final PriceBarRecorder priceBarRecorder;
+    private final Map<AssetType, Policy> policies = new EnumMap<>(AssetType.class);
+    private final Map<AssetType, LongAdder> written = new EnumMap<>(AssetType.class);
+    private final Map<AssetType, LongAdder> coalesced = new EnumMap<>(AssetType.class);
+    private final Map<Long, Rolling> rolling = new ConcurrentHashMap<>();
+    private volatile LocalDate evictedOn = LocalDate.MIN;
+
+    public PriceUpdateCoalescer(AssetHistoryRepository assetHistoryRepository,
+                                PriceBarRecorder priceBarRecorder,
+                                Environment environment) {
+        this.assetHistoryRepository = assetHistoryRepository;
+        this.priceBarRecorder = priceBarRecorder;
+        Duration defaultWindow = environment.getProperty(PREFIX + "default.window", Duration.class, Duration.ZERO);
+        BigDecimal defaultMinChange = environment.getProperty(PREFIX + "default.min-change", BigDecimal.class, BigDecimal.ZERO);
+        for (AssetType type : AssetType.values()) {
+            String key = PREFIX + type.name().toLowerCase(Locale.ROOT).replace('_', '-');
+            Policy policy = new Policy(
+                    environment.getProperty(key + ".window", Duration.class, defaultWindow),
+                    environment.getProperty(key + ".min-change", BigDecimal.class, defaultMinChange));
+            policies.put(type, policy);
+            written.put(type, new LongAdder());
+            coalesced.put(type, new LongAdder());
+            if (!policy.isOff()) {
+                log.info("PRICE_UPDATE coalescing for {}: window {}, min change {}", type,
+                        policy.window(), policy.minChange());
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // WRITE (called by AssetHistoryService inside the recording transaction)
+    // ---------------------------------------------------------------
+
+    /**
+     * Folds every change it can into its asset's rolling row and returns the IDs of those
+     * assets; the others need a new row.
+     */
+    public Set<Long> coalesce(List<PriceChange> changes) {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(evictedOn)) evictBefore(today);
+        long now = System.currentTimeMillis();
+        Pending pending = pending();
+        List<AssetHistory> candidates = new ArrayList<>();
+        List<PriceChange> candidateChanges = new ArrayList<>();
+        for (PriceChange change : changes) {
+            Policy policy = policies.get(change.assetType());
+            Rolling r = rolling(pending, change.assetId());
+            if (policy.isOff() || r == null || r.entry().getHistoryId() == null || !r.date().equals(today)) continue;
+            boolean inWindow = now - r.openedAt() < policy.window().toMillis();
+            boolean small = change.newPrice().subtract(r.openPrice()).abs()
+                    .compareTo(r.openPrice().multiply(policy.minChange())) < 0;
+            if (!inWindow && !small) continue;
+
+            Asset asset = new Asset();
+            asset.setAssetId(change.assetId());
+            candidates.add(new AssetHistory(r.entry().getHistoryId(), asset, ActionType.PRICE_UPDATE, null,
+                    change.newPrice(), r.date(), remarks(r.fromPrice(), change.newPrice(), r.changes() + 1)));
+            candidateChanges.add(change);
+        }
+        if (candidates.isEmpty()) return Set.of();
+
+        Set<Long> stored = new HashSet<>(assetHistoryRepository.findExistingHistoryIds(
+                candidates.stream().map(AssetHistory::getHistoryId).toList()));
+        List<AssetHistory> folded = new ArrayList<>(candidates.size());
+        Set<Long> foldedAssets = new HashSet<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            AssetHistory h = candidates.get(i);
+            PriceChange change = candidateChanges.get(i);
+            if (!stored.contains(h.getHistoryId())) {
+                setRolling(pending, change.assetId(), null);
+                continue;
+            }
+            setRolling(pending, change.assetId(), rolling(pending, change.assetId()).folded());
+            count(pending, change.assetType(), false);
+            folded.add(h);
+            foldedAssets.add(change.assetId());
+        }
+        if (!folded.isEmpty()) {
+            assetHistoryRepository.updatePrices(folded);
+            priceBarRecorder.record(folded);
+        }
+        return foldedAssets;
+    }
+
+    /** The change was appended as {@code entry}; it becomes the asset's rolling row. */
+    public void written(PriceChange change, AssetHistory entry) {
+        Pending pending = pending();
+        count(pending, change.assetType(), true);
+        if (policies.get(change.assetType()).isOff()) return;
+        setRolling(pending, change.assetId(), Rolling.opened(entry, change.oldPrice(), System.currentTimeMillis()));
+    }
+
+    /** Another kind of history row was appended for the asset: its next price change opens a new row. */
+    public void close(Long assetId) {
+        setRolling(pending(), assetId, null);
+    }
+
+    // ---------------------------------------------------------------
+    // READ
+    // ---------------------------------------------------------------
+
+    public Policy policy(AssetType type) {
+        return policies.get(type);
+    }
+
+    /** PRICE_UPDATE rows appended since startup. */
+    public long written(AssetType type) {
+        return written.get(type).sum();
+    }
+
+    /** Price changes folded into an existing row since startup. */
+    public long coalesced(AssetType type) {
+        return coalesced.get(type).sum();
+    }
+
+    // ---------------------------------------------------------------
+    // INTERNAL
+    // ---------------------------------------------------------------
+
+    /** The current transaction's changes, registered on first use; null outside a transaction. */
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return null;
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending changes = new Pending();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PriceUpdateCoalescer.this);
+                }
+            });
+            pending = changes;
+        }
+        return pending;
+    }
+
+    /** The asset's rolling row as the current transaction sees it. */
+    private Rolling rolling(Pending pending, Long assetId) {
+        if (pending != null && pending.rolling.containsKey(assetId)) return pending.rolling.get(assetId);
+        return rolling.get(assetId);
+    }
+
+    private void setRolling(Pending pending, Long assetId, Rolling r) {
+        if (pending != null) {
+            pending.rolling.put(assetId, r);
+        } else if (r == null) {
+            rolling.remove(assetId);
+        } else {
+            rolling.put(assetId, r);
+        }
+    }
+
+    private void count(Pending pending, AssetType type, boolean appended) {
+        if (pending != null) {
+            (appended ? pending.written : pending.coalesced)[type.ordinal()]++;
+        } else {
+            (appended ? written : coalesced).get(type).increment();
+        }
+    }
+
+    private void apply(Pending pending) {
+        pending.rolling.forEach((assetId, r) -> {
+            if (r == null) {
+                rolling.remove(assetId);
+            } else {
+                rolling.put(assetId, r);
+            }
+        });
+        for (AssetType type : AssetType.values()) {
+            written.get(type).add(pending.written[type.ordinal()]);
+            coalesced.get(type).add(pending.coalesced[type.ordinal()]);
+        }
+    }
+
+    /** Drops rolling rows not dated today: they can no longer be folded into. */
+    private void evictBefore(LocalDate today) {
+        int before = rolling.size();
+        rolling.values().removeIf(r -> !r.date().equals(today));
+        evictedOn = today;
+        if (before > 0) log.debug("Evicted {} rolling PRICE_UPDATE rows of other days", before - rolling.size());
+    }
+
+    /** Same text as an unfolded row, plus how many changes the row stands for. */
+    public static String remarks(BigDecimal fromPrice, BigDecimal toPrice, int changes) {
+        String remarks = "Price changed from " + fromPrice + " to " + toPrice;
+        return changes > 1 ? remarks + " (" + changes + " updates)" : remarks;
+    }
+}
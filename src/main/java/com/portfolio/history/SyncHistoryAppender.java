@@ -0,0 +1,37 @@
+package com.portfolio.history;
+
+import com.portfolio.entity.AssetHistory;
+import com.portfolio.repository.AssetHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes history in the caller's transaction: single rows through Hibernate, lists as one
+ * JDBC batch. Price bars are updated in the same transaction.
+ */
+@Component
+@ConditionalOnProperty(prefix = "portfolio.history", name = "mode", havingValue = "SYNC", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class SyncHistoryAppender implements HistoryAppender {
+
+    private final AssetHistoryRepository assetHistoryRepository;
+    private final PriceBarRecorder priceBarRecorder;
+
+    @Override
+    public void append(List<AssetHistory> entries) {
+        if (entries.size() == 1) {
+            AssetHistory history = entries.get(0);
+            assetHistoryRepository.save(history);
+            log.info("History recorded: {} for asset {}", history.getActionType(), history.getAsset().getAssetId());
+        } else if (!entries.isEmpty()) {
+            assetHistoryRepository.batchInsert(entries);
+            log.info("History recorded: {} rows", entries.size());
+        }
+        priceBarRecorder.record(entries);
+    }
+}
@@ -0,0 +1,46 @@
+package com.portfolio.id;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reserves blocks of IDs for rows written with plain JDBC, from the same
+ * {@value IdSequences#TABLE} rows Hibernate uses — so both paths never hand out the same ID.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdBlockAllocator {
+
+    private static final String SELECT_SQL = "SELECT " + IdSequences.VALUE_COLUMN + " FROM " + IdSequences.TABLE +
+            " WHERE " + IdSequences.NAME_COLUMN + " = ? FOR UPDATE";
+    private static final String UPDATE_SQL = "UPDATE " + IdSequences.TABLE + " SET " + IdSequences.VALUE_COLUMN +
+            " = ? WHERE " + IdSequences.NAME_COLUMN + " = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Reserves {@code count} consecutive IDs and returns the first.
+     * Runs in its own short transaction (as Hibernate's block fetches do), so the sequence
+     * row is not kept locked for the rest of the caller's transaction.
+     */
+    public long reserve(String sequence, int count) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return tx.execute(status -> {
+            Long lastUsed;
+            try {
+                lastUsed = jdbcTemplate.queryForObject(SELECT_SQL, Long.class, sequence);
+            } catch (EmptyResultDataAccessException e) {
+                throw new IllegalStateException("ID sequence '" + sequence + "' has not been initialized", e);
+            }
+            jdbcTemplate.update(UPDATE_SQL, lastUsed + count, sequence);
+            return lastUsed + 1;
+        });
+    }
+}
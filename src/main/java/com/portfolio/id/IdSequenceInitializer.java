@@ -0,0 +1,47 @@
+package com.portfolio.id;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Makes sure every ID sequence row exists and is not behind the highest ID already in its table.
+ *
+ * Runs once at startup, after Hibernate has created/updated the schema and before the web
+ * server accepts requests. Needed for databases whose rows were created with AUTO_INCREMENT
+ * IDs, and for sequence rows the JDBC bulk writers need before Hibernate has used them.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void initialize() {
+        for (IdSequences.Sequence seq : IdSequences.ALL) {
+            long maxId = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(" + seq.idColumn() + "), 0) FROM " + seq.table(), Long.class);
+            List<Long> stored = jdbcTemplate.queryForList(
+                    "SELECT " + IdSequences.VALUE_COLUMN + " FROM " + IdSequences.TABLE +
+                    " WHERE " + IdSequences.NAME_COLUMN + " = ?", Long.class, seq.name());
+
+            if (stored.isEmpty()) {
+                jdbcTemplate.update("INSERT INTO " + IdSequences.TABLE + " (" + IdSequences.NAME_COLUMN + ", " +
+                        IdSequences.VALUE_COLUMN + ") VALUES (?, ?)", seq.name(), maxId);
+                log.info("ID sequence '{}' created at {}", seq.name(), maxId);
+            } else if (stored.get(0) < maxId) {
+                jdbcTemplate.update("UPDATE " + IdSequences.TABLE + " SET " + IdSequences.VALUE_COLUMN +
+                        " = ? WHERE " + IdSequences.NAME_COLUMN + " = ?", maxId, seq.name());
+                log.warn("ID sequence '{}' was behind its table; advanced to {}", seq.name(), maxId);
+            }
+        }
+    }
+}
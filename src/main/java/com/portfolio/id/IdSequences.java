@@ -0,0 +1,40 @@
+package com.portfolio.id;
+
+import java.util.List;
+
+/**
+ * Names shared by the entity {@code @TableGenerator}s and the JDBC bulk writers.
+ *
+ * All entity IDs come from one row per table in {@value #TABLE}. Hibernate reserves
+ * {@value #ALLOCATION_SIZE} IDs per round trip (pooled-lo), which — unlike IDENTITY — lets
+ * it batch inserts. The stored value is the highest ID handed out so far (Hibernate's
+ * default "stored last used" table layout). Bulk JDBC writers reserve their blocks from
+ * the same rows through {@link IdBlockAllocator}.
+ */
+public final class IdSequences {
+
+    public static final String TABLE = "id_sequences";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final String ASSETS = "assets";
+    public static final String ASSET_HISTORY = "asset_history";
+    public static final String ASSET_GROUPS = "asset_groups";
+    public static final String CREDIT_CARDS = "credit_cards";
+    public static final String PORTFOLIOS = "portfolios";
+    public static final String STOCK_CATEGORIES = "stock_categories";
+
+    /** A sequence and the table/ID column it feeds (used to seed it from existing rows). */
+    record Sequence(String name, String table, String idColumn) {}
+
+    static final List<Sequence> ALL = List.of(
+            new Sequence(ASSETS, "assets", "asset_id"),
+            new Sequence(ASSET_HISTORY, "asset_history", "history_id"),
+            new Sequence(ASSET_GROUPS, "asset_groups", "group_id"),
+            new Sequence(CREDIT_CARDS, "credit_cards", "card_id"),
+            new Sequence(PORTFOLIOS, "portfolios", "portfolio_id"),
+            new Sequence(STOCK_CATEGORIES, "stock_categories", "category_id"));
+
+    private IdSequences() {}
+}
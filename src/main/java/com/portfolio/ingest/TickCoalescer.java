@@ -0,0 +1,104 @@
+package com.portfolio.ingest;
+
+/**
+ * Latest price per asset for one flush interval. An open-addressing map from asset ID to
+ * (price in cents, receive time of the asset's first tick in the interval), with linear
+ * probing and asset ID 0 marking a free slot. It holds at most {@code maxAssets} assets, so
+ * its memory is bounded no matter how many ticks arrive or how far the flusher lags.
+ *
+ * Not thread-safe: filled by the coalescing thread, then handed whole to the flusher.
+ */
+final class TickCoalescer {
+
+    /** Results of {@link #put}. */
+    static final int ADDED = 0, REPLACED = 1, REJECTED = 2;
+
+    /** Receives every entry. */
+    interface Entry {
+        void accept(long assetId, long priceCents, long firstReceivedAt);
+    }
+
+    private final int maxAssets;
+    private long[] keys;
+    private long[] prices;
+    private long[] firstReceived;
+    private int[] slots;         // occupied slots in insertion order, for iteration and clear
+    private int shift;
+    private int size;
+
+    TickCoalescer(int maxAssets) {
+        this.maxAssets = maxAssets;
+        allocate(1024);
+    }
+
+    /** Keeps the newest price of the asset; REJECTED when the asset is new and the map is full. */
+    int put(long assetId, long priceCents, long receivedAt) {
+        int mask = keys.length - 1;
+        int i = index(assetId);
+        while (true) {
+            long key = keys[i];
+            if (key == assetId) {
+                prices[i] = priceCents;
+                return REPLACED;
+            }
+            if (key == 0) break;
+            i = (i + 1) & mask;
+        }
+        if (size >= maxAssets) return REJECTED;
+        if (size + 1 > keys.length >> 1) {
+            grow();
+            return put(assetId, priceCents, receivedAt);
+        }
+        keys[i] = assetId;
+        prices[i] = priceCents;
+        firstReceived[i] = receivedAt;
+        slots[size++] = i;
+        return ADDED;
+    }
+
+    void forEach(Entry entry) {
+        for (int n = 0; n < size; n++) {
+            int i = slots[n];
+            entry.accept(keys[i], prices[i], firstReceived[i]);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Empties the map in O(size); the table keeps its capacity. */
+    void clear() {
+        for (int n = 0; n < size; n++) {
+            keys[slots[n]] = 0;
+        }
+        size = 0;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldPrices = prices;
+        long[] oldReceived = firstReceived;
+        int[] oldSlots = slots;
+        int oldSize = size;
+        allocate(keys.length << 1);
+        for (int n = 0; n < oldSize; n++) {
+            int i = oldSlots[n];
+            put(oldKeys[i], oldPrices[i], oldReceived[i]);
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        prices = new long[capacity];
+        firstReceived = new long[capacity];
+        slots = new int[capacity >> 1];
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        size = 0;
+    }
+
+    /** Fibonacci hashing: consecutive asset IDs spread over the table. */
+    private int index(long assetId) {
+        return (int) ((assetId * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+}
@@ -0,0 +1,98 @@
+package com.portfolio.ingest;
+
+/**
+ * Incremental parser for tick lines {@code <assetId>,<price>\n}: a positive asset ID and a
+ * positive price with at most 2 decimals ('\r' is ignored). The state survives between
+ * calls, so a line may be split across reads. Malformed lines are skipped and counted;
+ * empty lines are ignored.
+ *
+ * Works on the raw bytes; no line is ever turned into a String.
+ */
+final class TickParser {
+
+    /** Receives every well-formed tick. */
+    interface Sink {
+        void tick(long assetId, long priceCents);
+    }
+
+    private static final int MAX_ID_DIGITS = 18;
+    /** DECIMAL(15, 2): 13 integer digits. */
+    private static final int MAX_PRICE_DIGITS = 13;
+
+    private int field;           // 0 asset ID, 1 integer part of the price, 2 fraction
+    private int digits;          // digits in the current field
+    private long assetId;
+    private long price;          // in cents once the line is complete
+    private int fractionDigits;
+    private boolean seen;        // anything but '\r' on this line
+    private boolean bad;
+
+    private long errors;
+
+    /** Parses {@code bytes[from, to)}; returns the number of ticks handed to the sink. */
+    int parse(byte[] bytes, int from, int to, Sink sink) {
+        int ticks = 0;
+        for (int i = from; i < to; i++) {
+            byte b = bytes[i];
+            if (b == '\n') {
+                if (seen) {
+                    if (!bad && field >= 1 && digits > 0 && assetId > 0) {
+                        long cents = field == 1 ? price * 100 : fractionDigits == 1 ? price * 10 : price;
+                        if (cents > 0) {
+                            sink.tick(assetId, cents);
+                            ticks++;
+                        } else {
+                            errors++;
+                        }
+                    } else {
+                        errors++;
+                    }
+                }
+                reset();
+                continue;
+            }
+            if (b == '\r') continue;
+            seen = true;
+            if (bad) continue;
+            if (b >= '0' && b <= '9') {
+                digits++;
+                if (field == 0) {
+                    if (digits > MAX_ID_DIGITS) bad = true;
+                    assetId = assetId * 10 + (b - '0');
+                } else if (field == 1) {
+                    if (digits > MAX_PRICE_DIGITS) bad = true;
+                    price = price * 10 + (b - '0');
+                } else {
+                    // fraction digits are appended to the integer part: "12.3" -> 123, 1 digit
+                    if (++fractionDigits > 2) bad = true;
+                    price = price * 10 + (b - '0');
+                }
+            } else if (b == ',' && field == 0 && digits > 0) {
+                field = 1;
+                digits = 0;
+            } else if (b == '.' && field == 1 && digits > 0) {
+                field = 2;
+                digits = 0;
+            } else {
+                bad = true;
+            }
+        }
+        return ticks;
+    }
+
+    /** Drops a partially read line (the source was reset). */
+    void reset() {
+        field = 0;
+        digits = 0;
+        assetId = 0;
+        price = 0;
+        fractionDigits = 0;
+        seen = false;
+        bad = false;
+    }
+
+    /** Malformed lines so far. */
+    long errors() {
+        return errors;
+    }
+}
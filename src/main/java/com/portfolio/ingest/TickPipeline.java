@@ -0,0 +1,212 @@
+package com.portfolio.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ToIntFunction;
+
+/**
+ * Price tick ingestion: source → ring → per-asset coalescing → periodic flush.
+ *
+ * Three threads, each the only writer of its state:
+ *   tick-reader    — {@link TickReader}: reads the socket / file, parses, offers to the {@link TickRing}
+ *   tick-coalescer — drains the ring into the current {@link TickCoalescer} (latest price per asset);
+ *                    every flush interval hands that map to the flusher and continues with a spare one
+ *   tick-flusher   — applies a handed-over map in chunks of at most {@code flushChunk} assets, in asset
+ *                    ID order, through {@code applier}; the map then becomes the spare again
+ *
+ * Memory is bounded by the ring and the two maps. If a flush takes longer than the interval,
+ * the coalescer keeps folding into its map until the flusher is free, so a slow database only
+ * makes the next flush older, never larger than {@code maxAssets}. A chunk the applier throws
+ * on is logged and dropped; the next tick of those assets brings them up to date.
+ *
+ * Lag of a flush: from the receipt of the oldest tick it applied to the end of the flush.
+ */
+@Slf4j
+public final class TickPipeline {
+
+    private static final int DRAIN_BATCH = 4096;
+
+    /** Counters since start; lags in milliseconds. */
+    public record Stats(long ticksReceived, long parseErrors, long ticksCoalesced, long ticksRejected,
+                        long ringFullWaits, int ringDepth, int ringCapacity, int connections,
+                        long flushes, long pricesFlushed, long assetsRepriced, long flushFailures,
+                        long lastFlushLagMs, long maxFlushLagMs, long lastFlushMs) {}
+
+    private final TickRing ring;
+    private final TickReader reader;
+    private final long flushIntervalNanos;
+    private final int flushChunk;
+    private final ToIntFunction<Map<Long, BigDecimal>> applier;
+
+    private final BlockingQueue<TickCoalescer> toFlush = new ArrayBlockingQueue<>(1);
+    private final AtomicReference<TickCoalescer> spare;
+    private final Thread readerThread;
+    private final Thread coalescerThread;
+    private final Thread flusherThread;
+
+    private volatile boolean coalescing = true;
+    private volatile boolean flushing = true;
+
+    // tick-coalescer counters
+    private volatile long ticksCoalesced;
+    private volatile long ticksRejected;
+
+    // tick-flusher counters
+    private volatile long flushes;
+    private volatile long pricesFlushed;
+    private volatile long assetsRepriced;
+    private volatile long flushFailures;
+    private volatile long lastFlushLagNanos;
+    private volatile long maxFlushLagNanos;
+    private volatile long lastFlushNanos;
+
+    /**
+     * @param applier reprices one chunk (asset ID → price) and returns the number of assets changed
+     */
+    public TickPipeline(Path file, InetSocketAddress address, int ringCapacity, int maxAssets,
+                        long flushIntervalMillis, int flushChunk,
+                        ToIntFunction<Map<Long, BigDecimal>> applier) throws IOException {
+        this.ring = new TickRing(ringCapacity);
+        this.reader = new TickReader(ring, file, address);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.flushChunk = flushChunk;
+        this.applier = applier;
+        this.spare = new AtomicReference<>(new TickCoalescer(maxAssets));
+        TickCoalescer first = new TickCoalescer(maxAssets);
+        this.readerThread = new Thread(reader, "tick-reader");
+        this.coalescerThread = new Thread(() -> runCoalescer(first), "tick-coalescer");
+        this.flusherThread = new Thread(this::runFlusher, "tick-flusher");
+        readerThread.setDaemon(true);
+        coalescerThread.setDaemon(true);
+        flusherThread.setDaemon(true);
+    }
+
+    public void start() {
+        flusherThread.start();
+        coalescerThread.start();
+        readerThread.start();
+    }
+
+    /**
+     * Stops reading, then coalesces what is still in the ring and flushes it before the
+     * threads end.
+     */
+    public void close() throws InterruptedException {
+        reader.close();
+        readerThread.join();
+        coalescing = false;
+        coalescerThread.join();
+        flushing = false;
+        flusherThread.join();
+    }
+
+    public Stats stats() {
+        return new Stats(reader.received(), reader.parseErrors(), ticksCoalesced, ticksRejected,
+                reader.ringFullWaits(), ring.size(), ring.capacity(), reader.connections(),
+                flushes, pricesFlushed, assetsRepriced, flushFailures,
+                TimeUnit.NANOSECONDS.toMillis(lastFlushLagNanos), TimeUnit.NANOSECONDS.toMillis(maxFlushLagNanos),
+                TimeUnit.NANOSECONDS.toMillis(lastFlushNanos));
+    }
+
+    // ---------------------------------------------------------------
+    // INTERNAL
+    // ---------------------------------------------------------------
+
+    private void runCoalescer(TickCoalescer first) {
+        TickCoalescer[] current = { first };
+        long[] counts = new long[2];   // replaced, rejected
+        TickRing.Handler handler = (assetId, priceCents, receivedAt) -> {
+            int result = current[0].put(assetId, priceCents, receivedAt);
+            if (result != TickCoalescer.ADDED) counts[result - 1]++;
+        };
+        long nextFlush = System.nanoTime() + flushIntervalNanos;
+        while (true) {
+            boolean stopping = !coalescing;   // read before the drain: nothing is offered after it turns false
+            int drained = ring.drain(handler, DRAIN_BATCH);
+            ticksCoalesced = counts[0];
+            ticksRejected = counts[1];
+            long now = System.nanoTime();
+            if ((now >= nextFlush || (stopping && drained == 0)) && current[0].size() > 0) {
+                TickCoalescer next = spare.getAndSet(null);
+                if (next != null) {
+                    toFlush.add(current[0]);
+                    current[0] = next;
+                    nextFlush = now + flushIntervalNanos;
+                }
+            }
+            if (stopping && drained == 0 && current[0].size() == 0) return;
+            if (drained == 0) {
+                LockSupport.parkNanos(100_000);
+            }
+        }
+    }
+
+    private void runFlusher() {
+        while (true) {
+            TickCoalescer batch;
+            try {
+                batch = toFlush.poll(50, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (batch == null) {
+                if (!flushing) return;
+                continue;
+            }
+            flush(batch);
+            batch.clear();
+            spare.set(batch);
+        }
+    }
+
+    private void flush(TickCoalescer batch) {
+        long start = System.nanoTime();
+        TreeMap<Long, BigDecimal> byAssetId = new TreeMap<>();
+        long[] oldest = { Long.MAX_VALUE };
+        batch.forEach((assetId, priceCents, firstReceivedAt) -> {
+            byAssetId.put(assetId, BigDecimal.valueOf(priceCents, 2));
+            oldest[0] = Math.min(oldest[0], firstReceivedAt);
+        });
+
+        Map<Long, BigDecimal> chunk = new TreeMap<>();
+        long repriced = 0;
+        for (Map.Entry<Long, BigDecimal> e : byAssetId.entrySet()) {
+            chunk.put(e.getKey(), e.getValue());
+            if (chunk.size() >= flushChunk) {
+                repriced += apply(chunk);
+                chunk = new TreeMap<>();
+            }
+        }
+        if (!chunk.isEmpty()) repriced += apply(chunk);
+
+        long end = System.nanoTime();
+        flushes++;
+        pricesFlushed += byAssetId.size();
+        assetsRepriced += repriced;
+        lastFlushNanos = end - start;
+        lastFlushLagNanos = end - oldest[0];
+        maxFlushLagNanos = Math.max(maxFlushLagNanos, lastFlushLagNanos);
+    }
+
+    private int apply(Map<Long, BigDecimal> chunk) {
+        try {
+            return applier.applyAsInt(chunk);
+        } catch (RuntimeException e) {
+            flushFailures++;
+            log.warn("Tick flush of {} assets failed: {}", chunk.size(), e.getMessage());
+            return 0;
+        }
+    }
+}
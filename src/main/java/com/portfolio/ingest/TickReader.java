@@ -0,0 +1,241 @@
+package com.portfolio.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The single writer of the {@link TickRing}: one thread reads every source and offers the
+ * parsed ticks.
+ *
+ * Sources (either or both):
+ *   socket — a local TCP port; any number of clients, each sending tick lines. Multiplexed
+ *            with one NIO selector.
+ *   file   — tailed from its end at startup. Truncation restarts it from the beginning; a
+ *            rotated file (same path, new file) is reopened from its beginning.
+ *
+ * When the ring is full the reader waits for space instead of dropping ticks, and stops
+ * reading meanwhile, so a socket client is slowed down by TCP flow control.
+ */
+@Slf4j
+final class TickReader implements Runnable, Closeable {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final long FILE_CHECK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final TickRing ring;
+    private final Path file;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private final TickParser.Sink sink = this::offer;
+
+    private volatile boolean running = true;
+
+    // file tail state
+    private FileChannel fileChannel;
+    private Object fileKey;
+    private long filePosition;
+    private final TickParser fileParser = new TickParser();
+    private long nextFileCheck;
+    private boolean fileChecked;
+
+    private long batchReceivedAt;
+
+    // Counters: written by the reader thread only, read by anyone.
+    private volatile long received;
+    private volatile long ringFullWaits;
+    private volatile int connections;
+    private volatile long parseErrors;
+
+    /** {@code file} or {@code address} may be null (source not used). */
+    TickReader(TickRing ring, Path file, InetSocketAddress address) throws IOException {
+        this.ring = ring;
+        this.file = file;
+        if (address != null) {
+            selector = Selector.open();
+            server = ServerSocketChannel.open();
+            server.bind(address);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            log.info("Tick ingestion listening on {}", address);
+        } else {
+            selector = null;
+            server = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                boolean read = false;
+                if (selector != null) {
+                    selector.select(file != null ? 1 : 100);
+                    read = readSockets();
+                }
+                if (file != null) {
+                    read |= readFile();
+                    if (!read && selector == null) {
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                    }
+                }
+            } catch (IOException e) {
+                if (!running) break;
+                log.warn("Tick source read failed: {}", e.getMessage());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+            }
+        }
+        closeSources();
+    }
+
+    long received() { return received; }
+    long ringFullWaits() { return ringFullWaits; }
+    int connections() { return connections; }
+    long parseErrors() { return parseErrors; }
+
+    /**
+     * Stops the loop; the reader thread then closes all sources. A reader waiting for ring
+     * space stops once the consumer has made room.
+     */
+    @Override
+    public void close() {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+    }
+
+    private void closeSources() {
+        try {
+            if (selector != null) {
+                for (SelectionKey key : selector.keys()) key.channel().close();
+                selector.close();
+            }
+            if (fileChannel != null) fileChannel.close();
+        } catch (IOException e) {
+            log.warn("Closing tick sources failed: {}", e.getMessage());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // INTERNAL
+    // ---------------------------------------------------------------
+
+    private boolean readSockets() throws IOException {
+        boolean read = false;
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            if (!key.isValid()) continue;
+            if (key.isAcceptable()) {
+                SocketChannel client = server.accept();
+                if (client == null) continue;
+                client.configureBlocking(false);
+                client.setOption(StandardSocketOptions.SO_RCVBUF, 1 << 20);
+                client.register(selector, SelectionKey.OP_READ, new TickParser());
+                connections++;
+            } else if (key.isReadable()) {
+                SocketChannel client = (SocketChannel) key.channel();
+                TickParser parser = (TickParser) key.attachment();
+                buffer.clear();
+                int n;
+                try {
+                    n = client.read(buffer);
+                } catch (IOException e) {
+                    n = -1;
+                }
+                if (n < 0) {
+                    key.cancel();
+                    client.close();
+                    connections--;
+                } else if (n > 0) {
+                    parse(parser, n);
+                    read = true;
+                }
+            }
+        }
+        return read;
+    }
+
+    private boolean readFile() throws IOException {
+        long now = System.nanoTime();
+        if (fileChannel == null || now >= nextFileCheck) {
+            nextFileCheck = now + FILE_CHECK_NANOS;
+            if (!checkFile()) return false;
+        }
+        long size = fileChannel.size();
+        if (size < filePosition) {
+            log.info("Tick file {} was truncated; reading from the start", file);
+            filePosition = 0;
+            fileParser.reset();
+        }
+        if (size == filePosition) return false;
+        buffer.clear();
+        int n = fileChannel.read(buffer, filePosition);
+        if (n <= 0) return false;
+        filePosition += n;
+        parse(fileParser, n);
+        return true;
+    }
+
+    /** Opens the file when it appears, reopens it when it was replaced; false when there is none. */
+    private boolean checkFile() throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            fileChecked = true;
+            return fileChannel != null;
+        }
+        if (fileChannel != null && Objects.equals(fileKey, attributes.fileKey())) return true;
+
+        // only a file present at startup is tailed from its end; later ones are read whole
+        boolean first = !fileChecked;
+        fileChecked = true;
+        if (fileChannel != null) {
+            fileChannel.close();
+            log.info("Tick file {} was replaced; reading the new file from the start", file);
+        }
+        fileChannel = FileChannel.open(file, StandardOpenOption.READ);
+        fileKey = attributes.fileKey();
+        filePosition = first ? fileChannel.size() : 0;
+        fileParser.reset();
+        return true;
+    }
+
+    private void parse(TickParser parser, int length) {
+        batchReceivedAt = System.nanoTime();
+        long errors = parser.errors();
+        int ticks = parser.parse(buffer.array(), 0, length, sink);
+        received += ticks;
+        if (parser.errors() != errors) parseErrors += parser.errors() - errors;
+    }
+
+    private void offer(long assetId, long priceCents) {
+        if (ring.offer(assetId, priceCents, batchReceivedAt)) return;
+        ringFullWaits++;
+        while (!ring.offer(assetId, priceCents, batchReceivedAt)) {
+            LockSupport.parkNanos(50_000);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.portfolio.ingest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded single-producer / single-consumer ring of ticks: (assetId, price in cents,
+ * receive time in nanos). Slots are three parallel long arrays, so a tick costs no
+ * allocation. The producer publishes a slot with a release store of its sequence and the
+ * consumer frees slots the same way; neither side ever takes a lock.
+ */
+final class TickRing {
+
+    /** Receives drained ticks, in the order they were offered. */
+    interface Handler {
+        void tick(long assetId, long priceCents, long receivedAt);
+    }
+
+    private final long[] assetIds;
+    private final long[] prices;
+    private final long[] receivedAt;
+    private final int mask;
+
+    /** Next sequence the producer writes. */
+    private final AtomicLong published = new AtomicLong();
+    /** Next sequence the consumer reads. */
+    private final AtomicLong consumed = new AtomicLong();
+    /** Producer's last view of {@link #consumed}; refreshed only when the ring looks full. */
+    private long consumedCache;
+
+    /** {@code capacity} is rounded up to a power of two. */
+    TickRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        assetIds = new long[size];
+        prices = new long[size];
+        receivedAt = new long[size];
+        mask = size - 1;
+    }
+
+    /** Producer side. False when the ring is full; the tick was not taken. */
+    boolean offer(long assetId, long priceCents, long receivedNanos) {
+        long seq = published.getPlain();
+        if (seq - consumedCache > mask) {
+            consumedCache = consumed.getAcquire();
+            if (seq - consumedCache > mask) return false;
+        }
+        int i = (int) seq & mask;
+        assetIds[i] = assetId;
+        prices[i] = priceCents;
+        receivedAt[i] = receivedNanos;
+        published.setRelease(seq + 1);
+        return true;
+    }
+
+    /** Consumer side. Hands up to {@code max} ticks to the handler; returns how many. */
+    int drain(Handler handler, int max) {
+        long start = consumed.getPlain();
+        long end = Math.min(published.getAcquire(), start + max);
+        for (long seq = start; seq < end; seq++) {
+            int i = (int) seq & mask;
+            handler.tick(assetIds[i], prices[i], receivedAt[i]);
+        }
+        consumed.setRelease(end);
+        return (int) (end - start);
+    }
+
+    int size() {
+        return (int) (published.getAcquire() - consumed.getAcquire());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
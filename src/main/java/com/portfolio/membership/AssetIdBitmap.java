@@ -0,0 +1,433 @@
+package com.portfolio.membership;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Compressed set of non-negative IDs, in the style of a Roaring bitmap.
+ *
+ * IDs are split into a high part (id >>> 16, the container key) and a 16-bit low part.
+ * Each key owns a container: a sorted char array while it holds at most 4096 values
+ * (2 bytes per ID), a 1024-word bitset above that (at most 8 KB for 65536 IDs). Dense ID
+ * ranges — which table-generated IDs are — therefore cost about one bit per ID.
+ *
+ * {@link #and}, {@link #or} and {@link #andNot} work container by container and return
+ * new bitmaps; their operands are not modified. Not thread-safe: {@link MembershipIndex}
+ * guards the live bitmaps.
+ */
+public final class AssetIdBitmap {
+
+    /** Largest array container; one more value and it becomes a bitset. */
+    static final int ARRAY_MAX = 4096;
+
+    private long[] keys;
+    private Container[] containers;
+    private int size;
+
+    public AssetIdBitmap() {
+        this(4);
+    }
+
+    private AssetIdBitmap(int capacity) {
+        keys = new long[capacity];
+        containers = new Container[capacity];
+    }
+
+    // ---------------------------------------------------------------
+    // Single values
+    // ---------------------------------------------------------------
+
+    public void add(long id) {
+        if (id < 0) throw new IllegalArgumentException("Negative id: " + id);
+        long high = id >>> 16;
+        int i = Arrays.binarySearch(keys, 0, size, high);
+        if (i >= 0) {
+            containers[i] = containers[i].add((char) id);
+        } else {
+            insert(-i - 1, high, new ArrayContainer(4).add((char) id));
+        }
+    }
+
+    public void remove(long id) {
+        if (id < 0) return;
+        int i = Arrays.binarySearch(keys, 0, size, id >>> 16);
+        if (i < 0) return;
+        Container c = containers[i].remove((char) id);
+        if (c.cardinality() == 0) {
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+            containers[--size] = null;
+        } else {
+            containers[i] = c;
+        }
+    }
+
+    public boolean contains(long id) {
+        if (id < 0) return false;
+        int i = Arrays.binarySearch(keys, 0, size, id >>> 16);
+        return i >= 0 && containers[i].contains((char) id);
+    }
+
+    public long cardinality() {
+        long n = 0;
+        for (int i = 0; i < size; i++) n += containers[i].cardinality();
+        return n;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Ascending order. */
+    public void forEach(LongConsumer action) {
+        for (int i = 0; i < size; i++) containers[i].forEach(keys[i] << 16, action);
+    }
+
+    /** The smallest {@code limit} IDs, ascending. */
+    public long[] toArray(int limit) {
+        long[] out = new long[(int) Math.min(limit, cardinality())];
+        int[] n = {0};
+        for (int i = 0; i < size && n[0] < out.length; i++) {
+            containers[i].forEach(keys[i] << 16, id -> {
+                if (n[0] < out.length) out[n[0]++] = id;
+            });
+        }
+        return out;
+    }
+
+    public long[] toArray() {
+        return toArray(Integer.MAX_VALUE);
+    }
+
+    public AssetIdBitmap copy() {
+        AssetIdBitmap copy = new AssetIdBitmap(Math.max(size, 4));
+        for (int i = 0; i < size; i++) copy.append(keys[i], containers[i].copy());
+        return copy;
+    }
+
+    // ---------------------------------------------------------------
+    // Set algebra
+    // ---------------------------------------------------------------
+
+    public static AssetIdBitmap and(AssetIdBitmap a, AssetIdBitmap b) {
+        AssetIdBitmap out = new AssetIdBitmap(Math.max(Math.min(a.size, b.size), 4));
+        int i = 0, j = 0;
+        while (i < a.size && j < b.size) {
+            int cmp = Long.compare(a.keys[i], b.keys[j]);
+            if (cmp < 0) {
+                i++;
+            } else if (cmp > 0) {
+                j++;
+            } else {
+                Container c = a.containers[i].and(b.containers[j]);
+                if (c.cardinality() > 0) out.append(a.keys[i], c);
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    public static AssetIdBitmap or(AssetIdBitmap a, AssetIdBitmap b) {
+        AssetIdBitmap out = new AssetIdBitmap(Math.max(a.size + b.size, 4));
+        int i = 0, j = 0;
+        while (i < a.size || j < b.size) {
+            int cmp = i == a.size ? 1 : j == b.size ? -1 : Long.compare(a.keys[i], b.keys[j]);
+            if (cmp < 0) {
+                out.append(a.keys[i], a.containers[i++].copy());
+            } else if (cmp > 0) {
+                out.append(b.keys[j], b.containers[j++].copy());
+            } else {
+                out.append(a.keys[i], a.containers[i++].or(b.containers[j++]));
+            }
+        }
+        return out;
+    }
+
+    /** IDs in {@code a} but not in {@code b}. */
+    public static AssetIdBitmap andNot(AssetIdBitmap a, AssetIdBitmap b) {
+        AssetIdBitmap out = new AssetIdBitmap(Math.max(a.size, 4));
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            while (j < b.size && b.keys[j] < a.keys[i]) j++;
+            if (j < b.size && b.keys[j] == a.keys[i]) {
+                Container c = a.containers[i].andNot(b.containers[j]);
+                if (c.cardinality() > 0) out.append(a.keys[i], c);
+            } else {
+                out.append(a.keys[i], a.containers[i].copy());
+            }
+        }
+        return out;
+    }
+
+    // ---------------------------------------------------------------
+    // Internals
+    // ---------------------------------------------------------------
+
+    private void append(long key, Container c) {
+        ensureCapacity(size + 1);
+        keys[size] = key;
+        containers[size++] = c;
+    }
+
+    private void insert(int at, long key, Container c) {
+        ensureCapacity(size + 1);
+        System.arraycopy(keys, at, keys, at + 1, size - at);
+        System.arraycopy(containers, at, containers, at + 1, size - at);
+        keys[at] = key;
+        containers[at] = c;
+        size++;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed > keys.length) {
+            int capacity = Math.max(needed, keys.length * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+    }
+
+    /** The low 16 bits of up to 65536 IDs sharing one key. Mutators may return a different container. */
+    private abstract static sealed class Container permits ArrayContainer, BitmapContainer {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char v);
+
+        abstract Container add(char v);
+
+        abstract Container remove(char v);
+
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        abstract void forEach(long base, LongConsumer action);
+
+        abstract Container copy();
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int card;
+
+        ArrayContainer(int capacity) {
+            values = new char[capacity];
+        }
+
+        private ArrayContainer(char[] values, int card) {
+            this.values = values;
+            this.card = card;
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        boolean contains(char v) {
+            return Arrays.binarySearch(values, 0, card, v) >= 0;
+        }
+
+        @Override
+        Container add(char v) {
+            int i = Arrays.binarySearch(values, 0, card, v);
+            if (i >= 0) return this;
+            if (card == ARRAY_MAX) return toBitmap().add(v);
+            i = -i - 1;
+            if (card == values.length) {
+                values = Arrays.copyOf(values, Math.min(Math.max(card * 2, 4), ARRAY_MAX));
+            }
+            System.arraycopy(values, i, values, i + 1, card - i);
+            values[i] = v;
+            card++;
+            return this;
+        }
+
+        @Override
+        Container remove(char v) {
+            int i = Arrays.binarySearch(values, 0, card, v);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, card - i - 1);
+                card--;
+            }
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] out = new char[Math.min(card, other.cardinality())];
+            int n = 0;
+            if (other instanceof ArrayContainer o) {
+                int i = 0, j = 0;
+                while (i < card && j < o.card) {
+                    if (values[i] < o.values[j]) i++;
+                    else if (values[i] > o.values[j]) j++;
+                    else { out[n++] = values[i]; i++; j++; }
+                }
+            } else {
+                for (int i = 0; i < card; i++) {
+                    if (other.contains(values[i])) out[n++] = values[i];
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) return other.or(this);
+            ArrayContainer o = (ArrayContainer) other;
+            if (card + o.card > ARRAY_MAX) {
+                BitmapContainer b = toBitmap();
+                for (int j = 0; j < o.card; j++) b.set(o.values[j]);
+                return b;
+            }
+            char[] out = new char[card + o.card];
+            int i = 0, j = 0, n = 0;
+            while (i < card || j < o.card) {
+                if (j == o.card || (i < card && values[i] < o.values[j])) out[n++] = values[i++];
+                else if (i == card || values[i] > o.values[j]) out[n++] = o.values[j++];
+                else { out[n++] = values[i++]; j++; }
+            }
+            return new ArrayContainer(out, n);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] out = new char[card];
+            int n = 0;
+            for (int i = 0; i < card; i++) {
+                if (!other.contains(values[i])) out[n++] = values[i];
+            }
+            return new ArrayContainer(out, n);
+        }
+
+        @Override
+        void forEach(long base, LongConsumer action) {
+            for (int i = 0; i < card; i++) action.accept(base | values[i]);
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(card, 4)), card);
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer b = new BitmapContainer(new long[1024], 0);
+            for (int i = 0; i < card; i++) b.set(values[i]);
+            return b;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int card;
+
+        BitmapContainer(long[] words, int card) {
+            this.words = words;
+            this.card = card;
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        boolean contains(char v) {
+            return (words[v >>> 6] & (1L << v)) != 0;
+        }
+
+        void set(char v) {
+            long before = words[v >>> 6];
+            words[v >>> 6] = before | (1L << v);
+            if (before != words[v >>> 6]) card++;
+        }
+
+        @Override
+        Container add(char v) {
+            set(v);
+            return this;
+        }
+
+        @Override
+        Container remove(char v) {
+            long before = words[v >>> 6];
+            words[v >>> 6] = before & ~(1L << v);
+            if (before != words[v >>> 6] && --card <= ARRAY_MAX) return toArray();
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) return other.and(this);
+            long[] o = ((BitmapContainer) other).words;
+            long[] out = new long[1024];
+            for (int k = 0; k < 1024; k++) out[k] = words[k] & o[k];
+            return normalized(out);
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] out = words.clone();
+            if (other instanceof ArrayContainer a) {
+                for (int i = 0; i < a.card; i++) out[a.values[i] >>> 6] |= 1L << a.values[i];
+            } else {
+                long[] o = ((BitmapContainer) other).words;
+                for (int k = 0; k < 1024; k++) out[k] |= o[k];
+            }
+            return new BitmapContainer(out, count(out));
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] out = words.clone();
+            if (other instanceof ArrayContainer a) {
+                for (int i = 0; i < a.card; i++) out[a.values[i] >>> 6] &= ~(1L << a.values[i]);
+            } else {
+                long[] o = ((BitmapContainer) other).words;
+                for (int k = 0; k < 1024; k++) out[k] &= ~o[k];
+            }
+            return normalized(out);
+        }
+
+        @Override
+        void forEach(long base, LongConsumer action) {
+            for (int k = 0; k < 1024; k++) {
+                long w = words[k];
+                while (w != 0) {
+                    action.accept(base | ((long) k << 6) | Long.numberOfTrailingZeros(w));
+                    w &= w - 1;
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), card);
+        }
+
+        private ArrayContainer toArray() {
+            char[] out = new char[card];
+            int[] n = {0};
+            forEach(0, v -> out[n[0]++] = (char) v);
+            return new ArrayContainer(out, card);
+        }
+
+        private static Container normalized(long[] words) {
+            BitmapContainer b = new BitmapContainer(words, count(words));
+            return b.card > ARRAY_MAX ? b : b.toArray();
+        }
+
+        private static int count(long[] words) {
+            int n = 0;
+            for (long w : words) n += Long.bitCount(w);
+            return n;
+        }
+    }
+}
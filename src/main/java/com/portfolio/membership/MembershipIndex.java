@@ -0,0 +1,237 @@
+package com.portfolio.membership;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory copy of the asset_group_members join table (one {@link AssetIdBitmap} of asset
+ * IDs per group) and of asset ownership (one per portfolio), for set algebra across groups.
+ *
+ * Built from the database at startup and rebuilt nightly. In between, every writer of
+ * memberships or assets reports its change here; changes are applied after the writer's
+ * transaction commits, so rolled-back work never reaches the index. Changes that commit
+ * while a rebuild is reading the tables are replayed onto the new copy before it is swapped
+ * in. The index is per process: it assumes this instance is the only writer.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class MembershipIndex {
+
+    private enum Kind { MEMBER_ADDED, MEMBER_REMOVED, GROUP_DELETED, ASSET_ADDED, ASSET_REMOVED, PORTFOLIO_DELETED }
+
+    /** {@code key} is the group ID or the portfolio ID, depending on the kind. */
+    private record Change(Kind kind, long key, long assetId) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, AssetIdBitmap> byGroup = new HashMap<>();
+    private Map<Long, AssetIdBitmap> byPortfolio = new HashMap<>();
+    /** Non-null while a rebuild is reading the tables. */
+    private List<Change> duringRebuild;
+
+    // ---------------------------------------------------------------
+    // BUILD
+    // ---------------------------------------------------------------
+
+    @PostConstruct
+    public void initialize() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${portfolio.membership-index.rebuild-cron:0 45 2 * * *}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            duringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, AssetIdBitmap> groups = new HashMap<>();
+        Map<Long, AssetIdBitmap> portfolios = new HashMap<>();
+        long[] memberships = {0};
+        try {
+            jdbcTemplate.query("SELECT group_id, asset_id FROM asset_group_members", rs -> {
+                groups.computeIfAbsent(rs.getLong(1), k -> new AssetIdBitmap()).add(rs.getLong(2));
+                memberships[0]++;
+            });
+            jdbcTemplate.query("SELECT portfolio_id, asset_id FROM assets", rs -> {
+                portfolios.computeIfAbsent(rs.getLong(1), k -> new AssetIdBitmap()).add(rs.getLong(2));
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                duringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Change change : duringRebuild) {
+                apply(change, groups, portfolios);
+            }
+            byGroup = groups;
+            byPortfolio = portfolios;
+            duringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Membership index built: {} groups, {} memberships, {} portfolios in {} ms",
+                groups.size(), memberships[0], portfolios.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // ---------------------------------------------------------------
+    // CHANGES  (applied after the caller's transaction commits)
+    // ---------------------------------------------------------------
+
+    public void memberAdded(Long groupId, Long assetId) {
+        record(new Change(Kind.MEMBER_ADDED, groupId, assetId));
+    }
+
+    public void memberRemoved(Long groupId, Long assetId) {
+        record(new Change(Kind.MEMBER_REMOVED, groupId, assetId));
+    }
+
+    public void groupDeleted(Long groupId) {
+        record(new Change(Kind.GROUP_DELETED, groupId, 0));
+    }
+
+    public void assetAdded(Long portfolioId, Long assetId) {
+        record(new Change(Kind.ASSET_ADDED, portfolioId, assetId));
+    }
+
+    /** Also drops the asset from every group. */
+    public void assetRemoved(Long portfolioId, Long assetId) {
+        record(new Change(Kind.ASSET_REMOVED, portfolioId, assetId));
+    }
+
+    /** Also drops the portfolio's assets from every group. */
+    public void portfolioDeleted(Long portfolioId) {
+        record(new Change(Kind.PORTFOLIO_DELETED, portfolioId, 0));
+    }
+
+    private void record(Change change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyAll(List.of(change));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Change> pending = (List<Change>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Change> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyAll(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MembershipIndex.this);
+                }
+            });
+            pending = changes;
+        }
+        pending.add(change);
+    }
+
+    private void applyAll(List<Change> changes) {
+        lock.writeLock().lock();
+        try {
+            for (Change change : changes) {
+                apply(change, byGroup, byPortfolio);
+            }
+            if (duringRebuild != null) duringRebuild.addAll(changes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(Change c, Map<Long, AssetIdBitmap> groups, Map<Long, AssetIdBitmap> portfolios) {
+        switch (c.kind()) {
+            case MEMBER_ADDED -> groups.computeIfAbsent(c.key(), k -> new AssetIdBitmap()).add(c.assetId());
+            case MEMBER_REMOVED -> {
+                AssetIdBitmap members = groups.get(c.key());
+                if (members != null) members.remove(c.assetId());
+            }
+            case GROUP_DELETED -> groups.remove(c.key());
+            case ASSET_ADDED -> portfolios.computeIfAbsent(c.key(), k -> new AssetIdBitmap()).add(c.assetId());
+            case ASSET_REMOVED -> {
+                AssetIdBitmap assets = portfolios.get(c.key());
+                if (assets != null) assets.remove(c.assetId());
+                groups.values().forEach(members -> members.remove(c.assetId()));
+            }
+            case PORTFOLIO_DELETED -> {
+                AssetIdBitmap assets = portfolios.remove(c.key());
+                if (assets != null) groups.replaceAll((id, members) -> AssetIdBitmap.andNot(members, assets));
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // QUERY
+    // ---------------------------------------------------------------
+
+    /**
+     * Assets of the portfolio (any portfolio if null) that are in every group of
+     * {@code allOf}, in at least one group of {@code anyOf} (if given), and in no group
+     * of {@code noneOf}. At least one of allOf / anyOf must be non-empty.
+     * The result is a private copy.
+     */
+    public AssetIdBitmap select(Long portfolioId, Collection<Long> allOf,
+                                Collection<Long> anyOf, Collection<Long> noneOf) {
+        lock.readLock().lock();
+        try {
+            AssetIdBitmap result = null;
+            for (Long groupId : allOf) {
+                AssetIdBitmap members = members(groupId);
+                result = result == null ? members.copy() : AssetIdBitmap.and(result, members);
+            }
+            if (!anyOf.isEmpty()) {
+                AssetIdBitmap union = new AssetIdBitmap();
+                for (Long groupId : anyOf) union = AssetIdBitmap.or(union, members(groupId));
+                result = result == null ? union : AssetIdBitmap.and(result, union);
+            }
+            if (result == null) {
+                throw new IllegalArgumentException("allOf or anyOf must name at least one group");
+            }
+            if (portfolioId != null) {
+                result = AssetIdBitmap.and(result, byPortfolio.getOrDefault(portfolioId, new AssetIdBitmap()));
+            }
+            for (Long groupId : noneOf) {
+                result = AssetIdBitmap.andNot(result, members(groupId));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private AssetIdBitmap members(Long groupId) {
+        AssetIdBitmap members = byGroup.get(groupId);
+        return members != null ? members : new AssetIdBitmap();
+    }
+}
@@ -0,0 +1,120 @@
+package com.portfolio.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The four derived values of an asset — invested, current, absolute and percentage
+ * return — computed once from (quantity, buyPrice, currentPrice).
+ *
+ * When the inputs fit the column scales the values are held as scaled longs and only
+ * turned into BigDecimal by the accessors (the DTO boundary). Otherwise all four are
+ * computed eagerly with BigDecimal, exactly as before. Either way the results are equal
+ * to the plain BigDecimal formulas, including scale for inputs at column scale.
+ *
+ * Instances remember the input references they were built from, so an entity can cache
+ * one and cheaply detect that a setter has replaced a field ({@link #isFor}).
+ */
+public final class AssetValuation {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final BigDecimal quantity;
+    private final BigDecimal buyPrice;
+    private final BigDecimal currentPrice;
+
+    /** true → the long fields are valid; false → the BigDecimal fields are. */
+    private final boolean fixed;
+
+    // invested/current/absolute at scale 6 (VALUE_SCALE); percent at scale 4 (RATIO_SCALE)
+    private final long invested;
+    private final long current;
+    private final long absolute;
+    private final long percent;
+
+    private final BigDecimal investedValue;
+    private final BigDecimal currentValue;
+    private final BigDecimal absoluteReturn;
+    private final BigDecimal percentageReturn;
+
+    private AssetValuation(BigDecimal quantity, BigDecimal buyPrice, BigDecimal currentPrice,
+                           long invested, long current, long absolute, long percent) {
+        this.quantity = quantity;
+        this.buyPrice = buyPrice;
+        this.currentPrice = currentPrice;
+        this.fixed = true;
+        this.invested = invested;
+        this.current = current;
+        this.absolute = absolute;
+        this.percent = percent;
+        this.investedValue = null;
+        this.currentValue = null;
+        this.absoluteReturn = null;
+        this.percentageReturn = null;
+    }
+
+    private AssetValuation(BigDecimal quantity, BigDecimal buyPrice, BigDecimal currentPrice) {
+        this.quantity = quantity;
+        this.buyPrice = buyPrice;
+        this.currentPrice = currentPrice;
+        this.fixed = false;
+        this.invested = 0;
+        this.current = 0;
+        this.absolute = 0;
+        this.percent = 0;
+        this.investedValue = buyPrice == null ? BigDecimal.ZERO : quantity.multiply(buyPrice);
+        this.currentValue = quantity.multiply(currentPrice);
+        this.absoluteReturn = currentValue.subtract(investedValue);
+        this.percentageReturn = investedValue.compareTo(BigDecimal.ZERO) == 0
+                ? BigDecimal.ZERO
+                : absoluteReturn.divide(investedValue, 4, RoundingMode.HALF_UP).multiply(HUNDRED);
+    }
+
+    /** {@code buyPrice} may be null (wishlist asset); quantity and currentPrice may not. */
+    public static AssetValuation of(BigDecimal quantity, BigDecimal buyPrice, BigDecimal currentPrice) {
+        try {
+            long qty = FixedPoint.toUnscaled(quantity, FixedPoint.QUANTITY_SCALE);
+            long current = FixedPoint.multiply(qty,
+                    FixedPoint.toUnscaled(currentPrice, FixedPoint.PRICE_SCALE));
+            long invested = buyPrice == null ? 0
+                    : FixedPoint.multiply(qty, FixedPoint.toUnscaled(buyPrice, FixedPoint.PRICE_SCALE));
+            long absolute = Math.subtractExact(current, invested);
+            // ratio rounded to 4 places, then × 100 — keeps scale 4 like the BigDecimal formula
+            long percent = invested == 0 ? 0
+                    : Math.multiplyExact(FixedPoint.ratio(absolute, invested), 100L);
+            return new AssetValuation(quantity, buyPrice, currentPrice, invested, current, absolute, percent);
+        } catch (ArithmeticException notRepresentable) {
+            return new AssetValuation(quantity, buyPrice, currentPrice);
+        }
+    }
+
+    /** True if this valuation was built from exactly these (same instance) inputs. */
+    public boolean isFor(BigDecimal quantity, BigDecimal buyPrice, BigDecimal currentPrice) {
+        return this.quantity == quantity && this.buyPrice == buyPrice && this.currentPrice == currentPrice;
+    }
+
+    // ---------------------------------------------------------------
+    // BigDecimal accessors (DTO boundary)
+    // ---------------------------------------------------------------
+
+    public BigDecimal investedValue() {
+        if (!fixed) return investedValue;
+        return buyPrice == null ? BigDecimal.ZERO : FixedPoint.toBigDecimal(invested, FixedPoint.VALUE_SCALE);
+    }
+
+    public BigDecimal currentValue() {
+        if (!fixed) return currentValue;
+        return FixedPoint.toBigDecimal(current, FixedPoint.VALUE_SCALE);
+    }
+
+    public BigDecimal absoluteReturn() {
+        if (!fixed) return absoluteReturn;
+        return FixedPoint.toBigDecimal(absolute, FixedPoint.VALUE_SCALE);
+    }
+
+    public BigDecimal percentageReturn() {
+        if (!fixed) return percentageReturn;
+        if (invested == 0) return BigDecimal.ZERO;
+        return FixedPoint.toBigDecimal(percent, FixedPoint.RATIO_SCALE);
+    }
+}
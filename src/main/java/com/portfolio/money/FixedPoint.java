@@ -0,0 +1,73 @@
+package com.portfolio.money;
+
+import java.math.BigDecimal;
+
+/**
+ * Scaled-long arithmetic matching the column scales used by the entities:
+ *
+ *   quantity  — DECIMAL(15,4) → unscaled long at scale 4
+ *   price     — DECIMAL(15,2) → unscaled long at scale 2
+ *   value     — quantity × price → unscaled long at scale 6
+ *   ratio     — value ÷ value rounded HALF_UP → unscaled long at scale 4
+ *
+ * Every operation is exact or throws {@link ArithmeticException}; callers fall back to
+ * BigDecimal when a number is not representable (more decimals than the column scale,
+ * or a product beyond the long range).
+ */
+public final class FixedPoint {
+
+    public static final int QUANTITY_SCALE = 4;
+    public static final int PRICE_SCALE = 2;
+    public static final int VALUE_SCALE = QUANTITY_SCALE + PRICE_SCALE;
+    public static final int RATIO_SCALE = 4;
+
+    private static final long RATIO_ONE = 10_000L;
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Unscaled representation of {@code value} at {@code scale}.
+     * Throws if {@code value} has non-zero digits beyond {@code scale} or does not fit a long.
+     */
+    public static long toUnscaled(BigDecimal value, int scale) {
+        // movePointRight + longValueExact stays on BigDecimal's compact long;
+        // unscaledValue() would allocate a BigInteger
+        return value.movePointRight(scale).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long unscaled, int scale) {
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    /** quantity (scale 4) × price (scale 2) → value (scale 6). */
+    public static long multiply(long quantity, long price) {
+        return Math.multiplyExact(quantity, price);
+    }
+
+    /**
+     * numerator ÷ denominator (both at the same scale) rounded HALF_UP to {@link #RATIO_SCALE},
+     * i.e. {@code numerator.divide(denominator, 4, RoundingMode.HALF_UP)} on unscaled values.
+     */
+    public static long ratio(long numerator, long denominator) {
+        return divideHalfUp(Math.multiplyExact(numerator, RATIO_ONE), denominator);
+    }
+
+    /** Integer division rounded HALF_UP (ties away from zero). */
+    static long divideHalfUp(long dividend, long divisor) {
+        if (dividend == Long.MIN_VALUE || divisor == Long.MIN_VALUE) {
+            throw new ArithmeticException("long overflow");
+        }
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder != 0) {
+            long absRemainder = Math.abs(remainder);
+            long absDivisor = Math.abs(divisor);
+            // 2·|r| >= |d|, written so it cannot overflow
+            if (absRemainder >= absDivisor - absRemainder) {
+                quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+            }
+        }
+        return quotient;
+    }
+}
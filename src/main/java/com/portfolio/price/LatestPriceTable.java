@@ -0,0 +1,492 @@
+package com.portfolio.price;
+
+import com.portfolio.money.FixedPoint;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latest current price of every asset, with the time it was written, in a memory-mapped file
+ * outside the Java heap. Valuations read prices here instead of from entity copies; see
+ * {@code AssetService.getPerformance} and the {@link com.portfolio.cube.HoldingsCube} build
+ * behind the category and group performance. The portfolio summary reads the maintained
+ * {@link com.portfolio.entity.PortfolioAggregate}, which every price writer updates.
+ *
+ * Layout (native byte order): a 64-byte header (magic, version, slot count, clean flag),
+ * then 32-byte slots {@code (seq, assetId, price in cents, written at epoch millis)} in an
+ * open-addressing table with linear probing; asset ID 0 marks a free slot. A removed asset
+ * (or one without a price) keeps its slot with the REMOVED price, as a tombstone: the next
+ * new asset whose probe passes it takes the slot over, and a start with a clean file
+ * rehashes the table without them. The table accepts new assets up to three quarters of its
+ * slots, tombstones included; beyond that a price is not stored and readers fall back to
+ * the entity.
+ *
+ * Writers are serialized on this object; readers take no lock. Each slot is a seqlock: the
+ * writer makes seq odd, writes, and makes it even again, and a reader retries until it
+ * read the same even seq before and after the fields. The asset ID is one of them, so a
+ * reader notices a tombstone taken over by another asset and looks again.
+ *
+ * Price writers report their changes here; they are applied after the transaction commits,
+ * as in the holdings cube. The assets table stays the authority: every start reconciles the
+ * table against it before the application serves reads, so prices written while this
+ * process was down are never served stale. A price the reconcile writes is dated by the
+ * asset's last PRICE_UPDATE history row (start of that day), or not at all when it has
+ * none; one it finds unchanged keeps its time. A clean shutdown sets the header's clean flag;
+ * a clean file keeps its slots and the reconcile only rewrites what differs, while a file
+ * without it (crash, other layout, new file) is emptied and reloaded in full. A nightly
+ * reconcile repairs prices written behind this process's back and drops assets that no
+ * longer exist (e.g. of a deleted portfolio).
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class LatestPriceTable {
+
+    /** A price and when it was written to the table. */
+    public record LatestPrice(BigDecimal price, Instant updatedAt) {}
+
+    private static final int MAGIC = 0x4C505442;   // "LPTB"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int SLOT_BYTES = 32;
+    private static final int MAX_SLOTS = 1 << 25;  // the mapping is indexed by int
+
+    // header
+    private static final int MAGIC_AT = 0, VERSION_AT = 4, SLOTS_AT = 8, CLEAN_AT = 12;
+    // slot
+    private static final int SEQ = 0, ASSET_ID = 8, PRICE = 16, UPDATED_AT = 24;
+
+    private static final long REMOVED = Long.MIN_VALUE;
+    /** Written-at of a price whose time is not known. */
+    private static final long UNKNOWN = 0;
+    private static final int LOOKUP_CHUNK = 1000;
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Path file;
+    private final int requestedSlots;
+
+    /** Null when the table is disabled; every read then falls back. */
+    private MappedByteBuffer map;
+    private FileChannel channel;
+    private int mask;
+    private int shift;
+    private int maxAssets;
+
+    // guarded by this
+    private int size;
+    private boolean fullLogged;
+    private boolean closed;
+
+    public LatestPriceTable(JdbcTemplate jdbcTemplate,
+                            @Value("${portfolio.latest-prices.enabled:true}") boolean enabled,
+                            @Value("${portfolio.latest-prices.file:./data/latest-prices.tbl}") String file,
+                            @Value("${portfolio.latest-prices.slots:262144}") int slots) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.file = Path.of(file);
+        this.requestedSlots = slots;
+    }
+
+    // ---------------------------------------------------------------
+    // LIFECYCLE
+    // ---------------------------------------------------------------
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (!enabled) return;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+
+        int slots = Integer.highestOneBit(Math.min(MAX_SLOTS, Math.max(1024, requestedSlots)) - 1) << 1;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        boolean reuse = isCleanFile(slots);
+        if (!reuse) channel.truncate(0);   // the mapping then starts out zeroed
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) slots * SLOT_BYTES);
+        map.order(ByteOrder.nativeOrder());
+        mask = slots - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(slots);
+        maxAssets = slots - (slots >> 2);
+
+        int tombstones = 0;
+        if (reuse) {
+            tombstones = compact();
+        } else {
+            map.putInt(MAGIC_AT, MAGIC);
+            map.putInt(VERSION_AT, VERSION);
+            map.putInt(SLOTS_AT, slots);
+        }
+        // dirty until closed: a crash from here on means a reload at the next start
+        map.putInt(CLEAN_AT, 0);
+        map.force();
+
+        if (reuse) log.info("Latest price table opened: {} slots in use in {} ({} tombstones dropped)",
+                size, file, tombstones);
+        // even a clean file may be behind the assets table (a restore, another writer, a
+        // price written while this process was down): the rows win
+        reconcile();
+    }
+
+    /** Flushes the mapping and marks the file clean, so the next start can keep its slots. */
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (map == null || closed) return;
+        map.force();
+        map.putInt(CLEAN_AT, 1);
+        map.force();
+        channel.close();
+        closed = true;
+    }
+
+    /**
+     * Brings the table in line with the assets table: missing or different prices are
+     * written, assets that no longer exist are removed. Entries written after the reconcile
+     * started are newer than what it reads and are left alone.
+     */
+    @Scheduled(cron = "${portfolio.latest-prices.reconcile-cron:0 40 2 * * *}")
+    public void reconcile() {
+        if (map == null) return;
+        long start = System.nanoTime();
+        long startedAt = System.currentTimeMillis();
+        BitSet seen = new BitSet(mask + 1);
+        int[] rows = {0};
+        List<Long> repaired = new ArrayList<>();
+        jdbcTemplate.query("SELECT asset_id, current_price FROM assets", rs -> {
+            rows[0]++;
+            long assetId = rs.getLong(1);
+            if (repair(assetId, cents(rs.getBigDecimal(2)), startedAt, seen)) repaired.add(assetId);
+        });
+        int removed = removeUnseen(seen, startedAt);
+        stampLastPriceUpdates(repaired);
+        log.info("Latest price table reconciled: {} assets, {} written, {} removed in {} ms",
+                rows[0], repaired.size(), removed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Dates the repaired prices by the assets' last PRICE_UPDATE rows. */
+    private void stampLastPriceUpdates(List<Long> assetIds) {
+        for (int from = 0; from < assetIds.size(); from += LOOKUP_CHUNK) {
+            List<Long> chunk = assetIds.subList(from, Math.min(from + LOOKUP_CHUNK, assetIds.size()));
+            jdbcTemplate.query("SELECT asset_id, MAX(action_date) FROM asset_history "
+                            + "WHERE action_type = 'PRICE_UPDATE' AND asset_id IN ("
+                            + String.join(",", Collections.nCopies(chunk.size(), "?")) + ") GROUP BY asset_id",
+                    rs -> {
+                        LocalDate lastUpdate = rs.getObject(2, LocalDate.class);
+                        if (lastUpdate != null) {
+                            stamp(rs.getLong(1), lastUpdate.atStartOfDay(ZoneId.systemDefault())
+                                    .toInstant().toEpochMilli());
+                        }
+                    },
+                    chunk.toArray());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // READ
+    // ---------------------------------------------------------------
+
+    /** Null when the asset has no price here (unknown, removed, table full or disabled). */
+    public LatestPrice get(long assetId) {
+        if (map == null) return null;
+        while (true) {
+            int slot = find(assetId);
+            if (slot < 0) return null;
+            int at = offset(slot);
+            long seq = (long) LONGS.getAcquire(map, at + SEQ);
+            if ((seq & 1) == 0) {
+                long key = (long) LONGS.get(map, at + ASSET_ID);
+                long cents = (long) LONGS.get(map, at + PRICE);
+                long updatedAt = (long) LONGS.get(map, at + UPDATED_AT);
+                VarHandle.loadLoadFence();
+                if ((long) LONGS.get(map, at + SEQ) == seq) {
+                    // the asset was removed and its slot taken over: look again
+                    if (key != assetId) continue;
+                    return cents == REMOVED ? null
+                            : new LatestPrice(FixedPoint.toBigDecimal(cents, FixedPoint.PRICE_SCALE),
+                                    updatedAt == UNKNOWN ? null : Instant.ofEpochMilli(updatedAt));
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /** The table's price of the asset, or {@code fallback} when it has none. */
+    public BigDecimal price(long assetId, BigDecimal fallback) {
+        LatestPrice latest = get(assetId);
+        return latest != null ? latest.price() : fallback;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // ---------------------------------------------------------------
+    // CHANGES  (applied after the caller's transaction commits)
+    // ---------------------------------------------------------------
+
+    public void priceChanged(Long assetId, BigDecimal price) {
+        if (map == null) return;
+        long cents = cents(price);
+        afterCommit(() -> write(assetId, cents));
+    }
+
+    public void pricesChanged(Map<Long, BigDecimal> newPriceByAssetId) {
+        if (map == null) return;
+        long[] assetIds = new long[newPriceByAssetId.size()];
+        long[] cents = new long[assetIds.length];
+        int n = 0;
+        for (Map.Entry<Long, BigDecimal> e : newPriceByAssetId.entrySet()) {
+            assetIds[n] = e.getKey();
+            cents[n++] = cents(e.getValue());
+        }
+        afterCommit(() -> {
+            for (int i = 0; i < assetIds.length; i++) write(assetIds[i], cents[i]);
+        });
+    }
+
+    public void assetRemoved(Long assetId) {
+        if (map == null) return;
+        afterCommit(() -> write(assetId, REMOVED));
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Runnable> pending = (List<Runnable>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Runnable> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changes.forEach(Runnable::run);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LatestPriceTable.this);
+                }
+            });
+            pending = changes;
+        }
+        pending.add(change);
+    }
+
+    // ---------------------------------------------------------------
+    // INTERNAL
+    // ---------------------------------------------------------------
+
+    private synchronized void write(long assetId, long cents) {
+        int slot = findOrAdd(assetId, cents == REMOVED);
+        if (slot >= 0) writeSlot(offset(slot), cents, System.currentTimeMillis());
+    }
+
+    /**
+     * Writes the DB price, undated, unless the entry is as new as the reconcile or already
+     * has that price (its time is then kept); true when written.
+     */
+    private synchronized boolean repair(long assetId, long cents, long startedAt, BitSet seen) {
+        int slot = findOrAdd(assetId, false);
+        if (slot < 0) return false;
+        seen.set(slot);
+        int at = offset(slot);
+        if ((long) LONGS.get(map, at + UPDATED_AT) >= startedAt) return false;
+        if ((long) LONGS.get(map, at + PRICE) == cents) return false;
+        writeSlot(at, cents, UNKNOWN);
+        return true;
+    }
+
+    /** Dates a price the reconcile wrote, unless a price write has come in since. */
+    private synchronized void stamp(long assetId, long updatedAt) {
+        int slot = find(assetId);
+        if (slot < 0) return;
+        int at = offset(slot);
+        long cents = (long) LONGS.get(map, at + PRICE);
+        if (cents == REMOVED || (long) LONGS.get(map, at + UPDATED_AT) != UNKNOWN) return;
+        writeSlot(at, cents, updatedAt);
+    }
+
+    private synchronized int removeUnseen(BitSet seen, long startedAt) {
+        int removed = 0;
+        for (int i = 0; i <= mask; i++) {
+            int at = offset(i);
+            if (seen.get(i) || (long) LONGS.get(map, at + ASSET_ID) == 0) continue;
+            if ((long) LONGS.get(map, at + PRICE) == REMOVED) continue;
+            if ((long) LONGS.get(map, at + UPDATED_AT) >= startedAt) continue;
+            writeSlot(at, REMOVED, System.currentTimeMillis());
+            removed++;
+        }
+        return removed;
+    }
+
+    /**
+     * The asset's slot, claiming one for a new asset: the first tombstone on its probe, else
+     * a free slot; -1 when the asset is new and either {@code existingOnly} or the table is
+     * full. A new slot is published (key last) with the REMOVED price, so readers see the
+     * asset as absent until its first write.
+     */
+    private int findOrAdd(long assetId, boolean existingOnly) {
+        int i = index(assetId);
+        int tombstone = -1;
+        while (true) {
+            int at = offset(i);
+            long key = (long) LONGS.get(map, at + ASSET_ID);
+            if (key == assetId) return i;
+            if (key == 0) break;
+            if (tombstone < 0 && (long) LONGS.get(map, at + PRICE) == REMOVED) tombstone = i;
+            i = (i + 1) & mask;
+        }
+        if (existingOnly) return -1;
+        if (tombstone >= 0) {
+            takeOver(offset(tombstone), assetId);
+            return tombstone;
+        }
+        if (size >= maxAssets) {
+            if (!fullLogged) {
+                log.warn("Latest price table is full ({} assets); raise portfolio.latest-prices.slots", size);
+                fullLogged = true;
+            }
+            return -1;
+        }
+        int at = offset(i);
+        LONGS.set(map, at + PRICE, REMOVED);
+        LONGS.set(map, at + UPDATED_AT, 0L);
+        LONGS.setRelease(map, at + ASSET_ID, assetId);
+        size++;
+        return i;
+    }
+
+    /** Hands a tombstone to another asset, inside the seqlock so readers of the old one notice. */
+    private void takeOver(int at, long assetId) {
+        long seq = (long) LONGS.get(map, at + SEQ);
+        LONGS.setOpaque(map, at + SEQ, seq + 1);
+        VarHandle.storeStoreFence();
+        LONGS.set(map, at + ASSET_ID, assetId);
+        LONGS.set(map, at + UPDATED_AT, UNKNOWN);
+        LONGS.setRelease(map, at + SEQ, seq + 2);
+    }
+
+    /**
+     * Rehashes the slots of a reopened file without its tombstones, before any reader;
+     * returns the number dropped.
+     */
+    private int compact() {
+        int slots = mask + 1;
+        int live = 0;
+        int tombstones = 0;
+        for (int i = 0; i < slots; i++) {
+            int at = offset(i);
+            if ((long) LONGS.get(map, at + ASSET_ID) == 0) continue;
+            if ((long) LONGS.get(map, at + PRICE) == REMOVED) tombstones++;
+            else live++;
+        }
+        if (tombstones == 0) {
+            size = live;
+            return 0;
+        }
+        long[] entries = new long[3 * live];   // (assetId, cents, updatedAt) per live slot
+        int n = 0;
+        for (int i = 0; i < slots; i++) {
+            int at = offset(i);
+            long assetId = (long) LONGS.get(map, at + ASSET_ID);
+            long cents = (long) LONGS.get(map, at + PRICE);
+            if (assetId == 0 || cents == REMOVED) continue;
+            entries[n++] = assetId;
+            entries[n++] = cents;
+            entries[n++] = (long) LONGS.get(map, at + UPDATED_AT);
+        }
+        for (int i = 0; i < slots; i++) {
+            int at = offset(i);
+            LONGS.set(map, at + SEQ, 0L);
+            LONGS.set(map, at + ASSET_ID, 0L);
+        }
+        size = 0;
+        for (int e = 0; e < entries.length; e += 3) {
+            int at = offset(findOrAdd(entries[e], false));
+            LONGS.set(map, at + PRICE, entries[e + 1]);
+            LONGS.set(map, at + UPDATED_AT, entries[e + 2]);
+        }
+        return tombstones;
+    }
+
+    private void writeSlot(int at, long cents, long updatedAt) {
+        long seq = (long) LONGS.get(map, at + SEQ);
+        LONGS.setOpaque(map, at + SEQ, seq + 1);
+        VarHandle.storeStoreFence();
+        LONGS.set(map, at + PRICE, cents);
+        LONGS.set(map, at + UPDATED_AT, updatedAt);
+        LONGS.setRelease(map, at + SEQ, seq + 2);
+        // written after close (a late commit): the file no longer matches the database
+        if (closed) map.putInt(CLEAN_AT, 0);
+    }
+
+    private int find(long assetId) {
+        int i = index(assetId);
+        while (true) {
+            long key = (long) LONGS.getAcquire(map, offset(i) + ASSET_ID);
+            if (key == assetId) return i;
+            if (key == 0) return -1;
+            i = (i + 1) & mask;
+        }
+    }
+
+    private boolean isCleanFile(int slots) throws IOException {
+        if (channel.size() != HEADER_BYTES + (long) slots * SLOT_BYTES) return false;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.nativeOrder());
+        channel.read(header, 0);
+        boolean clean = header.getInt(MAGIC_AT) == MAGIC && header.getInt(VERSION_AT) == VERSION
+                && header.getInt(SLOTS_AT) == slots && header.getInt(CLEAN_AT) == 1;
+        if (!clean) log.info("Latest price table {} is new, changed or was not closed cleanly; reloading", file);
+        return clean;
+    }
+
+    private static int offset(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+
+    /** Fibonacci hashing: consecutive asset IDs spread over the table. */
+    private int index(long assetId) {
+        return (int) ((assetId * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    /** DECIMAL(15, 2) cents, rounded as the column rounds; null (no price) is REMOVED. */
+    private static long cents(BigDecimal price) {
+        if (price == null) return REMOVED;
+        return FixedPoint.toUnscaled(price.setScale(FixedPoint.PRICE_SCALE, RoundingMode.HALF_UP),
+                FixedPoint.PRICE_SCALE);
+    }
+}
@@ -1,16 +1,51 @@
 package com.portfolio.repository;
 
+import com.portfolio.dto.projection.GroupSummary;
 import com.portfolio.entity.AssetGroup;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface AssetGroupRepository extends JpaRepository<AssetGroup, Long> {
+public interface AssetGroupRepository extends JpaRepository<AssetGroup, Long>, AssetGroupRepositoryCustom {
 
-    /** All groups, sorted by name. */
-    List<AssetGroup> findAllByOrderByGroupName();
+    /**
+     * Group columns, member count and holding totals (all portfolios), one row per group.
+     * Groups without members get zero counts and totals.
+     */
+    String SUMMARY_SELECT =
+            "SELECT g.groupId AS groupId, g.groupName AS groupName, " +
+            "g.description AS description, g.createdDate AS createdDate, " +
+            "COUNT(a) AS assetCount, " +
+            "SUM(CASE WHEN a.wishlist = false THEN 1 ELSE 0 END) AS holdingCount, " +
+            "COALESCE(SUM(CASE WHEN a.wishlist = false THEN a.quantity * a.buyPrice END), 0) AS totalInvested, " +
+            "COALESCE(SUM(CASE WHEN a.wishlist = false THEN a.quantity * a.currentPrice END), 0) AS currentValue " +
+            "FROM AssetGroup g LEFT JOIN g.assets a ";
+
+    String SUMMARY_GROUP_BY = "GROUP BY g.groupId, g.groupName, g.description, g.createdDate ";
+
+    /** Summaries of all groups, sorted by name. */
+    @Query(SUMMARY_SELECT + SUMMARY_GROUP_BY + "ORDER BY g.groupName")
+    List<GroupSummary> findAllSummaries();
+
+    /** Summary of one group; empty if it does not exist. */
+    @Query(SUMMARY_SELECT + "WHERE g.groupId = :groupId " + SUMMARY_GROUP_BY)
+    Optional<GroupSummary> findSummary(@Param("groupId") Long groupId);
+
+    /** Summaries of the groups the asset belongs to, sorted by name. */
+    @Query(SUMMARY_SELECT +
+           "WHERE g.groupId IN (SELECT mg.groupId FROM AssetGroup mg JOIN mg.assets m WHERE m.assetId = :assetId) " +
+           SUMMARY_GROUP_BY + "ORDER BY g.groupName")
+    List<GroupSummary> findSummariesForAsset(@Param("assetId") Long assetId);
+
+    /** Which of the given IDs exist. */
+    @Query("SELECT g.groupId FROM AssetGroup g WHERE g.groupId IN :groupIds")
+    List<Long> findExistingIds(@Param("groupIds") Collection<Long> groupIds);
 
     /** Name uniqueness check before save (gives readable error vs raw constraint). */
     boolean existsByGroupName(String groupName);
@@ -0,0 +1,49 @@
+package com.portfolio.repository;
+
+import com.portfolio.dto.projection.GroupMembership;
+import com.portfolio.dto.projection.GroupPortfolioTotals;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Set-based writes to the asset_group_members join table through plain JDBC, batched.
+ * Neither side's collection is loaded or updated: entities already in the persistence
+ * context keep their old membership, and callers must keep the {@code MembershipIndex}
+ * in step.
+ *
+ * Also the partitioned scan behind the group × portfolio matrix.
+ */
+public interface AssetGroupRepositoryCustom {
+
+    /** Inclusive range of asset IDs. */
+    record IdRange(long min, long max) {}
+
+    /** Every membership of the given assets. */
+    List<GroupMembership> findMembershipsOfAssets(Collection<Long> assetIds);
+
+    /** Rows must not exist yet. */
+    void insertMemberships(List<GroupMembership> memberships);
+
+    /** Rows that do not exist are ignored. */
+    void deleteMemberships(List<GroupMembership> memberships);
+
+    /** Empties the group. */
+    void deleteMembershipsOfGroup(Long groupId);
+
+    /** Removes the asset from every group. */
+    void deleteMembershipsOfAsset(Long assetId);
+
+    /** Removes every asset of the portfolio from every group. */
+    void deleteMembershipsOfPortfolio(Long portfolioId);
+
+    /** Lowest and highest asset ID in any group; empty if no group has members. */
+    Optional<IdRange> findMemberIdRange();
+
+    /**
+     * Holding totals per (group, portfolio) over the members with asset IDs in
+     * [fromAssetId, toAssetId). Cells without holdings in the range produce no row.
+     */
+    List<GroupPortfolioTotals> sumHoldingsByGroupAndPortfolio(long fromAssetId, long toAssetId);
+}
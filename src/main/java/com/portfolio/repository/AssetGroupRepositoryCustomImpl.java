@@ -0,0 +1,93 @@
+package com.portfolio.repository;
+
+import com.portfolio.dto.projection.GroupMembership;
+import com.portfolio.dto.projection.GroupPortfolioTotals;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class AssetGroupRepositoryCustomImpl implements AssetGroupRepositoryCustom {
+
+    /** Rows per IN-list query and per JDBC batch. */
+    private static final int CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<GroupMembership> findMembershipsOfAssets(Collection<Long> assetIds) {
+        List<Long> ids = new ArrayList<>(assetIds);
+        List<GroupMembership> memberships = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            memberships.addAll(jdbcTemplate.query(
+                    "SELECT group_id, asset_id FROM asset_group_members WHERE asset_id IN (" +
+                    String.join(",", Collections.nCopies(chunk.size(), "?")) + ")",
+                    (rs, i) -> new GroupMembership(rs.getLong(1), rs.getLong(2)), chunk.toArray()));
+        }
+        return memberships;
+    }
+
+    @Override
+    public void insertMemberships(List<GroupMembership> memberships) {
+        jdbcTemplate.batchUpdate("INSERT INTO asset_group_members (group_id, asset_id) VALUES (?, ?)",
+                memberships, CHUNK_SIZE, (ps, m) -> {
+                    ps.setLong(1, m.groupId());
+                    ps.setLong(2, m.assetId());
+                });
+    }
+
+    @Override
+    public void deleteMemberships(List<GroupMembership> memberships) {
+        jdbcTemplate.batchUpdate("DELETE FROM asset_group_members WHERE group_id = ? AND asset_id = ?",
+                memberships, CHUNK_SIZE, (ps, m) -> {
+                    ps.setLong(1, m.groupId());
+                    ps.setLong(2, m.assetId());
+                });
+    }
+
+    @Override
+    public void deleteMembershipsOfGroup(Long groupId) {
+        jdbcTemplate.update("DELETE FROM asset_group_members WHERE group_id = ?", groupId);
+    }
+
+    @Override
+    public void deleteMembershipsOfAsset(Long assetId) {
+        jdbcTemplate.update("DELETE FROM asset_group_members WHERE asset_id = ?", assetId);
+    }
+
+    @Override
+    public void deleteMembershipsOfPortfolio(Long portfolioId) {
+        jdbcTemplate.update("DELETE FROM asset_group_members WHERE asset_id IN " +
+                "(SELECT asset_id FROM assets WHERE portfolio_id = ?)", portfolioId);
+    }
+
+    @Override
+    public Optional<IdRange> findMemberIdRange() {
+        return jdbcTemplate.query("SELECT MIN(asset_id), MAX(asset_id) FROM asset_group_members",
+                (rs, i) -> rs.getObject(1) == null ? null : new IdRange(rs.getLong(1), rs.getLong(2)))
+                .stream().filter(Objects::nonNull).findFirst();
+    }
+
+    @Override
+    public List<GroupPortfolioTotals> sumHoldingsByGroupAndPortfolio(long fromAssetId, long toAssetId) {
+        return jdbcTemplate.query(
+                "SELECT g.group_id, g.group_name, p.portfolio_id, p.portfolio_name, COUNT(*), " +
+                "SUM(a.quantity * a.buy_price), SUM(a.quantity * a.current_price) " +
+                "FROM asset_group_members m " +
+                "JOIN assets a ON a.asset_id = m.asset_id " +
+                "JOIN asset_groups g ON g.group_id = m.group_id " +
+                "JOIN portfolios p ON p.portfolio_id = a.portfolio_id " +
+                "WHERE m.asset_id >= ? AND m.asset_id < ? AND a.is_wishlist = false " +
+                "GROUP BY g.group_id, g.group_name, p.portfolio_id, p.portfolio_name",
+                (rs, i) -> new GroupPortfolioTotals(rs.getLong(1), rs.getString(2), rs.getLong(3),
+                        rs.getString(4), rs.getLong(5), rs.getBigDecimal(6), rs.getBigDecimal(7)),
+                fromAssetId, toAssetId);
+    }
+}
@@ -2,13 +2,22 @@ package com.portfolio.repository;
 
 import com.portfolio.entity.AssetHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface AssetHistoryRepository extends JpaRepository<AssetHistory, Long> {
+public interface AssetHistoryRepository extends JpaRepository<AssetHistory, Long>, AssetHistoryRepositoryCustom {
 
-    /** Full history for one asset, newest first. */
-    List<AssetHistory> findByAssetAssetIdOrderByActionDateDescHistoryIdDesc(Long assetId);
+    /** Action date of the oldest history row, or null when there is none. */
+    @Query("SELECT MIN(h.actionDate) FROM AssetHistory h")
+    LocalDate findEarliestActionDate();
+
+    /** Which of these history IDs are already stored (journal replay). */
+    @Query("SELECT h.historyId FROM AssetHistory h WHERE h.historyId IN :ids")
+    List<Long> findExistingHistoryIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,45 @@
+package com.portfolio.repository;
+
+import com.portfolio.dto.projection.HistoryPoint;
+import com.portfolio.entity.AssetHistory;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface AssetHistoryRepositoryCustom {
+
+    /**
+     * Bulk history writes through plain JDBC. Only {@code asset.assetId} is read from the
+     * entries' asset, so a detached stub carrying the ID is enough. Entries that already carry
+     * a historyId are inserted with it.
+     */
+    void batchInsert(List<AssetHistory> entries);
+
+    /** Overwrites price and remarks of these stored rows (by historyId); used for coalesced PRICE_UPDATEs. */
+    void updatePrices(List<AssetHistory> entries);
+
+    /**
+     * At most {@code query.limit()} rows of one asset's history, newest first. The asset is
+     * left as an uninitialized reference.
+     */
+    List<AssetHistory> findPage(HistoryPageQuery query);
+
+    /**
+     * Streams the history of the portfolio's assets with {@code from <= actionDate <= to}
+     * ({@code from} null: from the start) to {@code action}, in (actionDate, historyId) order.
+     */
+    void forEachPortfolioRow(Long portfolioId, LocalDate from, LocalDate to, Consumer<HistoryPoint> action);
+
+    /** Smallest asset ID {@code >= fromAssetId} with a row dated before {@code before}, or null. */
+    Long findNextArchivableAssetId(long fromAssetId, LocalDate before);
+
+    /**
+     * The rows dated before {@code before} of the assets in [fromAssetId, toAssetId), in
+     * (assetId, actionDate, historyId) order, each with an asset stub carrying only the ID.
+     */
+    List<AssetHistory> findArchivable(long fromAssetId, long toAssetId, LocalDate before);
+
+    /** Deletes these rows (IDs that no longer exist are ignored); returns the number deleted. */
+    int deleteByIds(List<Long> historyIds);
+}
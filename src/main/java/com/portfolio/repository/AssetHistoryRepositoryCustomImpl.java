@@ -0,0 +1,155 @@
+package com.portfolio.repository;
+
+import com.portfolio.dto.projection.HistoryPoint;
+import com.portfolio.entity.ActionType;
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetHistory;
+import com.portfolio.id.IdBlockAllocator;
+import com.portfolio.id.IdSequences;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class AssetHistoryRepositoryCustomImpl implements AssetHistoryRepositoryCustom {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO asset_history (history_id, asset_id, action_type, quantity_changed, " +
+            "price_at_that_time, action_date, remarks) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdBlockAllocator idBlockAllocator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** Entries without an ID get one from a single reserved block; it is written back into them. */
+    @Override
+    public void batchInsert(List<AssetHistory> entries) {
+        if (entries.isEmpty()) return;
+        int missing = (int) entries.stream().filter(h -> h.getHistoryId() == null).count();
+        if (missing > 0) {
+            long nextId = idBlockAllocator.reserve(IdSequences.ASSET_HISTORY, missing);
+            for (AssetHistory h : entries) {
+                if (h.getHistoryId() == null) h.setHistoryId(nextId++);
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, BATCH_SIZE, (ps, h) -> {
+            ps.setLong(1, h.getHistoryId());
+            ps.setLong(2, h.getAsset().getAssetId());
+            ps.setString(3, h.getActionType().name());
+            if (h.getQuantityChanged() != null) {
+                ps.setBigDecimal(4, h.getQuantityChanged());
+            } else {
+                ps.setNull(4, Types.DECIMAL);
+            }
+            ps.setBigDecimal(5, h.getPriceAtThatTime());
+            ps.setDate(6, Date.valueOf(h.getActionDate()));
+            ps.setString(7, h.getRemarks());
+        });
+    }
+
+    @Override
+    public void updatePrices(List<AssetHistory> entries) {
+        jdbcTemplate.batchUpdate("UPDATE asset_history SET price_at_that_time = ?, remarks = ? WHERE history_id = ?",
+                entries, BATCH_SIZE, (ps, h) -> {
+                    ps.setBigDecimal(1, h.getPriceAtThatTime());
+                    ps.setString(2, h.getRemarks());
+                    ps.setLong(3, h.getHistoryId());
+                });
+    }
+
+    /**
+     * Range scan of idx_history_asset_date (asset_id, action_date DESC, history_id DESC).
+     * The redundant {@code actionDate <= :afterDate} bound keeps the keyset predicate a
+     * range on the index instead of an OR the optimizer may not split.
+     */
+    @Override
+    public List<AssetHistory> findPage(HistoryPageQuery query) {
+        StringBuilder jpql = new StringBuilder("SELECT h FROM AssetHistory h")
+                .append(" WHERE h.asset.assetId = :assetId");
+        if (query.from() != null) jpql.append(" AND h.actionDate >= :from");
+        if (query.to() != null) jpql.append(" AND h.actionDate <= :to");
+        if (query.actionTypes() != null) jpql.append(" AND h.actionType IN :actionTypes");
+        if (query.afterId() != null) {
+            jpql.append(" AND h.actionDate <= :afterDate")
+                .append(" AND (h.actionDate < :afterDate OR h.historyId < :afterId)");
+        }
+        jpql.append(" ORDER BY h.actionDate DESC, h.historyId DESC");
+
+        TypedQuery<AssetHistory> q = entityManager.createQuery(jpql.toString(), AssetHistory.class)
+                .setParameter("assetId", query.assetId())
+                .setMaxResults(query.limit());
+        if (query.from() != null) q.setParameter("from", query.from());
+        if (query.to() != null) q.setParameter("to", query.to());
+        if (query.actionTypes() != null) q.setParameter("actionTypes", query.actionTypes());
+        if (query.afterId() != null) {
+            q.setParameter("afterDate", query.afterDate());
+            q.setParameter("afterId", query.afterId());
+        }
+        return q.getResultList();
+    }
+
+    /** Per asset of the portfolio a range scan of idx_history_asset_date; the merge order costs a sort. */
+    @Override
+    public void forEachPortfolioRow(Long portfolioId, LocalDate from, LocalDate to, Consumer<HistoryPoint> action) {
+        String sql = "SELECT h.asset_id, h.history_id, h.action_type, h.quantity_changed, " +
+                "h.price_at_that_time, h.action_date FROM asset_history h " +
+                "JOIN assets a ON a.asset_id = h.asset_id " +
+                "WHERE a.portfolio_id = ? AND h.action_date <= ?" +
+                (from != null ? " AND h.action_date >= ?" : "") +
+                " ORDER BY h.action_date, h.history_id";
+        Object[] args = from != null
+                ? new Object[] { portfolioId, Date.valueOf(to), Date.valueOf(from) }
+                : new Object[] { portfolioId, Date.valueOf(to) };
+        jdbcTemplate.query(sql, rs -> {
+            action.accept(new HistoryPoint(
+                    rs.getLong(1),
+                    rs.getLong(2),
+                    ActionType.valueOf(rs.getString(3)),
+                    rs.getBigDecimal(4),
+                    rs.getBigDecimal(5),
+                    rs.getDate(6).toLocalDate()));
+        }, args);
+    }
+
+    @Override
+    public Long findNextArchivableAssetId(long fromAssetId, LocalDate before) {
+        return jdbcTemplate.queryForObject(
+                "SELECT MIN(asset_id) FROM asset_history WHERE asset_id >= ? AND action_date < ?",
+                Long.class, fromAssetId, Date.valueOf(before));
+    }
+
+    @Override
+    public List<AssetHistory> findArchivable(long fromAssetId, long toAssetId, LocalDate before) {
+        String sql = "SELECT history_id, asset_id, action_type, quantity_changed, price_at_that_time, " +
+                "action_date, remarks FROM asset_history " +
+                "WHERE asset_id >= ? AND asset_id < ? AND action_date < ? " +
+                "ORDER BY asset_id, action_date, history_id";
+        return jdbcTemplate.query(sql, (rs, i) -> {
+            Asset asset = new Asset();
+            asset.setAssetId(rs.getLong(2));
+            return new AssetHistory(rs.getLong(1), asset, ActionType.valueOf(rs.getString(3)),
+                    rs.getBigDecimal(4), rs.getBigDecimal(5), rs.getDate(6).toLocalDate(), rs.getString(7));
+        }, fromAssetId, toAssetId, Date.valueOf(before));
+    }
+
+    @Override
+    public int deleteByIds(List<Long> historyIds) {
+        if (historyIds.isEmpty()) return 0;
+        String sql = "DELETE FROM asset_history WHERE history_id IN (" +
+                String.join(",", Collections.nCopies(historyIds.size(), "?")) + ")";
+        return jdbcTemplate.update(sql, historyIds.toArray());
+    }
+}
@@ -0,0 +1,21 @@
+package com.portfolio.repository;
+
+import com.portfolio.dto.request.AssetSort;
+import com.portfolio.entity.AssetType;
+
+/**
+ * Keyset page of assets: the rows strictly after (afterKey, afterId) in (sort key, assetId)
+ * order. afterKey/afterId are null for the first page; the filters (portfolioId, wishlist,
+ * assetType, categoryId, groupId) are ignored when null.
+ */
+public record AssetPageQuery(Long portfolioId,
+                             Boolean wishlist,
+                             AssetType assetType,
+                             Long categoryId,
+                             Long groupId,
+                             AssetSort sort,
+                             boolean descending,
+                             Object afterKey,
+                             Long afterId,
+                             int limit) {
+}
@@ -0,0 +1,25 @@
+package com.portfolio.repository;
+
+import com.portfolio.entity.AssetPriceBar;
+import com.portfolio.entity.BarInterval;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AssetPriceBarRepository extends JpaRepository<AssetPriceBar, AssetPriceBar.Key>,
+        AssetPriceBarRepositoryCustom {
+
+    /** Bars of one asset and interval whose bucket starts in [from, to], oldest first (primary key range). */
+    List<AssetPriceBar> findByAssetIdAndBarIntervalAndBucketStartBetweenOrderByBucketStart(
+            Long assetId, BarInterval barInterval, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM AssetPriceBar b WHERE b.barInterval = :interval AND b.bucketStart < :before")
+    int deleteOlderThan(@Param("interval") BarInterval interval, @Param("before") LocalDate before);
+}
@@ -0,0 +1,30 @@
+package com.portfolio.repository;
+
+import com.portfolio.dto.projection.HistoryPoint;
+import com.portfolio.entity.AssetHistory;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Price bar writes through plain JDBC upserts, so concurrent writers merge into the same
+ * bar row without reading it first.
+ */
+public interface AssetPriceBarRepositoryCustom {
+
+    /**
+     * Folds the history rows into their DAY, WEEK and MONTH bars. The rows must carry their
+     * historyId; rows without a price are skipped.
+     */
+    void record(List<AssetHistory> entries);
+
+    /** Whether no bar has been written yet. */
+    boolean isEmpty();
+
+    /**
+     * Recomputes the bars of every asset from {@code asset_history} plus the rows
+     * {@code archived} returns for each page of asset IDs, overwriting stored bars. A
+     * historyId found in both is folded once. Returns the number of assets with bars.
+     */
+    int rebuildFromHistory(Function<List<Long>, List<HistoryPoint>> archived);
+}
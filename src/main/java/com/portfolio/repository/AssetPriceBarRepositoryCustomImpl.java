@@ -0,0 +1,168 @@
+package com.portfolio.repository;
+
+import com.portfolio.dto.projection.HistoryPoint;
+import com.portfolio.entity.AssetHistory;
+import com.portfolio.entity.AssetPriceBar;
+import com.portfolio.entity.BarInterval;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+@RequiredArgsConstructor
+public class AssetPriceBarRepositoryCustomImpl implements AssetPriceBarRepositoryCustom {
+
+    private static final int BATCH_SIZE = 1000;
+
+    /** Assets per history read of the rebuild; each asset's rows are read in one go. */
+    private static final int REBUILD_PAGE = 50;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO asset_price_bars (asset_id, bar_interval, bucket_start, open_price, high_price, " +
+            "low_price, close_price, quantity_change, first_history_id, last_history_id, row_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE ";
+
+    /*
+     * Merge into an existing bar. MySQL evaluates these assignments left to right, so
+     * open/close are decided before first/last_history_id are moved. A coalesced PRICE_UPDATE
+     * is recorded again under the ID of its rolling row, so an equal last_history_id also
+     * replaces the close.
+     */
+    private static final String MERGE_SQL = INSERT_SQL +
+            "open_price = CASE WHEN VALUES(first_history_id) < first_history_id " +
+            "THEN VALUES(open_price) ELSE open_price END, " +
+            "first_history_id = LEAST(first_history_id, VALUES(first_history_id)), " +
+            "close_price = CASE WHEN VALUES(last_history_id) >= last_history_id " +
+            "THEN VALUES(close_price) ELSE close_price END, " +
+            "last_history_id = GREATEST(last_history_id, VALUES(last_history_id)), " +
+            "high_price = GREATEST(high_price, VALUES(high_price)), " +
+            "low_price = LEAST(low_price, VALUES(low_price)), " +
+            "quantity_change = quantity_change + VALUES(quantity_change), " +
+            "row_count = row_count + VALUES(row_count)";
+
+    private static final String OVERWRITE_SQL = INSERT_SQL +
+            "open_price = VALUES(open_price), high_price = VALUES(high_price), " +
+            "low_price = VALUES(low_price), close_price = VALUES(close_price), " +
+            "quantity_change = VALUES(quantity_change), first_history_id = VALUES(first_history_id), " +
+            "last_history_id = VALUES(last_history_id), row_count = VALUES(row_count)";
+
+    /** Upsert order, so concurrent writers lock shared bar rows in the same order. */
+    private static final Comparator<AssetPriceBar> KEY_ORDER = Comparator
+            .comparing(AssetPriceBar::getAssetId)
+            .thenComparing(AssetPriceBar::getBarInterval)
+            .thenComparing(AssetPriceBar::getBucketStart);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void record(List<AssetHistory> entries) {
+        Map<AssetPriceBar.Key, AssetPriceBar> bars = new HashMap<>();
+        for (AssetHistory h : entries) {
+            fold(bars, h.getAsset().getAssetId(), h.getHistoryId(), h.getActionDate(),
+                    h.getPriceAtThatTime(), h.getQuantityChanged());
+        }
+        upsert(bars, MERGE_SQL);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return jdbcTemplate.queryForList("SELECT asset_id FROM asset_price_bars LIMIT 1", Long.class).isEmpty();
+    }
+
+    @Override
+    public int rebuildFromHistory(Function<List<Long>, List<HistoryPoint>> archived) {
+        int assets = 0;
+        long after = 0;
+        while (true) {
+            // every asset, not only those left in asset_history: all of its rows may be archived
+            List<Long> assetIds = jdbcTemplate.queryForList(
+                    "SELECT asset_id FROM assets WHERE asset_id > ? ORDER BY asset_id LIMIT ?",
+                    Long.class, after, REBUILD_PAGE);
+            if (assetIds.isEmpty()) return assets;
+
+            Map<AssetPriceBar.Key, AssetPriceBar> bars = new HashMap<>();
+            Set<Long> historyIds = new HashSet<>();
+            jdbcTemplate.query("SELECT asset_id, history_id, action_date, price_at_that_time, quantity_changed " +
+                            "FROM asset_history WHERE asset_id IN (" +
+                            String.join(",", Collections.nCopies(assetIds.size(), "?")) + ")",
+                    rs -> {
+                        historyIds.add(rs.getLong(2));
+                        fold(bars, rs.getLong(1), rs.getLong(2), rs.getDate(3).toLocalDate(),
+                                rs.getBigDecimal(4), rs.getBigDecimal(5));
+                    },
+                    assetIds.toArray());
+            for (HistoryPoint p : archived.apply(assetIds)) {
+                // a row of a pending segment is in both; fold it once
+                if (!historyIds.add(p.historyId())) continue;
+                fold(bars, p.assetId(), p.historyId(), p.actionDate(), p.price(), p.quantityChanged());
+            }
+            upsert(bars, OVERWRITE_SQL);
+
+            assets += (int) bars.values().stream().map(AssetPriceBar::getAssetId).distinct().count();
+            after = assetIds.get(assetIds.size() - 1);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // INTERNAL
+    // ---------------------------------------------------------------
+
+    private static void fold(Map<AssetPriceBar.Key, AssetPriceBar> bars, Long assetId, Long historyId,
+                             LocalDate date, BigDecimal price, BigDecimal quantityChanged) {
+        if (price == null) return;
+        BigDecimal quantity = quantityChanged == null ? BigDecimal.ZERO : quantityChanged;
+        for (BarInterval interval : BarInterval.values()) {
+            LocalDate bucketStart = interval.bucketStart(date);
+            AssetPriceBar.Key key = new AssetPriceBar.Key(assetId, interval, bucketStart);
+            AssetPriceBar bar = bars.get(key);
+            if (bar == null) {
+                bars.put(key, new AssetPriceBar(
+                        assetId, interval, bucketStart, price, price, price, price, quantity,
+                        historyId, historyId, 1));
+                continue;
+            }
+            if (historyId < bar.getFirstHistoryId()) {
+                bar.setOpenPrice(price);
+                bar.setFirstHistoryId(historyId);
+            }
+            if (historyId > bar.getLastHistoryId()) {
+                bar.setClosePrice(price);
+                bar.setLastHistoryId(historyId);
+            }
+            if (price.compareTo(bar.getHighPrice()) > 0) bar.setHighPrice(price);
+            if (price.compareTo(bar.getLowPrice()) < 0) bar.setLowPrice(price);
+            bar.setQuantityChange(bar.getQuantityChange().add(quantity));
+            bar.setRowCount(bar.getRowCount() + 1);
+        }
+    }
+
+    private void upsert(Map<AssetPriceBar.Key, AssetPriceBar> bars, String sql) {
+        if (bars.isEmpty()) return;
+        List<AssetPriceBar> rows = new ArrayList<>(bars.values());
+        rows.sort(KEY_ORDER);
+        jdbcTemplate.batchUpdate(sql, rows, BATCH_SIZE, (ps, b) -> {
+            ps.setLong(1, b.getAssetId());
+            ps.setString(2, b.getBarInterval().name());
+            ps.setDate(3, Date.valueOf(b.getBucketStart()));
+            ps.setBigDecimal(4, b.getOpenPrice());
+            ps.setBigDecimal(5, b.getHighPrice());
+            ps.setBigDecimal(6, b.getLowPrice());
+            ps.setBigDecimal(7, b.getClosePrice());
+            ps.setBigDecimal(8, b.getQuantityChange());
+            ps.setLong(9, b.getFirstHistoryId());
+            ps.setLong(10, b.getLastHistoryId());
+            ps.setInt(11, b.getRowCount());
+        });
+    }
+}
@@ -1,16 +1,28 @@
 package com.portfolio.repository;
 
+import com.portfolio.dto.projection.AssetTypeTotals;
 import com.portfolio.entity.Asset;
 import com.portfolio.entity.AssetType;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface AssetRepository extends JpaRepository<Asset, Long> {
+public interface AssetRepository extends JpaRepository<Asset, Long>, AssetRepositoryCustom {
+
+    /**
+     * Row-locked read used by single-asset writers, so a concurrent price batch or tick flush
+     * on the same asset waits instead of working from a stale price.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Asset a WHERE a.assetId = :assetId")
+    Optional<Asset> findForUpdate(@Param("assetId") Long assetId);
 
     /** All assets (holding + wishlist) in a portfolio. */
     List<Asset> findByPortfolioPortfolioId(Long portfolioId);
@@ -38,4 +50,20 @@ public interface AssetRepository extends JpaRepository<Asset, Long> {
            "AND a.assetType = 'STOCK' AND a.wishlist = false " +
            "ORDER BY a.stockCategory.categoryName")
     List<Asset> findHoldingStocksByPortfolio(@Param("portfolioId") Long portfolioId);
+
+    /** IDs of every asset (holdings and wishlist) in a portfolio. */
+    @Query("SELECT a.assetId FROM Asset a WHERE a.portfolio.portfolioId = :portfolioId")
+    List<Long> findIdsByPortfolio(@Param("portfolioId") Long portfolioId);
+
+    // ---------------------------------------------------------------
+    // Aggregates — summed in the database, only one row per group key
+    // ---------------------------------------------------------------
+
+    /** Holding totals of a portfolio per asset type. */
+    @Query("SELECT a.assetType AS assetType, COUNT(a) AS holdingCount, " +
+           "SUM(a.quantity * a.buyPrice) AS totalInvested, " +
+           "SUM(a.quantity * a.currentPrice) AS currentValue " +
+           "FROM Asset a WHERE a.portfolio.portfolioId = :portfolioId AND a.wishlist = false " +
+           "GROUP BY a.assetType")
+    List<AssetTypeTotals> sumHoldingsByType(@Param("portfolioId") Long portfolioId);
 }
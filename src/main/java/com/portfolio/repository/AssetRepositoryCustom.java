@@ -0,0 +1,43 @@
+package com.portfolio.repository;
+
+import com.portfolio.dto.projection.AssetPriceRow;
+import com.portfolio.entity.Asset;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk asset operations that bypass the persistence context (plain JDBC, batched).
+ * Callers are responsible for keeping derived state — history, portfolio aggregates — in step.
+ *
+ * Also the keyset-paginated listing, whose query is assembled from optional filters.
+ */
+public interface AssetRepositoryCustom {
+
+    /** An asset with the value of the sort key it was ordered by (as computed by the database). */
+    record KeyedAsset(Asset asset, Object sortKey) {}
+
+    /**
+     * Up to {@code query.limit()} assets after the query's position, stock category fetched.
+     * Groups are left lazy (batch-loaded on access).
+     */
+    List<KeyedAsset> findPage(AssetPageQuery query);
+
+    /**
+     * Price rows of the given assets, row-locked (SELECT ... FOR UPDATE) in ascending asset ID
+     * order, so the prices read stay current until the caller's transaction ends and
+     * concurrent repricings cannot deadlock. Unknown IDs are skipped.
+     */
+    List<AssetPriceRow> lockPriceRowsByIds(Collection<Long> assetIds);
+
+    /** Which of the given IDs exist. */
+    List<Long> findExistingIds(Collection<Long> assetIds);
+
+    /** IDs of every asset whose name is in {@code assetNames}, across all portfolios; not locked. */
+    List<Long> findIdsByNames(Collection<String> assetNames);
+
+    /** Sets current_price for each asset ID, in JDBC batches. */
+    void updateCurrentPrices(Map<Long, BigDecimal> newPriceByAssetId);
+}
@@ -0,0 +1,145 @@
+package com.portfolio.repository;
+
+import com.portfolio.dto.projection.AssetPriceRow;
+import com.portfolio.dto.request.AssetSort;
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class AssetRepositoryCustomImpl implements AssetRepositoryCustom {
+
+    /** Rows per IN-list query and per JDBC batch. */
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String PRICE_ROW_COLUMNS =
+            "SELECT asset_id, asset_name, portfolio_id, asset_type, quantity, current_price, is_wishlist " +
+            "FROM assets WHERE ";
+
+    private static final RowMapper<AssetPriceRow> PRICE_ROW_MAPPER = (rs, i) -> new AssetPriceRow(
+            rs.getLong("asset_id"),
+            rs.getString("asset_name"),
+            rs.getLong("portfolio_id"),
+            AssetType.valueOf(rs.getString("asset_type")),
+            rs.getBigDecimal("quantity"),
+            rs.getBigDecimal("current_price"),
+            rs.getBoolean("is_wishlist"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<KeyedAsset> findPage(AssetPageQuery query) {
+        String key = switch (query.sort()) {
+            case ID -> "a.assetId";
+            case NAME -> "a.assetName";
+            case CURRENT_VALUE -> "a.quantity * a.currentPrice";
+            // ordering by the return ratio is ordering by percentageReturn; wishlist assets (no buyPrice) → 0
+            case PERCENTAGE_RETURN -> "COALESCE((a.currentPrice - a.buyPrice) / a.buyPrice, 0)";
+        };
+        String cmp = query.descending() ? "<" : ">";
+        String dir = query.descending() ? "DESC" : "ASC";
+
+        StringBuilder jpql = new StringBuilder("SELECT a, ").append(key)
+                .append(" FROM Asset a LEFT JOIN FETCH a.stockCategory")
+                .append(" WHERE 1 = 1");
+        if (query.portfolioId() != null) jpql.append(" AND a.portfolio.portfolioId = :portfolioId");
+        if (query.wishlist() != null) jpql.append(" AND a.wishlist = :wishlist");
+        if (query.assetType() != null) jpql.append(" AND a.assetType = :assetType");
+        if (query.categoryId() != null) jpql.append(" AND a.stockCategory.categoryId = :categoryId");
+        if (query.groupId() != null) {
+            jpql.append(" AND EXISTS (SELECT 1 FROM AssetGroup g JOIN g.assets m")
+                .append(" WHERE g.groupId = :groupId AND m = a)");
+        }
+        if (query.afterId() != null) {
+            if (query.sort() == AssetSort.ID) {
+                jpql.append(" AND a.assetId ").append(cmp).append(" :afterId");
+            } else {
+                jpql.append(" AND (").append(key).append(' ').append(cmp).append(" :afterKey OR (")
+                    .append(key).append(" = :afterKey AND a.assetId ").append(cmp).append(" :afterId))");
+            }
+        }
+        jpql.append(" ORDER BY ");
+        if (query.sort() != AssetSort.ID) {
+            jpql.append(key).append(' ').append(dir).append(", ");
+        }
+        jpql.append("a.assetId ").append(dir);
+
+        TypedQuery<Object[]> q = entityManager.createQuery(jpql.toString(), Object[].class)
+                .setMaxResults(query.limit());
+        if (query.portfolioId() != null) q.setParameter("portfolioId", query.portfolioId());
+        if (query.wishlist() != null) q.setParameter("wishlist", query.wishlist());
+        if (query.assetType() != null) q.setParameter("assetType", query.assetType());
+        if (query.categoryId() != null) q.setParameter("categoryId", query.categoryId());
+        if (query.groupId() != null) q.setParameter("groupId", query.groupId());
+        if (query.afterId() != null) q.setParameter("afterId", query.afterId());
+        if (query.afterKey() != null) q.setParameter("afterKey", query.afterKey());
+
+        return q.getResultList().stream()
+                .map(row -> new KeyedAsset((Asset) row[0], row[1]))
+                .toList();
+    }
+
+    @Override
+    public List<AssetPriceRow> lockPriceRowsByIds(Collection<Long> assetIds) {
+        if (assetIds.isEmpty()) return List.of();
+        // ascending IDs across chunks and within each: every writer locks assets in one order
+        List<Long> ids = assetIds.stream().distinct().sorted().toList();
+        List<AssetPriceRow> rows = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            rows.addAll(jdbcTemplate.query(PRICE_ROW_COLUMNS + "asset_id IN (" +
+                    String.join(",", Collections.nCopies(chunk.size(), "?")) + ") ORDER BY asset_id FOR UPDATE",
+                    PRICE_ROW_MAPPER, chunk.toArray()));
+        }
+        return rows;
+    }
+
+    @Override
+    public List<Long> findExistingIds(Collection<Long> assetIds) {
+        List<Long> ids = new ArrayList<>(assetIds);
+        List<Long> existing = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            existing.addAll(jdbcTemplate.queryForList("SELECT asset_id FROM assets WHERE asset_id IN (" +
+                    String.join(",", Collections.nCopies(chunk.size(), "?")) + ")", Long.class, chunk.toArray()));
+        }
+        return existing;
+    }
+
+    @Override
+    public List<Long> findIdsByNames(Collection<String> assetNames) {
+        List<String> names = new ArrayList<>(assetNames);
+        List<Long> ids = new ArrayList<>();
+        for (int from = 0; from < names.size(); from += CHUNK_SIZE) {
+            List<String> chunk = names.subList(from, Math.min(from + CHUNK_SIZE, names.size()));
+            ids.addAll(jdbcTemplate.queryForList("SELECT asset_id FROM assets WHERE asset_name IN (" +
+                    String.join(",", Collections.nCopies(chunk.size(), "?")) + ")", Long.class, chunk.toArray()));
+        }
+        return ids;
+    }
+
+    @Override
+    public void updateCurrentPrices(Map<Long, BigDecimal> newPriceByAssetId) {
+        List<Object[]> args = new ArrayList<>(newPriceByAssetId.size());
+        newPriceByAssetId.forEach((assetId, price) -> args.add(new Object[]{price, assetId}));
+        for (int from = 0; from < args.size(); from += CHUNK_SIZE) {
+            jdbcTemplate.batchUpdate("UPDATE assets SET current_price = ? WHERE asset_id = ?",
+                    args.subList(from, Math.min(from + CHUNK_SIZE, args.size())));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.portfolio.repository;
+
+import com.portfolio.entity.AssetStateCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AssetStateCheckpointRepository
+        extends JpaRepository<AssetStateCheckpoint, AssetStateCheckpoint.Key>, AssetStateCheckpointRepositoryCustom {
+
+    /** One portfolio's asset states at one checkpoint (primary key range). */
+    List<AssetStateCheckpoint> findByPortfolioIdAndCheckpointDate(Long portfolioId, LocalDate checkpointDate);
+
+    /** Rows of checkpoint dates after {@code date} — leftovers of an interrupted checkpoint run. */
+    @Modifying
+    @Query("DELETE FROM AssetStateCheckpoint c WHERE c.checkpointDate > :date")
+    int deleteAfter(@Param("date") LocalDate date);
+
+    @Modifying
+    @Query("DELETE FROM AssetStateCheckpoint c WHERE c.portfolioId = :portfolioId")
+    int deleteByPortfolio(@Param("portfolioId") Long portfolioId);
+}
@@ -0,0 +1,11 @@
+package com.portfolio.repository;
+
+import com.portfolio.entity.AssetStateCheckpoint;
+
+import java.util.List;
+
+public interface AssetStateCheckpointRepositoryCustom {
+
+    /** Inserts the rows through plain JDBC batches. */
+    void batchInsert(List<AssetStateCheckpoint> rows);
+}
@@ -0,0 +1,38 @@
+package com.portfolio.repository;
+
+import com.portfolio.entity.AssetStateCheckpoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class AssetStateCheckpointRepositoryCustomImpl implements AssetStateCheckpointRepositoryCustom {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO asset_state_checkpoints (portfolio_id, checkpoint_date, asset_id, quantity, " +
+            "buy_price, last_price) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchInsert(List<AssetStateCheckpoint> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, BATCH_SIZE, (ps, c) -> {
+            ps.setLong(1, c.getPortfolioId());
+            ps.setDate(2, Date.valueOf(c.getCheckpointDate()));
+            ps.setLong(3, c.getAssetId());
+            ps.setBigDecimal(4, c.getQuantity());
+            if (c.getBuyPrice() != null) {
+                ps.setBigDecimal(5, c.getBuyPrice());
+            } else {
+                ps.setNull(5, Types.DECIMAL);
+            }
+            ps.setBigDecimal(6, c.getLastPrice());
+        });
+    }
+}
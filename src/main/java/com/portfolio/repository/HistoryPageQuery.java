@@ -0,0 +1,20 @@
+package com.portfolio.repository;
+
+import com.portfolio.entity.ActionType;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Keyset page of one asset's history: the rows strictly after (afterDate, afterId) in
+ * (actionDate DESC, historyId DESC) order. afterDate/afterId are null for the first page;
+ * the filters (from, to, actionTypes) are ignored when null.
+ */
+public record HistoryPageQuery(Long assetId,
+                               LocalDate from,
+                               LocalDate to,
+                               Collection<ActionType> actionTypes,
+                               LocalDate afterDate,
+                               Long afterId,
+                               int limit) {
+}
@@ -0,0 +1,20 @@
+package com.portfolio.repository;
+
+import com.portfolio.entity.PortfolioAggregate;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PortfolioAggregateRepository extends JpaRepository<PortfolioAggregate, Long> {
+
+    /** Row-locked read used by writers, so concurrent asset updates serialize on the aggregate. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM PortfolioAggregate a WHERE a.portfolioId = :portfolioId")
+    Optional<PortfolioAggregate> findForUpdate(@Param("portfolioId") Long portfolioId);
+}
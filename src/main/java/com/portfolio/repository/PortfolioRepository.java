@@ -2,8 +2,10 @@ package com.portfolio.repository;
 
 import com.portfolio.entity.Portfolio;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -22,4 +24,10 @@ public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
      * Check if portfolio exists by name.
      */
     boolean existsByPortfolioName(String portfolioName);
+
+    /**
+     * All portfolio IDs, ascending.
+     */
+    @Query("SELECT p.portfolioId FROM Portfolio p ORDER BY p.portfolioId")
+    List<Long> findAllIds();
 }
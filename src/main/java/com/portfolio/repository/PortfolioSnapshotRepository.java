@@ -0,0 +1,24 @@
+package com.portfolio.repository;
+
+import com.portfolio.entity.PortfolioSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PortfolioSnapshotRepository
+        extends JpaRepository<PortfolioSnapshot, PortfolioSnapshot.Key>, PortfolioSnapshotRepositoryCustom {
+
+    /** One portfolio's snapshots in [from, to], oldest first (primary key range). */
+    List<PortfolioSnapshot> findByPortfolioIdAndSnapshotDateBetweenOrderBySnapshotDate(
+            Long portfolioId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM PortfolioSnapshot s WHERE s.portfolioId = :portfolioId")
+    int deleteByPortfolio(@Param("portfolioId") Long portfolioId);
+}
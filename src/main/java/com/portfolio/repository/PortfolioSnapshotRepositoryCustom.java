@@ -0,0 +1,11 @@
+package com.portfolio.repository;
+
+import com.portfolio.entity.PortfolioSnapshot;
+
+import java.util.List;
+
+public interface PortfolioSnapshotRepositoryCustom {
+
+    /** Inserts the snapshots, replacing any stored for the same portfolio and date. */
+    void upsert(List<PortfolioSnapshot> snapshots);
+}
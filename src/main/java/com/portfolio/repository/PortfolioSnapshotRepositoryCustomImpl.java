@@ -0,0 +1,42 @@
+package com.portfolio.repository;
+
+import com.portfolio.entity.PortfolioSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class PortfolioSnapshotRepositoryCustomImpl implements PortfolioSnapshotRepositoryCustom {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO portfolio_snapshots (portfolio_id, snapshot_date, total_invested, current_value, " +
+            "stock_value, mutual_fund_value, bond_value, etf_value, cash_value, other_value) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            "total_invested = VALUES(total_invested), current_value = VALUES(current_value), " +
+            "stock_value = VALUES(stock_value), mutual_fund_value = VALUES(mutual_fund_value), " +
+            "bond_value = VALUES(bond_value), etf_value = VALUES(etf_value), " +
+            "cash_value = VALUES(cash_value), other_value = VALUES(other_value)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsert(List<PortfolioSnapshot> snapshots) {
+        if (snapshots.isEmpty()) return;
+        jdbcTemplate.batchUpdate(UPSERT_SQL, snapshots, BATCH_SIZE, (ps, s) -> {
+            ps.setLong(1, s.getPortfolioId());
+            ps.setDate(2, Date.valueOf(s.getSnapshotDate()));
+            ps.setBigDecimal(3, s.getTotalInvested());
+            ps.setBigDecimal(4, s.getCurrentValue());
+            ps.setBigDecimal(5, s.getStockValue());
+            ps.setBigDecimal(6, s.getMutualFundValue());
+            ps.setBigDecimal(7, s.getBondValue());
+            ps.setBigDecimal(8, s.getEtfValue());
+            ps.setBigDecimal(9, s.getCashValue());
+            ps.setBigDecimal(10, s.getOtherValue());
+        });
+    }
+}
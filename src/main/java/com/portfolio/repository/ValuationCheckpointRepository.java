@@ -0,0 +1,17 @@
+package com.portfolio.repository;
+
+import com.portfolio.entity.ValuationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface ValuationCheckpointRepository extends JpaRepository<ValuationCheckpoint, LocalDate> {
+
+    /** The latest completed checkpoint on or before {@code date}. */
+    Optional<ValuationCheckpoint> findTopByCheckpointDateLessThanEqualOrderByCheckpointDateDesc(LocalDate date);
+
+    Optional<ValuationCheckpoint> findTopByOrderByCheckpointDateDesc();
+}
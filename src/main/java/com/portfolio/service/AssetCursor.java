@@ -0,0 +1,52 @@
+package com.portfolio.service;
+
+import com.portfolio.dto.request.AssetSort;
+import com.portfolio.exception.InvalidRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Continuation token of the paginated asset listings: the (sort key, assetId) of the last
+ * asset on a page. Serialized as URL-safe Base64 so clients treat it as opaque; it records
+ * the sort and direction it was issued for and is rejected under any other.
+ */
+record AssetCursor(AssetSort sort, Sort.Direction direction, Object key, Long assetId) {
+
+    private static final String VERSION = "a1";
+
+    String encode() {
+        String raw = String.join("|", VERSION, sort.name(), direction.name(),
+                assetId.toString(), key == null ? "" : key.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static AssetCursor decode(String token, AssetSort sort, Sort.Direction direction) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 5);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor.");
+        }
+        if (parts.length != 5 || !VERSION.equals(parts[0])) {
+            throw new InvalidRequestException("Invalid cursor.");
+        }
+        if (!sort.name().equals(parts[1]) || !direction.name().equals(parts[2])) {
+            throw new InvalidRequestException("Cursor was issued for sort " + parts[1] + " " + parts[2]
+                    + "; repeat the request with the same sort and direction.");
+        }
+        try {
+            Long assetId = Long.valueOf(parts[3]);
+            Object key = switch (sort) {
+                case ID -> null;
+                case NAME -> parts[4];
+                case CURRENT_VALUE, PERCENTAGE_RETURN -> new BigDecimal(parts[4]);
+            };
+            return new AssetCursor(sort, direction, key, assetId);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid cursor.");
+        }
+    }
+}
@@ -1,26 +1,60 @@
 package com.portfolio.service;
 
+import com.portfolio.cube.CubeCell;
+import com.portfolio.cube.CubeDimension;
+import com.portfolio.cube.CubeQuery;
+import com.portfolio.cube.HoldingsCube;
+import com.portfolio.dto.projection.GroupMembership;
+import com.portfolio.dto.projection.GroupPortfolioTotals;
+import com.portfolio.dto.projection.GroupSummary;
+import com.portfolio.dto.request.AssetGroupBulkMembersRequest;
+import com.portfolio.dto.request.AssetGroupBulkReplaceRequest;
 import com.portfolio.dto.request.AssetGroupMemberRequest;
 import com.portfolio.dto.request.AssetGroupRequest;
+import com.portfolio.dto.request.AssetPageRequest;
+import com.portfolio.dto.response.AssetGroupBulkMembershipResponse;
+import com.portfolio.dto.response.AssetGroupMembershipResponse;
 import com.portfolio.dto.response.AssetGroupPerformanceResponse;
 import com.portfolio.dto.response.AssetGroupResponse;
 import com.portfolio.dto.response.AssetResponse;
-import com.portfolio.entity.Asset;
+import com.portfolio.dto.response.CursorPageResponse;
+import com.portfolio.dto.response.GroupPortfolioPerformanceResponse;
+import com.portfolio.dto.response.GroupSetPerformanceResponse;
 import com.portfolio.entity.AssetGroup;
 import com.portfolio.exception.InvalidRequestException;
 import com.portfolio.exception.ResourceAlreadyExistsException;
 import com.portfolio.exception.ResourceNotFoundException;
+import com.portfolio.membership.AssetIdBitmap;
+import com.portfolio.membership.MembershipIndex;
 import com.portfolio.repository.AssetGroupRepository;
+import com.portfolio.repository.AssetGroupRepositoryCustom.IdRange;
+import com.portfolio.repository.AssetRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for AssetGroup CRUD, asset↔group mapping, and group performance.
@@ -34,8 +68,40 @@ import java.util.Set;
 @Transactional(readOnly = true)
 public class AssetGroupService {
 
+    static final int MAX_SELECTED_IDS = 10_000;
+    /** Distinct assets per bulk membership request. */
+    static final int MAX_BULK_ASSETS = 100_000;
+    /** Smallest asset-ID range worth its own matrix partition (and connection). */
+    static final long MIN_MATRIX_PARTITION_IDS = 10_000;
+
+    /** Matrix partition key. */
+    private record CellKey(Long groupId, Long portfolioId) {}
+
     private final AssetGroupRepository assetGroupRepository;
+    private final AssetRepository assetRepository;
     private final AssetService assetService;
+    private final MembershipIndex membershipIndex;
+    private final HoldingsCube holdingsCube;
+
+    @Value("${portfolio.group-matrix.partitions:4}")
+    private int matrixPartitions;
+
+    private ExecutorService matrixExecutor;
+
+    @PostConstruct
+    void startMatrixExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        matrixExecutor = Executors.newFixedThreadPool(matrixPartitions, task -> {
+            Thread thread = new Thread(task, "group-matrix-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopMatrixExecutor() {
+        matrixExecutor.shutdownNow();
+    }
 
     // ---------------------------------------------------------------
     // GROUP CRUD
@@ -53,18 +119,41 @@ public class AssetGroupService {
         group.setDescription(request.getDescription());
         AssetGroup saved = assetGroupRepository.save(group);
         log.info("Group created: {}", saved.getGroupId());
-        return mapToResponse(saved);
+        return AssetGroupResponse.builder()
+                .groupId(saved.getGroupId())
+                .groupName(saved.getGroupName())
+                .description(saved.getDescription())
+                .createdDate(saved.getCreatedDate())
+                .assetCount(0)
+                .holdingCount(0)
+                .totalInvested(BigDecimal.ZERO)
+                .currentValue(BigDecimal.ZERO)
+                .build();
     }
 
-    /** GET /asset-groups */
+    /** GET /asset-groups  — summaries only, one grouped query */
     public List<AssetGroupResponse> getAllGroups() {
-        return assetGroupRepository.findAllByOrderByGroupName()
+        return assetGroupRepository.findAllSummaries()
                 .stream().map(this::mapToResponse).toList();
     }
 
     /** GET /asset-groups/{groupId} */
     public AssetGroupResponse getGroup(Long groupId) {
-        return mapToResponse(findGroupById(groupId));
+        return assetGroupRepository.findSummary(groupId)
+                .map(this::mapToResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Asset group not found with ID: " + groupId));
+    }
+
+    /**
+     * GET /asset-groups/{groupId}/assets  — one page of members (all portfolios unless
+     * portfolioId is given), with the same sort, filters and cursor as the asset listings.
+     */
+    public CursorPageResponse<AssetResponse> getGroupMembers(Long groupId, Long portfolioId, AssetPageRequest page) {
+        if (!assetGroupRepository.existsById(groupId)) {
+            throw new ResourceNotFoundException("Asset group not found with ID: " + groupId);
+        }
+        page.setGroupId(groupId);
+        return assetService.findPage(portfolioId, null, page);
     }
 
     /** PUT /asset-groups/{groupId} */
@@ -82,16 +171,18 @@ public class AssetGroupService {
         if (request.getDescription() != null) {
             group.setDescription(request.getDescription());
         }
-        AssetGroup updated = assetGroupRepository.save(group);
-        return mapToResponse(updated);
+        assetGroupRepository.save(group);
+        return getGroup(groupId);
     }
 
     /** DELETE /asset-groups/{groupId} — clears membership, then deletes. */
     @Transactional
     public void deleteGroup(Long groupId) {
         AssetGroup group = findGroupById(groupId);
-        group.getAssets().clear();
+        assetGroupRepository.deleteMembershipsOfGroup(groupId);
         assetGroupRepository.delete(group);
+        membershipIndex.groupDeleted(groupId);
+        holdingsCube.groupDeleted(groupId);
         log.info("Group {} deleted", groupId);
     }
 
@@ -101,63 +192,131 @@ public class AssetGroupService {
 
     /**
      * POST /assets/{assetId}/groups  — ADD group(s) to an asset.
+     * Returns only the groups the asset was not already in.
      */
     @Transactional
-    public List<AssetGroupResponse> addGroupsToAsset(Long assetId, AssetGroupMemberRequest req) {
-        Asset asset = assetService.findAssetById(assetId);
-        Set<AssetGroup> groups = resolveGroups(req.getGroupIds());
+    public AssetGroupMembershipResponse addGroupsToAsset(Long assetId, AssetGroupMemberRequest req) {
+        assetService.findAssetById(assetId);
+        Set<Long> groupIds = requireGroups(req.getGroupIds());
+        groupIds.removeAll(currentGroupIds(assetId));
 
-        for (AssetGroup g : groups) {
-            g.addAsset(asset);
-            assetGroupRepository.save(g);
-        }
-
-        // return the updated state of the asset's groups
-        return asset.getGroups().stream()
-                .map(this::mapToResponse).toList();
+        applyMembershipChanges(membershipsOfAsset(assetId, groupIds), List.of());
+        return membershipResponse(assetId, groupIds, List.of());
     }
 
     /**
      * PUT /assets/{assetId}/groups  — REPLACE the asset's groups with exactly these.
+     * Only the difference is applied; groups kept on both sides are not touched.
      */
     @Transactional
-    public List<AssetGroupResponse> replaceGroupsForAsset(Long assetId, AssetGroupMemberRequest req) {
-        Asset asset = assetService.findAssetById(assetId);
+    public AssetGroupMembershipResponse replaceGroupsForAsset(Long assetId, AssetGroupMemberRequest req) {
+        assetService.findAssetById(assetId);
+        Set<Long> added = requireGroups(req.getGroupIds());
+        Set<Long> removed = currentGroupIds(assetId);
+        Set<Long> kept = new HashSet<>(added);
+        kept.retainAll(removed);
+        added.removeAll(kept);
+        removed.removeAll(kept);
+
+        applyMembershipChanges(membershipsOfAsset(assetId, added), membershipsOfAsset(assetId, removed));
+        return membershipResponse(assetId, added, removed);
+    }
 
-        // remove from all current groups
-        for (AssetGroup g : new HashSet<>(asset.getGroups())) {
-            g.removeAsset(asset);
-            assetGroupRepository.save(g);
+    /**
+     * DELETE /assets/{assetId}/groups/{groupId}  — remove asset from one group.
+     * removedGroupIds is empty if the asset was not a member.
+     */
+    @Transactional
+    public AssetGroupMembershipResponse removeAssetFromGroup(Long assetId, Long groupId) {
+        assetService.findAssetById(assetId);
+        requireGroups(List.of(groupId));
+        if (memberIdsAmong(groupId, List.of(assetId)).isEmpty()) {
+            return membershipResponse(assetId, List.of(), List.of());
         }
+        applyMembershipChanges(List.of(), List.of(new GroupMembership(groupId, assetId)));
+        return membershipResponse(assetId, List.of(), List.of(groupId));
+    }
 
-        // add to the new set
-        Set<AssetGroup> newGroups = resolveGroups(req.getGroupIds());
-        for (AssetGroup g : newGroups) {
-            g.addAsset(asset);
-            assetGroupRepository.save(g);
-        }
+    /**
+     * GET /assets/{assetId}/groups  — summaries of the groups the asset belongs to.
+     */
+    public List<AssetGroupResponse> getGroupsForAsset(Long assetId) {
+        assetService.findAssetById(assetId);
+        return assetGroupRepository.findSummariesForAsset(assetId)
+                .stream().map(this::mapToResponse).toList();
+    }
 
-        return newGroups.stream().map(this::mapToResponse).toList();
+    // ---------------------------------------------------------------
+    // BULK MEMBERSHIP  (set-based; no group or asset collections are loaded)
+    // ---------------------------------------------------------------
+
+    /**
+     * POST /asset-groups/{groupId}/assets  — add many assets to one group.
+     * Assets already in the group are skipped.
+     */
+    @Transactional
+    public AssetGroupBulkMembershipResponse addAssetsToGroup(Long groupId, AssetGroupBulkMembersRequest req) {
+        requireGroups(List.of(groupId));
+        Set<Long> assetIds = requireAssets(req.getAssetIds());
+        int assetCount = assetIds.size();
+        memberIdsAmong(groupId, assetIds).forEach(assetIds::remove);
+
+        List<GroupMembership> added = membershipsOfGroup(groupId, assetIds);
+        applyMembershipChanges(added, List.of());
+        log.info("Group {}: {} assets added in bulk", groupId, added.size());
+        return bulkResponse(groupId, assetCount, added.size(), 0);
     }
 
     /**
-     * DELETE /assets/{assetId}/groups/{groupId}  — remove asset from one group.
+     * POST /asset-groups/{groupId}/assets/remove  — remove many assets from one group.
+     * Assets that are not members are skipped.
      */
     @Transactional
-    public void removeAssetFromGroup(Long assetId, Long groupId) {
-        Asset asset = assetService.findAssetById(assetId);
-        AssetGroup group = findGroupById(groupId);
-        group.removeAsset(asset);
-        assetGroupRepository.save(group);
+    public AssetGroupBulkMembershipResponse removeAssetsFromGroup(Long groupId, AssetGroupBulkMembersRequest req) {
+        requireGroups(List.of(groupId));
+        Set<Long> assetIds = requireAssets(req.getAssetIds());
+
+        List<GroupMembership> removed = membershipsOfGroup(groupId, memberIdsAmong(groupId, assetIds));
+        applyMembershipChanges(List.of(), removed);
+        log.info("Group {}: {} assets removed in bulk", groupId, removed.size());
+        return bulkResponse(groupId, assetIds.size(), 0, removed.size());
     }
 
     /**
-     * GET /assets/{assetId}/groups  — all groups the asset belongs to.
+     * PUT /assets/groups  — replace the groups of many assets at once.
+     * The current memberships of all named assets are read in one pass and only the
+     * difference is written.
      */
-    public List<AssetGroupResponse> getGroupsForAsset(Long assetId) {
-        Asset asset = assetService.findAssetById(assetId);
-        return asset.getGroups().stream()
-                .map(this::mapToResponse).toList();
+    @Transactional
+    public AssetGroupBulkMembershipResponse replaceGroupsForAssets(AssetGroupBulkReplaceRequest req) {
+        if (req.getAssets().size() > MAX_BULK_ASSETS) {
+            throw new InvalidRequestException("At most " + MAX_BULK_ASSETS + " assets per request.");
+        }
+        // asset ID → groups still to add; existing memberships are struck off below
+        Map<Long, Set<Long>> missing = new HashMap<>();
+        Set<Long> groupIds = new HashSet<>();
+        for (AssetGroupBulkReplaceRequest.Entry entry : req.getAssets()) {
+            if (missing.put(entry.getAssetId(), new HashSet<>(entry.getGroupIds())) != null) {
+                throw new InvalidRequestException("Asset " + entry.getAssetId() + " appears more than once.");
+            }
+            groupIds.addAll(entry.getGroupIds());
+        }
+        requireAssets(missing.keySet());
+        requireGroups(groupIds);
+
+        List<GroupMembership> removed = new ArrayList<>();
+        for (GroupMembership m : assetGroupRepository.findMembershipsOfAssets(missing.keySet())) {
+            if (!missing.get(m.assetId()).remove(m.groupId())) {
+                removed.add(m);
+            }
+        }
+        List<GroupMembership> added = new ArrayList<>();
+        missing.forEach((assetId, groups) -> added.addAll(membershipsOfAsset(assetId, groups)));
+
+        applyMembershipChanges(added, removed);
+        log.info("Bulk group replace for {} assets: {} memberships added, {} removed",
+                missing.size(), added.size(), removed.size());
+        return bulkResponse(null, missing.size(), added.size(), removed.size());
     }
 
     // ---------------------------------------------------------------
@@ -168,38 +327,139 @@ public class AssetGroupService {
      * GET /asset-groups/{groupId}/performance?portfolioId=X
      *
      * Aggregates only HOLDING assets in this group that belong to the given portfolio.
-     * Wishlist assets are excluded.
+     * Wishlist assets are excluded. Sums come from the {@link HoldingsCube}; a group without
+     * such members gets a zero row.
      */
     public AssetGroupPerformanceResponse getGroupPerformance(Long groupId, Long portfolioId) {
         AssetGroup group = findGroupById(groupId);
-
-        List<Asset> holdingAssets = group.getAssets().stream()
-                .filter(a -> a.getPortfolio().getPortfolioId().equals(portfolioId))
-                .filter(a -> !a.isWishlist())
-                .toList();
-
-        return buildPerformance(group, holdingAssets);
+        CubeCell totals = holdingsCube.rollup(CubeQuery.builder()
+                .portfolioIds(Set.of(portfolioId))
+                .groupIds(Set.of(groupId))
+                .build()).stream()
+                .findFirst()
+                .orElse(new CubeCell(portfolioId, null, null, groupId, 0, BigDecimal.ZERO, BigDecimal.ZERO));
+        return buildPerformance(groupId, group.getGroupName(), totals);
     }
 
     /**
      * GET /portfolios/{portfolioId}/asset-groups/performance
      *
      * Performance for every group, scoped to one portfolio. Only groups that actually
-     * contain at least one holding asset in that portfolio are returned.
+     * contain at least one holding asset in that portfolio are returned, sorted by name.
+     * One {@link HoldingsCube} rollup by group; group names come from one query.
      */
     public List<AssetGroupPerformanceResponse> getAllGroupPerformanceForPortfolio(Long portfolioId) {
-        return assetGroupRepository.findAllByOrderByGroupName().stream()
-                .map(group -> {
-                    List<Asset> holdingAssets = group.getAssets().stream()
-                            .filter(a -> a.getPortfolio().getPortfolioId().equals(portfolioId))
-                            .filter(a -> !a.isWishlist())
-                            .toList();
-                    return buildPerformance(group, holdingAssets);
-                })
-                .filter(p -> p.getHoldingCount() > 0)
+        List<CubeCell> cells = holdingsCube.rollup(CubeQuery.builder()
+                .by(Set.of(CubeDimension.GROUP))
+                .portfolioIds(Set.of(portfolioId))
+                .build());
+        Map<Long, String> names = new HashMap<>();
+        assetGroupRepository.findAllById(cells.stream().map(CubeCell::groupId).toList())
+                .forEach(g -> names.put(g.getGroupId(), g.getGroupName()));
+
+        return cells.stream()
+                .filter(cell -> names.containsKey(cell.groupId()))
+                .map(cell -> buildPerformance(cell.groupId(), names.get(cell.groupId()), cell))
+                .sorted(Comparator.comparing(AssetGroupPerformanceResponse::getGroupName))
+                .toList();
+    }
+
+    /**
+     * GET /asset-groups/performance
+     *
+     * Performance of every (group, portfolio) cell at once — the whole picture that would
+     * otherwise take one /asset-groups/{groupId}/performance call per pair. The join of
+     * memberships to holdings is scanned once, split into asset-ID ranges that are summed
+     * in parallel on separate connections and merged here. Only cells with at least one
+     * holding are returned, sorted by group name, then portfolio name.
+     *
+     * The partitions are separate statements, so a write committing during the scan can be
+     * seen by some of them and not others.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<GroupPortfolioPerformanceResponse> getGroupPortfolioMatrix() {
+        IdRange range = assetGroupRepository.findMemberIdRange().orElse(null);
+        if (range == null) {
+            return List.of();
+        }
+        long span = range.max() - range.min() + 1;
+        int partitions = (int) Math.max(1, Math.min(matrixPartitions, span / MIN_MATRIX_PARTITION_IDS));
+        long step = (span + partitions - 1) / partitions;
+        log.debug("Group matrix scan: {} partitions of {} asset IDs", partitions, step);
+
+        List<CompletableFuture<List<GroupPortfolioTotals>>> scans = new ArrayList<>(partitions);
+        for (long from = range.min(); from <= range.max(); from += step) {
+            long start = from;
+            long end = Math.min(from + step, range.max() + 1);
+            scans.add(CompletableFuture.supplyAsync(
+                    () -> assetGroupRepository.sumHoldingsByGroupAndPortfolio(start, end), matrixExecutor));
+        }
+
+        Map<CellKey, GroupPortfolioTotals> cells = new HashMap<>();
+        try {
+            for (CompletableFuture<List<GroupPortfolioTotals>> scan : scans) {
+                for (GroupPortfolioTotals part : scan.join()) {
+                    cells.merge(new CellKey(part.groupId(), part.portfolioId()), part, GroupPortfolioTotals::plus);
+                }
+            }
+        } catch (CompletionException e) {
+            scans.forEach(scan -> scan.cancel(false));
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+        return cells.values().stream()
+                .sorted(Comparator.comparing(GroupPortfolioTotals::groupName)
+                        .thenComparing(GroupPortfolioTotals::portfolioName)
+                        .thenComparing(GroupPortfolioTotals::portfolioId))
+                .map(this::buildCell)
                 .toList();
     }
 
+    /**
+     * GET /portfolios/{portfolioId}/asset-groups/select?allOf=&anyOf=&noneOf=&limit=
+     *
+     * Assets of the portfolio in every allOf group, in at least one anyOf group and in no
+     * noneOf group — e.g. Tech AND Dividend but NOT Speculative. The set algebra runs on
+     * the in-memory {@link MembershipIndex} and the sums over the selected holdings are read
+     * from their {@link HoldingsCube} rows, so nothing goes to the database but the group
+     * check.
+     */
+    public GroupSetPerformanceResponse getGroupSetPerformance(Long portfolioId, List<Long> allOf,
+                                                              List<Long> anyOf, List<Long> noneOf, int limit) {
+        if (allOf.isEmpty() && anyOf.isEmpty()) {
+            throw new InvalidRequestException("At least one group is required in allOf or anyOf.");
+        }
+        if (limit < 0 || limit > MAX_SELECTED_IDS) {
+            throw new InvalidRequestException("limit must be between 0 and " + MAX_SELECTED_IDS + ".");
+        }
+        Set<Long> named = new HashSet<>(allOf);
+        named.addAll(anyOf);
+        named.addAll(noneOf);
+        requireGroups(named);
+
+        AssetIdBitmap selected = membershipIndex.select(portfolioId, allOf, anyOf, noneOf);
+        CubeCell totals = holdingsCube.sum(portfolioId, selected);
+
+        BigDecimal totalInvested = totals.totalInvested();
+        BigDecimal currentValue = totals.currentValue();
+        BigDecimal absoluteReturn = currentValue.subtract(totalInvested);
+        long assetCount = selected.cardinality();
+        return GroupSetPerformanceResponse.builder()
+                .portfolioId(portfolioId)
+                .allOf(allOf)
+                .anyOf(anyOf)
+                .noneOf(noneOf)
+                .assetCount(assetCount)
+                .holdingCount((int) totals.holdingCount())
+                .totalInvested(totalInvested)
+                .currentValue(currentValue)
+                .absoluteReturn(absoluteReturn)
+                .percentageReturn(percentageReturn(absoluteReturn, totalInvested))
+                .assetIds(Arrays.stream(selected.toArray(limit)).boxed().toList())
+                .assetIdsTruncated(assetCount > limit)
+                .build();
+    }
+
     // ---------------------------------------------------------------
     // HELPERS
     // ---------------------------------------------------------------
@@ -209,50 +469,147 @@ public class AssetGroupService {
                 .orElseThrow(() -> new ResourceNotFoundException("Asset group not found with ID: " + groupId));
     }
 
-    private Set<AssetGroup> resolveGroups(List<Long> groupIds) {
-        Set<AssetGroup> resolved = new HashSet<>();
-        for (Long id : groupIds) {
-            resolved.add(findGroupById(id));
+    /** The distinct IDs as a mutable set; 404 for the lowest ID that does not exist. */
+    private Set<Long> requireGroups(Collection<Long> groupIds) {
+        Set<Long> ids = new HashSet<>(groupIds);
+        Set<Long> unknown = new TreeSet<>(ids);
+        assetGroupRepository.findExistingIds(ids).forEach(unknown::remove);
+        if (!unknown.isEmpty()) {
+            throw new ResourceNotFoundException("Asset group not found with ID: " + unknown.iterator().next());
         }
-        return resolved;
+        return ids;
     }
 
-    private AssetGroupPerformanceResponse buildPerformance(AssetGroup group, List<Asset> holdingAssets) {
-        BigDecimal totalInvested = holdingAssets.stream()
-                .map(Asset::getInvestedValue).reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal currentValue = holdingAssets.stream()
-                .map(Asset::getCurrentValue).reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal absoluteReturn = currentValue.subtract(totalInvested);
-        BigDecimal percentageReturn = BigDecimal.ZERO;
-        if (totalInvested.compareTo(BigDecimal.ZERO) > 0) {
-            percentageReturn = absoluteReturn
-                    .divide(totalInvested, 4, RoundingMode.HALF_UP)
-                    .multiply(new BigDecimal("100"));
+    /** Same as {@link #requireGroups} for assets, capped at {@link #MAX_BULK_ASSETS}. */
+    private Set<Long> requireAssets(Collection<Long> assetIds) {
+        Set<Long> ids = new HashSet<>(assetIds);
+        if (ids.size() > MAX_BULK_ASSETS) {
+            throw new InvalidRequestException("At most " + MAX_BULK_ASSETS + " assets per request.");
         }
+        Set<Long> unknown = new TreeSet<>(ids);
+        assetRepository.findExistingIds(ids).forEach(unknown::remove);
+        if (!unknown.isEmpty()) {
+            throw new ResourceNotFoundException("Asset not found with ID: " + unknown.iterator().next());
+        }
+        return ids;
+    }
+
+    /**
+     * Which of the given assets are in the group. Looked up by asset (the join table's
+     * asset_id index) so the cost follows the request size, not the group size.
+     */
+    private List<Long> memberIdsAmong(Long groupId, Collection<Long> assetIds) {
+        return assetGroupRepository.findMembershipsOfAssets(assetIds).stream()
+                .filter(m -> m.groupId().equals(groupId))
+                .map(GroupMembership::assetId)
+                .toList();
+    }
+
+    private Set<Long> currentGroupIds(Long assetId) {
+        Set<Long> groupIds = new HashSet<>();
+        assetGroupRepository.findMembershipsOfAssets(List.of(assetId))
+                .forEach(m -> groupIds.add(m.groupId()));
+        return groupIds;
+    }
+
+    /**
+     * Writes the join rows in JDBC batches and reports them to the membership index and
+     * the holdings cube.
+     * Deletes go first so a row can be moved within one call.
+     */
+    private void applyMembershipChanges(List<GroupMembership> added, List<GroupMembership> removed) {
+        if (!removed.isEmpty()) {
+            assetGroupRepository.deleteMemberships(removed);
+            removed.forEach(m -> {
+                membershipIndex.memberRemoved(m.groupId(), m.assetId());
+                holdingsCube.memberRemoved(m.groupId(), m.assetId());
+            });
+        }
+        if (!added.isEmpty()) {
+            assetGroupRepository.insertMemberships(added);
+            added.forEach(m -> {
+                membershipIndex.memberAdded(m.groupId(), m.assetId());
+                holdingsCube.memberAdded(m.groupId(), m.assetId());
+            });
+        }
+    }
+
+    private static List<GroupMembership> membershipsOfAsset(Long assetId, Collection<Long> groupIds) {
+        return groupIds.stream().map(groupId -> new GroupMembership(groupId, assetId)).toList();
+    }
+
+    private static List<GroupMembership> membershipsOfGroup(Long groupId, Collection<Long> assetIds) {
+        return assetIds.stream().map(assetId -> new GroupMembership(groupId, assetId)).toList();
+    }
+
+    AssetGroupPerformanceResponse buildPerformance(Long groupId, String groupName, CubeCell totals) {
+        BigDecimal totalInvested = totals.totalInvested();
+        BigDecimal currentValue = totals.currentValue();
+        BigDecimal absoluteReturn = currentValue.subtract(totalInvested);
         return AssetGroupPerformanceResponse.builder()
-                .groupId(group.getGroupId())
-                .groupName(group.getGroupName())
-                .holdingCount(holdingAssets.size())
+                .groupId(groupId)
+                .groupName(groupName)
+                .holdingCount((int) totals.holdingCount())
                 .totalInvested(totalInvested)
                 .currentValue(currentValue)
                 .absoluteReturn(absoluteReturn)
-                .percentageReturn(percentageReturn)
+                .percentageReturn(percentageReturn(absoluteReturn, totalInvested))
                 .build();
     }
 
-    private AssetGroupResponse mapToResponse(AssetGroup group) {
-        List<AssetResponse> assetResponses = group.getAssets().stream()
-                .map(assetService::mapToResponse)
-                .sorted((a, b) -> a.getAssetName().compareTo(b.getAssetName()))
-                .toList();
+    private GroupPortfolioPerformanceResponse buildCell(GroupPortfolioTotals totals) {
+        BigDecimal absoluteReturn = totals.currentValue().subtract(totals.totalInvested());
+        return GroupPortfolioPerformanceResponse.builder()
+                .groupId(totals.groupId())
+                .groupName(totals.groupName())
+                .portfolioId(totals.portfolioId())
+                .portfolioName(totals.portfolioName())
+                .holdingCount((int) totals.holdingCount())
+                .totalInvested(totals.totalInvested())
+                .currentValue(totals.currentValue())
+                .absoluteReturn(absoluteReturn)
+                .percentageReturn(percentageReturn(absoluteReturn, totals.totalInvested()))
+                .build();
+    }
+
+    private static BigDecimal percentageReturn(BigDecimal absoluteReturn, BigDecimal totalInvested) {
+        if (totalInvested.compareTo(BigDecimal.ZERO) <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return absoluteReturn
+                .divide(totalInvested, 4, RoundingMode.HALF_UP)
+                .multiply(new BigDecimal("100"));
+    }
 
+    AssetGroupResponse mapToResponse(GroupSummary summary) {
         return AssetGroupResponse.builder()
-                .groupId(group.getGroupId())
-                .groupName(group.getGroupName())
-                .description(group.getDescription())
-                .createdDate(group.getCreatedDate())
-                .assetCount(group.getAssets().size())
-                .assets(assetResponses)
+                .groupId(summary.getGroupId())
+                .groupName(summary.getGroupName())
+                .description(summary.getDescription())
+                .createdDate(summary.getCreatedDate())
+                .assetCount(summary.getAssetCount().intValue())
+                .holdingCount(summary.getHoldingCount().intValue())
+                .totalInvested(summary.getTotalInvested())
+                .currentValue(summary.getCurrentValue())
+                .build();
+    }
+
+    private AssetGroupMembershipResponse membershipResponse(Long assetId, Collection<Long> added,
+                                                            Collection<Long> removed) {
+        return AssetGroupMembershipResponse.builder()
+                .assetId(assetId)
+                .addedGroupIds(added.stream().sorted().toList())
+                .removedGroupIds(removed.stream().sorted().toList())
+                .build();
+    }
+
+    private static AssetGroupBulkMembershipResponse bulkResponse(Long groupId, int assetCount,
+                                                                 int added, int removed) {
+        return AssetGroupBulkMembershipResponse.builder()
+                .groupId(groupId)
+                .assetCount(assetCount)
+                .addedCount(added)
+                .removedCount(removed)
                 .build();
     }
 }
@@ -1,10 +1,21 @@
 package com.portfolio.service;
 
+import com.portfolio.dto.projection.AssetPriceRow;
+import com.portfolio.dto.request.HistoryPageRequest;
 import com.portfolio.dto.response.AssetHistoryResponse;
+import com.portfolio.dto.response.CursorPageResponse;
+import com.portfolio.dto.response.PriceUpdateStatsResponse;
 import com.portfolio.entity.ActionType;
 import com.portfolio.entity.Asset;
 import com.portfolio.entity.AssetHistory;
+import com.portfolio.entity.AssetType;
+import com.portfolio.exception.InvalidRequestException;
+import com.portfolio.history.HistoryAppender;
+import com.portfolio.history.HistoryArchive;
+import com.portfolio.history.PriceUpdateCoalescer;
+import com.portfolio.history.PriceUpdateCoalescer.PriceChange;
 import com.portfolio.repository.AssetHistoryRepository;
+import com.portfolio.repository.HistoryPageQuery;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,11 +23,22 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service for append-only asset history records.
  * Other services call the record* methods; consumers call getHistory().
+ *
+ * Every new row goes through the configured {@link HistoryAppender}. In ASYNC mode rows
+ * become visible to getHistory() shortly after the recording transaction commits.
+ * Rows moved to the {@link HistoryArchive} are merged back into every page.
+ *
+ * Price changes go through the {@link PriceUpdateCoalescer} first; depending on the asset
+ * type's policy they may update the asset's latest PRICE_UPDATE row instead of adding one.
  */
 @Service
 @RequiredArgsConstructor
@@ -25,17 +47,85 @@ import java.util.List;
 public class AssetHistoryService {
 
     private final AssetHistoryRepository assetHistoryRepository;
+    private final HistoryAppender historyAppender;
+    private final HistoryArchive historyArchive;
+    private final PriceUpdateCoalescer priceUpdateCoalescer;
 
     // ---------------------------------------------------------------
     // READ
     // ---------------------------------------------------------------
 
-    public List<AssetHistoryResponse> getHistory(Long assetId) {
-        return assetHistoryRepository
-                .findByAssetAssetIdOrderByActionDateDescHistoryIdDesc(assetId)
-                .stream()
-                .map(this::mapToResponse)
-                .toList();
+    /** One page of an asset's history, newest first, optionally limited to a date range and action types. */
+    public CursorPageResponse<AssetHistoryResponse> getHistory(Long assetId, HistoryPageRequest page) {
+        if (page.getFrom() != null && page.getTo() != null && page.getFrom().isAfter(page.getTo())) {
+            throw new InvalidRequestException("from must not be after to.");
+        }
+        HistoryCursor after = page.getCursor() == null ? null : HistoryCursor.decode(page.getCursor());
+        List<ActionType> actionTypes = page.getActionType() == null || page.getActionType().isEmpty()
+                ? null : page.getActionType();
+
+        HistoryPageQuery query = new HistoryPageQuery(assetId,
+                page.getFrom(), page.getTo(), actionTypes,
+                after == null ? null : after.actionDate(), after == null ? null : after.historyId(),
+                page.getLimit() + 1);
+        List<AssetHistory> rows = assetHistoryRepository.findPage(query);
+        if (!historyArchive.isEmpty()) {
+            rows = HistoryArchive.mergeNewestFirst(rows, historyArchive.findPage(query), query.limit());
+        }
+
+        boolean hasMore = rows.size() > page.getLimit();
+        if (hasMore) rows = rows.subList(0, page.getLimit());
+
+        String nextCursor = null;
+        if (hasMore) {
+            AssetHistory last = rows.get(rows.size() - 1);
+            nextCursor = new HistoryCursor(last.getActionDate(), last.getHistoryId()).encode();
+        }
+        return CursorPageResponse.<AssetHistoryResponse>builder()
+                .items(rows.stream().map(this::mapToResponse).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * GET /prices/history-stats — PRICE_UPDATE rows written vs. changes coalesced since startup,
+     * per asset type, and the history writer's health.
+     */
+    public PriceUpdateStatsResponse getPriceUpdateStats() {
+        Map<AssetType, PriceUpdateStatsResponse.TypeStats> byType = new EnumMap<>(AssetType.class);
+        long written = 0;
+        long coalesced = 0;
+        for (AssetType type : AssetType.values()) {
+            PriceUpdateCoalescer.Policy policy = priceUpdateCoalescer.policy(type);
+            long typeWritten = priceUpdateCoalescer.written(type);
+            long typeCoalesced = priceUpdateCoalescer.coalesced(type);
+            byType.put(type, PriceUpdateStatsResponse.TypeStats.builder()
+                    .window(policy.window().toString())
+                    .minChange(policy.minChange())
+                    .rowsWritten(typeWritten)
+                    .updatesCoalesced(typeCoalesced)
+                    .build());
+            written += typeWritten;
+            coalesced += typeCoalesced;
+        }
+        return PriceUpdateStatsResponse.builder()
+                .rowsWritten(written)
+                .updatesCoalesced(coalesced)
+                .byAssetType(byType)
+                .writer(writerStats(historyAppender.status()))
+                .build();
+    }
+
+    private static PriceUpdateStatsResponse.WriterStats writerStats(HistoryAppender.Status status) {
+        return PriceUpdateStatsResponse.WriterStats.builder()
+                .mode(status.mode())
+                .alive(status.writerAlive())
+                .queued(status.queued())
+                .failures(status.failures())
+                .deadLettered(status.deadLettered())
+                .lastError(status.lastError())
+                .build();
     }
 
     // ---------------------------------------------------------------
@@ -54,8 +144,55 @@ public class AssetHistoryService {
 
     @Transactional
     public void recordPriceUpdate(Asset asset, BigDecimal oldPrice, BigDecimal newPrice) {
-        String remarks = "Price changed from " + oldPrice + " to " + newPrice;
-        save(asset, ActionType.PRICE_UPDATE, null, newPrice, remarks);
+        PriceChange change = new PriceChange(asset.getAssetId(), asset.getAssetType(), oldPrice, newPrice);
+        if (!priceUpdateCoalescer.coalesce(List.of(change)).isEmpty()) return;
+        AssetHistory entry = newEntry(asset, ActionType.PRICE_UPDATE, null, newPrice,
+                PriceUpdateCoalescer.remarks(oldPrice, newPrice, 1));
+        historyAppender.append(List.of(entry));
+        priceUpdateCoalescer.written(change, entry);
+    }
+
+    /** "Initial purchase" BUY rows for newly created holdings, appended as one batch (bulk import). */
+    @Transactional
+    public void recordInitialBuys(List<Asset> assets) {
+        List<AssetHistory> entries = new ArrayList<>(assets.size());
+        for (Asset asset : assets) {
+            priceUpdateCoalescer.close(asset.getAssetId());
+            entries.add(newEntry(asset, ActionType.BUY, asset.getQuantity(), asset.getBuyPrice(),
+                    "Initial purchase"));
+        }
+        historyAppender.append(entries);
+    }
+
+    /**
+     * One PRICE_UPDATE per asset in {@code newPriceByAssetId}: coalesced where the policy
+     * allows, the rest appended as one batch. {@code assets} supplies the old prices and
+     * asset types; used by the bulk repricing path.
+     */
+    @Transactional
+    public void recordPriceUpdates(List<AssetPriceRow> assets, Map<Long, BigDecimal> newPriceByAssetId) {
+        List<PriceChange> changes = new ArrayList<>(newPriceByAssetId.size());
+        for (AssetPriceRow row : assets) {
+            BigDecimal newPrice = newPriceByAssetId.get(row.assetId());
+            if (newPrice == null) continue;
+            changes.add(new PriceChange(row.assetId(), row.assetType(), row.currentPrice(), newPrice));
+        }
+        Set<Long> coalesced = priceUpdateCoalescer.coalesce(changes);
+
+        List<PriceChange> appended = new ArrayList<>(changes.size() - coalesced.size());
+        List<AssetHistory> entries = new ArrayList<>(changes.size() - coalesced.size());
+        for (PriceChange change : changes) {
+            if (coalesced.contains(change.assetId())) continue;
+            Asset ref = new Asset();
+            ref.setAssetId(change.assetId());
+            appended.add(change);
+            entries.add(newEntry(ref, ActionType.PRICE_UPDATE, null, change.newPrice(),
+                    PriceUpdateCoalescer.remarks(change.oldPrice(), change.newPrice(), 1)));
+        }
+        historyAppender.append(entries);
+        for (int i = 0; i < entries.size(); i++) {
+            priceUpdateCoalescer.written(appended.get(i), entries.get(i));
+        }
     }
 
     @Transactional
@@ -69,8 +206,15 @@ public class AssetHistoryService {
     // INTERNAL
     // ---------------------------------------------------------------
 
+    /** BUY, SELL and QUANTITY_UPDATE rows; each also closes the asset's rolling PRICE_UPDATE row. */
     private void save(Asset asset, ActionType actionType, BigDecimal quantityChanged,
                       BigDecimal price, String remarks) {
+        priceUpdateCoalescer.close(asset.getAssetId());
+        historyAppender.append(List.of(newEntry(asset, actionType, quantityChanged, price, remarks)));
+    }
+
+    private AssetHistory newEntry(Asset asset, ActionType actionType, BigDecimal quantityChanged,
+                                  BigDecimal price, String remarks) {
         AssetHistory history = new AssetHistory();
         history.setAsset(asset);
         history.setActionType(actionType);
@@ -78,8 +222,7 @@ public class AssetHistoryService {
         history.setPriceAtThatTime(price);
         history.setActionDate(LocalDate.now());
         history.setRemarks(remarks);
-        assetHistoryRepository.save(history);
-        log.info("History recorded: {} for asset {}", actionType, asset.getAssetId());
+        return history;
     }
 
     private AssetHistoryResponse mapToResponse(AssetHistory h) {
@@ -0,0 +1,404 @@
+package com.portfolio.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.cube.HoldingsCube;
+import com.portfolio.dto.request.AssetRequest;
+import com.portfolio.dto.response.AssetImportResponse;
+import com.portfolio.dto.response.AssetImportResponse.RowError;
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetType;
+import com.portfolio.entity.Portfolio;
+import com.portfolio.exception.InvalidRequestException;
+import com.portfolio.membership.MembershipIndex;
+import com.portfolio.price.LatestPriceTable;
+import com.portfolio.repository.AssetRepository;
+import com.portfolio.repository.PortfolioRepository;
+import com.portfolio.repository.StockCategoryRepository;
+import com.portfolio.service.PortfolioAggregateService.Contribution;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk asset import: POST /portfolios/{portfolioId}/assets/import
+ *
+ * The body (CSV with a header row, or NDJSON — one AssetRequest object per line) is read
+ * line by line; a line longer than {@code max-line-length} is a row error. Each row is
+ * validated with the same rules as createAsset; valid rows are written in chunks, each
+ * chunk in its own transaction: assets inserted in JDBC batches, "Initial purchase" BUY
+ * history for the holdings, one aggregate update per asset type.
+ * Memory use is bounded by the chunk size, independent of the body size.
+ *
+ * A failed row never stops the import. If a chunk fails to commit, all its rows are
+ * reported as failed and the import continues with the next chunk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class AssetImportService {
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    public enum Format { CSV, NDJSON }
+
+    private final PortfolioService portfolioService;
+    private final AssetService assetService;
+    private final AssetHistoryService assetHistoryService;
+    private final PortfolioAggregateService portfolioAggregateService;
+    private final MembershipIndex membershipIndex;
+    private final HoldingsCube holdingsCube;
+    private final LatestPriceTable latestPriceTable;
+    private final AssetRepository assetRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final StockCategoryRepository stockCategoryRepository;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${portfolio.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${portfolio.import.max-line-length:8192}")
+    private int maxLineLength;
+
+    /** Not transactional itself: every chunk commits on its own. */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AssetImportResponse importAssets(Long portfolioId, Format format, InputStream body) throws IOException {
+        portfolioService.findPortfolioById(portfolioId);
+        log.info("Importing {} assets into portfolio {}", format, portfolioId);
+
+        Report report = new Report();
+        Map<Long, Boolean> categoryExists = new HashMap<>();
+        List<AssetRequest> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+
+        try (LineReader reader = new LineReader(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)), maxLineLength)) {
+            long lineNo = 0;
+            CsvColumns columns = null;
+            if (format == Format.CSV) {
+                String header = reader.readLine();
+                lineNo++;
+                if (header == null) {
+                    throw new InvalidRequestException("CSV body is empty; a header row is required.");
+                }
+                if (reader.tooLong()) {
+                    throw new InvalidRequestException("CSV header row is longer than " + maxLineLength + " characters.");
+                }
+                columns = new CsvColumns(header);
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (reader.tooLong()) {
+                    report.rowsRead++;
+                    report.fail(lineNo, "Row is longer than " + maxLineLength + " characters.");
+                    continue;
+                }
+                if (line.isBlank()) continue;
+                report.rowsRead++;
+                try {
+                    AssetRequest request = format == Format.CSV ? columns.parse(line) : parseJson(line);
+                    validate(request, categoryExists);
+                    chunk.add(request);
+                    chunkLines.add(lineNo);
+                } catch (InvalidRequestException e) {
+                    report.fail(lineNo, e.getMessage());
+                }
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(portfolioId, chunk, chunkLines, report);
+                }
+            }
+            writeChunk(portfolioId, chunk, chunkLines, report);
+        }
+
+        log.info("Import into portfolio {}: {} rows, {} imported, {} failed",
+                portfolioId, report.rowsRead, report.imported, report.failed);
+        return AssetImportResponse.builder()
+                .rowsRead(report.rowsRead)
+                .imported(report.imported)
+                .failed(report.failed)
+                .errors(report.errors)
+                .errorsTruncated(report.failed > report.errors.size())
+                .build();
+    }
+
+    // ---------------------------------------------------------------
+    // VALIDATION
+    // ---------------------------------------------------------------
+
+    private void validate(AssetRequest request, Map<Long, Boolean> categoryExists) {
+        var violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new InvalidRequestException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        assetService.validateNewAsset(request);
+        if (request.getAssetType() == AssetType.STOCK) {
+            Long categoryId = request.getStockCategoryId();
+            if (!categoryExists.computeIfAbsent(categoryId, stockCategoryRepository::existsById)) {
+                throw new InvalidRequestException("Stock category not found with ID: " + categoryId);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // WRITE
+    // ---------------------------------------------------------------
+
+    private void writeChunk(Long portfolioId, List<AssetRequest> chunk, List<Long> chunkLines, Report report) {
+        if (chunk.isEmpty()) return;
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                Portfolio portfolio = portfolioRepository.getReferenceById(portfolioId);
+                List<Asset> assets = new ArrayList<>(chunk.size());
+                for (AssetRequest request : chunk) {
+                    assets.add(assetService.buildAsset(portfolio, request,
+                            request.getAssetType() == AssetType.STOCK
+                                    ? stockCategoryRepository.getReferenceById(request.getStockCategoryId())
+                                    : null));
+                }
+                assetRepository.saveAll(assets);
+                assetRepository.flush();
+
+                List<Asset> holdings = assets.stream().filter(a -> !a.isWishlist()).toList();
+                if (!holdings.isEmpty()) {
+                    assetHistoryService.recordInitialBuys(holdings);
+                }
+                for (Contribution c : sumByType(holdings)) {
+                    portfolioAggregateService.applyChange(portfolioId, Contribution.NONE, c);
+                }
+                for (Asset asset : assets) {
+                    membershipIndex.assetAdded(portfolioId, asset.getAssetId());
+                    holdingsCube.assetSaved(asset);
+                    latestPriceTable.priceChanged(asset.getAssetId(), asset.getCurrentPrice());
+                }
+            });
+            report.imported += chunk.size();
+        } catch (RuntimeException e) {
+            log.error("Import chunk of {} rows into portfolio {} failed", chunk.size(), portfolioId, e);
+            for (Long line : chunkLines) {
+                report.fail(line, "Not imported, chunk failed: " + e.getMessage());
+            }
+        }
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private static List<Contribution> sumByType(List<Asset> holdings) {
+        Map<AssetType, Contribution> byType = new EnumMap<>(AssetType.class);
+        for (Asset asset : holdings) {
+            Contribution c = Contribution.of(asset);
+            byType.merge(c.assetType(), c, (a, b) -> new Contribution(a.assetType(),
+                    a.invested().add(b.invested()), a.current().add(b.current())));
+        }
+        return new ArrayList<>(byType.values());
+    }
+
+    // ---------------------------------------------------------------
+    // PARSING
+    // ---------------------------------------------------------------
+
+    private AssetRequest parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, AssetRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new InvalidRequestException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * CSV columns, located by header name (case-insensitive, any order):
+     * assetName, assetType, quantity, currentPrice (required), buyPrice, isWishlist,
+     * stockCategoryId (optional). One record per line; fields may be double-quoted.
+     */
+    private static final class CsvColumns {
+
+        private static final List<String> REQUIRED = List.of("assetname", "assettype", "quantity", "currentprice");
+
+        private final Map<String, Integer> index = new HashMap<>();
+
+        CsvColumns(String header) {
+            List<String> names = split(header);
+            for (int i = 0; i < names.size(); i++) {
+                index.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : REQUIRED) {
+                if (!index.containsKey(required)) {
+                    throw new InvalidRequestException("CSV header is missing required column: " + required);
+                }
+            }
+        }
+
+        AssetRequest parse(String line) {
+            List<String> fields = split(line);
+            AssetRequest request = new AssetRequest();
+            request.setAssetName(field(fields, "assetname"));
+            String type = field(fields, "assettype");
+            if (type != null) {
+                try {
+                    request.setAssetType(AssetType.valueOf(type.toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new InvalidRequestException("Invalid assetType: " + type);
+                }
+            }
+            request.setQuantity(decimal(fields, "quantity"));
+            request.setBuyPrice(decimal(fields, "buyprice"));
+            request.setCurrentPrice(decimal(fields, "currentprice"));
+            String wishlist = field(fields, "iswishlist");
+            if (wishlist != null) {
+                if (!wishlist.equalsIgnoreCase("true") && !wishlist.equalsIgnoreCase("false")) {
+                    throw new InvalidRequestException("Invalid isWishlist: " + wishlist);
+                }
+                request.setIsWishlist(Boolean.parseBoolean(wishlist));
+            }
+            String categoryId = field(fields, "stockcategoryid");
+            if (categoryId != null) {
+                try {
+                    request.setStockCategoryId(Long.parseLong(categoryId));
+                } catch (NumberFormatException e) {
+                    throw new InvalidRequestException("Invalid stockCategoryId: " + categoryId);
+                }
+            }
+            return request;
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer i = index.get(column);
+            if (i == null || i >= fields.size()) return null;
+            String value = fields.get(i).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private BigDecimal decimal(List<String> fields, String column) {
+            String value = field(fields, column);
+            if (value == null) return null;
+            try {
+                return new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                throw new InvalidRequestException("Invalid number for " + column + ": " + value);
+            }
+        }
+
+        private static List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char ch = line.charAt(i);
+                if (quoted) {
+                    if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (ch == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(ch);
+                    }
+                } else if (ch == '"') {
+                    quoted = true;
+                } else if (ch == ',') {
+                    fields.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(ch);
+                }
+            }
+            fields.add(current.toString());
+            return fields;
+        }
+    }
+
+    /**
+     * {@link BufferedReader#readLine} with a length limit, so one huge row cannot take the
+     * heap. A longer line is read to its end without being kept: {@link #readLine} returns
+     * an empty string and {@link #tooLong} is true. Lines end at \n, \r or \r\n.
+     */
+    private static final class LineReader implements AutoCloseable {
+
+        private final Reader in;
+        private final int maxLength;
+        private final StringBuilder line = new StringBuilder();
+        private boolean tooLong;
+        private boolean afterCr;
+
+        LineReader(Reader in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+        }
+
+        /** The next line without its terminator, or null at the end of the body. */
+        String readLine() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            int ch = in.read();
+            if (afterCr && ch == '\n') ch = in.read();
+            afterCr = false;
+            if (ch == -1) return null;
+            while (ch != -1 && ch != '\n' && ch != '\r') {
+                if (line.length() < maxLength) {
+                    line.append((char) ch);
+                } else {
+                    tooLong = true;
+                }
+                ch = in.read();
+            }
+            afterCr = ch == '\r';
+            if (tooLong) line.setLength(0);
+            return line.toString();
+        }
+
+        /** Whether the line last returned exceeded the limit. */
+        boolean tooLong() {
+            return tooLong;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /** Running counts plus the first {@value #MAX_REPORTED_ERRORS} row errors. */
+    private static final class Report {
+
+        private long rowsRead;
+        private long imported;
+        private long failed;
+        private final List<RowError> errors = new ArrayList<>();
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(line, message));
+            }
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.portfolio.service;
 
+import com.portfolio.cube.HoldingsCube;
 import com.portfolio.dto.request.AssetBuyRequest;
+import com.portfolio.dto.request.AssetPageRequest;
 import com.portfolio.dto.request.AssetRequest;
 import com.portfolio.dto.request.AssetUpdateRequest;
 import com.portfolio.dto.response.AssetPerformanceResponse;
 import com.portfolio.dto.response.AssetResponse;
+import com.portfolio.dto.response.CursorPageResponse;
 import com.portfolio.entity.Asset;
 import com.portfolio.entity.AssetGroup;
 import com.portfolio.entity.AssetType;
@@ -12,9 +15,18 @@ import com.portfolio.entity.Portfolio;
 import com.portfolio.entity.StockCategory;
 import com.portfolio.exception.InvalidRequestException;
 import com.portfolio.exception.ResourceNotFoundException;
+import com.portfolio.membership.MembershipIndex;
+import com.portfolio.money.AssetValuation;
+import com.portfolio.price.LatestPriceTable;
+import com.portfolio.price.LatestPriceTable.LatestPrice;
+import com.portfolio.repository.AssetPageQuery;
+import com.portfolio.repository.AssetGroupRepository;
 import com.portfolio.repository.AssetRepository;
+import com.portfolio.repository.AssetRepositoryCustom.KeyedAsset;
+import com.portfolio.service.PortfolioAggregateService.Contribution;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,9 +40,14 @@ import java.util.List;
 public class AssetService {
 
     private final AssetRepository assetRepository;
+    private final AssetGroupRepository assetGroupRepository;
     private final PortfolioService portfolioService;
     private final StockCategoryService stockCategoryService;
     private final AssetHistoryService assetHistoryService;
+    private final PortfolioAggregateService portfolioAggregateService;
+    private final MembershipIndex membershipIndex;
+    private final HoldingsCube holdingsCube;
+    private final LatestPriceTable latestPriceTable;
 
     // ---------------------------------------------------------------
     // CREATE
@@ -50,41 +67,20 @@ public class AssetService {
         log.info("Creating asset '{}' in portfolio {}", request.getAssetName(), portfolioId);
 
         Portfolio portfolio = portfolioService.findPortfolioById(portfolioId);
+        validateNewAsset(request);
         boolean isWishlist = Boolean.TRUE.equals(request.getIsWishlist());
 
-        // --- wishlist / holding validation ---
-        if (isWishlist && request.getBuyPrice() != null) {
-            throw new InvalidRequestException("buyPrice must be null for wishlist assets.");
-        }
-        if (!isWishlist) {
-            if (request.getBuyPrice() == null) {
-                throw new InvalidRequestException("buyPrice is required for holding assets.");
-            }
-            if (request.getBuyPrice().compareTo(BigDecimal.ZERO) <= 0) {
-                throw new InvalidRequestException("buyPrice must be positive.");
-            }
-        }
-
-        // --- stock category validation ---
         StockCategory stockCategory = null;
         if (request.getAssetType() == AssetType.STOCK) {
-            if (request.getStockCategoryId() == null) {
-                throw new InvalidRequestException("stockCategoryId is mandatory for STOCK assets.");
-            }
             stockCategory = stockCategoryService.findCategoryById(request.getStockCategoryId());
         }
 
-        Asset asset = new Asset();
-        asset.setPortfolio(portfolio);
-        asset.setAssetName(request.getAssetName());
-        asset.setAssetType(request.getAssetType());
-        asset.setQuantity(request.getQuantity());
-        asset.setBuyPrice(request.getBuyPrice());
-        asset.setCurrentPrice(request.getCurrentPrice());
-        asset.setWishlist(isWishlist);
-        asset.setStockCategory(stockCategory);
-
+        Asset asset = buildAsset(portfolio, request, stockCategory);
         Asset saved = assetRepository.save(asset);
+        portfolioAggregateService.applyChange(portfolioId, Contribution.NONE, Contribution.of(saved));
+        membershipIndex.assetAdded(portfolioId, saved.getAssetId());
+        holdingsCube.assetSaved(saved);
+        latestPriceTable.priceChanged(saved.getAssetId(), saved.getCurrentPrice());
 
         // record BUY history only for holdings
         if (!isWishlist) {
@@ -105,23 +101,29 @@ public class AssetService {
         return mapToResponse(findAssetById(assetId));
     }
 
-    /** GET /portfolios/{portfolioId}/assets  — all (holding + wishlist) */
-    public List<AssetResponse> getPortfolioAssets(Long portfolioId) {
+    /** GET /portfolios/{portfolioId}/assets  — all (holding + wishlist), one page */
+    public CursorPageResponse<AssetResponse> getPortfolioAssets(Long portfolioId, AssetPageRequest page) {
         portfolioService.findPortfolioById(portfolioId);
-        return assetRepository.findByPortfolioPortfolioId(portfolioId)
-                .stream().map(this::mapToResponse).toList();
+        return findPage(portfolioId, null, page);
     }
 
-    /** GET /portfolios/{portfolioId}/wishlist */
-    public List<AssetResponse> getWishlistAssets(Long portfolioId) {
+    /** GET /portfolios/{portfolioId}/wishlist  — one page */
+    public CursorPageResponse<AssetResponse> getWishlistAssets(Long portfolioId, AssetPageRequest page) {
         portfolioService.findPortfolioById(portfolioId);
-        return assetRepository.findByPortfolioPortfolioIdAndWishlistTrue(portfolioId)
-                .stream().map(this::mapToResponse).toList();
+        return findPage(portfolioId, true, page);
     }
 
-    /** GET /assets/{assetId}/performance */
+    /**
+     * GET /assets/{assetId}/performance
+     * The price comes from the {@link LatestPriceTable}; the entity's is the fallback.
+     */
     public AssetPerformanceResponse getPerformance(Long assetId) {
         Asset a = findAssetById(assetId);
+        LatestPrice latest = latestPriceTable.get(assetId);
+        BigDecimal currentPrice = latest != null ? latest.price() : a.getCurrentPrice();
+        AssetValuation v = latest != null
+                ? AssetValuation.of(a.getQuantity(), a.getBuyPrice(), currentPrice)
+                : a.valuation();
         return AssetPerformanceResponse.builder()
                 .assetId(a.getAssetId())
                 .assetName(a.getAssetName())
@@ -129,11 +131,12 @@ public class AssetService {
                 .isWishlist(a.isWishlist())
                 .quantity(a.getQuantity())
                 .buyPrice(a.getBuyPrice())
-                .currentPrice(a.getCurrentPrice())
-                .investedValue(a.getInvestedValue())
-                .currentValue(a.getCurrentValue())
-                .absoluteReturn(a.getAbsoluteReturn())
-                .percentageReturn(a.getPercentageReturn())
+                .currentPrice(currentPrice)
+                .priceUpdatedAt(latest != null ? latest.updatedAt() : null)
+                .investedValue(v.investedValue())
+                .currentValue(v.currentValue())
+                .absoluteReturn(v.absoluteReturn())
+                .percentageReturn(v.percentageReturn())
                 .build();
     }
 
@@ -149,7 +152,8 @@ public class AssetService {
      */
     @Transactional
     public AssetResponse updateAsset(Long assetId, AssetUpdateRequest req) {
-        Asset asset = findAssetById(assetId);
+        Asset asset = lockAssetById(assetId);
+        Contribution before = Contribution.of(asset);
 
         if (req.getAssetName() != null) {
             asset.setAssetName(req.getAssetName());
@@ -172,9 +176,13 @@ public class AssetService {
         if (req.getCurrentPrice() != null && req.getCurrentPrice().compareTo(asset.getCurrentPrice()) != 0) {
             assetHistoryService.recordPriceUpdate(asset, asset.getCurrentPrice(), req.getCurrentPrice());
             asset.setCurrentPrice(req.getCurrentPrice());
+            latestPriceTable.priceChanged(assetId, req.getCurrentPrice());
         }
 
         Asset updated = assetRepository.save(asset);
+        portfolioAggregateService.applyChange(updated.getPortfolio().getPortfolioId(),
+                before, Contribution.of(updated));
+        holdingsCube.assetSaved(updated);
         log.info("Asset {} updated", assetId);
         return mapToResponse(updated);
     }
@@ -190,7 +198,7 @@ public class AssetService {
      */
     @Transactional
     public AssetResponse buyAsset(Long assetId, AssetBuyRequest req) {
-        Asset asset = findAssetById(assetId);
+        Asset asset = lockAssetById(assetId);
 
         if (!asset.isWishlist()) {
             throw new InvalidRequestException("Asset " + assetId + " is already a holding. Cannot buy again.");
@@ -203,6 +211,9 @@ public class AssetService {
         asset.setQuantity(quantity);
 
         Asset updated = assetRepository.save(asset);
+        portfolioAggregateService.applyChange(updated.getPortfolio().getPortfolioId(),
+                Contribution.NONE, Contribution.of(updated));
+        holdingsCube.assetSaved(updated);
 
         assetHistoryService.recordBuy(updated, quantity, req.getBuyPrice(),
                 req.getRemarks() != null ? req.getRemarks() : "Converted from wishlist to holding");
@@ -222,15 +233,18 @@ public class AssetService {
      */
     @Transactional
     public void deleteAsset(Long assetId) {
-        Asset asset = findAssetById(assetId);
+        Asset asset = lockAssetById(assetId);
+        Long portfolioId = asset.getPortfolio().getPortfolioId();
+        Contribution before = Contribution.of(asset);
 
-        // detach from all groups to avoid orphaned join-table rows
-        for (AssetGroup group : asset.getGroups()) {
-            group.getAssets().remove(asset);
-        }
-        asset.getGroups().clear();
+        // join-table rows go in one statement; the groups' member sets are never loaded
+        assetGroupRepository.deleteMembershipsOfAsset(assetId);
 
         assetRepository.delete(asset);
+        portfolioAggregateService.applyChange(portfolioId, before, Contribution.NONE);
+        membershipIndex.assetRemoved(portfolioId, assetId);
+        holdingsCube.assetRemoved(assetId);
+        latestPriceTable.assetRemoved(assetId);
         log.info("Asset {} deleted", assetId);
     }
 
@@ -238,12 +252,92 @@ public class AssetService {
     // SHARED HELPERS
     // ---------------------------------------------------------------
 
+    /**
+     * Keyset pagination: the page after the cursor position, so every page costs one
+     * bounded query (plus batched group loads) however deep it is.
+     * One extra row is fetched to tell whether another page follows.
+     * A null portfolioId or wishlist means "any".
+     */
+    CursorPageResponse<AssetResponse> findPage(Long portfolioId, Boolean wishlist, AssetPageRequest page) {
+        AssetCursor after = page.getCursor() == null ? null
+                : AssetCursor.decode(page.getCursor(), page.getSort(), page.getDirection());
+
+        List<KeyedAsset> rows = assetRepository.findPage(new AssetPageQuery(portfolioId, wishlist,
+                page.getAssetType(), page.getCategoryId(), page.getGroupId(),
+                page.getSort(), page.getDirection() == Sort.Direction.DESC,
+                after == null ? null : after.key(), after == null ? null : after.assetId(),
+                page.getLimit() + 1));
+
+        boolean hasMore = rows.size() > page.getLimit();
+        if (hasMore) rows = rows.subList(0, page.getLimit());
+
+        String nextCursor = null;
+        if (hasMore) {
+            KeyedAsset last = rows.get(rows.size() - 1);
+            nextCursor = new AssetCursor(page.getSort(), page.getDirection(),
+                    last.sortKey(), last.asset().getAssetId()).encode();
+        }
+        return CursorPageResponse.<AssetResponse>builder()
+                .items(rows.stream().map(k -> mapToResponse(k.asset())).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Create-time rules shared by createAsset and the bulk import:
+     *   - isWishlist=true  → buyPrice must be null
+     *   - isWishlist=false → buyPrice must be provided & positive
+     *   - assetType=STOCK  → stockCategoryId mandatory (existence is checked by the caller)
+     */
+    void validateNewAsset(AssetRequest request) {
+        boolean isWishlist = Boolean.TRUE.equals(request.getIsWishlist());
+
+        // --- wishlist / holding validation ---
+        if (isWishlist && request.getBuyPrice() != null) {
+            throw new InvalidRequestException("buyPrice must be null for wishlist assets.");
+        }
+        if (!isWishlist) {
+            if (request.getBuyPrice() == null) {
+                throw new InvalidRequestException("buyPrice is required for holding assets.");
+            }
+            if (request.getBuyPrice().compareTo(BigDecimal.ZERO) <= 0) {
+                throw new InvalidRequestException("buyPrice must be positive.");
+            }
+        }
+
+        // --- stock category validation ---
+        if (request.getAssetType() == AssetType.STOCK && request.getStockCategoryId() == null) {
+            throw new InvalidRequestException("stockCategoryId is mandatory for STOCK assets.");
+        }
+    }
+
+    Asset buildAsset(Portfolio portfolio, AssetRequest request, StockCategory stockCategory) {
+        Asset asset = new Asset();
+        asset.setPortfolio(portfolio);
+        asset.setAssetName(request.getAssetName());
+        asset.setAssetType(request.getAssetType());
+        asset.setQuantity(request.getQuantity());
+        asset.setBuyPrice(request.getBuyPrice());
+        asset.setCurrentPrice(request.getCurrentPrice());
+        asset.setWishlist(Boolean.TRUE.equals(request.getIsWishlist()));
+        asset.setStockCategory(stockCategory);
+        return asset;
+    }
+
+    /** The asset, row-locked until the transaction ends; for writers whose changes depend on its values. */
+    private Asset lockAssetById(Long assetId) {
+        return assetRepository.findForUpdate(assetId)
+                .orElseThrow(() -> new ResourceNotFoundException("Asset not found with ID: " + assetId));
+    }
+
     public Asset findAssetById(Long assetId) {
         return assetRepository.findById(assetId)
                 .orElseThrow(() -> new ResourceNotFoundException("Asset not found with ID: " + assetId));
     }
 
     AssetResponse mapToResponse(Asset asset) {
+        AssetValuation v = asset.valuation();
         return AssetResponse.builder()
                 .assetId(asset.getAssetId())
                 .portfolioId(asset.getPortfolio().getPortfolioId())
@@ -253,10 +347,10 @@ public class AssetService {
                 .buyPrice(asset.getBuyPrice())
                 .currentPrice(asset.getCurrentPrice())
                 .isWishlist(asset.isWishlist())
-                .investedValue(asset.getInvestedValue())
-                .currentValue(asset.getCurrentValue())
-                .absoluteReturn(asset.getAbsoluteReturn())
-                .percentageReturn(asset.getPercentageReturn())
+                .investedValue(v.investedValue())
+                .currentValue(v.currentValue())
+                .absoluteReturn(v.absoluteReturn())
+                .percentageReturn(v.percentageReturn())
                 .stockCategoryName(asset.getStockCategory() != null
                         ? asset.getStockCategory().getCategoryName() : null)
                 .groupNames(asset.getGroups().stream()
@@ -0,0 +1,39 @@
+package com.portfolio.service;
+
+import com.portfolio.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Continuation token of the paginated asset history: the (actionDate, historyId) of the
+ * last row on a page, serialized as URL-safe Base64 so clients treat it as opaque.
+ */
+record HistoryCursor(LocalDate actionDate, Long historyId) {
+
+    private static final String VERSION = "h1";
+
+    String encode() {
+        String raw = String.join("|", VERSION, actionDate.toString(), historyId.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static HistoryCursor decode(String token) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 3);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor.");
+        }
+        if (parts.length != 3 || !VERSION.equals(parts[0])) {
+            throw new InvalidRequestException("Invalid cursor.");
+        }
+        try {
+            return new HistoryCursor(LocalDate.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new InvalidRequestException("Invalid cursor.");
+        }
+    }
+}
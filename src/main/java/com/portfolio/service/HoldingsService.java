@@ -0,0 +1,122 @@
+package com.portfolio.service;
+
+import com.portfolio.cube.CubeCell;
+import com.portfolio.cube.CubeDimension;
+import com.portfolio.cube.CubeQuery;
+import com.portfolio.cube.HoldingsCube;
+import com.portfolio.dto.request.HoldingsRollupRequest;
+import com.portfolio.dto.response.HoldingsCellResponse;
+import com.portfolio.entity.AssetGroup;
+import com.portfolio.entity.Portfolio;
+import com.portfolio.entity.StockCategory;
+import com.portfolio.repository.AssetGroupRepository;
+import com.portfolio.repository.PortfolioRepository;
+import com.portfolio.repository.StockCategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class HoldingsService {
+
+    private final HoldingsCube holdingsCube;
+    private final PortfolioRepository portfolioRepository;
+    private final StockCategoryRepository stockCategoryRepository;
+    private final AssetGroupRepository assetGroupRepository;
+
+    // ---------------------------------------------------------------
+    // ROLLUP
+    // ---------------------------------------------------------------
+
+    /**
+     * GET /holdings/rollup?by=&portfolioId=&assetType=&categoryId=&groupId=
+     *
+     * One {@link HoldingsCube} rollup; the names of the portfolios, categories and groups
+     * that appear in the cells are loaded with one query per requested dimension.
+     * Unknown IDs in the filters simply match nothing.
+     */
+    public List<HoldingsCellResponse> rollup(HoldingsRollupRequest request) {
+        List<CubeCell> cells = holdingsCube.rollup(CubeQuery.builder()
+                .by(request.getBy() == null ? null : Set.copyOf(request.getBy()))
+                .portfolioIds(setOf(request.getPortfolioId()))
+                .assetTypes(setOf(request.getAssetType()))
+                .categoryIds(setOf(request.getCategoryId()))
+                .groupIds(setOf(request.getGroupId()))
+                .build());
+
+        Map<Long, String> portfolioNames = new HashMap<>();
+        Map<Long, String> categoryNames = new HashMap<>();
+        Map<Long, String> groupNames = new HashMap<>();
+        Set<CubeDimension> by = request.getBy() == null ? Set.of() : Set.copyOf(request.getBy());
+        if (by.contains(CubeDimension.PORTFOLIO)) {
+            for (Portfolio p : portfolioRepository.findAllById(ids(cells, CubeCell::portfolioId))) {
+                portfolioNames.put(p.getPortfolioId(), p.getPortfolioName());
+            }
+        }
+        if (by.contains(CubeDimension.CATEGORY)) {
+            for (StockCategory c : stockCategoryRepository.findAllById(ids(cells, CubeCell::categoryId))) {
+                categoryNames.put(c.getCategoryId(), c.getCategoryName());
+            }
+        }
+        if (by.contains(CubeDimension.GROUP)) {
+            for (AssetGroup g : assetGroupRepository.findAllById(ids(cells, CubeCell::groupId))) {
+                groupNames.put(g.getGroupId(), g.getGroupName());
+            }
+        }
+
+        return cells.stream()
+                .map(cell -> mapToResponse(cell, portfolioNames, categoryNames, groupNames))
+                .toList();
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------------
+
+    private static <T> Set<T> setOf(Collection<T> values) {
+        return values == null || values.isEmpty() ? null : Set.copyOf(values);
+    }
+
+    private static List<Long> ids(List<CubeCell> cells, Function<CubeCell, Long> coordinate) {
+        return cells.stream().map(coordinate).filter(Objects::nonNull).distinct().toList();
+    }
+
+    private HoldingsCellResponse mapToResponse(CubeCell cell, Map<Long, String> portfolioNames,
+                                               Map<Long, String> categoryNames, Map<Long, String> groupNames) {
+        BigDecimal absoluteReturn = cell.currentValue().subtract(cell.totalInvested());
+        BigDecimal percentageReturn = BigDecimal.ZERO;
+        if (cell.totalInvested().compareTo(BigDecimal.ZERO) > 0) {
+            percentageReturn = absoluteReturn
+                    .divide(cell.totalInvested(), 4, RoundingMode.HALF_UP)
+                    .multiply(new BigDecimal("100"));
+        }
+        return HoldingsCellResponse.builder()
+                .portfolioId(cell.portfolioId())
+                .portfolioName(portfolioNames.get(cell.portfolioId()))
+                .assetType(cell.assetType())
+                .categoryId(cell.categoryId())
+                .categoryName(categoryNames.get(cell.categoryId()))
+                .groupId(cell.groupId())
+                .groupName(groupNames.get(cell.groupId()))
+                .holdingCount(cell.holdingCount())
+                .totalInvested(cell.totalInvested())
+                .currentValue(cell.currentValue())
+                .absoluteReturn(absoluteReturn)
+                .percentageReturn(percentageReturn)
+                .build();
+    }
+}
@@ -0,0 +1,172 @@
+package com.portfolio.service;
+
+import com.portfolio.dto.projection.AssetTypeTotals;
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetType;
+import com.portfolio.entity.Portfolio;
+import com.portfolio.entity.PortfolioAggregate;
+import com.portfolio.money.AssetValuation;
+import com.portfolio.repository.AssetRepository;
+import com.portfolio.repository.PortfolioAggregateRepository;
+import com.portfolio.repository.PortfolioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the per-portfolio running totals ({@link PortfolioAggregate}).
+ *
+ * Asset writers capture the asset's {@link Contribution} before mutating it and hand
+ * the before/after pair to {@link #applyChange}; the difference is applied to the
+ * locked aggregate row inside the caller's transaction.
+ *
+ * A scheduled job rebuilds every aggregate from the holdings and corrects any drift
+ * (e.g. rows edited directly in the database).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class PortfolioAggregateService {
+
+    private final PortfolioAggregateRepository portfolioAggregateRepository;
+    private final AssetRepository assetRepository;
+    private final PortfolioRepository portfolioRepository;
+
+    /**
+     * What one asset adds to its portfolio's totals. Wishlist assets contribute nothing.
+     */
+    public record Contribution(AssetType assetType, BigDecimal invested, BigDecimal current) {
+
+        public static final Contribution NONE = new Contribution(null, BigDecimal.ZERO, BigDecimal.ZERO);
+
+        public static Contribution of(Asset asset) {
+            if (asset.isWishlist()) return NONE;
+            AssetValuation v = asset.valuation();
+            return new Contribution(asset.getAssetType(), v.investedValue(), v.currentValue());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // READ
+    // ---------------------------------------------------------------
+
+    /**
+     * The stored aggregate, or — if none has been built yet for this portfolio — one
+     * computed from the holdings on the fly (not persisted; the verify job backfills it).
+     */
+    public PortfolioAggregate getAggregate(Long portfolioId) {
+        return portfolioAggregateRepository.findById(portfolioId)
+                .orElseGet(() -> computeFromHoldings(portfolioId));
+    }
+
+    // ---------------------------------------------------------------
+    // WRITE  (called by AssetService / PortfolioService inside their transactions)
+    // ---------------------------------------------------------------
+
+    @Transactional
+    public void createEmpty(Long portfolioId) {
+        portfolioAggregateRepository.save(new PortfolioAggregate(portfolioId));
+    }
+
+    /**
+     * Applies (after − before) to the portfolio's aggregate.
+     * Must be called after the asset change is visible to queries in this transaction:
+     * if the aggregate row does not exist yet it is rebuilt from the holdings instead.
+     */
+    @Transactional
+    public void applyChange(Long portfolioId, Contribution before, Contribution after) {
+        if (before.equals(after)) return;
+
+        PortfolioAggregate aggregate = portfolioAggregateRepository.findForUpdate(portfolioId).orElse(null);
+        if (aggregate == null) {
+            rebuild(portfolioId);
+            return;
+        }
+        if (before.assetType() != null) {
+            aggregate.apply(before.assetType(), before.invested().negate(), before.current().negate());
+        }
+        if (after.assetType() != null) {
+            aggregate.apply(after.assetType(), after.invested(), after.current());
+        }
+    }
+
+    /**
+     * Applies current-value deltas per asset type (invested value unchanged), as produced by
+     * a bulk price update. Same contract as {@link #applyChange}: the price changes must
+     * already be visible to queries in this transaction.
+     */
+    @Transactional
+    public void applyCurrentValueDeltas(Long portfolioId, Map<AssetType, BigDecimal> deltaByType) {
+        if (deltaByType.isEmpty()) return;
+
+        PortfolioAggregate aggregate = portfolioAggregateRepository.findForUpdate(portfolioId).orElse(null);
+        if (aggregate == null) {
+            rebuild(portfolioId);
+            return;
+        }
+        deltaByType.forEach((type, delta) -> aggregate.apply(type, BigDecimal.ZERO, delta));
+    }
+
+    @Transactional
+    public void delete(Long portfolioId) {
+        portfolioAggregateRepository.findById(portfolioId)
+                .ifPresent(portfolioAggregateRepository::delete);
+    }
+
+    // ---------------------------------------------------------------
+    // REBUILD / VERIFY
+    // ---------------------------------------------------------------
+
+    /** Recomputes the aggregate from the holdings and overwrites the stored row. */
+    @Transactional
+    public PortfolioAggregate rebuild(Long portfolioId) {
+        assetRepository.flush();
+        PortfolioAggregate computed = computeFromHoldings(portfolioId);
+        PortfolioAggregate stored = portfolioAggregateRepository.findForUpdate(portfolioId)
+                .orElseGet(() -> new PortfolioAggregate(portfolioId));
+        stored.setTotalInvested(computed.getTotalInvested());
+        stored.setCurrentValue(computed.getCurrentValue());
+        stored.getTypeValues().clear();
+        stored.getTypeValues().putAll(computed.getTypeValues());
+        return portfolioAggregateRepository.save(stored);
+    }
+
+    /**
+     * Nightly check of every portfolio's aggregate against its holdings.
+     * Missing rows are created, drifted rows are corrected and logged.
+     */
+    @Scheduled(cron = "${portfolio.aggregate.verify-cron:0 30 2 * * *}")
+    @Transactional
+    public void verifyAll() {
+        List<Portfolio> portfolios = portfolioRepository.findAll();
+        int corrected = 0;
+        for (Portfolio portfolio : portfolios) {
+            Long portfolioId = portfolio.getPortfolioId();
+            PortfolioAggregate computed = computeFromHoldings(portfolioId);
+            PortfolioAggregate stored = portfolioAggregateRepository.findById(portfolioId).orElse(null);
+            if (stored == null || !stored.matches(computed)) {
+                log.warn("Portfolio aggregate for {} was {}; rebuilding", portfolioId,
+                        stored == null ? "missing" : "out of sync");
+                rebuild(portfolioId);
+                corrected++;
+            }
+        }
+        log.info("Verified {} portfolio aggregates, {} rebuilt", portfolios.size(), corrected);
+    }
+
+    /** Sums are computed by the database — one row per asset type. */
+    private PortfolioAggregate computeFromHoldings(Long portfolioId) {
+        PortfolioAggregate aggregate = new PortfolioAggregate(portfolioId);
+        for (AssetTypeTotals t : assetRepository.sumHoldingsByType(portfolioId)) {
+            aggregate.apply(t.getAssetType(), t.getTotalInvested(), t.getCurrentValue());
+        }
+        return aggregate;
+    }
+}
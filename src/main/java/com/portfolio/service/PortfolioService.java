@@ -1,15 +1,19 @@
 package com.portfolio.service;
 
+import com.portfolio.cube.HoldingsCube;
 import com.portfolio.dto.request.PortfolioRequest;
 import com.portfolio.dto.response.PortfolioResponse;
 import com.portfolio.dto.response.PortfolioSummaryResponse;
-import com.portfolio.entity.Asset;
 import com.portfolio.entity.AssetType;
 import com.portfolio.entity.Portfolio;
+import com.portfolio.entity.PortfolioAggregate;
 import com.portfolio.exception.ResourceAlreadyExistsException;
 import com.portfolio.exception.ResourceNotFoundException;
-import com.portfolio.repository.AssetRepository;
+import com.portfolio.membership.MembershipIndex;
+import com.portfolio.repository.AssetGroupRepository;
+import com.portfolio.repository.AssetStateCheckpointRepository;
 import com.portfolio.repository.PortfolioRepository;
+import com.portfolio.repository.PortfolioSnapshotRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -29,7 +33,12 @@ import java.util.Map;
 public class PortfolioService {
 
     private final PortfolioRepository portfolioRepository;
-    private final AssetRepository assetRepository;
+    private final AssetGroupRepository assetGroupRepository;
+    private final AssetStateCheckpointRepository assetStateCheckpointRepository;
+    private final PortfolioSnapshotRepository portfolioSnapshotRepository;
+    private final PortfolioAggregateService portfolioAggregateService;
+    private final MembershipIndex membershipIndex;
+    private final HoldingsCube holdingsCube;
 
     // ---------------------------------------------------------------
     // CRUD
@@ -46,6 +55,7 @@ public class PortfolioService {
         p.setInitialInvestment(request.getInitialInvestment());
         p.setCreatedDate(LocalDate.now());
         Portfolio saved = portfolioRepository.save(p);
+        portfolioAggregateService.createEmpty(saved.getPortfolioId());
         log.info("Portfolio created: {}", saved.getPortfolioId());
         return mapToResponse(saved);
     }
@@ -69,12 +79,14 @@ public class PortfolioService {
         Portfolio portfolio = findPortfolioById(portfolioId);
 
         // detach all assets from their groups before cascade-deleting assets
-        for (Asset asset : portfolio.getAssets()) {
-            asset.getGroups().forEach(g -> g.getAssets().remove(asset));
-            asset.getGroups().clear();
-        }
+        assetGroupRepository.deleteMembershipsOfPortfolio(portfolioId);
 
         portfolioRepository.delete(portfolio);
+        portfolioAggregateService.delete(portfolioId);
+        assetStateCheckpointRepository.deleteByPortfolio(portfolioId);
+        portfolioSnapshotRepository.deleteByPortfolio(portfolioId);
+        membershipIndex.portfolioDeleted(portfolioId);
+        holdingsCube.portfolioDeleted(portfolioId);
         log.info("Portfolio {} deleted", portfolioId);
     }
 
@@ -82,17 +94,16 @@ public class PortfolioService {
     // SUMMARY  (holding assets only)
     // ---------------------------------------------------------------
 
+    /**
+     * Reads the maintained {@link PortfolioAggregate} — cost depends on the number of
+     * asset types held, not on the number of holdings.
+     */
     public PortfolioSummaryResponse getPortfolioSummary(Long portfolioId) {
         Portfolio portfolio = findPortfolioById(portfolioId);
+        PortfolioAggregate aggregate = portfolioAggregateService.getAggregate(portfolioId);
 
-        // only holding assets participate in value calculations
-        List<Asset> holdingAssets = assetRepository
-                .findByPortfolioPortfolioIdAndWishlistFalse(portfolioId);
-
-        BigDecimal totalInvested = holdingAssets.stream()
-                .map(Asset::getInvestedValue).reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal currentValue = holdingAssets.stream()
-                .map(Asset::getCurrentValue).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalInvested = aggregate.getTotalInvested();
+        BigDecimal currentValue = aggregate.getCurrentValue();
 
         BigDecimal absoluteReturn = currentValue.subtract(totalInvested);
         BigDecimal percentageReturn = BigDecimal.ZERO;
@@ -102,7 +113,7 @@ public class PortfolioService {
                     .multiply(new BigDecimal("100"));
         }
 
-        Map<String, BigDecimal> allocation = calculateAssetAllocation(holdingAssets, currentValue);
+        Map<String, BigDecimal> allocation = calculateAssetAllocation(aggregate.getTypeValues(), currentValue);
 
         return PortfolioSummaryResponse.builder()
                 .portfolioId(portfolio.getPortfolioId())
@@ -125,14 +136,11 @@ public class PortfolioService {
                         "Portfolio not found with ID: " + portfolioId));
     }
 
-    private Map<String, BigDecimal> calculateAssetAllocation(List<Asset> holdingAssets, BigDecimal totalValue) {
+    Map<String, BigDecimal> calculateAssetAllocation(Map<AssetType, BigDecimal> typeValues,
+                                                     BigDecimal totalValue) {
         Map<String, BigDecimal> allocation = new HashMap<>();
         if (totalValue.compareTo(BigDecimal.ZERO) == 0) return allocation;
 
-        Map<AssetType, BigDecimal> typeValues = new HashMap<>();
-        for (Asset a : holdingAssets) {
-            typeValues.merge(a.getAssetType(), a.getCurrentValue(), BigDecimal::add);
-        }
         for (var entry : typeValues.entrySet()) {
             BigDecimal pct = entry.getValue()
                     .divide(totalValue, 4, RoundingMode.HALF_UP)
@@ -0,0 +1,181 @@
+package com.portfolio.service;
+
+import com.portfolio.cube.CubeCell;
+import com.portfolio.cube.CubeDimension;
+import com.portfolio.cube.CubeQuery;
+import com.portfolio.cube.HoldingsCube;
+import com.portfolio.dto.request.SnapshotRangeRequest;
+import com.portfolio.dto.response.PortfolioSnapshotResponse;
+import com.portfolio.entity.PortfolioSnapshot;
+import com.portfolio.exception.InvalidRequestException;
+import com.portfolio.repository.PortfolioRepository;
+import com.portfolio.repository.PortfolioSnapshotRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Daily portfolio value snapshots ({@link PortfolioSnapshot}).
+ *
+ * An end-of-day job records, for every portfolio, the totals the portfolio summary shows
+ * at that moment (holdings only, from the {@link HoldingsCube}). The portfolios are split
+ * into ID partitions written in parallel, each in its own transaction. Writing a date again
+ * replaces that date's rows, so the job can be re-run safely.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class PortfolioSnapshotService {
+
+    private final PortfolioSnapshotRepository portfolioSnapshotRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final PortfolioService portfolioService;
+    private final HoldingsCube holdingsCube;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${portfolio.snapshots.partitions:4}")
+    private int partitions;
+
+    private ExecutorService snapshotExecutor;
+
+    @PostConstruct
+    void startSnapshotExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        snapshotExecutor = Executors.newFixedThreadPool(partitions, task -> {
+            Thread thread = new Thread(task, "portfolio-snapshot-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopSnapshotExecutor() {
+        snapshotExecutor.shutdownNow();
+    }
+
+    // ---------------------------------------------------------------
+    // READ
+    // ---------------------------------------------------------------
+
+    /** GET /portfolios/{portfolioId}/snapshots?from=&to= — oldest first. */
+    public List<PortfolioSnapshotResponse> getSnapshots(Long portfolioId, SnapshotRangeRequest req) {
+        portfolioService.findPortfolioById(portfolioId);
+        LocalDate to = req.getTo() != null ? req.getTo() : LocalDate.now();
+        LocalDate from = req.getFrom() != null ? req.getFrom() : LocalDate.EPOCH;
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from must not be after to.");
+        }
+        return portfolioSnapshotRepository
+                .findByPortfolioIdAndSnapshotDateBetweenOrderBySnapshotDate(portfolioId, from, to)
+                .stream()
+                .map(this::mapToResponse)
+                .toList();
+    }
+
+    // ---------------------------------------------------------------
+    // SNAPSHOT JOB
+    // ---------------------------------------------------------------
+
+    @Scheduled(cron = "${portfolio.snapshots.cron:0 55 23 * * *}")
+    public void snapshotToday() {
+        long start = System.currentTimeMillis();
+        int written = takeSnapshots(LocalDate.now());
+        log.info("Portfolio snapshots: {} rows written in {} ms", written, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Records the current totals of every portfolio under {@code date}; returns the number of
+     * rows written. A partition that fails rolls back on its own; the others stay written.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int takeSnapshots(LocalDate date) {
+        List<Long> portfolioIds = portfolioRepository.findAllIds();
+        if (portfolioIds.isEmpty()) return 0;
+        int parts = Math.min(partitions, portfolioIds.size());
+        int step = (portfolioIds.size() + parts - 1) / parts;
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<CompletableFuture<Integer>> writes = new ArrayList<>(parts);
+        for (int from = 0; from < portfolioIds.size(); from += step) {
+            List<Long> ids = portfolioIds.subList(from, Math.min(from + step, portfolioIds.size()));
+            writes.add(CompletableFuture.supplyAsync(() -> tx.execute(status -> writePartition(ids, date)),
+                    snapshotExecutor));
+        }
+        int written = 0;
+        try {
+            for (CompletableFuture<Integer> write : writes) {
+                written += write.join();
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+        return written;
+    }
+
+    // ---------------------------------------------------------------
+    // INTERNAL
+    // ---------------------------------------------------------------
+
+    /** One cube rollup by portfolio × asset type for the partition; portfolios without holdings get zeros. */
+    private int writePartition(List<Long> portfolioIds, LocalDate date) {
+        Set<Long> idSet = new HashSet<>(portfolioIds);
+        Map<Long, PortfolioSnapshot> snapshots = new LinkedHashMap<>();
+        for (Long id : portfolioIds) {
+            snapshots.put(id, new PortfolioSnapshot(id, date));
+        }
+        List<CubeCell> cells = holdingsCube.rollup(CubeQuery.builder()
+                .by(Set.of(CubeDimension.PORTFOLIO, CubeDimension.ASSET_TYPE))
+                .portfolioIds(idSet)
+                .build());
+        for (CubeCell cell : cells) {
+            snapshots.get(cell.portfolioId()).add(cell.assetType(), cell.totalInvested(), cell.currentValue());
+        }
+        portfolioSnapshotRepository.upsert(new ArrayList<>(snapshots.values()));
+        return snapshots.size();
+    }
+
+    private PortfolioSnapshotResponse mapToResponse(PortfolioSnapshot s) {
+        BigDecimal absoluteReturn = s.getCurrentValue().subtract(s.getTotalInvested());
+        BigDecimal percentageReturn = BigDecimal.ZERO;
+        if (s.getTotalInvested().compareTo(BigDecimal.ZERO) > 0) {
+            percentageReturn = absoluteReturn
+                    .divide(s.getTotalInvested(), 4, RoundingMode.HALF_UP)
+                    .multiply(new BigDecimal("100"));
+        }
+        Map<String, BigDecimal> typeValues = new LinkedHashMap<>();
+        s.typeValues().forEach((type, value) -> typeValues.put(type.name(), value));
+        return PortfolioSnapshotResponse.builder()
+                .date(s.getSnapshotDate())
+                .totalInvestedAmount(s.getTotalInvested())
+                .currentPortfolioValue(s.getCurrentValue())
+                .absoluteReturn(absoluteReturn)
+                .percentageReturn(percentageReturn)
+                .assetTypeValues(typeValues)
+                .build();
+    }
+}
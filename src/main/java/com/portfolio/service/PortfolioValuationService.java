@@ -0,0 +1,286 @@
+package com.portfolio.service;
+
+import com.portfolio.dto.projection.HistoryPoint;
+import com.portfolio.dto.request.ValuationSeriesRequest;
+import com.portfolio.dto.response.PortfolioValuationResponse;
+import com.portfolio.entity.AssetStateCheckpoint;
+import com.portfolio.entity.BarInterval;
+import com.portfolio.entity.Portfolio;
+import com.portfolio.entity.ValuationCheckpoint;
+import com.portfolio.exception.InvalidRequestException;
+import com.portfolio.history.HistoryArchive;
+import com.portfolio.repository.AssetHistoryRepository;
+import com.portfolio.repository.AssetRepository;
+import com.portfolio.repository.AssetStateCheckpointRepository;
+import com.portfolio.repository.PortfolioRepository;
+import com.portfolio.repository.ValuationCheckpointRepository;
+import com.portfolio.valuation.ValuationReplay;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Point-in-time portfolio valuation, replayed from asset history.
+ *
+ * On the first day of each month a checkpoint of every asset's state is materialized
+ * ({@link AssetStateCheckpoint}); a valuation starts from the nearest checkpoint and replays
+ * only the rows after it. Series sweep their whole range in one ordered pass over history.
+ *
+ * The replay only knows what history records: a holding is valued at the price of its
+ * latest history row, so before its first PRICE_UPDATE that is its buy price.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class PortfolioValuationService {
+
+    private static final int MAX_POINTS = 1000;
+    private static final int INSERT_CHUNK = 5000;
+
+    private final PortfolioService portfolioService;
+    private final PortfolioRepository portfolioRepository;
+    private final AssetHistoryRepository assetHistoryRepository;
+    private final AssetRepository assetRepository;
+    private final HistoryArchive historyArchive;
+    private final AssetStateCheckpointRepository assetStateCheckpointRepository;
+    private final ValuationCheckpointRepository valuationCheckpointRepository;
+
+    /** A replay seeded from a checkpoint, and the first action date still to apply (null: from the start). */
+    private record Start(ValuationReplay replay, LocalDate from) {}
+
+    // ---------------------------------------------------------------
+    // READ
+    // ---------------------------------------------------------------
+
+    /** GET /portfolios/{portfolioId}/valuation?date= — as of the end of {@code date} (default: today). */
+    public PortfolioValuationResponse getValuation(Long portfolioId, LocalDate date) {
+        portfolioService.findPortfolioById(portfolioId);
+        LocalDate asOf = date != null ? date : LocalDate.now();
+        if (asOf.isAfter(LocalDate.now())) {
+            throw new InvalidRequestException("date must not be in the future.");
+        }
+        Start start = startAt(portfolioId, asOf);
+        forEachRow(portfolioId, start.from(), asOf, start.replay()::apply);
+        return toResponse(portfolioId, asOf, start.replay());
+    }
+
+    /** GET /portfolios/{portfolioId}/valuation/series — one point per interval, oldest first. */
+    public List<PortfolioValuationResponse> getValuationSeries(Long portfolioId, ValuationSeriesRequest req) {
+        portfolioService.findPortfolioById(portfolioId);
+        LocalDate to = req.getTo() != null ? req.getTo() : LocalDate.now();
+        if (req.getFrom().isAfter(to)) {
+            throw new InvalidRequestException("from must not be after to.");
+        }
+        if (to.isAfter(LocalDate.now())) {
+            throw new InvalidRequestException("to must not be in the future.");
+        }
+        Deque<LocalDate> pending = sampleDates(req.getFrom(), to,
+                BarInterval.valueOf(req.getInterval().toUpperCase(Locale.ROOT)));
+
+        Start start = startAt(portfolioId, req.getFrom());
+        ValuationReplay replay = start.replay();
+        List<PortfolioValuationResponse> points = new ArrayList<>(pending.size());
+        forEachRow(portfolioId, start.from(), to, row -> {
+            while (!pending.isEmpty() && row.actionDate().isAfter(pending.peekFirst())) {
+                points.add(toResponse(portfolioId, pending.pollFirst(), replay));
+            }
+            replay.apply(row);
+        });
+        while (!pending.isEmpty()) {
+            points.add(toResponse(portfolioId, pending.pollFirst(), replay));
+        }
+        return points;
+    }
+
+    // ---------------------------------------------------------------
+    // CHECKPOINTS
+    // ---------------------------------------------------------------
+
+    /**
+     * Materializes every missing month-start checkpoint up to today, continuing from the
+     * latest one (or from the oldest history row on the first run). Rows of a run that was
+     * interrupted before it recorded its {@link ValuationCheckpoint}s are discarded first.
+     */
+    @Scheduled(cron = "${portfolio.valuation.checkpoint-cron:0 10 0 * * *}")
+    @Transactional
+    public void buildCheckpoints() {
+        LocalDate target = LocalDate.now().withDayOfMonth(1);
+        Optional<ValuationCheckpoint> last = valuationCheckpointRepository.findTopByOrderByCheckpointDateDesc();
+        LocalDate first;
+        if (last.isPresent()) {
+            first = last.get().getCheckpointDate().plusMonths(1).withDayOfMonth(1);
+        } else {
+            LocalDate earliest = earliestActionDate();
+            if (earliest == null) return;
+            first = earliest.withDayOfMonth(1).plusMonths(1);
+        }
+        if (first.isAfter(target)) return;
+
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate d = first; !d.isAfter(target); d = d.plusMonths(1)) {
+            dates.add(d);
+        }
+        LocalDate lastDate = last.map(ValuationCheckpoint::getCheckpointDate).orElse(null);
+        int discarded = assetStateCheckpointRepository.deleteAfter(lastDate != null ? lastDate : LocalDate.EPOCH);
+        if (discarded > 0) {
+            log.warn("Discarded {} checkpoint rows of an interrupted run", discarded);
+        }
+
+        Map<LocalDate, Integer> assetCounts = new HashMap<>();
+        for (Portfolio portfolio : portfolioRepository.findAll()) {
+            buildCheckpoints(portfolio.getPortfolioId(), lastDate, dates, assetCounts);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (LocalDate d : dates) {
+            valuationCheckpointRepository.save(new ValuationCheckpoint(d, assetCounts.getOrDefault(d, 0), now));
+        }
+        log.info("Valuation checkpoints {} to {} built", first, target);
+    }
+
+    // ---------------------------------------------------------------
+    // INTERNAL
+    // ---------------------------------------------------------------
+
+    /** One sweep from the previous checkpoint through the day before the last new one. */
+    private void buildCheckpoints(Long portfolioId, LocalDate lastDate, List<LocalDate> dates,
+                                  Map<LocalDate, Integer> assetCounts) {
+        ValuationReplay replay = new ValuationReplay();
+        if (lastDate != null) {
+            replay.seed(assetStateCheckpointRepository.findByPortfolioIdAndCheckpointDate(portfolioId, lastDate));
+        }
+        Deque<LocalDate> pending = new ArrayDeque<>(dates);
+        List<AssetStateCheckpoint> rows = new ArrayList<>();
+        LocalDate through = dates.get(dates.size() - 1).minusDays(1);
+        forEachRow(portfolioId, lastDate, through, row -> {
+            while (!pending.isEmpty() && !row.actionDate().isBefore(pending.peekFirst())) {
+                snapshot(portfolioId, pending.pollFirst(), replay, rows, assetCounts);
+            }
+            replay.apply(row);
+            if (rows.size() >= INSERT_CHUNK) {
+                assetStateCheckpointRepository.batchInsert(rows);
+                rows.clear();
+            }
+        });
+        while (!pending.isEmpty()) {
+            snapshot(portfolioId, pending.pollFirst(), replay, rows, assetCounts);
+        }
+        assetStateCheckpointRepository.batchInsert(rows);
+    }
+
+    private static void snapshot(Long portfolioId, LocalDate date, ValuationReplay replay,
+                                 List<AssetStateCheckpoint> rows, Map<LocalDate, Integer> assetCounts) {
+        List<AssetStateCheckpoint> states = replay.snapshot(portfolioId, date);
+        rows.addAll(states);
+        assetCounts.merge(date, states.size(), Integer::sum);
+    }
+
+    /**
+     * The portfolio's history rows in (actionDate, historyId) order, as
+     * {@link AssetHistoryRepository#forEachPortfolioRow}, with the archived rows merged in.
+     */
+    private void forEachRow(Long portfolioId, LocalDate from, LocalDate to, Consumer<HistoryPoint> action) {
+        if (historyArchive.isEmpty()) {
+            assetHistoryRepository.forEachPortfolioRow(portfolioId, from, to, action);
+            return;
+        }
+        List<HistoryPoint> archived = historyArchive.findPoints(
+                assetRepository.findIdsByPortfolio(portfolioId), from, to);
+        int[] next = { 0 };
+        long[] lastId = { -1 };
+        Consumer<HistoryPoint> once = row -> {
+            if (row.historyId() == lastId[0]) return;   // in a pending segment and still in the table
+            lastId[0] = row.historyId();
+            action.accept(row);
+        };
+        assetHistoryRepository.forEachPortfolioRow(portfolioId, from, to, row -> {
+            while (next[0] < archived.size() && precedes(archived.get(next[0]), row)) {
+                once.accept(archived.get(next[0]++));
+            }
+            once.accept(row);
+        });
+        while (next[0] < archived.size()) {
+            once.accept(archived.get(next[0]++));
+        }
+    }
+
+    private static boolean precedes(HistoryPoint a, HistoryPoint b) {
+        int byDate = a.actionDate().compareTo(b.actionDate());
+        return byDate < 0 || (byDate == 0 && a.historyId() <= b.historyId());
+    }
+
+    private LocalDate earliestActionDate() {
+        LocalDate table = assetHistoryRepository.findEarliestActionDate();
+        LocalDate archived = historyArchive.findEarliestActionDate();
+        if (table == null) return archived;
+        return archived == null || table.isBefore(archived) ? table : archived;
+    }
+
+    /** Seeds a replay from the latest checkpoint that covers no row after {@code date}. */
+    private Start startAt(Long portfolioId, LocalDate date) {
+        ValuationReplay replay = new ValuationReplay();
+        Optional<ValuationCheckpoint> checkpoint = valuationCheckpointRepository
+                .findTopByCheckpointDateLessThanEqualOrderByCheckpointDateDesc(date.plusDays(1));
+        if (checkpoint.isEmpty()) {
+            return new Start(replay, null);
+        }
+        LocalDate checkpointDate = checkpoint.get().getCheckpointDate();
+        replay.seed(assetStateCheckpointRepository.findByPortfolioIdAndCheckpointDate(portfolioId, checkpointDate));
+        return new Start(replay, checkpointDate);
+    }
+
+    private static Deque<LocalDate> sampleDates(LocalDate from, LocalDate to, BarInterval interval) {
+        Deque<LocalDate> dates = new ArrayDeque<>();
+        for (int i = 0; ; i++) {
+            LocalDate d = switch (interval) {
+                case DAY -> from.plusDays(i);
+                case WEEK -> from.plusWeeks(i);
+                case MONTH -> from.plusMonths(i);
+            };
+            if (d.isAfter(to)) break;
+            if (dates.size() == MAX_POINTS) {
+                throw new InvalidRequestException("Range has more than " + MAX_POINTS
+                        + " points; use a shorter range or a longer interval.");
+            }
+            dates.add(d);
+        }
+        return dates;
+    }
+
+    private static PortfolioValuationResponse toResponse(Long portfolioId, LocalDate date, ValuationReplay replay) {
+        BigDecimal totalInvested = replay.totalInvested();
+        BigDecimal currentValue = replay.currentValue();
+        BigDecimal absoluteReturn = currentValue.subtract(totalInvested);
+        BigDecimal percentageReturn = BigDecimal.ZERO;
+        if (totalInvested.compareTo(BigDecimal.ZERO) > 0) {
+            percentageReturn = absoluteReturn
+                    .divide(totalInvested, 4, RoundingMode.HALF_UP)
+                    .multiply(new BigDecimal("100"));
+        }
+        return PortfolioValuationResponse.builder()
+                .portfolioId(portfolioId)
+                .date(date)
+                .totalInvestedAmount(totalInvested)
+                .currentPortfolioValue(currentValue)
+                .absoluteReturn(absoluteReturn)
+                .percentageReturn(percentageReturn)
+                .holdingCount(replay.holdingCount())
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.portfolio.service;
+
+import com.portfolio.dto.request.PriceSeriesRequest;
+import com.portfolio.dto.response.PriceBarResponse;
+import com.portfolio.entity.AssetPriceBar;
+import com.portfolio.entity.BarInterval;
+import com.portfolio.exception.InvalidRequestException;
+import com.portfolio.repository.AssetPriceBarRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Downsampled price series read from {@link AssetPriceBar} (maintained by
+ * {@link com.portfolio.history.PriceBarRecorder} as history is appended).
+ *
+ * A scheduled compaction drops DAY bars older than the configured retention; WEEK and
+ * MONTH bars are kept for the whole history, so long ranges stay a few hundred points.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class PriceBarService {
+
+    private final AssetPriceBarRepository assetPriceBarRepository;
+
+    @Value("${portfolio.price-bars.day-retention-days:400}")
+    private int dayRetentionDays;
+
+    // ---------------------------------------------------------------
+    // READ
+    // ---------------------------------------------------------------
+
+    /** GET /assets/{assetId}/prices — oldest bucket first. */
+    public List<PriceBarResponse> getPriceSeries(Long assetId, PriceSeriesRequest req) {
+        BarInterval interval = BarInterval.valueOf(req.getInterval().toUpperCase(Locale.ROOT));
+        LocalDate to = req.getTo() != null ? req.getTo() : LocalDate.now();
+        // a range starting mid-bucket still includes that bucket
+        LocalDate from = req.getFrom() != null ? interval.bucketStart(req.getFrom()) : LocalDate.EPOCH;
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from must not be after to.");
+        }
+        return assetPriceBarRepository
+                .findByAssetIdAndBarIntervalAndBucketStartBetweenOrderByBucketStart(assetId, interval, from, to)
+                .stream()
+                .map(this::mapToResponse)
+                .toList();
+    }
+
+    // ---------------------------------------------------------------
+    // COMPACTION
+    // ---------------------------------------------------------------
+
+    @Scheduled(cron = "${portfolio.price-bars.compact-cron:0 55 2 * * *}")
+    @Transactional
+    public void compact() {
+        LocalDate before = LocalDate.now().minusDays(dayRetentionDays);
+        int deleted = assetPriceBarRepository.deleteOlderThan(BarInterval.DAY, before);
+        log.info("Price bar compaction: {} DAY bars before {} removed", deleted, before);
+    }
+
+    // ---------------------------------------------------------------
+    // INTERNAL
+    // ---------------------------------------------------------------
+
+    private PriceBarResponse mapToResponse(AssetPriceBar bar) {
+        return PriceBarResponse.builder()
+                .bucketStart(bar.getBucketStart())
+                .open(bar.getOpenPrice())
+                .high(bar.getHighPrice())
+                .low(bar.getLowPrice())
+                .close(bar.getClosePrice())
+                .quantityChange(bar.getQuantityChange())
+                .updates(bar.getRowCount())
+                .build();
+    }
+}
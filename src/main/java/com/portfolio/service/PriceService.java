@@ -0,0 +1,244 @@
+package com.portfolio.service;
+
+import com.portfolio.cube.HoldingsCube;
+import com.portfolio.dto.projection.AssetPriceRow;
+import com.portfolio.dto.request.PriceBatchRequest;
+import com.portfolio.dto.response.PriceBatchResponse;
+import com.portfolio.dto.response.PriceBatchResponse.Result;
+import com.portfolio.dto.response.PriceBatchResponse.Status;
+import com.portfolio.price.LatestPriceTable;
+import com.portfolio.entity.AssetType;
+import com.portfolio.repository.AssetRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Bulk repricing (POST /prices/batch).
+ *
+ * The whole batch is resolved with a handful of IN-list queries, then written with JDBC
+ * batches: one UPDATE batch for assets.current_price and one INSERT batch for the
+ * PRICE_UPDATE history rows. Portfolio aggregates receive one delta per portfolio and
+ * asset type.
+ *
+ * The target rows are read with SELECT ... FOR UPDATE in asset ID order, so the old prices
+ * behind the UNCHANGED decision, the history rows and the aggregate deltas cannot change
+ * before the batch commits: a concurrent PUT, batch or tick flush on the same asset waits. Single-asset price edits keep going through PUT /assets/{assetId}; live ticks
+ * come in through {@link PriceTickService}, which uses the same write path.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class PriceService {
+
+    private final AssetRepository assetRepository;
+    private final AssetHistoryService assetHistoryService;
+    private final PortfolioAggregateService portfolioAggregateService;
+    private final HoldingsCube holdingsCube;
+    private final LatestPriceTable latestPriceTable;
+
+    /**
+     * Applies every valid entry; each entry gets its own outcome.
+     *
+     * Rules:
+     *   - exactly one of assetId / assetName, and a positive price with at most 2 decimals
+     *   - an entry by name reprices every asset with exactly that name (all portfolios)
+     *   - an asset may be targeted by only one entry per batch; later entries are INVALID
+     *   - assets whose price is already equal are left alone (no history row)
+     */
+    @Transactional
+    public PriceBatchResponse applyBatch(PriceBatchRequest request) {
+        List<PriceBatchRequest.Entry> entries = request.getPrices();
+        Result[] results = new Result[entries.size()];
+
+        // --- validate, collect lookup keys ---
+        Set<Long> ids = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < entries.size(); i++) {
+            PriceBatchRequest.Entry e = entries.get(i);
+            String error = validate(e);
+            if (error != null) {
+                results[i] = result(i, e, Status.INVALID, 0, error);
+            } else if (e.getAssetId() != null) {
+                ids.add(e.getAssetId());
+            } else {
+                names.add(e.getAssetName());
+            }
+        }
+
+        // --- resolve targets: names to IDs, then every target row locked in ID order ---
+        Set<Long> targetIds = new HashSet<>(ids);
+        if (!names.isEmpty()) targetIds.addAll(assetRepository.findIdsByNames(names));
+        Map<Long, AssetPriceRow> rowsById = new HashMap<>();
+        Map<String, List<AssetPriceRow>> rowsByName = new HashMap<>();
+        for (AssetPriceRow row : assetRepository.lockPriceRowsByIds(targetIds)) {
+            if (ids.contains(row.assetId())) rowsById.put(row.assetId(), row);
+            // re-checked under the lock: a rename since the lookup takes the asset out
+            if (names.contains(row.assetName())) {
+                rowsByName.computeIfAbsent(row.assetName(), k -> new ArrayList<>()).add(row);
+            }
+        }
+
+        // --- decide per entry, in request order ---
+        Map<Long, BigDecimal> newPriceByAssetId = new LinkedHashMap<>();
+        List<AssetPriceRow> changedRows = new ArrayList<>();
+        Set<Long> claimed = new HashSet<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (results[i] != null) continue;
+            PriceBatchRequest.Entry e = entries.get(i);
+
+            List<AssetPriceRow> targets;
+            if (e.getAssetId() != null) {
+                AssetPriceRow row = rowsById.get(e.getAssetId());
+                targets = row != null ? List.of(row) : List.of();
+            } else {
+                targets = rowsByName.getOrDefault(e.getAssetName(), List.of());
+            }
+            if (targets.isEmpty()) {
+                results[i] = result(i, e, Status.NOT_FOUND, 0, e.getAssetId() != null
+                        ? "Asset not found with ID: " + e.getAssetId()
+                        : "No asset found with name: " + e.getAssetName());
+                continue;
+            }
+            AssetPriceRow taken = targets.stream()
+                    .filter(t -> claimed.contains(t.assetId()))
+                    .findFirst().orElse(null);
+            if (taken != null) {
+                results[i] = result(i, e, Status.INVALID, 0,
+                        "Asset " + taken.assetId() + " is already priced by an earlier entry in this batch.");
+                continue;
+            }
+
+            int changed = 0;
+            for (AssetPriceRow t : targets) {
+                claimed.add(t.assetId());
+                if (t.currentPrice().compareTo(e.getPrice()) != 0) {
+                    newPriceByAssetId.put(t.assetId(), e.getPrice());
+                    changedRows.add(t);
+                    changed++;
+                }
+            }
+            results[i] = result(i, e, changed > 0 ? Status.UPDATED : Status.UNCHANGED, changed, null);
+        }
+
+        write(changedRows, newPriceByAssetId);
+
+        log.info("Batch price update: {} entries, {} assets repriced", entries.size(), newPriceByAssetId.size());
+        return buildResponse(results);
+    }
+
+    /**
+     * Reprices by asset ID without per-entry outcomes; used by tick ingestion, whose prices
+     * are already validated. Unknown IDs and unchanged prices are skipped. Returns the number
+     * of assets repriced.
+     *
+     * The rows are locked in asset ID order like a batch's, so a flush and a concurrent PUT or
+     * batch on the same asset serialize instead of repricing from each other's stale price.
+     */
+    @Transactional
+    public int applyPrices(Map<Long, BigDecimal> priceByAssetId) {
+        Map<Long, BigDecimal> newPriceByAssetId = new TreeMap<>();
+        List<AssetPriceRow> changedRows = new ArrayList<>();
+        for (AssetPriceRow row : assetRepository.lockPriceRowsByIds(priceByAssetId.keySet())) {
+            BigDecimal price = priceByAssetId.get(row.assetId());
+            if (row.currentPrice().compareTo(price) != 0) {
+                newPriceByAssetId.put(row.assetId(), price);
+                changedRows.add(row);
+            }
+        }
+        write(changedRows, newPriceByAssetId);
+        return newPriceByAssetId.size();
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------------
+
+    /**
+     * Prices, PRICE_UPDATE history, aggregates, the holdings cube and the latest-price table
+     * for the changed assets.
+     */
+    private void write(List<AssetPriceRow> changedRows, Map<Long, BigDecimal> newPriceByAssetId) {
+        if (newPriceByAssetId.isEmpty()) return;
+        assetRepository.updateCurrentPrices(newPriceByAssetId);
+        assetHistoryService.recordPriceUpdates(changedRows, newPriceByAssetId);
+        applyAggregateDeltas(changedRows, newPriceByAssetId);
+        holdingsCube.pricesChanged(newPriceByAssetId);
+        latestPriceTable.pricesChanged(newPriceByAssetId);
+    }
+
+    private String validate(PriceBatchRequest.Entry e) {
+        boolean hasId = e.getAssetId() != null;
+        boolean hasName = e.getAssetName() != null && !e.getAssetName().isBlank();
+        if (hasId == hasName) {
+            return "Exactly one of assetId or assetName is required.";
+        }
+        if (e.getPrice() == null) {
+            return "price is required.";
+        }
+        if (e.getPrice().signum() <= 0) {
+            return "price must be positive.";
+        }
+        if (e.getPrice().stripTrailingZeros().scale() > 2) {
+            return "price must have at most 2 decimal places.";
+        }
+        return null;
+    }
+
+    /**
+     * current value changes by quantity × (new − old) for every repriced holding.
+     * Portfolios are visited in ID order so concurrent batches lock aggregates in the same order.
+     */
+    private void applyAggregateDeltas(List<AssetPriceRow> changedRows, Map<Long, BigDecimal> newPriceByAssetId) {
+        Map<Long, Map<AssetType, BigDecimal>> deltas = new TreeMap<>();
+        for (AssetPriceRow row : changedRows) {
+            if (row.wishlist()) continue;
+            BigDecimal delta = row.quantity()
+                    .multiply(newPriceByAssetId.get(row.assetId()).subtract(row.currentPrice()));
+            deltas.computeIfAbsent(row.portfolioId(), k -> new EnumMap<>(AssetType.class))
+                    .merge(row.assetType(), delta, BigDecimal::add);
+        }
+        deltas.forEach(portfolioAggregateService::applyCurrentValueDeltas);
+    }
+
+    private Result result(int index, PriceBatchRequest.Entry e, Status status, int assetsUpdated, String message) {
+        return Result.builder()
+                .index(index)
+                .assetId(e.getAssetId())
+                .assetName(e.getAssetName())
+                .status(status)
+                .assetsUpdated(assetsUpdated)
+                .message(message)
+                .build();
+    }
+
+    private PriceBatchResponse buildResponse(Result[] results) {
+        int updated = 0;
+        int unchanged = 0;
+        for (Result r : results) {
+            if (r.getStatus() == Status.UPDATED) updated++;
+            else if (r.getStatus() == Status.UNCHANGED) unchanged++;
+        }
+        return PriceBatchResponse.builder()
+                .requested(results.length)
+                .updated(updated)
+                .unchanged(unchanged)
+                .failed(results.length - updated - unchanged)
+                .results(Arrays.asList(results))
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.portfolio.service;
+
+import com.portfolio.dto.response.TickIngestStatsResponse;
+import com.portfolio.ingest.TickPipeline;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+
+/**
+ * Live price ticks from a local feed (portfolio.ticks.*), applied without the REST path.
+ *
+ * A {@link TickPipeline} reads {@code <assetId>,<price>} lines from a local TCP port and/or
+ * a tailed file, keeps only the latest price per asset per flush interval, and applies the
+ * survivors through {@link PriceService#applyPrices}: batched price UPDATEs, PRICE_UPDATE
+ * history (subject to the coalescing policy), aggregate deltas and the holdings cube, one
+ * transaction per chunk. Ticks for unknown assets are dropped by that path.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceTickService {
+
+    private final PriceService priceService;
+
+    @Value("${portfolio.ticks.enabled:false}")
+    private boolean enabled;
+
+    @Value("${portfolio.ticks.file:}")
+    private String file;
+
+    @Value("${portfolio.ticks.port:0}")
+    private int port;
+
+    @Value("${portfolio.ticks.bind-address:127.0.0.1}")
+    private String bindAddress;
+
+    @Value("${portfolio.ticks.ring-capacity:1048576}")
+    private int ringCapacity;
+
+    @Value("${portfolio.ticks.max-assets:262144}")
+    private int maxAssets;
+
+    @Value("${portfolio.ticks.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${portfolio.ticks.flush-chunk:1000}")
+    private int flushChunk;
+
+    private TickPipeline pipeline;
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) return;
+        Path tickFile = file.isBlank() ? null : Path.of(file);
+        InetSocketAddress address = port > 0 ? new InetSocketAddress(bindAddress, port) : null;
+        if (tickFile == null && address == null) {
+            log.warn("Tick ingestion is enabled but neither portfolio.ticks.file nor portfolio.ticks.port is set");
+            return;
+        }
+        pipeline = new TickPipeline(tickFile, address, ringCapacity, maxAssets, flushIntervalMs, flushChunk,
+                priceService::applyPrices);
+        pipeline.start();
+        log.info("Tick ingestion started (file: {}, port: {}, flush every {} ms)",
+                tickFile, address != null ? port : "-", flushIntervalMs);
+    }
+
+    /** Stops reading and flushes the ticks already received. */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (pipeline != null) {
+            pipeline.close();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // READ
+    // ---------------------------------------------------------------
+
+    /** GET /prices/ticks/stats */
+    public TickIngestStatsResponse getStats() {
+        if (pipeline == null) {
+            return TickIngestStatsResponse.builder().enabled(false).build();
+        }
+        TickPipeline.Stats s = pipeline.stats();
+        return TickIngestStatsResponse.builder()
+                .enabled(true)
+                .ticksReceived(s.ticksReceived())
+                .parseErrors(s.parseErrors())
+                .ticksCoalesced(s.ticksCoalesced())
+                .ticksRejected(s.ticksRejected())
+                .ringFullWaits(s.ringFullWaits())
+                .ringDepth(s.ringDepth())
+                .ringCapacity(s.ringCapacity())
+                .connections(s.connections())
+                .flushes(s.flushes())
+                .pricesFlushed(s.pricesFlushed())
+                .assetsRepriced(s.assetsRepriced())
+                .flushFailures(s.flushFailures())
+                .lastFlushLagMs(s.lastFlushLagMs())
+                .maxFlushLagMs(s.maxFlushLagMs())
+                .lastFlushMs(s.lastFlushMs())
+                .build();
+    }
+}
@@ -1,13 +1,20 @@
 package com.portfolio.service;
 
+import com.portfolio.cube.CubeCell;
+import com.portfolio.cube.CubeDimension;
+import com.portfolio.cube.CubeQuery;
+import com.portfolio.cube.HoldingsCube;
 import com.portfolio.dto.request.StockCategoryRequest;
 import com.portfolio.dto.response.StockCategoryPerformanceResponse;
+import com.portfolio.dto.response.StockCategoryPortfolioPerformanceResponse;
+import com.portfolio.dto.response.StockCategoryPortfolioPerformanceResponse.PortfolioEntry;
 import com.portfolio.dto.response.StockCategoryResponse;
-import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetType;
+import com.portfolio.entity.Portfolio;
 import com.portfolio.entity.StockCategory;
 import com.portfolio.exception.ResourceAlreadyExistsException;
 import com.portfolio.exception.ResourceNotFoundException;
-import com.portfolio.repository.AssetRepository;
+import com.portfolio.repository.PortfolioRepository;
 import com.portfolio.repository.StockCategoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,9 +24,13 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -28,7 +39,8 @@ import java.util.Map;
 public class StockCategoryService {
 
     private final StockCategoryRepository stockCategoryRepository;
-    private final AssetRepository assetRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final HoldingsCube holdingsCube;
     private final PortfolioService portfolioService;
 
     // ---------------------------------------------------------------
@@ -64,27 +76,53 @@ public class StockCategoryService {
 
     /**
      * GET /stock-categories/performance/portfolio/{portfolioId}
-     * All categories that have at least one holding stock in the portfolio.
+     * All categories that have at least one holding stock in the portfolio, sorted by name.
+     * Sums come from one {@link HoldingsCube} rollup; the categories are loaded in one query.
      */
     public List<StockCategoryPerformanceResponse> getCategoryPerformance(Long portfolioId) {
         portfolioService.findPortfolioById(portfolioId);
 
-        List<Asset> holdingStocks = assetRepository.findHoldingStocksByPortfolio(portfolioId);
+        List<CubeCell> cells = holdingsCube.rollup(stocksOf(portfolioId)
+                .by(Set.of(CubeDimension.CATEGORY))
+                .build()).stream()
+                .filter(cell -> cell.categoryId() != null)
+                .toList();
+        Map<Long, StockCategory> categories = stockCategoryRepository
+                .findAllById(cells.stream().map(CubeCell::categoryId).toList()).stream()
+                .collect(Collectors.toMap(StockCategory::getCategoryId, Function.identity()));
+
+        return cells.stream()
+                .filter(cell -> categories.containsKey(cell.categoryId()))
+                .map(cell -> calcPerformance(categories.get(cell.categoryId()), cell))
+                .sorted(Comparator.comparing(StockCategoryPerformanceResponse::getCategoryName))
+                .toList();
+    }
 
-        // group by category
-        Map<Long, List<Asset>> byCategory = new HashMap<>();
-        for (Asset a : holdingStocks) {
-            if (a.getStockCategory() != null) {
-                byCategory.computeIfAbsent(a.getStockCategory().getCategoryId(),
-                        k -> new ArrayList<>()).add(a);
-            }
+    /**
+     * GET /stock-categories/performance
+     * Every category with holding stocks in any portfolio, sorted by name, with its totals
+     * over all portfolios and the breakdown per portfolio. One {@link HoldingsCube} rollup by
+     * category × portfolio; categories and portfolios are loaded in one query each.
+     */
+    public List<StockCategoryPortfolioPerformanceResponse> getCategoryPerformanceAcrossPortfolios() {
+        Map<Long, List<CubeCell>> cellsByCategory = new HashMap<>();
+        for (CubeCell cell : holdingsCube.rollup(CubeQuery.builder()
+                .by(Set.of(CubeDimension.CATEGORY, CubeDimension.PORTFOLIO))
+                .assetTypes(Set.of(AssetType.STOCK))
+                .build())) {
+            if (cell.categoryId() == null) continue;
+            cellsByCategory.computeIfAbsent(cell.categoryId(), id -> new ArrayList<>()).add(cell);
         }
-
-        List<StockCategoryPerformanceResponse> result = new ArrayList<>();
-        for (var entry : byCategory.entrySet()) {
-            result.add(calcPerformance(entry.getKey(), entry.getValue()));
+        Map<Long, String> portfolioNames = new HashMap<>();
+        for (Portfolio p : portfolioRepository.findAllById(cellsByCategory.values().stream()
+                .flatMap(List::stream).map(CubeCell::portfolioId).distinct().toList())) {
+            portfolioNames.put(p.getPortfolioId(), p.getPortfolioName());
         }
-        return result;
+
+        return stockCategoryRepository.findAllById(cellsByCategory.keySet()).stream()
+                .map(cat -> acrossPortfolios(cat, cellsByCategory.get(cat.getCategoryId()), portfolioNames))
+                .sorted(Comparator.comparing(StockCategoryPortfolioPerformanceResponse::getCategoryName))
+                .toList();
     }
 
     /**
@@ -92,16 +130,15 @@ public class StockCategoryService {
      */
     public StockCategoryPerformanceResponse getCategoryPerformanceById(Long portfolioId, Long categoryId) {
         portfolioService.findPortfolioById(portfolioId);
-        findCategoryById(categoryId);
-
-        List<Asset> holdingStocks = assetRepository
-                .findHoldingStocksByPortfolioAndCategory(portfolioId, categoryId);
+        StockCategory category = findCategoryById(categoryId);
 
-        if (holdingStocks.isEmpty()) {
-            throw new ResourceNotFoundException(
-                    "No holding stocks for category " + categoryId + " in portfolio " + portfolioId);
-        }
-        return calcPerformance(categoryId, holdingStocks);
+        CubeCell totals = holdingsCube.rollup(stocksOf(portfolioId)
+                .categoryIds(Set.of(categoryId))
+                .build()).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "No holding stocks for category " + categoryId + " in portfolio " + portfolioId));
+        return calcPerformance(category, totals);
     }
 
     // ---------------------------------------------------------------
@@ -114,20 +151,10 @@ public class StockCategoryService {
                         "StockCategory not found with ID: " + categoryId));
     }
 
-    private StockCategoryPerformanceResponse calcPerformance(Long categoryId, List<Asset> assets) {
-        StockCategory cat = findCategoryById(categoryId);
-
-        BigDecimal totalInvested = assets.stream()
-                .map(Asset::getInvestedValue).reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal currentValue = assets.stream()
-                .map(Asset::getCurrentValue).reduce(BigDecimal.ZERO, BigDecimal::add);
+    StockCategoryPerformanceResponse calcPerformance(StockCategory cat, CubeCell totals) {
+        BigDecimal totalInvested = totals.totalInvested();
+        BigDecimal currentValue = totals.currentValue();
         BigDecimal absoluteReturn = currentValue.subtract(totalInvested);
-        BigDecimal percentageReturn = BigDecimal.ZERO;
-        if (totalInvested.compareTo(BigDecimal.ZERO) > 0) {
-            percentageReturn = absoluteReturn
-                    .divide(totalInvested, 4, RoundingMode.HALF_UP)
-                    .multiply(new BigDecimal("100"));
-        }
 
         return StockCategoryPerformanceResponse.builder()
                 .categoryId(cat.getCategoryId())
@@ -136,11 +163,64 @@ public class StockCategoryService {
                 .totalInvested(totalInvested)
                 .currentValue(currentValue)
                 .absoluteReturn(absoluteReturn)
-                .percentageReturn(percentageReturn)
-                .stockCount(assets.size())
+                .percentageReturn(percentageReturn(absoluteReturn, totalInvested))
+                .stockCount((int) totals.holdingCount())
                 .build();
     }
 
+    private StockCategoryPortfolioPerformanceResponse acrossPortfolios(StockCategory cat, List<CubeCell> cells,
+                                                                       Map<Long, String> portfolioNames) {
+        BigDecimal totalInvested = BigDecimal.ZERO;
+        BigDecimal currentValue = BigDecimal.ZERO;
+        long stockCount = 0;
+        List<PortfolioEntry> portfolios = new ArrayList<>(cells.size());
+        for (CubeCell cell : cells) {
+            totalInvested = totalInvested.add(cell.totalInvested());
+            currentValue = currentValue.add(cell.currentValue());
+            stockCount += cell.holdingCount();
+            BigDecimal absoluteReturn = cell.currentValue().subtract(cell.totalInvested());
+            portfolios.add(PortfolioEntry.builder()
+                    .portfolioId(cell.portfolioId())
+                    .portfolioName(portfolioNames.get(cell.portfolioId()))
+                    .totalInvested(cell.totalInvested())
+                    .currentValue(cell.currentValue())
+                    .absoluteReturn(absoluteReturn)
+                    .percentageReturn(percentageReturn(absoluteReturn, cell.totalInvested()))
+                    .stockCount((int) cell.holdingCount())
+                    .build());
+        }
+        portfolios.sort(Comparator.comparing(PortfolioEntry::getPortfolioName,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+
+        BigDecimal absoluteReturn = currentValue.subtract(totalInvested);
+        return StockCategoryPortfolioPerformanceResponse.builder()
+                .categoryId(cat.getCategoryId())
+                .categoryName(cat.getCategoryName())
+                .description(cat.getDescription())
+                .totalInvested(totalInvested)
+                .currentValue(currentValue)
+                .absoluteReturn(absoluteReturn)
+                .percentageReturn(percentageReturn(absoluteReturn, totalInvested))
+                .stockCount((int) stockCount)
+                .portfolios(portfolios)
+                .build();
+    }
+
+    private static BigDecimal percentageReturn(BigDecimal absoluteReturn, BigDecimal totalInvested) {
+        if (totalInvested.compareTo(BigDecimal.ZERO) <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return absoluteReturn
+                .divide(totalInvested, 4, RoundingMode.HALF_UP)
+                .multiply(new BigDecimal("100"));
+    }
+
+    private static CubeQuery.CubeQueryBuilder stocksOf(Long portfolioId) {
+        return CubeQuery.builder()
+                .portfolioIds(Set.of(portfolioId))
+                .assetTypes(Set.of(AssetType.STOCK));
+    }
+
     private StockCategoryResponse mapCategoryToResponse(StockCategory cat) {
         return StockCategoryResponse.builder()
                 .categoryId(cat.getCategoryId())
@@ -0,0 +1,51 @@
+package com.portfolio.valuation;
+
+import com.portfolio.dto.projection.HistoryPoint;
+import com.portfolio.entity.ActionType;
+import com.portfolio.money.AssetValuation;
+
+import java.math.BigDecimal;
+
+/**
+ * One asset's replayed state. Quantity is the sum of the BUY/SELL/QUANTITY_UPDATE deltas,
+ * buyPrice the price of the last BUY (null before the first one, i.e. while on the
+ * wishlist), lastPrice the price of the last row of any type.
+ */
+final class AssetState {
+
+    BigDecimal quantity = BigDecimal.ZERO;
+    BigDecimal buyPrice;
+    BigDecimal lastPrice;
+
+    // contribution to the replay totals, as last added
+    BigDecimal invested = BigDecimal.ZERO;
+    BigDecimal current = BigDecimal.ZERO;
+
+    void apply(HistoryPoint row) {
+        if (row.quantityChanged() != null) {
+            quantity = quantity.add(row.quantityChanged());
+        }
+        if (row.price() != null) {
+            lastPrice = row.price();
+            if (row.actionType() == ActionType.BUY) {
+                buyPrice = row.price();
+            }
+        }
+    }
+
+    boolean isHolding() {
+        return buyPrice != null;
+    }
+
+    /** Recomputes {@link #invested}/{@link #current} from the state; wishlist assets contribute nothing. */
+    void revalue() {
+        if (!isHolding() || lastPrice == null) {
+            invested = BigDecimal.ZERO;
+            current = BigDecimal.ZERO;
+            return;
+        }
+        AssetValuation v = AssetValuation.of(quantity, buyPrice, lastPrice);
+        invested = v.investedValue();
+        current = v.currentValue();
+    }
+}
@@ -0,0 +1,88 @@
+package com.portfolio.valuation;
+
+import com.portfolio.dto.projection.HistoryPoint;
+import com.portfolio.entity.AssetStateCheckpoint;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays one portfolio's history into per-asset state and keeps the portfolio totals
+ * current as rows are applied, so a sweep over a date range can read the totals at any
+ * point without re-summing the assets.
+ *
+ * Seed it with the checkpoint rows the replay starts from, then apply the history rows
+ * after that checkpoint in (actionDate, historyId) order.
+ */
+public class ValuationReplay {
+
+    private final Map<Long, AssetState> states = new HashMap<>();
+
+    private BigDecimal totalInvested = BigDecimal.ZERO;
+    private BigDecimal currentValue = BigDecimal.ZERO;
+    private int holdingCount;
+
+    public void seed(List<AssetStateCheckpoint> checkpoint) {
+        for (AssetStateCheckpoint c : checkpoint) {
+            AssetState state = new AssetState();
+            state.quantity = c.getQuantity();
+            state.buyPrice = c.getBuyPrice();
+            state.lastPrice = c.getLastPrice();
+            states.put(c.getAssetId(), state);
+            add(state);
+        }
+    }
+
+    public void apply(HistoryPoint row) {
+        AssetState state = states.get(row.assetId());
+        if (state == null) {
+            state = new AssetState();
+            states.put(row.assetId(), state);
+        } else {
+            subtract(state);
+        }
+        state.apply(row);
+        add(state);
+    }
+
+    public BigDecimal totalInvested() {
+        return totalInvested;
+    }
+
+    public BigDecimal currentValue() {
+        return currentValue;
+    }
+
+    /** Assets bought (BUY seen) so far, including those whose quantity went back to zero. */
+    public int holdingCount() {
+        return holdingCount;
+    }
+
+    /** The replayed state of every asset seen so far, as checkpoint rows at {@code date}. */
+    public List<AssetStateCheckpoint> snapshot(Long portfolioId, LocalDate date) {
+        List<AssetStateCheckpoint> rows = new ArrayList<>(states.size());
+        states.forEach((assetId, s) -> {
+            if (s.lastPrice != null) {
+                rows.add(new AssetStateCheckpoint(portfolioId, date, assetId, s.quantity, s.buyPrice, s.lastPrice));
+            }
+        });
+        return rows;
+    }
+
+    private void add(AssetState state) {
+        state.revalue();
+        totalInvested = totalInvested.add(state.invested);
+        currentValue = currentValue.add(state.current);
+        if (state.isHolding()) holdingCount++;
+    }
+
+    private void subtract(AssetState state) {
+        totalInvested = totalInvested.subtract(state.invested);
+        currentValue = currentValue.subtract(state.current);
+        if (state.isHolding()) holdingCount--;
+    }
+}
@@ -0,0 +1,115 @@
+package com.portfolio.cube;
+
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetType;
+import com.portfolio.entity.Portfolio;
+import com.portfolio.membership.AssetIdBitmap;
+import com.portfolio.price.LatestPriceTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Totals over an asset ID set must equal quantity × buyPrice and quantity × currentPrice
+ * summed as BigDecimals over the holdings among those IDs in the portfolio.
+ */
+class HoldingsCubeTest {
+
+    private static final long PORTFOLIO = 1L;
+    private static final long OTHER_PORTFOLIO = 2L;
+
+    private HoldingsCube cube;
+    private final List<Asset> holdings = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // outside a transaction every change applies at once; no rebuild is needed
+        cube = new HoldingsCube(mock(JdbcTemplate.class), mock(LatestPriceTable.class));
+        holdings.add(save(1, PORTFOLIO, "10.0000", "100.25", "120.10", false));
+        holdings.add(save(2, PORTFOLIO, "3.3333", "0.01", "999999.99", false));
+        holdings.add(save(3, PORTFOLIO, "0.0001", "45.67", "44.44", false));
+        save(4, PORTFOLIO, "5.0000", null, "77.77", true);
+        save(5, OTHER_PORTFOLIO, "1.0000", "10.00", "11.00", false);
+    }
+
+    @Test
+    void sumMatchesInMemoryTotalsAndSkipsWishlistUnknownAndOtherPortfolios() {
+        CubeCell sum = cube.sum(PORTFOLIO, bitmap(1, 2, 3, 4, 5, 99));
+
+        assertMatches(sum, holdings);
+    }
+
+    @Test
+    void sumFollowsRepricingAndRemoval() {
+        cube.pricesChanged(Map.of(1L, new BigDecimal("130.00")));
+        cube.assetRemoved(2L);
+        holdings.get(0).setCurrentPrice(new BigDecimal("130.00"));
+        holdings.remove(1);
+
+        assertMatches(cube.sum(PORTFOLIO, bitmap(1, 2, 3)), holdings);
+    }
+
+    @Test
+    void sumKeepsValuesBeyondTheLongRangeExact() {
+        Asset big = save(6, PORTFOLIO, "99999999999.9999", "9999999999999.99", "9999999999999.98", false);
+
+        assertMatches(cube.sum(PORTFOLIO, bitmap(1, 6)), List.of(holdings.get(0), big));
+    }
+
+    @Test
+    void sumOfNothingIsZero() {
+        CubeCell sum = cube.sum(PORTFOLIO, new AssetIdBitmap());
+        CubeCell unknownPortfolio = cube.sum(42L, bitmap(1, 2));
+
+        assertThat(sum.holdingCount()).isZero();
+        assertThat(sum.totalInvested()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(sum.currentValue()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(unknownPortfolio.holdingCount()).isZero();
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------------
+
+    private static void assertMatches(CubeCell actual, List<Asset> holdings) {
+        BigDecimal invested = BigDecimal.ZERO;
+        BigDecimal current = BigDecimal.ZERO;
+        for (Asset a : holdings) {
+            invested = invested.add(a.getQuantity().multiply(a.getBuyPrice()));
+            current = current.add(a.getQuantity().multiply(a.getCurrentPrice()));
+        }
+        assertThat(actual.holdingCount()).isEqualTo(holdings.size());
+        assertThat(actual.totalInvested()).isEqualByComparingTo(invested);
+        assertThat(actual.currentValue()).isEqualByComparingTo(current);
+    }
+
+    private static AssetIdBitmap bitmap(long... ids) {
+        AssetIdBitmap bitmap = new AssetIdBitmap();
+        for (long id : ids) bitmap.add(id);
+        return bitmap;
+    }
+
+    private Asset save(long assetId, long portfolioId, String quantity, String buyPrice, String currentPrice,
+                       boolean wishlist) {
+        Portfolio portfolio = new Portfolio();
+        portfolio.setPortfolioId(portfolioId);
+        Asset asset = new Asset();
+        asset.setAssetId(assetId);
+        asset.setPortfolio(portfolio);
+        asset.setAssetType(AssetType.ETF);
+        asset.setQuantity(new BigDecimal(quantity));
+        asset.setBuyPrice(buyPrice == null ? null : new BigDecimal(buyPrice));
+        asset.setCurrentPrice(new BigDecimal(currentPrice));
+        asset.setWishlist(wishlist);
+        cube.assetSaved(asset);
+        return asset;
+    }
+}
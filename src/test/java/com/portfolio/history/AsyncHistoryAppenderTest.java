@@ -0,0 +1,159 @@
+package com.portfolio.history;
+
+import com.portfolio.entity.ActionType;
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetHistory;
+import com.portfolio.history.AsyncHistoryAppender.Ordering;
+import com.portfolio.id.IdBlockAllocator;
+import com.portfolio.repository.AssetHistoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Queued rows must reach the database, or the dead-letter file once the attempts run out;
+ * journaled rows of an earlier run must be replayed unless already stored.
+ */
+class AsyncHistoryAppenderTest {
+
+    @TempDir
+    Path dir;
+
+    private AssetHistoryRepository assetHistoryRepository;
+    /** Each batchInsert call: the thread it ran in and the history IDs (or remarks) it got. */
+    private final List<Insert> inserts = new CopyOnWriteArrayList<>();
+    private AsyncHistoryAppender appender;
+
+    private record Insert(String thread, List<String> rows) {}
+
+    @BeforeEach
+    void setUp() {
+        assetHistoryRepository = mock(AssetHistoryRepository.class);
+        doAnswer(call -> {
+            record(call.getArgument(0));
+            return null;
+        }).when(assetHistoryRepository).batchInsert(anyList());
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        if (appender != null) appender.stop();
+    }
+
+    @Test
+    void journaledRowsOfAnEarlierRunAreReplayedUnlessStored() throws Exception {
+        HistoryJournal earlierRun = new HistoryJournal(dir.resolve("journal"), 1 << 20, false);
+        earlierRun.append(List.of(row(1L, 10L, "a"), row(2L, 10L, "b"), row(3L, 11L, "c")));
+        earlierRun.close();
+        when(assetHistoryRepository.findExistingHistoryIds(anyList())).thenReturn(List.of(1L));
+
+        appender = appender(100, 5, true);
+        appender.start();
+
+        assertThat(inserted()).containsExactly("b", "c");
+        try (var files = Files.list(dir.resolve("journal"))) {
+            assertThat(files.count()).isEqualTo(1);   // only this run's segment is left
+        }
+    }
+
+    @Test
+    void batchIsDeadLetteredAfterTheLastAttempt() throws Exception {
+        doThrow(new DataAccessResourceFailureException("database down"))
+                .when(assetHistoryRepository).batchInsert(anyList());
+        appender = appender(100, 2, false);
+        appender.start();
+
+        appender.append(List.of(row(7L, 10L, "tab\there")));
+
+        awaitDeadLettered(1);
+        assertThat(appender.status().failures()).isEqualTo(2);
+        assertThat(Files.readAllLines(dir.resolve("dead-letter.tsv")))
+                .containsExactly("7\t10\tBUY\t1\t100.00\t2024-01-02\ttab\\there");
+    }
+
+    @Test
+    void fullQueueIsBypassedByTheCommittingThread() throws Exception {
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(call -> {
+            writerBusy.countDown();
+            if (Thread.currentThread().getName().startsWith("history-writer")) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            record(call.getArgument(0));
+            return null;
+        }).when(assetHistoryRepository).batchInsert(anyList());
+        appender = appender(1, 5, false);
+        appender.start();
+
+        appender.append(List.of(row(null, 10L, "first")));
+        assertThat(writerBusy.await(5, TimeUnit.SECONDS)).isTrue();
+        appender.append(List.of(row(null, 10L, "queued")));
+        appender.append(List.of(row(null, 10L, "overflow")));
+
+        assertThat(inserts).containsExactly(new Insert(Thread.currentThread().getName(), List.of("overflow")));
+        release.countDown();
+        appender.stop();
+        appender = null;
+        assertThat(inserted()).containsExactlyInAnyOrder("first", "queued", "overflow");
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------------
+
+    private AsyncHistoryAppender appender(int queueCapacity, int maxAttempts, boolean journal) throws IOException {
+        return new AsyncHistoryAppender(assetHistoryRepository, mock(PriceBarRecorder.class),
+                mock(IdBlockAllocator.class), mock(PlatformTransactionManager.class),
+                Ordering.PER_ASSET, 1, queueCapacity, 500, maxAttempts, Duration.ofMillis(20),
+                dir.resolve("dead-letter.tsv"), journal, dir.resolve("journal"), 1 << 20, false);
+    }
+
+    private void record(List<AssetHistory> rows) {
+        inserts.add(new Insert(Thread.currentThread().getName(),
+                rows.stream().map(AssetHistory::getRemarks).toList()));
+    }
+
+    private List<String> inserted() {
+        List<String> rows = new ArrayList<>();
+        inserts.forEach(insert -> rows.addAll(insert.rows()));
+        return rows;
+    }
+
+    private void awaitDeadLettered(long rows) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (appender.status().deadLettered() < rows && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(appender.status().deadLettered()).isEqualTo(rows);
+    }
+
+    private static AssetHistory row(Long historyId, Long assetId, String remarks) {
+        Asset asset = new Asset();
+        asset.setAssetId(assetId);
+        return new AssetHistory(historyId, asset, ActionType.BUY, BigDecimal.ONE, new BigDecimal("100.00"),
+                LocalDate.of(2024, 1, 2), remarks);
+    }
+}
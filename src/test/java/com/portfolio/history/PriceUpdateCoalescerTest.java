@@ -0,0 +1,142 @@
+package com.portfolio.history;
+
+import com.portfolio.entity.ActionType;
+import com.portfolio.entity.AssetHistory;
+import com.portfolio.entity.AssetType;
+import com.portfolio.history.PriceUpdateCoalescer.PriceChange;
+import com.portfolio.repository.AssetHistoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The rolling-row state must follow the recording transaction: visible to it at once,
+ * shared only after it commits, gone if it rolls back.
+ */
+class PriceUpdateCoalescerTest {
+
+    private static final Long ASSET_ID = 1L;
+    private static final Long HISTORY_ID = 10L;
+
+    private AssetHistoryRepository assetHistoryRepository;
+    private PriceUpdateCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        assetHistoryRepository = mock(AssetHistoryRepository.class);
+        // every rolling row is in the table
+        when(assetHistoryRepository.findExistingHistoryIds(any()))
+                .thenAnswer(call -> List.copyOf(call.<Collection<Long>>getArgument(0)));
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("portfolio.history.price-coalescing.stock.window", "1h");
+        // Boot's conversions ("1h" → Duration), as in the application context
+        environment.setConversionService(new ApplicationConversionService());
+        coalescer = new PriceUpdateCoalescer(assetHistoryRepository, mock(PriceBarRecorder.class), environment);
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rowOpenedByACommittedTransactionIsFoldedInto() {
+        begin();
+        coalescer.written(change("100.00", "101.00"), row(LocalDate.now(), "101.00"));
+        end(true);
+
+        assertThat(coalescer.coalesce(List.of(change("101.00", "102.00")))).containsExactly(ASSET_ID);
+        assertThat(coalescer.written(AssetType.STOCK)).isEqualTo(1);
+        assertThat(coalescer.coalesced(AssetType.STOCK)).isEqualTo(1);
+        verify(assetHistoryRepository).updatePrices(anyList());
+    }
+
+    @Test
+    void rowOpenedByARolledBackTransactionIsForgotten() {
+        begin();
+        coalescer.written(change("100.00", "101.00"), row(LocalDate.now(), "101.00"));
+        end(false);
+
+        assertThat(coalescer.coalesce(List.of(change("101.00", "102.00")))).isEmpty();
+        assertThat(coalescer.written(AssetType.STOCK)).isZero();
+        verify(assetHistoryRepository, never()).updatePrices(anyList());
+    }
+
+    @Test
+    void foldRolledBackLeavesTheRowAndCountersAsCommitted() {
+        coalescer.written(change("100.00", "101.00"), row(LocalDate.now(), "101.00"));
+
+        begin();
+        assertThat(coalescer.coalesce(List.of(change("101.00", "102.00")))).containsExactly(ASSET_ID);
+        end(false);
+
+        assertThat(coalescer.coalesced(AssetType.STOCK)).isZero();
+        coalescer.coalesce(List.of(change("101.00", "103.00")));
+        assertThat(coalescer.coalesced(AssetType.STOCK)).isEqualTo(1);
+    }
+
+    @Test
+    void transactionSeesItsOwnChangesBeforeCommit() {
+        begin();
+        coalescer.written(change("100.00", "101.00"), row(LocalDate.now(), "101.00"));
+        assertThat(coalescer.coalesce(List.of(change("101.00", "102.00")))).containsExactly(ASSET_ID);
+
+        coalescer.close(ASSET_ID);
+        assertThat(coalescer.coalesce(List.of(change("102.00", "103.00")))).isEmpty();
+        end(true);
+
+        assertThat(coalescer.coalesce(List.of(change("103.00", "104.00")))).isEmpty();
+    }
+
+    @Test
+    void rowOfAnotherDayIsNotFoldedInto() {
+        coalescer.written(change("100.00", "101.00"), row(LocalDate.now().minusDays(1), "101.00"));
+
+        assertThat(coalescer.coalesce(List.of(change("101.00", "102.00")))).isEmpty();
+        assertThat(coalescer.coalesced(AssetType.STOCK)).isZero();
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------------
+
+    private static PriceChange change(String oldPrice, String newPrice) {
+        return new PriceChange(ASSET_ID, AssetType.STOCK, new BigDecimal(oldPrice), new BigDecimal(newPrice));
+    }
+
+    private static AssetHistory row(LocalDate date, String price) {
+        return new AssetHistory(HISTORY_ID, null, ActionType.PRICE_UPDATE, null, new BigDecimal(price), date, null);
+    }
+
+    private static void begin() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    /** Runs the callbacks a transaction manager runs at the end of a transaction. */
+    private static void end(boolean commit) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (commit) synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(commit
+                ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+}
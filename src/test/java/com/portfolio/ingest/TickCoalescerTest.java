@@ -0,0 +1,70 @@
+package com.portfolio.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * One entry per asset with its newest price and the receive time of its first tick, in
+ * first-seen order, never more than {@code maxAssets} of them.
+ */
+class TickCoalescerTest {
+
+    @Test
+    void newestPriceWinsAndFirstReceiveTimeIsKept() {
+        TickCoalescer coalescer = new TickCoalescer(10);
+
+        assertThat(coalescer.put(5, 100, 1_000)).isEqualTo(TickCoalescer.ADDED);
+        assertThat(coalescer.put(3, 200, 1_001)).isEqualTo(TickCoalescer.ADDED);
+        assertThat(coalescer.put(5, 150, 1_002)).isEqualTo(TickCoalescer.REPLACED);
+
+        assertThat(entries(coalescer)).containsExactly("5=150@1000", "3=200@1001");
+    }
+
+    @Test
+    void newAssetsBeyondTheLimitAreRejectedButKnownOnesStillUpdate() {
+        TickCoalescer coalescer = new TickCoalescer(2);
+        coalescer.put(1, 10, 0);
+        coalescer.put(2, 20, 0);
+
+        assertThat(coalescer.put(3, 30, 0)).isEqualTo(TickCoalescer.REJECTED);
+        assertThat(coalescer.put(2, 25, 0)).isEqualTo(TickCoalescer.REPLACED);
+        assertThat(entries(coalescer)).containsExactly("1=10@0", "2=25@0");
+    }
+
+    @Test
+    void growingKeepsEveryEntryInFirstSeenOrder() {
+        TickCoalescer coalescer = new TickCoalescer(100_000);
+        List<String> expected = new ArrayList<>();
+        for (long id = 10_000; id > 0; id--) {
+            coalescer.put(id, id * 3, id);
+            expected.add(id + "=" + id * 3 + "@" + id);
+        }
+
+        assertThat(coalescer.size()).isEqualTo(10_000);
+        assertThat(entries(coalescer)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void clearEmptiesTheMapForTheNextInterval() {
+        TickCoalescer coalescer = new TickCoalescer(10);
+        coalescer.put(1, 10, 0);
+        coalescer.put(2, 20, 0);
+
+        coalescer.clear();
+
+        assertThat(coalescer.size()).isZero();
+        assertThat(coalescer.put(2, 21, 5)).isEqualTo(TickCoalescer.ADDED);
+        assertThat(entries(coalescer)).containsExactly("2=21@5");
+    }
+
+    private static List<String> entries(TickCoalescer coalescer) {
+        List<String> entries = new ArrayList<>();
+        coalescer.forEach((assetId, priceCents, firstReceivedAt) ->
+                entries.add(assetId + "=" + priceCents + "@" + firstReceivedAt));
+        return entries;
+    }
+}
@@ -0,0 +1,86 @@
+package com.portfolio.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every well-formed {@code <assetId>,<price>} line must reach the sink in cents, however the
+ * input is split into reads; every malformed line must be skipped and counted.
+ */
+class TickParserTest {
+
+    private final TickParser parser = new TickParser();
+    private final List<String> ticks = new ArrayList<>();
+
+    @Test
+    void wellFormedLinesAreParsedToCents() {
+        int parsed = parse("1,12\n2,12.3\n3,12.34\r\n4,0.01\n");
+
+        assertThat(parsed).isEqualTo(4);
+        assertThat(ticks).containsExactly("1=1200", "2=1230", "3=1234", "4=1");
+        assertThat(parser.errors()).isZero();
+    }
+
+    @Test
+    void malformedLinesAreSkippedAndCounted() {
+        parse("""
+                1,
+                ,5
+                2,.5
+                3,5.
+                4,1.234
+                5,0
+                0,5
+                6,5,7
+                7;5
+                -8,5
+                9,12345678901234
+                1234567890123456789,5
+
+                \r
+                10,5
+                """);
+
+        assertThat(ticks).containsExactly("10=500");
+        assertThat(parser.errors()).isEqualTo(12);
+    }
+
+    @Test
+    void lineSplitAcrossReadsIsJoined() {
+        byte[] bytes = "42,123.45\n43,6\n".getBytes(StandardCharsets.US_ASCII);
+
+        for (int i = 0; i < bytes.length; i++) {
+            parser.parse(bytes, i, i + 1, this::collect);
+        }
+
+        assertThat(ticks).containsExactly("42=12345", "43=600");
+    }
+
+    @Test
+    void resetDropsThePartialLine() {
+        parse("7,99");
+        parser.reset();
+        parse("8,1\n");
+
+        assertThat(ticks).containsExactly("8=100");
+        assertThat(parser.errors()).isZero();
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------------
+
+    private int parse(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        return parser.parse(bytes, 0, bytes.length, this::collect);
+    }
+
+    private void collect(long assetId, long priceCents) {
+        ticks.add(assetId + "=" + priceCents);
+    }
+}
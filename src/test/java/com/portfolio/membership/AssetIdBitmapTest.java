@@ -0,0 +1,127 @@
+package com.portfolio.membership;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The bitmap must behave as a sorted set of IDs, whichever container (array or bitset)
+ * holds each 65536-ID block, and set algebra must leave its operands alone.
+ */
+class AssetIdBitmapTest {
+
+    @Test
+    void addRemoveAndContainsAcrossContainerKinds() {
+        AssetIdBitmap bitmap = new AssetIdBitmap();
+        TreeSet<Long> expected = new TreeSet<>();
+        // block 0 dense (bitset), block 1 sparse (array), block 100 at the array limit
+        for (long id = 0; id < 10_000; id++) add(bitmap, expected, id);
+        for (long id = 65_536; id < 65_536 + 50_000; id += 1_000) add(bitmap, expected, id);
+        for (long id = 0; id < AssetIdBitmap.ARRAY_MAX + 1; id++) add(bitmap, expected, (100L << 16) + 2 * id);
+
+        // back below the limit: the bitset turns into an array again
+        for (long id = 0; id < 10_000; id += 2) remove(bitmap, expected, id);
+        remove(bitmap, expected, 100L << 16);
+        remove(bitmap, expected, 12_345_678);   // absent
+
+        assertSame(bitmap, expected);
+        assertThat(bitmap.contains(1)).isTrue();
+        assertThat(bitmap.contains(2)).isFalse();
+        assertThat(bitmap.contains(-1)).isFalse();
+    }
+
+    @Test
+    void removingTheLastIdOfABlockDropsIt() {
+        AssetIdBitmap bitmap = new AssetIdBitmap();
+        bitmap.add(70_000);
+        bitmap.remove(70_000);
+
+        assertThat(bitmap.isEmpty()).isTrue();
+        assertThat(bitmap.cardinality()).isZero();
+    }
+
+    @Test
+    void setAlgebraMatchesSortedSets() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            TreeSet<Long> a = randomIds(random);
+            TreeSet<Long> b = randomIds(random);
+            AssetIdBitmap ba = bitmapOf(a);
+            AssetIdBitmap bb = bitmapOf(b);
+
+            TreeSet<Long> and = new TreeSet<>(a);
+            and.retainAll(b);
+            TreeSet<Long> or = new TreeSet<>(a);
+            or.addAll(b);
+            TreeSet<Long> andNot = new TreeSet<>(a);
+            andNot.removeAll(b);
+
+            assertSame(AssetIdBitmap.and(ba, bb), and);
+            assertSame(AssetIdBitmap.or(ba, bb), or);
+            assertSame(AssetIdBitmap.andNot(ba, bb), andNot);
+            assertSame(ba, a);
+            assertSame(bb, b);
+        }
+    }
+
+    @Test
+    void copyIsIndependentAndToArrayIsLimited() {
+        AssetIdBitmap bitmap = bitmapOf(new TreeSet<>(List.of(5L, 1L, 70_000L, 3L)));
+        AssetIdBitmap copy = bitmap.copy();
+        copy.add(2);
+        copy.remove(70_000);
+
+        assertThat(bitmap.toArray()).containsExactly(1, 3, 5, 70_000);
+        assertThat(copy.toArray(3)).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void negativeIdsAreRejected() {
+        assertThatThrownBy(() -> new AssetIdBitmap().add(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------------
+
+    /** A mix of dense and sparse blocks, so every container pairing occurs. */
+    private static TreeSet<Long> randomIds(Random random) {
+        TreeSet<Long> ids = new TreeSet<>();
+        for (int block = 0; block < 4; block++) {
+            long base = (long) random.nextInt(6) << 16;
+            int count = random.nextBoolean() ? 20_000 : 500;
+            for (int n = 0; n < count; n++) ids.add(base + random.nextInt(65_536));
+        }
+        return ids;
+    }
+
+    private static AssetIdBitmap bitmapOf(TreeSet<Long> ids) {
+        AssetIdBitmap bitmap = new AssetIdBitmap();
+        ids.forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static void add(AssetIdBitmap bitmap, TreeSet<Long> expected, long id) {
+        bitmap.add(id);
+        expected.add(id);
+    }
+
+    private static void remove(AssetIdBitmap bitmap, TreeSet<Long> expected, long id) {
+        bitmap.remove(id);
+        expected.remove(id);
+    }
+
+    private static void assertSame(AssetIdBitmap actual, TreeSet<Long> expected) {
+        List<Long> ids = new ArrayList<>();
+        actual.forEach(ids::add);
+        assertThat(ids).isEqualTo(List.copyOf(expected));
+        assertThat(actual.cardinality()).isEqualTo(expected.size());
+        assertThat(expected.stream().allMatch(actual::contains)).isTrue();
+    }
+}
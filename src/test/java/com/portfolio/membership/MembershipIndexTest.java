@@ -0,0 +1,103 @@
+package com.portfolio.membership;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Group set selections must follow the committed memberships: allOf intersects, anyOf
+ * unites, noneOf subtracts, and the portfolio restricts the result.
+ */
+class MembershipIndexTest {
+
+    private static final long PORTFOLIO = 1L, OTHER_PORTFOLIO = 2L;
+    private static final long TECH = 10L, DIVIDEND = 11L, US = 12L;
+
+    private MembershipIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // outside a transaction every change applies at once; no rebuild is needed
+        index = new MembershipIndex(mock(JdbcTemplate.class));
+        for (long assetId = 1; assetId <= 5; assetId++) index.assetAdded(PORTFOLIO, assetId);
+        index.assetAdded(OTHER_PORTFOLIO, 6L);
+        member(TECH, 1, 2, 3, 6);
+        member(DIVIDEND, 2, 3, 4);
+        member(US, 3, 4, 5, 6);
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void allOfAnyOfAndNoneOfCombine() {
+        assertThat(select(List.of(TECH, DIVIDEND), List.of(), List.of())).containsExactly(2, 3);
+        assertThat(select(List.of(), List.of(TECH, US), List.of(DIVIDEND))).containsExactly(1, 5);
+        assertThat(select(List.of(TECH), List.of(DIVIDEND, US), List.of())).containsExactly(2, 3);
+        assertThat(index.select(null, List.of(TECH), List.of(), List.of()).toArray()).containsExactly(1, 2, 3, 6);
+    }
+
+    @Test
+    void removedMembersAssetsAndGroupsLeaveTheSelection() {
+        index.memberRemoved(TECH, 1L);
+        index.assetRemoved(PORTFOLIO, 2L);
+        index.groupDeleted(DIVIDEND);
+
+        assertThat(select(List.of(TECH), List.of(), List.of())).containsExactly(3);
+        assertThat(select(List.of(DIVIDEND), List.of(), List.of())).isEmpty();
+    }
+
+    @Test
+    void changesApplyOnlyWhenTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.memberAdded(TECH, 4L);
+        assertThat(select(List.of(TECH), List.of(), List.of())).containsExactly(1, 2, 3);
+        end(false);
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.memberAdded(TECH, 5L);
+        end(true);
+
+        assertThat(select(List.of(TECH), List.of(), List.of())).containsExactly(1, 2, 3, 5);
+    }
+
+    @Test
+    void selectionNeedsAGroupToStartFrom() {
+        assertThatThrownBy(() -> index.select(PORTFOLIO, List.of(), List.of(), List.of(US)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------------
+
+    private long[] select(List<Long> allOf, List<Long> anyOf, List<Long> noneOf) {
+        return index.select(PORTFOLIO, allOf, anyOf, noneOf).toArray();
+    }
+
+    private void member(long groupId, long... assetIds) {
+        for (long assetId : assetIds) index.memberAdded(groupId, assetId);
+    }
+
+    /** Runs the callbacks a transaction manager runs at the end of a transaction. */
+    private static void end(boolean commit) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (commit) synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(commit
+                ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+}
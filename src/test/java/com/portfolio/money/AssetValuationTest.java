@@ -0,0 +1,199 @@
+package com.portfolio.money;
+
+import com.portfolio.entity.Asset;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every derived value must equal — value and scale — what the BigDecimal getters on
+ * {@link Asset} returned before the fixed-point path; {@link #legacy} is that code.
+ */
+class AssetValuationTest {
+
+    @Test
+    void matchesTheBigDecimalFormulasForColumnScaleInputs() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            BigDecimal quantity = BigDecimal.valueOf(random.nextLong(1, 100_000_000_000L), 4);
+            BigDecimal buyPrice = BigDecimal.valueOf(random.nextLong(0, 100_000_000L), 2);
+            BigDecimal currentPrice = BigDecimal.valueOf(random.nextLong(0, 100_000_000L), 2);
+
+            assertMatchesLegacy(quantity, buyPrice, currentPrice);
+        }
+    }
+
+    @Test
+    void keepsValueScaleSixAndPercentScaleFour() {
+        AssetValuation v = AssetValuation.of(new BigDecimal("10.0000"), new BigDecimal("100.25"),
+                new BigDecimal("120.10"));
+
+        assertThat(v.investedValue()).isEqualTo(new BigDecimal("1002.500000"));
+        assertThat(v.currentValue()).isEqualTo(new BigDecimal("1201.000000"));
+        assertThat(v.absoluteReturn()).isEqualTo(new BigDecimal("198.500000"));
+        assertThat(v.percentageReturn()).isEqualTo(new BigDecimal("19.8000"));
+    }
+
+    @Test
+    void lossesAreNegative() {
+        AssetValuation v = AssetValuation.of(new BigDecimal("3.0000"), new BigDecimal("10.00"),
+                new BigDecimal("7.00"));
+
+        assertThat(v.absoluteReturn()).isEqualTo(new BigDecimal("-9.000000"));
+        assertThat(v.percentageReturn()).isEqualTo(new BigDecimal("-30.0000"));
+        assertMatchesLegacy(new BigDecimal("3.0000"), new BigDecimal("10.00"), new BigDecimal("7.00"));
+    }
+
+    // ---------------------------------------------------------------
+    // ZERO INVESTED
+    // ---------------------------------------------------------------
+
+    @Test
+    void zeroBuyPriceGivesZeroPercentage() {
+        BigDecimal quantity = new BigDecimal("5.0000");
+        BigDecimal zero = new BigDecimal("0.00");
+        BigDecimal currentPrice = new BigDecimal("12.50");
+
+        AssetValuation v = AssetValuation.of(quantity, zero, currentPrice);
+
+        assertThat(v.investedValue()).isEqualTo(new BigDecimal("0.000000"));
+        assertThat(v.absoluteReturn()).isEqualTo(new BigDecimal("62.500000"));
+        assertThat(v.percentageReturn()).isSameAs(BigDecimal.ZERO);
+        assertMatchesLegacy(quantity, zero, currentPrice);
+    }
+
+    @Test
+    void zeroQuantityGivesZeroPercentage() {
+        assertMatchesLegacy(new BigDecimal("0.0000"), new BigDecimal("10.00"), new BigDecimal("12.00"));
+        assertThat(AssetValuation.of(new BigDecimal("0.0000"), new BigDecimal("10.00"), new BigDecimal("12.00"))
+                .percentageReturn()).isSameAs(BigDecimal.ZERO);
+    }
+
+    @Test
+    void wishlistAssetWithoutBuyPriceHasZeroInvested() {
+        BigDecimal quantity = new BigDecimal("5.0000");
+        BigDecimal currentPrice = new BigDecimal("77.77");
+
+        AssetValuation v = AssetValuation.of(quantity, null, currentPrice);
+
+        assertThat(v.investedValue()).isSameAs(BigDecimal.ZERO);
+        assertThat(v.percentageReturn()).isSameAs(BigDecimal.ZERO);
+        assertMatchesLegacy(quantity, null, currentPrice);
+    }
+
+    // ---------------------------------------------------------------
+    // HALF_UP AT THE EDGES  (ratio = absolute / invested, 4 places)
+    // ---------------------------------------------------------------
+
+    @Test
+    void gainExactlyHalfwayRoundsUp() {
+        // 10 / 200000 = 0.00005 → 0.0001 → 0.0100 %
+        AssetValuation v = AssetValuation.of(new BigDecimal("1.0000"), new BigDecimal("200000.00"),
+                new BigDecimal("200010.00"));
+
+        assertThat(v.percentageReturn()).isEqualTo(new BigDecimal("0.0100"));
+        assertMatchesLegacy(new BigDecimal("1.0000"), new BigDecimal("200000.00"), new BigDecimal("200010.00"));
+    }
+
+    @Test
+    void lossExactlyHalfwayRoundsAwayFromZero() {
+        // -10 / 200000 = -0.00005 → -0.0001 → -0.0100 %
+        AssetValuation v = AssetValuation.of(new BigDecimal("1.0000"), new BigDecimal("200000.00"),
+                new BigDecimal("199990.00"));
+
+        assertThat(v.percentageReturn()).isEqualTo(new BigDecimal("-0.0100"));
+        assertMatchesLegacy(new BigDecimal("1.0000"), new BigDecimal("200000.00"), new BigDecimal("199990.00"));
+    }
+
+    @Test
+    void justBelowHalfwayRoundsDown() {
+        // 9.99 / 200000 = 0.00004995 → 0.0000
+        AssetValuation v = AssetValuation.of(new BigDecimal("1.0000"), new BigDecimal("200000.00"),
+                new BigDecimal("200009.99"));
+
+        assertThat(v.percentageReturn()).isEqualTo(new BigDecimal("0.0000"));
+        assertMatchesLegacy(new BigDecimal("1.0000"), new BigDecimal("200000.00"), new BigDecimal("200009.99"));
+    }
+
+    @Test
+    void justAboveHalfwayRoundsUp() {
+        // 10.01 / 200000 = 0.00005005 → 0.0001
+        assertMatchesLegacy(new BigDecimal("1.0000"), new BigDecimal("200000.00"), new BigDecimal("200010.01"));
+        assertMatchesLegacy(new BigDecimal("1.0000"), new BigDecimal("200000.00"), new BigDecimal("199989.99"));
+    }
+
+    @Test
+    void smallestQuantityAndPrice() {
+        assertMatchesLegacy(new BigDecimal("0.0001"), new BigDecimal("0.01"), new BigDecimal("0.02"));
+        assertMatchesLegacy(new BigDecimal("0.0001"), new BigDecimal("0.03"), new BigDecimal("0.01"));
+    }
+
+    // ---------------------------------------------------------------
+    // BIGDECIMAL FALLBACK
+    // ---------------------------------------------------------------
+
+    @Test
+    void inputsBeyondTheColumnScaleFallBackToBigDecimal() {
+        assertMatchesLegacy(new BigDecimal("1.23456"), new BigDecimal("10.00"), new BigDecimal("11.00"));
+        assertMatchesLegacy(new BigDecimal("2.0000"), new BigDecimal("10.005"), new BigDecimal("11.00"));
+    }
+
+    @Test
+    void productsBeyondTheLongRangeFallBackToBigDecimal() {
+        assertMatchesLegacy(new BigDecimal("99999999999.9999"), new BigDecimal("9999999999999.99"),
+                new BigDecimal("9999999999999.98"));
+    }
+
+    // ---------------------------------------------------------------
+    // ENTITY CACHE
+    // ---------------------------------------------------------------
+
+    @Test
+    void entityRecomputesAfterAnInputIsReplaced() {
+        Asset asset = new Asset();
+        asset.setQuantity(new BigDecimal("2.0000"));
+        asset.setBuyPrice(new BigDecimal("10.00"));
+        asset.setCurrentPrice(new BigDecimal("15.00"));
+        AssetValuation first = asset.valuation();
+
+        assertThat(asset.valuation()).isSameAs(first);
+
+        asset.setCurrentPrice(new BigDecimal("5.00"));
+
+        assertThat(asset.valuation()).isNotSameAs(first);
+        assertThat(asset.getCurrentValue()).isEqualTo(new BigDecimal("10.000000"));
+        assertThat(asset.getPercentageReturn()).isEqualTo(new BigDecimal("-50.0000"));
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------------
+
+    /** The four derived values exactly as Asset computed them with BigDecimal. */
+    private record Legacy(BigDecimal invested, BigDecimal current, BigDecimal absolute, BigDecimal percent) {}
+
+    private static Legacy legacy(BigDecimal quantity, BigDecimal buyPrice, BigDecimal currentPrice) {
+        BigDecimal invested = buyPrice == null ? BigDecimal.ZERO : quantity.multiply(buyPrice);
+        BigDecimal current = quantity.multiply(currentPrice);
+        BigDecimal absolute = current.subtract(invested);
+        BigDecimal percent = invested.compareTo(BigDecimal.ZERO) == 0
+                ? BigDecimal.ZERO
+                : absolute.divide(invested, 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100"));
+        return new Legacy(invested, current, absolute, percent);
+    }
+
+    /** equals, not compareTo: the scale has to match too. */
+    private static void assertMatchesLegacy(BigDecimal quantity, BigDecimal buyPrice, BigDecimal currentPrice) {
+        Legacy expected = legacy(quantity, buyPrice, currentPrice);
+        AssetValuation actual = AssetValuation.of(quantity, buyPrice, currentPrice);
+        String inputs = quantity + " × " + buyPrice + " → " + currentPrice;
+        assertThat(actual.investedValue()).as("invested, %s", inputs).isEqualTo(expected.invested());
+        assertThat(actual.currentValue()).as("current, %s", inputs).isEqualTo(expected.current());
+        assertThat(actual.absoluteReturn()).as("absolute, %s", inputs).isEqualTo(expected.absolute());
+        assertThat(actual.percentageReturn()).as("percent, %s", inputs).isEqualTo(expected.percent());
+    }
+}
@@ -0,0 +1,122 @@
+package com.portfolio.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FixedPointTest {
+
+    // ---------------------------------------------------------------
+    // CONVERSION
+    // ---------------------------------------------------------------
+
+    @Test
+    void toUnscaledAcceptsValuesAtOrBelowTheScale() {
+        assertThat(FixedPoint.toUnscaled(new BigDecimal("12.3456"), FixedPoint.QUANTITY_SCALE)).isEqualTo(123456L);
+        assertThat(FixedPoint.toUnscaled(new BigDecimal("12.3"), FixedPoint.QUANTITY_SCALE)).isEqualTo(123000L);
+        assertThat(FixedPoint.toUnscaled(new BigDecimal("7"), FixedPoint.PRICE_SCALE)).isEqualTo(700L);
+        assertThat(FixedPoint.toUnscaled(new BigDecimal("-0.01"), FixedPoint.PRICE_SCALE)).isEqualTo(-1L);
+    }
+
+    @Test
+    void toUnscaledIgnoresTrailingZerosBeyondTheScale() {
+        assertThat(FixedPoint.toUnscaled(new BigDecimal("1.500000"), FixedPoint.PRICE_SCALE)).isEqualTo(150L);
+    }
+
+    @Test
+    void toUnscaledRejectsDigitsBeyondTheScale() {
+        assertThatThrownBy(() -> FixedPoint.toUnscaled(new BigDecimal("1.00001"), FixedPoint.QUANTITY_SCALE))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> FixedPoint.toUnscaled(new BigDecimal("0.005"), FixedPoint.PRICE_SCALE))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void toUnscaledRejectsValuesBeyondTheLongRange() {
+        assertThatThrownBy(() -> FixedPoint.toUnscaled(new BigDecimal("92233720368547758.08"), FixedPoint.PRICE_SCALE))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void toBigDecimalKeepsTheScale() {
+        assertThat(FixedPoint.toBigDecimal(0, FixedPoint.VALUE_SCALE)).isEqualTo(new BigDecimal("0.000000"));
+        assertThat(FixedPoint.toBigDecimal(-123456, FixedPoint.RATIO_SCALE)).isEqualTo(new BigDecimal("-12.3456"));
+    }
+
+    // ---------------------------------------------------------------
+    // ARITHMETIC
+    // ---------------------------------------------------------------
+
+    @Test
+    void multiplyMatchesBigDecimalAtValueScale() {
+        BigDecimal quantity = new BigDecimal("1234.5678");
+        BigDecimal price = new BigDecimal("99.99");
+
+        long value = FixedPoint.multiply(FixedPoint.toUnscaled(quantity, FixedPoint.QUANTITY_SCALE),
+                FixedPoint.toUnscaled(price, FixedPoint.PRICE_SCALE));
+
+        assertThat(FixedPoint.toBigDecimal(value, FixedPoint.VALUE_SCALE)).isEqualTo(quantity.multiply(price));
+    }
+
+    @Test
+    void multiplyThrowsOnOverflow() {
+        assertThatThrownBy(() -> FixedPoint.multiply(Long.MAX_VALUE / 2, 3))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void divideHalfUpRoundsTiesAwayFromZero() {
+        assertThat(FixedPoint.divideHalfUp(5, 10)).isEqualTo(1);
+        assertThat(FixedPoint.divideHalfUp(-5, 10)).isEqualTo(-1);
+        assertThat(FixedPoint.divideHalfUp(5, -10)).isEqualTo(-1);
+        assertThat(FixedPoint.divideHalfUp(-5, -10)).isEqualTo(1);
+        assertThat(FixedPoint.divideHalfUp(15, 10)).isEqualTo(2);
+        assertThat(FixedPoint.divideHalfUp(-25, 10)).isEqualTo(-3);
+    }
+
+    @Test
+    void divideHalfUpRoundsJustBelowATieTowardZero() {
+        assertThat(FixedPoint.divideHalfUp(4, 10)).isEqualTo(0);
+        assertThat(FixedPoint.divideHalfUp(-4, 10)).isEqualTo(0);
+        assertThat(FixedPoint.divideHalfUp(49_999, 100_000)).isEqualTo(0);
+        assertThat(FixedPoint.divideHalfUp(50_001, 100_000)).isEqualTo(1);
+    }
+
+    @Test
+    void divideHalfUpDoesNotOverflowNearTheLongRange() {
+        assertThat(FixedPoint.divideHalfUp(Long.MAX_VALUE, 2)).isEqualTo(Long.MAX_VALUE / 2 + 1);
+        assertThat(FixedPoint.divideHalfUp(Long.MAX_VALUE, Long.MAX_VALUE)).isEqualTo(1);
+        assertThat(FixedPoint.divideHalfUp(Long.MAX_VALUE - 1, Long.MAX_VALUE)).isEqualTo(1);
+        assertThat(FixedPoint.divideHalfUp(Long.MAX_VALUE / 2, Long.MAX_VALUE)).isEqualTo(0);
+        assertThatThrownBy(() -> FixedPoint.divideHalfUp(Long.MIN_VALUE, 3))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void ratioMatchesBigDecimalDivideHalfUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long numerator = random.nextLong() % 10_000_000_000L;
+            long denominator = random.nextLong() % 10_000_000_000L;
+            if (denominator == 0) continue;
+
+            BigDecimal expected = BigDecimal.valueOf(numerator, FixedPoint.VALUE_SCALE)
+                    .divide(BigDecimal.valueOf(denominator, FixedPoint.VALUE_SCALE), 4, RoundingMode.HALF_UP);
+
+            assertThat(FixedPoint.toBigDecimal(FixedPoint.ratio(numerator, denominator), FixedPoint.RATIO_SCALE))
+                    .as("%d / %d", numerator, denominator)
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void ratioThrowsWhenTheNumeratorCannotBeScaled() {
+        assertThatThrownBy(() -> FixedPoint.ratio(Long.MAX_VALUE / 1000, 1))
+                .isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -0,0 +1,149 @@
+package com.portfolio.price;
+
+import com.portfolio.price.LatestPriceTable.LatestPrice;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The table must serve the assets table's prices: slots of removed assets are reused, a
+ * reader never sees another asset's price, and the reconcile dates only what it rewrites.
+ */
+class LatestPriceTableTest {
+
+    private static final int SLOTS = 1024;
+    private static final int MAX_ASSETS = SLOTS - SLOTS / 4;
+
+    @TempDir
+    Path dir;
+
+    private JdbcTemplate jdbcTemplate;
+    private LatestPriceTable table;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:latest_prices;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE assets (asset_id BIGINT PRIMARY KEY, current_price DECIMAL(15, 2))");
+        jdbcTemplate.execute("CREATE TABLE asset_history (asset_id BIGINT, action_type VARCHAR(20), action_date DATE)");
+        table = open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        table.close();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void removedAssetsFreeTheirSlotsForNewOnes() {
+        for (long id = 1; id <= MAX_ASSETS; id++) table.priceChanged(id, new BigDecimal("1.00"));
+        for (long id = 1; id <= MAX_ASSETS; id++) table.assetRemoved(id);
+
+        for (long id = MAX_ASSETS + 1; id <= 2L * MAX_ASSETS; id++) table.priceChanged(id, new BigDecimal("2.00"));
+
+        assertThat(table.size()).isEqualTo(MAX_ASSETS);
+        assertThat(table.get(1)).isNull();
+        assertThat(table.price(2L * MAX_ASSETS, null)).isEqualByComparingTo("2.00");
+    }
+
+    @Test
+    void reopeningACleanFileDropsTombstonesAndKeepsPricesAndTimes() throws Exception {
+        for (long id = 1; id <= 10; id++) {
+            jdbcTemplate.update("INSERT INTO assets VALUES (?, ?)", id, new BigDecimal(id + ".50"));
+            table.priceChanged(id, new BigDecimal(id + ".50"));
+        }
+        for (long id = 1; id <= 4; id++) {
+            jdbcTemplate.update("DELETE FROM assets WHERE asset_id = ?", id);
+            table.assetRemoved(id);
+        }
+        LatestPrice before = table.get(7);
+        table.close();
+
+        table = open();
+
+        assertThat(table.size()).isEqualTo(6);
+        assertThat(table.get(3)).isNull();
+        assertThat(table.get(7)).isEqualTo(before);
+    }
+
+    @Test
+    void reconcileKeepsTheTimeOfUnchangedPricesAndDatesRepairsByTheLastPriceUpdate() throws Exception {
+        jdbcTemplate.update("INSERT INTO assets VALUES (1, 10.00), (2, 20.00), (3, 30.00)");
+        jdbcTemplate.update("INSERT INTO asset_history VALUES (2, 'PRICE_UPDATE', DATE '2024-03-01'), "
+                + "(2, 'PRICE_UPDATE', DATE '2024-03-05'), (2, 'BUY', DATE '2024-04-01'), (3, 'BUY', DATE '2024-04-01')");
+        table.priceChanged(1L, new BigDecimal("10.00"));
+        table.priceChanged(2L, new BigDecimal("15.00"));
+        LatestPrice unchanged = table.get(1);
+        Thread.sleep(5);   // the reconcile starts after these writes
+
+        table.reconcile();
+
+        assertThat(table.get(1)).isEqualTo(unchanged);
+        assertThat(table.get(2).price()).isEqualByComparingTo("20.00");
+        assertThat(table.get(2).updatedAt())
+                .isEqualTo(LocalDate.of(2024, 3, 5).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        assertThat(table.get(3).price()).isEqualByComparingTo("30.00");
+        assertThat(table.get(3).updatedAt()).isNull();
+    }
+
+    @Test
+    void readerOfARemovedAssetNeverSeesTheAssetThatTookItsSlotOver() throws Exception {
+        long removed = 1;
+        long successor = collidingWith(removed);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<BigDecimal> wrong = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                LatestPrice p = table.get(removed);
+                if (p != null && p.price().compareTo(new BigDecimal("1.00")) != 0) wrong.set(p.price());
+            }
+        });
+        reader.start();
+
+        for (int round = 0; round < 20_000; round++) {
+            table.priceChanged(removed, new BigDecimal("1.00"));
+            table.assetRemoved(removed);
+            table.priceChanged(successor, new BigDecimal("2.00"));
+            table.assetRemoved(successor);
+        }
+        done.set(true);
+        reader.join();
+
+        assertThat(wrong.get()).isNull();
+        assertThat(table.size()).isEqualTo(1);
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------------
+
+    private LatestPriceTable open() throws Exception {
+        LatestPriceTable opened = new LatestPriceTable(jdbcTemplate, true, dir.resolve("latest-prices.tbl").toString(),
+                SLOTS);
+        opened.open();
+        return opened;
+    }
+
+    /** Another asset ID with the same home slot, so its probe passes the first's slot. */
+    private static long collidingWith(long assetId) {
+        int shift = 64 - Integer.numberOfTrailingZeros(SLOTS);
+        long home = (assetId * 0x9E3779B97F4A7C15L) >>> shift;
+        for (long id = assetId + 1; ; id++) {
+            if ((id * 0x9E3779B97F4A7C15L) >>> shift == home) return id;
+        }
+    }
+}
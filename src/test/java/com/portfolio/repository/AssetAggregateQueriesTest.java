@@ -0,0 +1,259 @@
+package com.portfolio.repository;
+
+import com.portfolio.dto.projection.AssetTypeTotals;
+import com.portfolio.dto.projection.GroupPortfolioTotals;
+import com.portfolio.dto.projection.GroupSummary;
+import com.portfolio.dto.projection.HoldingTotals;
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetGroup;
+import com.portfolio.entity.AssetType;
+import com.portfolio.entity.Portfolio;
+import com.portfolio.entity.StockCategory;
+import com.portfolio.id.IdBlockAllocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The database-side totals (per-type totals, group summaries, group × portfolio cells) must
+ * equal the in-memory calculation they replaced: load the entities, keep the holdings, sum
+ * quantity × buyPrice and quantity × currentPrice as BigDecimals.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(IdBlockAllocator.class)
+class AssetAggregateQueriesTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private AssetGroupRepository assetGroupRepository;
+
+    private final List<Asset> assets = new ArrayList<>();
+    private final List<AssetGroup> groups = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        Portfolio growth = portfolio("Growth");
+        Portfolio income = portfolio("Income");
+        StockCategory tech = new StockCategory();
+        tech.setCategoryName("Tech");
+        em.persist(tech);
+
+        Asset a = holding(growth, "AAA", AssetType.STOCK, tech, "10.0000", "100.25", "120.10");
+        Asset b = holding(growth, "BBB", AssetType.STOCK, tech, "3.3333", "0.01", "999999.99");
+        Asset c = holding(growth, "CCC", AssetType.ETF, null, "0.0001", "45.67", "44.44");
+        Asset d = holding(income, "DDD", AssetType.BOND, null, "1234.5678", "99.99", "100.01");
+        Asset e = holding(income, "EEE", AssetType.MUTUAL_FUND, null, "7.5000", "12.34", "0.00");
+        Asset w = wishlist(growth, "WWW", AssetType.STOCK, tech, "5.0000", "77.77");
+
+        groups.add(group("Core", a, b, d, w));
+        groups.add(group("Satellite", c, e));
+        groups.add(group("Mixed", a, e, w));
+        groups.add(group("Empty"));
+
+        em.flush();
+        em.clear();
+    }
+
+    // ---------------------------------------------------------------
+    // TYPE TOTALS
+    // ---------------------------------------------------------------
+
+    @Test
+    void typeTotalsMatchInMemoryTotals() {
+        for (Long portfolioId : assets.stream().map(a -> a.getPortfolio().getPortfolioId()).distinct().toList()) {
+            List<AssetTypeTotals> totals = assetRepository.sumHoldingsByType(portfolioId);
+
+            List<Asset> holdings = holdingsOf(assets).stream()
+                    .filter(a -> a.getPortfolio().getPortfolioId().equals(portfolioId))
+                    .toList();
+            assertThat(totals).extracting(AssetTypeTotals::getAssetType)
+                    .containsExactlyInAnyOrderElementsOf(holdings.stream().map(Asset::getAssetType).distinct().toList());
+            for (AssetTypeTotals t : totals) {
+                assertMatches(t, holdings.stream().filter(a -> a.getAssetType() == t.getAssetType()).toList());
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // GROUP SUMMARIES
+    // ---------------------------------------------------------------
+
+    @Test
+    void groupSummariesMatchInMemoryTotals() {
+        List<GroupSummary> summaries = assetGroupRepository.findAllSummaries();
+
+        assertThat(summaries).extracting(GroupSummary::getGroupName)
+                .containsExactly("Core", "Empty", "Mixed", "Satellite");
+        for (GroupSummary summary : summaries) {
+            AssetGroup group = em.find(AssetGroup.class, summary.getGroupId());
+            assertThat(summary.getAssetCount()).isEqualTo(group.getAssets().size());
+            assertMatches(summary, holdingsOf(group.getAssets()));
+        }
+    }
+
+    @Test
+    void singleGroupSummaryMatchesInMemoryTotals() {
+        AssetGroup core = em.find(AssetGroup.class, groups.get(0).getGroupId());
+
+        GroupSummary summary = assetGroupRepository.findSummary(core.getGroupId()).orElseThrow();
+
+        assertThat(summary.getAssetCount()).isEqualTo(4);
+        assertMatches(summary, holdingsOf(core.getAssets()));
+    }
+
+    @Test
+    void summariesForAssetCoverEveryGroupItBelongsTo() {
+        Long assetId = assets.get(0).getAssetId();
+
+        List<GroupSummary> summaries = assetGroupRepository.findSummariesForAsset(assetId);
+
+        assertThat(summaries).extracting(GroupSummary::getGroupName).containsExactly("Core", "Mixed");
+        for (GroupSummary summary : summaries) {
+            assertMatches(summary, holdingsOf(em.find(AssetGroup.class, summary.getGroupId()).getAssets()));
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // GROUP × PORTFOLIO CELLS
+    // ---------------------------------------------------------------
+
+    @Test
+    void groupPortfolioCellsMatchInMemoryTotals() {
+        Map<String, Totals> expected = new HashMap<>();
+        for (AssetGroup g : groups) {
+            AssetGroup group = em.find(AssetGroup.class, g.getGroupId());
+            for (Asset asset : holdingsOf(group.getAssets())) {
+                expected.merge(cell(group.getGroupId(), asset.getPortfolio().getPortfolioId()),
+                        Totals.of(asset), Totals::plus);
+            }
+        }
+
+        List<GroupPortfolioTotals> cells = assetGroupRepository.sumHoldingsByGroupAndPortfolio(0, Long.MAX_VALUE);
+
+        assertThat(cells).hasSize(expected.size());
+        for (GroupPortfolioTotals actual : cells) {
+            Totals want = expected.get(cell(actual.groupId(), actual.portfolioId()));
+            assertThat(want).as("cell %s/%s", actual.groupName(), actual.portfolioName()).isNotNull();
+            assertThat(actual.holdingCount()).isEqualTo(want.count());
+            assertThat(actual.totalInvested()).isEqualByComparingTo(want.invested());
+            assertThat(actual.currentValue()).isEqualByComparingTo(want.current());
+        }
+    }
+
+    @Test
+    void partitionedCellsAddUpToTheWholeScan() {
+        long split = assets.get(2).getAssetId();
+        Map<String, GroupPortfolioTotals> merged = new HashMap<>();
+        for (GroupPortfolioTotals part : assetGroupRepository.sumHoldingsByGroupAndPortfolio(0, split)) {
+            merged.merge(cell(part.groupId(), part.portfolioId()), part, GroupPortfolioTotals::plus);
+        }
+        for (GroupPortfolioTotals part : assetGroupRepository.sumHoldingsByGroupAndPortfolio(split, Long.MAX_VALUE)) {
+            merged.merge(cell(part.groupId(), part.portfolioId()), part, GroupPortfolioTotals::plus);
+        }
+
+        List<GroupPortfolioTotals> whole = assetGroupRepository.sumHoldingsByGroupAndPortfolio(0, Long.MAX_VALUE);
+
+        assertThat(merged).hasSize(whole.size());
+        for (GroupPortfolioTotals w : whole) {
+            GroupPortfolioTotals m = merged.get(cell(w.groupId(), w.portfolioId()));
+            assertThat(m.holdingCount()).isEqualTo(w.holdingCount());
+            assertThat(m.totalInvested()).isEqualByComparingTo(w.totalInvested());
+            assertThat(m.currentValue()).isEqualByComparingTo(w.currentValue());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------------
+
+    /** The in-memory calculation the queries replaced. */
+    private record Totals(long count, BigDecimal invested, BigDecimal current) {
+
+        static final Totals ZERO = new Totals(0, BigDecimal.ZERO, BigDecimal.ZERO);
+
+        static Totals of(Asset asset) {
+            return new Totals(1, asset.getQuantity().multiply(asset.getBuyPrice()),
+                    asset.getQuantity().multiply(asset.getCurrentPrice()));
+        }
+
+        Totals plus(Totals other) {
+            return new Totals(count + other.count, invested.add(other.invested), current.add(other.current));
+        }
+    }
+
+    private static void assertMatches(HoldingTotals actual, List<Asset> holdings) {
+        Totals expected = holdings.stream().map(Totals::of).reduce(Totals.ZERO, Totals::plus);
+        assertThat(actual.getHoldingCount()).isEqualTo(expected.count());
+        assertThat(actual.getTotalInvested()).isEqualByComparingTo(expected.invested());
+        assertThat(actual.getCurrentValue()).isEqualByComparingTo(expected.current());
+    }
+
+    private static List<Asset> holdingsOf(Iterable<Asset> assets) {
+        List<Asset> holdings = new ArrayList<>();
+        for (Asset asset : assets) {
+            if (!asset.isWishlist()) holdings.add(asset);
+        }
+        return holdings;
+    }
+
+    private static String cell(Long groupId, Long portfolioId) {
+        return groupId + "/" + portfolioId;
+    }
+
+    private Portfolio portfolio(String name) {
+        Portfolio p = new Portfolio();
+        p.setPortfolioName(name);
+        p.setCreatedDate(LocalDate.now());
+        return em.persist(p);
+    }
+
+    private Asset holding(Portfolio portfolio, String name, AssetType type, StockCategory category,
+                          String quantity, String buyPrice, String currentPrice) {
+        Asset asset = new Asset();
+        asset.setPortfolio(portfolio);
+        asset.setAssetName(name);
+        asset.setAssetType(type);
+        asset.setStockCategory(category);
+        asset.setQuantity(new BigDecimal(quantity));
+        asset.setBuyPrice(new BigDecimal(buyPrice));
+        asset.setCurrentPrice(new BigDecimal(currentPrice));
+        assets.add(em.persist(asset));
+        return asset;
+    }
+
+    private Asset wishlist(Portfolio portfolio, String name, AssetType type, StockCategory category,
+                           String quantity, String currentPrice) {
+        Asset asset = holding(portfolio, name, type, category, quantity, "0", currentPrice);
+        asset.setBuyPrice(null);
+        asset.setWishlist(true);
+        return asset;
+    }
+
+    private AssetGroup group(String name, Asset... members) {
+        AssetGroup group = new AssetGroup();
+        group.setGroupName(name);
+        for (Asset member : members) group.addAsset(member);
+        return em.persist(group);
+    }
+}
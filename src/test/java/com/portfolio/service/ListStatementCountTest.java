@@ -0,0 +1,214 @@
+package com.portfolio.service;
+
+import com.portfolio.dto.request.AssetPageRequest;
+import com.portfolio.dto.response.AssetResponse;
+import com.portfolio.dto.response.CursorPageResponse;
+import com.portfolio.entity.Asset;
+import com.portfolio.entity.AssetGroup;
+import com.portfolio.entity.AssetType;
+import com.portfolio.entity.Portfolio;
+import com.portfolio.entity.StockCategory;
+import com.portfolio.repository.AssetGroupRepository;
+import com.portfolio.repository.AssetRepository;
+import com.portfolio.repository.PortfolioRepository;
+import com.portfolio.repository.StockCategoryRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The asset list, wishlist and group endpoints must issue the same number of SQL statements
+ * whatever the number of assets: the category is fetch-joined and the groups of a page are
+ * batch-loaded, so nothing is loaded once per asset.
+ *
+ * Counts are Hibernate's prepared statements, taken around the service call the controller
+ * makes (open-in-view is off, so the service transaction is all there is).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class ListStatementCountTest {
+
+    private static final int FEW = 2;
+    // 2 × MANY fills exactly one default page (limit 50)
+    private static final int MANY = 25;
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private AssetGroupService assetGroupService;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private StockCategoryRepository stockCategoryRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private AssetGroupRepository assetGroupRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Seeded few;
+    private Seeded many;
+
+    @BeforeEach
+    void seed() {
+        few = seed(FEW);
+        many = seed(MANY);
+    }
+
+    // ---------------------------------------------------------------
+    // ASSET LISTINGS
+    // ---------------------------------------------------------------
+
+    @Test
+    void assetListStatementCountDoesNotGrowWithTheAssets() {
+        long forFew = countStatements(() -> assetService.getPortfolioAssets(few.portfolioId, new AssetPageRequest()),
+                2 * FEW);
+        long forMany = countStatements(() -> assetService.getPortfolioAssets(many.portfolioId, new AssetPageRequest()),
+                2 * MANY);
+
+        // portfolio check, page with categories, groups of the page
+        assertThat(forFew).isEqualTo(3);
+        assertThat(forMany).isEqualTo(forFew);
+    }
+
+    @Test
+    void wishlistStatementCountDoesNotGrowWithTheAssets() {
+        long forFew = countStatements(() -> assetService.getWishlistAssets(few.portfolioId, new AssetPageRequest()),
+                FEW);
+        long forMany = countStatements(() -> assetService.getWishlistAssets(many.portfolioId, new AssetPageRequest()),
+                MANY);
+
+        assertThat(forFew).isEqualTo(3);
+        assertThat(forMany).isEqualTo(forFew);
+    }
+
+    // ---------------------------------------------------------------
+    // GROUPS
+    // ---------------------------------------------------------------
+
+    @Test
+    void groupMembersStatementCountDoesNotGrowWithTheMembers() {
+        long forFew = countStatements(() -> assetGroupService.getGroupMembers(few.groupId, null, new AssetPageRequest()),
+                2 * FEW);
+        long forMany = countStatements(() -> assetGroupService.getGroupMembers(many.groupId, null, new AssetPageRequest()),
+                2 * MANY);
+
+        // group check, page with categories, groups of the page
+        assertThat(forFew).isEqualTo(3);
+        assertThat(forMany).isEqualTo(forFew);
+    }
+
+    @Test
+    void groupSummaryIsOneStatementWhateverTheMembers() {
+        long forFew = countStatements(() -> assetGroupService.getGroup(few.groupId));
+        long forMany = countStatements(() -> assetGroupService.getGroup(many.groupId));
+
+        assertThat(forFew).isEqualTo(1);
+        assertThat(forMany).isEqualTo(1);
+    }
+
+    @Test
+    void allGroupsIsOneStatementWhateverTheMembers() {
+        assertThat(countStatements(assetGroupService::getAllGroups)).isEqualTo(1);
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------------
+
+    private record Seeded(Long portfolioId, Long groupId) {}
+
+    /** Prepared statements issued by {@code call}; a page result must hold {@code expectedItems}. */
+    private long countStatements(Supplier<CursorPageResponse<AssetResponse>> call, int expectedItems) {
+        Statistics statistics = statistics();
+        statistics.clear();
+        CursorPageResponse<AssetResponse> page = call.get();
+        long count = statistics.getPrepareStatementCount();
+
+        assertThat(page.getItems()).hasSize(expectedItems);
+        assertThat(page.getItems()).allSatisfy(item -> assertThat(item.getGroupNames()).hasSize(2));
+        return count;
+    }
+
+    private long countStatements(Runnable call) {
+        Statistics statistics = statistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * A portfolio with {@code n} holdings and {@code n} wishlist stocks, all in one category
+     * and all members of the same two groups.
+     */
+    private Seeded seed(int n) {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        return transactionTemplate.execute(tx -> {
+            Portfolio portfolio = new Portfolio();
+            portfolio.setPortfolioName("P-" + tag);
+            portfolio.setCreatedDate(LocalDate.now());
+            portfolioRepository.save(portfolio);
+
+            StockCategory category = new StockCategory();
+            category.setCategoryName("C-" + tag);
+            stockCategoryRepository.save(category);
+
+            List<Asset> assets = new ArrayList<>(2 * n);
+            for (int i = 0; i < 2 * n; i++) {
+                boolean wishlist = i >= n;
+                Asset asset = new Asset();
+                asset.setPortfolio(portfolio);
+                asset.setAssetName("A" + i);
+                asset.setAssetType(AssetType.STOCK);
+                asset.setStockCategory(category);
+                asset.setQuantity(new BigDecimal("1.5000"));
+                asset.setBuyPrice(wishlist ? null : new BigDecimal("10.00"));
+                asset.setCurrentPrice(new BigDecimal("12.00"));
+                asset.setWishlist(wishlist);
+                assets.add(asset);
+            }
+            assetRepository.saveAll(assets);
+
+            AssetGroup first = group("G1-" + tag, assets);
+            group("G2-" + tag, assets);
+            return new Seeded(portfolio.getPortfolioId(), first.getGroupId());
+        });
+    }
+
+    private AssetGroup group(String name, List<Asset> members) {
+        AssetGroup group = new AssetGroup();
+        group.setGroupName(name);
+        members.forEach(group::addAsset);
+        return assetGroupRepository.save(group);
+    }
+}